@@ -108,7 +108,7 @@ public class CalibrationCheckExample {
     // check that all trades have a PV of near 0
     for (int i = 0; i < results.getFirst().size(); i++) {
       Trade trade = results.getFirst().get(i);
-      Result<?> pv = results.getSecond().getItems().get(i);
+      Result<?> pv = results.getSecond().get(i, 0);
       String output = "  |--> PV for " + trade.getClass().getSimpleName() + " computed: " + pv.isSuccess();
       Object pvValue = pv.getValue();
       ArgChecker.isTrue((pvValue instanceof MultiCurrencyAmount) || (pvValue instanceof CurrencyAmount), "result type");
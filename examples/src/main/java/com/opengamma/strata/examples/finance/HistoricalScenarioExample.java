@@ -16,7 +16,6 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.SortedMap;
 
 import com.google.common.collect.ImmutableList;
@@ -39,22 +38,18 @@ import com.opengamma.strata.calc.config.Measures;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.MarketEnvironment;
 import com.opengamma.strata.calc.marketdata.config.MarketDataConfig;
-import com.opengamma.strata.calc.marketdata.scenario.PerturbationMapping;
 import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
 import com.opengamma.strata.calc.runner.Results;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.examples.marketdata.ExampleMarketDataBuilder;
 import com.opengamma.strata.function.StandardComponents;
-import com.opengamma.strata.function.marketdata.curve.CurvePointShifts;
-import com.opengamma.strata.function.marketdata.curve.CurvePointShiftsBuilder;
+import com.opengamma.strata.function.marketdata.curve.HistoricalCurveScenarios;
 import com.opengamma.strata.function.marketdata.scenario.curve.AnyDiscountCurveFilter;
 import com.opengamma.strata.function.marketdata.scenario.curve.IndexCurveFilter;
 import com.opengamma.strata.market.ShiftType;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroup;
-import com.opengamma.strata.market.curve.CurveParameterMetadata;
-import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.product.TradeAttributeType;
 import com.opengamma.strata.product.TradeInfo;
 import com.opengamma.strata.product.swap.IborRateCalculation;
@@ -77,7 +72,8 @@ import com.opengamma.strata.product.swap.SwapTrade;
  * are used to generate a scenario, later attributed to date d, containing these relative curve
  * shifts. The swap is then valued on the valuation date, applying each scenario to the base
  * snapshot from the valuation date, to produce a PV series. A P&L series is then generated from
- * this.
+ * this. The scenarios are calculated in batches, so that a long history does not require the
+ * market data for every scenario to be held in memory at once.
  * <p>
  * Instead of generating the perturbations on-the-fly from real data as in this example, the
  * scenario could be pre-generated and stored, or generated in any other way.
@@ -85,6 +81,7 @@ import com.opengamma.strata.product.swap.SwapTrade;
 public class HistoricalScenarioExample {
 
   private static final String MARKET_DATA_RESOURCE_ROOT = "example-historicalscenario-marketdata";
+  private static final int SCENARIO_BATCH_SIZE = 100;
 
   public static void main(String[] args) {
     // setup calculation runner component, which needs life-cycle management
@@ -116,12 +113,9 @@ public class HistoricalScenarioExample {
     // these curves are provided in the example data environment
     SortedMap<LocalDate, CurveGroup> historicalCurves = marketDataBuilder.loadAllRatesCurves();
 
-    // sorted list of dates for the available series of curves
-    // the entries in the P&L vector we produce will correspond to these dates
-    List<LocalDate> scenarioDates = new ArrayList<>(historicalCurves.keySet());
-
     // build the historical scenarios
-    ScenarioDefinition historicalScenarios = buildHistoricalScenarios(historicalCurves, scenarioDates);
+    // the entries in the P&L vector we produce will correspond to the scenario dates
+    HistoricalCurveScenarios historicalScenarios = buildHistoricalScenarios(historicalCurves);
 
     // build a market data snapshot for the valuation date
     // this is the base snapshot which will be perturbed by the scenarios
@@ -131,98 +125,60 @@ public class HistoricalScenarioExample {
     // the reference data, such as holidays and securities
     ReferenceData refData = ReferenceData.standard();
 
-    // calculate the results
+    // calculate the base PV, without any scenarios
     MarketDataRequirements reqs = MarketDataRequirements.of(rules, trades, columns, refData);
-    MarketEnvironment enhancedMarketData = marketDataFactory()
-        .buildMarketData(reqs, MarketDataConfig.empty(), marketSnapshot, refData, historicalScenarios);
-    Results results = runner.calculateMultipleScenarios(rules, trades, columns, enhancedMarketData, refData);
+    MarketEnvironment baseMarketData = marketDataFactory()
+        .buildMarketData(reqs, MarketDataConfig.empty(), marketSnapshot, refData, ScenarioDefinition.empty());
+    Results baseResults = runner.calculateSingleScenario(rules, trades, columns, baseMarketData, refData);
+    double basePv = ((CurrencyAmount) baseResults.get(0, 0).getValue()).getAmount();
+    NumberFormat numberFormat = new DecimalFormat("0.00", new DecimalFormatSymbols(Locale.ENGLISH));
+    System.out.println("Base PV (USD): " + numberFormat.format(basePv));
+    System.out.println();
+    System.out.println("P&L series (USD):");
 
-    // the results contain the one measure requested (Present Value) for each scenario
-    ScenarioResult<?> scenarioValuations = (ScenarioResult<?>) results.get(0, 0).getValue();
-    outputPnl(scenarioDates, scenarioValuations);
+    // calculate the results in batches of scenarios
+    // only the market data for one batch of scenarios is held in memory at any one time
+    historicalScenarios.forEachBatch(SCENARIO_BATCH_SIZE, (scenarios, firstScenarioIndex) -> {
+      MarketEnvironment enhancedMarketData = marketDataFactory()
+          .buildMarketData(reqs, MarketDataConfig.empty(), marketSnapshot, refData, scenarios);
+      Results results = runner.calculateMultipleScenarios(rules, trades, columns, enhancedMarketData, refData);
+
+      // the results contain the one measure requested (Present Value) for each scenario
+      ScenarioResult<?> scenarioValuations = (ScenarioResult<?>) results.get(0, 0).getValue();
+      for (int i = 0; i < scenarioValuations.size(); i++) {
+        double scenarioPv = ((CurrencyAmount) scenarioValuations.get(i)).getAmount();
+        double pnl = scenarioPv - basePv;
+        LocalDate scenarioDate = historicalScenarios.getScenarioDates().get(firstScenarioIndex + i);
+        System.out.println(Messages.format("{} = {}", scenarioDate, numberFormat.format(pnl)));
+      }
+    });
   }
 
-  private static ScenarioDefinition buildHistoricalScenarios(
-      Map<LocalDate, CurveGroup> historicalCurves,
-      List<LocalDate> scenarioDates) {
+  private static HistoricalCurveScenarios buildHistoricalScenarios(SortedMap<LocalDate, CurveGroup> historicalCurves) {
+    // sorted list of dates for the available series of curves
+    List<LocalDate> curveDates = new ArrayList<>(historicalCurves.keySet());
+    List<CurveGroup> curveGroups = new ArrayList<>(historicalCurves.values());
 
     // extract the curves to perturb
-    List<NodalCurve> usdDiscountCurves = scenarioDates.stream()
-        .map(date -> historicalCurves.get(date))
+    List<Curve> usdDiscountCurves = curveGroups.stream()
         .map(group -> group.findDiscountCurve(Currency.USD).get())
-        .map(NodalCurve.class::cast)
         .collect(toImmutableList());
 
-    List<NodalCurve> libor3mCurves = scenarioDates.stream()
-        .map(date -> historicalCurves.get(date))
+    List<Curve> libor3mCurves = curveGroups.stream()
         .map(group -> group.findForwardCurve(IborIndices.USD_LIBOR_3M).get())
-        .map(NodalCurve.class::cast)
         .collect(toImmutableList());
 
-    List<NodalCurve> libor6mCurves = scenarioDates.stream()
-        .map(date -> historicalCurves.get(date))
+    List<Curve> libor6mCurves = curveGroups.stream()
         .map(group -> group.findForwardCurve(IborIndices.USD_LIBOR_6M).get())
-        .map(NodalCurve.class::cast)
         .collect(toImmutableList());
 
-    // create mappings which will cause the point shift perturbations generated above
-    // to be applied to the correct curves
-    PerturbationMapping<Curve> discountCurveMappings = PerturbationMapping.of(
-        Curve.class,
-        AnyDiscountCurveFilter.INSTANCE,
-        buildShifts(usdDiscountCurves));
-
-    PerturbationMapping<Curve> libor3mMappings = PerturbationMapping.of(
-        Curve.class,
-        IndexCurveFilter.of(IborIndices.USD_LIBOR_3M),
-        buildShifts(libor3mCurves));
-
-    PerturbationMapping<Curve> libor6mMappings = PerturbationMapping.of(
-        Curve.class,
-        IndexCurveFilter.of(IborIndices.USD_LIBOR_6M),
-        buildShifts(libor6mCurves));
-
-    // create a scenario definition from these mappings
-    return ScenarioDefinition.ofMappings(
-        discountCurveMappings,
-        libor3mMappings,
-        libor6mMappings);
-  }
-
-  private static CurvePointShifts buildShifts(List<NodalCurve> historicalCurves) {
-    CurvePointShiftsBuilder builder = CurvePointShifts.builder(ShiftType.ABSOLUTE);
-
-    for (int scenarioIndex = 1; scenarioIndex < historicalCurves.size(); scenarioIndex++) {
-      NodalCurve previousCurve = historicalCurves.get(scenarioIndex - 1);
-      NodalCurve curve = historicalCurves.get(scenarioIndex);
-
-      // obtain the curve node metadata - this is used to identify a node to apply a perturbation to
-      List<CurveParameterMetadata> curveNodeMetadata = curve.getMetadata().getParameterMetadata().get();
-
-      // build up the shifts to apply to each node
-      // these are calculated as the actual change in the zero rate at that node between the two scenario dates
-      for (int curveNodeIdx = 0; curveNodeIdx < curve.getParameterCount(); curveNodeIdx++) {
-        double zeroRate = curve.getYValues().get(curveNodeIdx);
-        double previousZeroRate = previousCurve.getYValues().get(curveNodeIdx);
-        double shift = (zeroRate - previousZeroRate);
-        builder.addShift(scenarioIndex, curveNodeMetadata.get(curveNodeIdx).getIdentifier(), shift);
-      }
-    }
-    return builder.build();
-  }
-
-  private static void outputPnl(List<LocalDate> scenarioDates, ScenarioResult<?> scenarioValuations) {
-    NumberFormat numberFormat = new DecimalFormat("0.00", new DecimalFormatSymbols(Locale.ENGLISH));
-    double basePv = ((CurrencyAmount) scenarioValuations.get(0)).getAmount();
-    System.out.println("Base PV (USD): " + numberFormat.format(basePv));
-    System.out.println();
-    System.out.println("P&L series (USD):");
-    for (int i = 1; i < scenarioValuations.size(); i++) {
-      double scenarioPv = ((CurrencyAmount) scenarioValuations.get(i)).getAmount();
-      double pnl = scenarioPv - basePv;
-      LocalDate scenarioDate = scenarioDates.get(i);
-      System.out.println(Messages.format("{} = {}", scenarioDate, numberFormat.format(pnl)));
-    }
+    // the shifts are calculated as the actual change in the zero rate at each node between two dates
+    // the filters cause the shifts to be applied to the correct curves
+    return HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, curveDates)
+        .addCurve(AnyDiscountCurveFilter.INSTANCE, usdDiscountCurves)
+        .addCurve(IndexCurveFilter.of(IborIndices.USD_LIBOR_3M), libor3mCurves)
+        .addCurve(IndexCurveFilter.of(IborIndices.USD_LIBOR_6M), libor6mCurves)
+        .build();
   }
 
   //-------------------------------------------------------------------------
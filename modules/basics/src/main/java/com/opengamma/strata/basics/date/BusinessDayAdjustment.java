@@ -7,6 +7,7 @@ package com.opengamma.strata.basics.date;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -23,6 +24,7 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.basics.market.Resolvable;
 
@@ -92,6 +94,21 @@ public final class BusinessDayAdjustment
     return convention.adjust(date, holCal);
   }
 
+  /**
+   * Adjusts each date in the list as necessary if it is not a business day.
+   * <p>
+   * This is equivalent to calling {@link #adjust(LocalDate, ReferenceData)} for each date,
+   * but the holiday calendar is only looked up once.
+   * 
+   * @param dates  the dates to adjust
+   * @param refData  the reference data, used to find the holiday calendar
+   * @return the adjusted dates, in the same order as the input
+   */
+  public ImmutableList<LocalDate> adjust(List<LocalDate> dates, ReferenceData refData) {
+    HolidayCalendar holCal = calendar.resolve(refData);
+    return holCal.adjust(dates, convention);
+  }
+
   /**
    * Resolves this adjustment using the specified reference data, returning an adjuster.
    * <p>
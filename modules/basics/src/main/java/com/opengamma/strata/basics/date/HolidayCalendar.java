@@ -11,7 +11,9 @@ import java.time.LocalDate;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjuster;
 import java.time.temporal.TemporalAdjusters;
+import java.util.List;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.collect.named.Named;
 import com.opengamma.strata.collect.range.LocalDateRange;
@@ -250,6 +252,26 @@ public interface HolidayCalendar
         .count());
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Adjusts each date in the list using the specified business day convention.
+   * <p>
+   * This is equivalent to calling {@link BusinessDayConvention#adjust(LocalDate, HolidayCalendar)}
+   * for each date in turn, allowing a whole schedule of dates to be adjusted in one pass.
+   * 
+   * @param dates  the dates to adjust
+   * @param convention  the convention used to adjust each date if it does not fall on a business day
+   * @return the adjusted dates, in the same order as the input
+   * @throws IllegalArgumentException if the calculation is outside the supported range
+   */
+  public default ImmutableList<LocalDate> adjust(List<LocalDate> dates, BusinessDayConvention convention) {
+    ImmutableList.Builder<LocalDate> builder = ImmutableList.builder();
+    for (LocalDate date : dates) {
+      builder.add(convention.adjust(date, this));
+    }
+    return builder.build();
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Combines this holiday calendar with another.
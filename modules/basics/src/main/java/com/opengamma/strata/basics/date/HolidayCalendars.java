@@ -5,6 +5,9 @@
  */
 package com.opengamma.strata.basics.date;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import com.google.common.base.Splitter;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.collect.named.ExtendedEnum;
@@ -55,6 +58,10 @@ public final class HolidayCalendars {
    * The extended enum lookup from name to instance.
    */
   private static final ExtendedEnum<HolidayCalendar> ENUM_LOOKUP = ExtendedEnum.of(HolidayCalendar.class);
+  /**
+   * The cache of combined calendars by name.
+   */
+  private static final ConcurrentMap<String, HolidayCalendar> COMBINED = new ConcurrentHashMap<>();
 
   //-------------------------------------------------------------------------
   /**
@@ -69,19 +76,26 @@ public final class HolidayCalendars {
    * <p>
    * It is possible to combine two or more calendars using the '+' symbol.
    * For example, 'GBLO+USNY' will combine the separate 'GBLO' and 'USNY' calendars.
+   * Combined calendars are created once and cached by name.
    * 
    * @param uniqueName  the unique name of the calendar
    * @return the holiday calendar
    */
   public static HolidayCalendar of(String uniqueName) {
     if (uniqueName.contains("+")) {
-      return Splitter.on('+').splitToList(uniqueName).stream()
-          .map(HolidayCalendars::of)
-          .reduce(NO_HOLIDAYS, HolidayCalendar::combinedWith);
+      HolidayCalendar combined = COMBINED.get(uniqueName);
+      return combined != null ? combined : COMBINED.computeIfAbsent(uniqueName, HolidayCalendars::combined);
     }
     return ENUM_LOOKUP.lookup(uniqueName);
   }
 
+  // creates a combined calendar, broken out to aid inlining
+  private static HolidayCalendar combined(String uniqueName) {
+    return Splitter.on('+').splitToList(uniqueName).stream()
+        .map(HolidayCalendars::of)
+        .reduce(NO_HOLIDAYS, HolidayCalendar::combinedWith);
+  }
+
   /**
    * Gets the extended enum helper.
    * <p>
@@ -28,6 +28,8 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
@@ -61,6 +63,13 @@ public final class ImmutableHolidayCalendar
   // when using Integer.numberOfTrailingZeros and Integer.numberOfLeadingZeros)
   // benchmarking showed nextOrSame() and previousOrSame() do not need to be overridden
   // out-of-range and weekend-only (used in testing) are handled using exceptions to fast-path the common case
+  // combining two instances creates a single flattened instance, memoised to avoid rebuilding the lookup
+
+  /**
+   * The cache of flattened combined calendars, keyed by the identity of the two input calendars.
+   */
+  private static final Cache<CombinedKey, ImmutableHolidayCalendar> COMBINED =
+      CacheBuilder.newBuilder().maximumSize(1000).build();
 
   /**
    * The identifier, such as 'GBLO'.
@@ -151,7 +160,7 @@ public final class ImmutableHolidayCalendar
    * @return the combined calendar
    */
   public static ImmutableHolidayCalendar combined(ImmutableHolidayCalendar cal1, ImmutableHolidayCalendar cal2) {
-    // do not override combinedWith(), as this is too slow
+    // combinedWith() is overridden to use a memoised form of this method
     if (cal1 == cal2) {
       return ArgChecker.notNull(cal1, "cal1");
     }
@@ -452,6 +461,84 @@ public final class ImmutableHolidayCalendar
     throw new IllegalArgumentException("Date is outside the accepted range (year 0000 to 10,000): " + date + ", " + range);
   }
 
+  //-------------------------------------------------------------------------
+  @Override
+  public int daysBetween(LocalDate startInclusive, LocalDate endExclusive) {
+    ArgChecker.inOrderOrEqual(startInclusive, endExclusive, "startInclusive", "endExclusive");
+    try {
+      // find data for the start and end months
+      int startIndex = (startInclusive.getYear() - startYear) * 12 + startInclusive.getMonthValue() - 1;
+      int endIndex = (endExclusive.getYear() - startYear) * 12 + endExclusive.getMonthValue() - 1;
+      // mask to retain the start date and later days, and to retain days before the end date
+      int startMask = -1 << (startInclusive.getDayOfMonth() - 1);
+      int endMask = (1 << (endExclusive.getDayOfMonth() - 1)) - 1;
+      // count the set bits, which are the business days
+      // use JDK bitCount() method which is mapped to a fast intrinsic
+      if (startIndex == endIndex) {
+        return Integer.bitCount(lookup[startIndex] & startMask & endMask);
+      }
+      int count = Integer.bitCount(lookup[startIndex] & startMask);
+      for (int i = startIndex + 1; i < endIndex; i++) {
+        count += Integer.bitCount(lookup[i]);
+      }
+      return count + Integer.bitCount(lookup[endIndex] & endMask);
+
+    } catch (ArrayIndexOutOfBoundsException ex) {
+      return daysBetweenOutOfRange(startInclusive, endExclusive);
+    }
+  }
+
+  // pulled out to aid hotspot inlining
+  private int daysBetweenOutOfRange(LocalDate startInclusive, LocalDate endExclusive) {
+    return HolidayCalendar.super.daysBetween(LocalDateRange.of(startInclusive, endExclusive));
+  }
+
+  @Override
+  public int daysBetween(LocalDateRange dateRange) {
+    return daysBetween(dateRange.getStart(), dateRange.getEndExclusive());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Combines this holiday calendar with another.
+   * <p>
+   * The resulting calendar will declare a day as a business day if it is a
+   * business day in both source calendars.
+   * <p>
+   * If the other calendar is also an {@code ImmutableHolidayCalendar}, the two calendars are
+   * flattened into a single {@code ImmutableHolidayCalendar}, thus queries on the result use
+   * a single optimized lookup rather than querying each calendar in turn.
+   * The flattened calendar is memoised, thus combining the same two instances again is fast.
+   * Otherwise, the calendars are combined as per {@link HolidayCalendar#combinedWith(HolidayCalendar)}.
+   * 
+   * @param other  the other holiday calendar
+   * @return the combined calendar
+   */
+  @Override
+  public HolidayCalendar combinedWith(HolidayCalendar other) {
+    if (other instanceof ImmutableHolidayCalendar && !this.equals(other)) {
+      ImmutableHolidayCalendar otherCal = (ImmutableHolidayCalendar) other;
+      CombinedKey key = new CombinedKey(this, otherCal);
+      ImmutableHolidayCalendar cached = COMBINED.getIfPresent(key);
+      if (cached != null) {
+        return cached;
+      }
+      ImmutableHolidayCalendar flattened = flatten(this, otherCal);
+      COMBINED.put(key, flattened);
+      return flattened;
+    }
+    return HolidayCalendar.super.combinedWith(other);
+  }
+
+  // flattens two calendars, unlike combined() there is no need for the ranges to overlap
+  // any gap between the ranges is handled using the weekend days, which matches querying each calendar in turn
+  private static ImmutableHolidayCalendar flatten(ImmutableHolidayCalendar cal1, ImmutableHolidayCalendar cal2) {
+    ImmutableSortedSet<LocalDate> newHolidays =
+        ImmutableSortedSet.copyOf(Iterables.concat(cal1.holidays, cal2.holidays));
+    ImmutableSet<DayOfWeek> newWeekends = ImmutableSet.copyOf(Iterables.concat(cal1.weekendDays, cal2.weekendDays));
+    return new ImmutableHolidayCalendar(cal1.id.combinedWith(cal2.id), newHolidays, newWeekends);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public boolean equals(Object obj) {
@@ -480,6 +567,34 @@ public final class ImmutableHolidayCalendar
     return "HolidayCalendar[" + getName() + ']';
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The key used to memoise combined calendars, matching by identity.
+   */
+  private static final class CombinedKey {
+    private final ImmutableHolidayCalendar cal1;
+    private final ImmutableHolidayCalendar cal2;
+
+    private CombinedKey(ImmutableHolidayCalendar cal1, ImmutableHolidayCalendar cal2) {
+      this.cal1 = cal1;
+      this.cal2 = cal2;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof CombinedKey) {
+        CombinedKey other = (CombinedKey) obj;
+        return cal1 == other.cal1 && cal2 == other.cal2;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(cal1) * 31 + System.identityHashCode(cal2);
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
@@ -112,7 +112,7 @@ public final class ScenarioMarketDataBox<T> implements ImmutableBean, MarketData
 
   @Override
   public Class<?> getMarketDataType() {
-    return value.getValue(0).getClass();
+    return value.getMarketDataType();
   }
 
   //-------------------------------------------------------------------------
@@ -50,4 +50,16 @@ public interface ScenarioMarketDataValue<T> {
    */
   public abstract int getScenarioCount();
 
+  /**
+   * Gets the type of the market data value used in each scenario.
+   * <p>
+   * By default, this is the type of the value of the first scenario.
+   * Implementations that may not be able to provide the value of a scenario should override this method.
+   *
+   * @return the type of the market data value used in each scenario
+   */
+  public default Class<?> getMarketDataType() {
+    return getValue(0).getClass();
+  }
+
 }
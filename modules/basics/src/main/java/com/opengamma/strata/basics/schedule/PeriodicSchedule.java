@@ -636,8 +636,9 @@ public final class PeriodicSchedule
   private List<LocalDate> applyBusinessDayAdjustment(List<LocalDate> unadj, ReferenceData refData) {
     List<LocalDate> adj = new ArrayList<>(unadj.size());
     adj.add(calculatedStartDate().adjusted(refData));
-    for (int i = 1; i < unadj.size() - 1; i++) {
-      adj.add(businessDayAdjustment.adjust(unadj.get(i), refData));
+    if (unadj.size() > 2) {
+      // resolve the holiday calendar once for all the regular dates
+      adj.addAll(businessDayAdjustment.adjust(unadj.subList(1, unadj.size() - 1), refData));
     }
     adj.add(calculatedEndDate().adjusted(refData));
     return adj;
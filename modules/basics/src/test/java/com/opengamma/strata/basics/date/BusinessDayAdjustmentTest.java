@@ -16,6 +16,7 @@ import java.time.LocalDate;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.market.ReferenceData;
 
 /**
@@ -40,6 +41,12 @@ public class BusinessDayAdjustmentTest {
     assertEquals(test.resolve(REF_DATA).adjust(input), expected);
   }
 
+  @Test(dataProvider = "convention", dataProviderClass = BusinessDayConventionTest.class)
+  public void test_adjustDates(BusinessDayConvention convention, LocalDate input, LocalDate expected) {
+    BusinessDayAdjustment test = BusinessDayAdjustment.of(convention, SAT_SUN);
+    assertEquals(test.adjust(ImmutableList.of(input, input), REF_DATA), ImmutableList.of(expected, expected));
+  }
+
   public void test_noAdjust_constant() {
     BusinessDayAdjustment test = BusinessDayAdjustment.NONE;
     assertEquals(test.getConvention(), BusinessDayConventions.NO_ADJUST);
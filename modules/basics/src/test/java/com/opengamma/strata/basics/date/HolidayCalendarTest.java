@@ -301,6 +301,22 @@ public class HolidayCalendarTest {
     assertEquals(test, test2);
   }
 
+  public void test_of_combined_cached() {
+    HolidayCalendar test = HolidayCalendars.of("GBLO+USNY+EUTA");
+    assertEquals(test.getName(), "EUTA+GBLO+USNY");
+    assertEquals(test.getClass(), ImmutableHolidayCalendar.class);
+    assertSame(HolidayCalendars.of("GBLO+USNY+EUTA"), test);
+    HolidayCalendar gblo = HolidayCalendars.of("GBLO");
+    HolidayCalendar usny = HolidayCalendars.of("USNY");
+    HolidayCalendar euta = HolidayCalendars.of("EUTA");
+    LocalDate date = LocalDate.of(2015, 1, 1);
+    while (date.getYear() < 2017) {
+      boolean expected = gblo.isHoliday(date) || usny.isHoliday(date) || euta.isHoliday(date);
+      assertEquals(test.isHoliday(date), expected, date.toString());
+      date = date.plusDays(1);
+    }
+  }
+
   //-------------------------------------------------------------------------
   @DataProvider(name = "shift")
   static Object[][] data_shift() {
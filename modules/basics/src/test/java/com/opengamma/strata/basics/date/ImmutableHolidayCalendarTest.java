@@ -771,6 +771,37 @@ public class ImmutableHolidayCalendarTest {
     assertEquals(HOLCAL_MON_WED.daysBetween(LocalDateRange.of(start, end)), expected);
   }
 
+  public void test_daysBetween_acrossMonths() {
+    LocalDate start = date(2014, 6, 1);
+    LocalDate end = date(2015, 3, 1);
+    for (LocalDate s = start; s.isBefore(end); s = s.plusDays(7)) {
+      for (LocalDate e = s; e.isBefore(end); e = e.plusDays(5)) {
+        int expected = (int) LocalDateRange.of(s, e).stream().filter(HOLCAL_YEAR_END::isBusinessDay).count();
+        assertEquals(HOLCAL_YEAR_END.daysBetween(s, e), expected);
+      }
+    }
+  }
+
+  public void test_daysBetween_range() {
+    assertEquals(HOLCAL_MON_WED.daysBetween(date(2010, 1, 1), date(2010, 1, 8)), 5);
+    assertEquals(HOLCAL_MON_WED.daysBetween(date(2013, 12, 2), date(2014, 7, 14)), 160);
+    assertEquals(HOLCAL_SAT_SUN.daysBetween(FRI_2014_07_11, FRI_2014_07_18), 5);
+    assertThrowsIllegalArg(() -> HOLCAL_MON_WED.daysBetween(FRI_2014_07_18, FRI_2014_07_11));
+    assertThrowsIllegalArg(() -> HOLCAL_MON_WED.daysBetween(FRI_2014_07_11, LocalDate.MAX));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_adjust_list() {
+    ImmutableList<LocalDate> dates = ImmutableList.of(FRI_2014_07_11, SAT_2014_07_12, MON_2014_07_14, TUE_2014_07_15);
+    assertEquals(
+        HOLCAL_MON_WED.adjust(dates, BusinessDayConventions.FOLLOWING),
+        ImmutableList.of(FRI_2014_07_11, TUE_2014_07_15, TUE_2014_07_15, TUE_2014_07_15));
+    assertEquals(
+        HOLCAL_MON_WED.adjust(dates, BusinessDayConventions.PRECEDING),
+        ImmutableList.of(FRI_2014_07_11, FRI_2014_07_11, FRI_2014_07_11, TUE_2014_07_15));
+    assertEquals(HOLCAL_MON_WED.adjust(ImmutableList.of(), BusinessDayConventions.FOLLOWING), ImmutableList.of());
+  }
+
   //-------------------------------------------------------------------------
   public void test_combinedWith() {
     Iterable<LocalDate> holidays1 = Arrays.asList(WED_2014_07_16);
@@ -794,6 +825,37 @@ public class ImmutableHolidayCalendarTest {
     assertEquals(test.isHoliday(MON_2014_07_21), false);
   }
 
+  public void test_combinedWith_flattened() {
+    ImmutableHolidayCalendar base1 =
+        ImmutableHolidayCalendar.of(TEST_ID, Arrays.asList(WED_2014_07_16), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar base2 =
+        ImmutableHolidayCalendar.of(TEST_ID2, Arrays.asList(MON_2014_07_14), FRIDAY, SATURDAY);
+    HolidayCalendar test = base1.combinedWith(base2);
+    assertEquals(test.getClass(), ImmutableHolidayCalendar.class);
+    assertEquals(test, ImmutableHolidayCalendar.combined(base1, base2));
+    assertEquals(((ImmutableHolidayCalendar) test).getHolidays(), ImmutableList.of(MON_2014_07_14, WED_2014_07_16));
+    assertSame(base1.combinedWith(base2), test);
+    assertEquals(test.shift(THU_2014_07_10, 2), THU_2014_07_17);
+    assertEquals(test.next(TUE_2014_07_15), THU_2014_07_17);
+    assertEquals(test.previous(THU_2014_07_17), TUE_2014_07_15);
+  }
+
+  public void test_combinedWith_flattenedDisjointRanges() {
+    LocalDate holiday2020 = LocalDate.of(2020, 7, 15);
+    ImmutableHolidayCalendar base1 =
+        ImmutableHolidayCalendar.of(TEST_ID, Arrays.asList(WED_2014_07_16), SATURDAY, SUNDAY);
+    ImmutableHolidayCalendar base2 =
+        ImmutableHolidayCalendar.of(TEST_ID2, Arrays.asList(holiday2020), SATURDAY, SUNDAY);
+    HolidayCalendar test = base1.combinedWith(base2);
+    HolidayCalendar expected = new CombinedHolidayCalendar(base1, base2);
+    LocalDate date = LocalDate.of(2013, 1, 1);
+    while (date.getYear() < 2022) {
+      assertEquals(test.isHoliday(date), expected.isHoliday(date), date.toString());
+      date = date.plusDays(1);
+    }
+    assertEquals(test.getId(), expected.getId());
+  }
+
   public void test_combineWith_same() {
     Iterable<LocalDate> holidays = Arrays.asList(WED_2014_07_16);
     ImmutableHolidayCalendar base = ImmutableHolidayCalendar.of(TEST_ID, holidays, SATURDAY, SUNDAY);
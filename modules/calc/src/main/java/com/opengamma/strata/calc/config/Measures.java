@@ -36,6 +36,10 @@ public final class Measures {
    * Measure representing the cash flows of the calculation target.
    */
   public static final Measure CASH_FLOWS = Measure.of(StandardMeasures.CASH_FLOWS.getName());
+  /**
+   * Measure representing the Cross Gamma PV01 of the calculation target.
+   */
+  public static final Measure CROSS_GAMMA_PV01 = Measure.of(StandardMeasures.CROSS_GAMMA_PV01.getName());
   /**
    * Measure representing the currency exposure of the calculation target.
    */
@@ -21,6 +21,12 @@ final class StandardMeasures {
    * Measure representing the cash flows of the calculation target.
    */
   public static final Measure CASH_FLOWS = ImmutableMeasure.of("CashFlows");
+  /**
+   * Measure representing the Cross Gamma PV01 of the calculation target.
+   * <p>
+   * The result is a matrix across the parameters of all the curves, and as such no currency conversion is performed.
+   */
+  public static final Measure CROSS_GAMMA_PV01 = ImmutableMeasure.of("CrossGammaPV01", false);
   /**
    * Measure representing the currency exposure of the calculation target.
    */
@@ -6,7 +6,6 @@
 package com.opengamma.strata.calc.marketdata;
 
 import static com.opengamma.strata.collect.Guavate.not;
-import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
 import java.util.HashMap;
@@ -31,7 +30,6 @@ import com.opengamma.strata.calc.marketdata.function.ObservableMarketDataFunctio
 import com.opengamma.strata.calc.marketdata.function.TimeSeriesProvider;
 import com.opengamma.strata.calc.marketdata.mapping.FeedIdMapping;
 import com.opengamma.strata.calc.marketdata.mapping.MissingDataAwareFeedIdMapping;
-import com.opengamma.strata.calc.marketdata.scenario.PerturbationMapping;
 import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
 import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.result.FailureReason;
@@ -129,6 +127,33 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
       ReferenceData refData,
       ScenarioDefinition scenarioDefinition) {
 
+    return build(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition, false)
+        .getMarketEnvironment();
+  }
+
+  @Override
+  public MarketEnvironmentResult buildMarketDataResult(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      CalculationEnvironment suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    return build(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition, true);
+  }
+
+  // builds the market data, recording the build of each item if requested
+  private MarketEnvironmentResult build(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      CalculationEnvironment suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      boolean recordBuild) {
+
+    // The mappings of the scenario definition are indexed once, so each item of market data
+    // is only matched against the mappings that can apply to it
+    ScenarioMatcher scenarioMatcher = new ScenarioMatcher(scenarioDefinition);
     MarketEnvironmentBuilder dataBuilder = MarketEnvironment.builder(suppliedData.getValuationDate());
     MarketEnvironment builtData = dataBuilder.build();
 
@@ -136,6 +161,8 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
     // The children of the root represent the market data directly used in the calculations. The children
     // of those nodes represent the market data required to build that data, and so on
     MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
+    MarketDataBuildRecorder recorder =
+        recordBuild ? MarketDataBuildRecorder.of(root) : MarketDataBuildRecorder.disabled();
 
     // The leaf nodes of the dependency tree represent market data with no missing requirements for market data.
     // This includes:
@@ -158,6 +185,7 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
     while (!root.isLeaf()) {
       // Effectively final reference to buildData which can be used in a lambda expression
       MarketEnvironment marketData = builtData;
+      recorder.startStep();
 
       // The leaves of the dependency tree represent market data with no dependencies that can be built immediately
       Pair<MarketDataNode, MarketDataRequirements> pair = root.withLeavesRemoved();
@@ -187,13 +215,15 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
           .collect(toImmutableSet());
 
       // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
+      long observablesStart = recorder.time();
       Map<ObservableId, Result<Double>> observableResults = buildObservableData(observableIds);
-      MapStream.of(observableResults).forEach((id, res) -> addObservableResult(id, res, scenarioDefinition, dataBuilder));
+      recorder.record(observableResults, observablesStart, recorder.time());
+      MapStream.of(observableResults).forEach((id, res) -> addObservableResult(id, res, scenarioMatcher, dataBuilder));
 
       // Copy observable data from the supplied data to the builder, applying any matching perturbations
       leafRequirements.getObservables().stream()
           .filter(suppliedData::containsValue)
-          .forEach(id -> addValue(id, suppliedData.getValue(id), scenarioDefinition, dataBuilder));
+          .forEach(id -> addValue(id, suppliedData.getValue(id), scenarioMatcher, dataBuilder));
 
       // Non-observable data -----------------------------------------------------------------------
 
@@ -204,14 +234,14 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
           .collect(toImmutableSet());
 
       Map<MarketDataId<?>, Result<MarketDataBox<?>>> nonObservableResults =
-          buildNonObservableData(nonObservableIds, marketDataConfig, marketData, refData);
+          buildNonObservableData(nonObservableIds, marketDataConfig, marketData, refData, recorder);
 
-      MapStream.of(nonObservableResults).forEach((id, result) -> addResult(id, result, scenarioDefinition, dataBuilder));
+      MapStream.of(nonObservableResults).forEach((id, result) -> addResult(id, result, scenarioMatcher, dataBuilder));
 
       // Copy supplied data to the scenario data after applying perturbations
       leafRequirements.getNonObservables().stream()
           .filter(suppliedData::containsValue)
-          .forEach(id -> addValue(id, suppliedData.getValue(id), scenarioDefinition, dataBuilder));
+          .forEach(id -> addValue(id, suppliedData.getValue(id), scenarioMatcher, dataBuilder));
 
       // --------------------------------------------------------------------------------------------
 
@@ -221,7 +251,13 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
       // A copy of the dependency tree not including the leaf nodes
       root = pair.getFirst();
     }
-    return builtData;
+    return MarketEnvironmentResult.builder()
+        .marketEnvironment(builtData)
+        .singleValueFailures(builtData.getValueFailures())
+        .timeSeriesFailures(builtData.getTimeSeriesFailures())
+        .perturbationTime(scenarioMatcher.getPerturbationTime())
+        .buildRecords(recorder.getRecords())
+        .build();
   }
 
   /**
@@ -256,15 +292,21 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
     return Result.of(() -> marketDataFunction.build(id, marketDataConfig, suppliedData, refData));
   }
 
-  @SuppressWarnings("unchecked")
   private Map<MarketDataId<?>, Result<MarketDataBox<?>>> buildNonObservableData(
       Set<? extends MarketDataId<?>> ids,
       MarketDataConfig marketDataConfig,
       MarketEnvironment marketData,
-      ReferenceData refData) {
-
-    return ids.stream()
-        .collect(toImmutableMap(id -> id, id -> buildNonObservableData(id, marketDataConfig, marketData, refData)));
+      ReferenceData refData,
+      MarketDataBuildRecorder recorder) {
+
+    ImmutableMap.Builder<MarketDataId<?>, Result<MarketDataBox<?>>> builder = ImmutableMap.builder();
+    for (MarketDataId<?> id : ids) {
+      long start = recorder.time();
+      Result<MarketDataBox<?>> result = buildNonObservableData(id, marketDataConfig, marketData, refData);
+      recorder.record(id, start, recorder.time(), result);
+      builder.put(id, result);
+    }
+    return builder.build();
   }
 
   /**
@@ -277,19 +319,19 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
    *
    * @param id  ID of the market data value
    * @param valueResult  a result containing the market data value or details of why it couldn't be built
-   * @param scenarioDefinition  definition of a set of scenarios
+   * @param scenarioMatcher  matches the market data against the mappings of the scenario definition
    * @param builder  the value or failure details are added to this builder
    */
   private void addResult(
       MarketDataId<?> id,
       Result<MarketDataBox<?>> valueResult,
-      ScenarioDefinition scenarioDefinition,
+      ScenarioMatcher scenarioMatcher,
       MarketEnvironmentBuilder builder) {
 
     if (valueResult.isFailure()) {
       builder.addResultUnsafe(id, valueResult);
     } else {
-      addValue(id, valueResult.getValue(), scenarioDefinition, builder);
+      addValue(id, valueResult.getValue(), scenarioMatcher, builder);
     }
   }
 
@@ -303,19 +345,19 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
    *
    * @param id  ID of the market data value
    * @param valueResult  a result containing the market data value or details of why it couldn't be built
-   * @param scenarioDefinition  definition of a set of scenarios
+   * @param scenarioMatcher  matches the market data against the mappings of the scenario definition
    * @param builder  the value or failure details are added to this builder
    */
   private void addObservableResult(
       ObservableId id,
       Result<Double> valueResult,
-      ScenarioDefinition scenarioDefinition,
+      ScenarioMatcher scenarioMatcher,
       MarketEnvironmentBuilder builder) {
 
     if (valueResult.isFailure()) {
       builder.addResultUnsafe(id, Result.failure(valueResult));
     } else {
-      addValue(id, MarketDataBox.ofSingleValue(valueResult.getValue()), scenarioDefinition, builder);
+      addValue(id, MarketDataBox.ofSingleValue(valueResult.getValue()), scenarioMatcher, builder);
     }
   }
 
@@ -327,28 +369,19 @@ public final class DefaultMarketDataFactory implements MarketDataFactory {
    *
    * @param id  ID of the market data value
    * @param value  the market data value
-   * @param scenarioDefinition  definition of a set of scenarios
+   * @param scenarioMatcher  matches the market data against the mappings of the scenario definition
    * @param builder  the market data is added to this builder
    */
-  @SuppressWarnings("unchecked")
   private void addValue(
       MarketDataId<?> id,
       MarketDataBox<?> value,
-      ScenarioDefinition scenarioDefinition,
+      ScenarioMatcher scenarioMatcher,
       MarketEnvironmentBuilder builder) {
 
-    Optional<PerturbationMapping<?>> optionalMapping = scenarioDefinition.getMappings().stream()
-        .filter(m -> m.matches(id, value))
-        .findFirst();
-
-    if (optionalMapping.isPresent()) {
-      // This is definitely safe because the filter matched the value and the types of the filter and perturbation
-      // are compatible
-      PerturbationMapping<Object> mapping = (PerturbationMapping<Object>) optionalMapping.get();
-      MarketDataBox<Object> objectValue = ((MarketDataBox<Object>) value);
-      // Result.of() catches any exceptions thrown by the mapping and wraps them in a failure
-      Result<MarketDataBox<?>> result = Result.of(() -> mapping.applyPerturbation(objectValue));
-      builder.addResultUnsafe(id, result);
+    Optional<Result<MarketDataBox<?>>> perturbed = scenarioMatcher.applyPerturbation(id, value);
+
+    if (perturbed.isPresent()) {
+      builder.addResultUnsafe(id, perturbed.get());
     } else {
       builder.addValueUnsafe(id, value);
     }
@@ -0,0 +1,667 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.market.MarketDataId;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Failure;
+
+/**
+ * A record of building an item of market data.
+ * <p>
+ * This records when the market data was built, how long it took, the number of scenarios
+ * and the estimated memory used by the data, or the failure if the data could not be built.
+ * The market data is built in steps, the data built in a step only depending on the data built
+ * in earlier steps or supplied by the user. The record contains the step and the market data
+ * the item depends on, allowing the dependency tree to be analyzed.
+ * <p>
+ * Observable market data is requested in bulk at the start of each step.
+ * The time of the request is divided equally between the observable data it contains.
+ */
+@BeanDefinition(builderScope = "private")
+public final class MarketDataBuildRecord implements ImmutableBean {
+
+  /**
+   * The ID of the market data.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final MarketDataId<?> id;
+  /**
+   * The step in which the market data was built, starting from zero.
+   * <p>
+   * The market data built in a step only depends on market data built in earlier steps
+   * or supplied by the user.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int step;
+  /**
+   * The time the build of the market data started, relative to the start of building all the market data.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Duration start;
+  /**
+   * The time taken to build the market data.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Duration duration;
+  /**
+   * The number of scenarios in the market data.
+   * <p>
+   * This is one if the market data is the same in all scenarios, and zero if the market data could not be built.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int scenarioCount;
+  /**
+   * The estimated memory used by the market data, in bytes.
+   * <p>
+   * This is an approximation intended to compare items of market data.
+   * It is zero if the market data could not be built.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final long memoryEstimate;
+  /**
+   * The failure if the market data could not be built, empty if it was built.
+   */
+  @PropertyDefinition(get = "optional")
+  private final Failure failure;
+  /**
+   * The IDs of the market data this market data depends on.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableSet<MarketDataId<?>> dependencies;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param id  the ID of the market data
+   * @param step  the step in which the market data was built
+   * @param start  the time the build started, relative to the start of building all the market data
+   * @param duration  the time taken to build the market data
+   * @param scenarioCount  the number of scenarios in the market data
+   * @param memoryEstimate  the estimated memory used by the market data, in bytes
+   * @param failure  the failure if the market data could not be built, null if it was built
+   * @param dependencies  the IDs of the market data this market data depends on
+   * @return the record
+   */
+  static MarketDataBuildRecord of(
+      MarketDataId<?> id,
+      int step,
+      Duration start,
+      Duration duration,
+      int scenarioCount,
+      long memoryEstimate,
+      Failure failure,
+      Set<? extends MarketDataId<?>> dependencies) {
+
+    return new MarketDataBuildRecord(
+        id, step, start, duration, scenarioCount, memoryEstimate, failure, ImmutableSet.copyOf(dependencies));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the market data was built successfully.
+   *
+   * @return true if the market data was built
+   */
+  public boolean isSuccess() {
+    return failure == null;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code MarketDataBuildRecord}.
+   * @return the meta-bean, not null
+   */
+  public static MarketDataBuildRecord.Meta meta() {
+    return MarketDataBuildRecord.Meta.INSTANCE;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(MarketDataBuildRecord.Meta.INSTANCE);
+  }
+
+  private MarketDataBuildRecord(
+      MarketDataId<?> id,
+      int step,
+      Duration start,
+      Duration duration,
+      int scenarioCount,
+      long memoryEstimate,
+      Failure failure,
+      Set<MarketDataId<?>> dependencies) {
+    JodaBeanUtils.notNull(id, "id");
+    ArgChecker.notNegative(step, "step");
+    JodaBeanUtils.notNull(start, "start");
+    JodaBeanUtils.notNull(duration, "duration");
+    ArgChecker.notNegative(scenarioCount, "scenarioCount");
+    ArgChecker.notNegative(memoryEstimate, "memoryEstimate");
+    JodaBeanUtils.notNull(dependencies, "dependencies");
+    this.id = id;
+    this.step = step;
+    this.start = start;
+    this.duration = duration;
+    this.scenarioCount = scenarioCount;
+    this.memoryEstimate = memoryEstimate;
+    this.failure = failure;
+    this.dependencies = ImmutableSet.copyOf(dependencies);
+  }
+
+  @Override
+  public MarketDataBuildRecord.Meta metaBean() {
+    return MarketDataBuildRecord.Meta.INSTANCE;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the ID of the market data.
+   * @return the value of the property, not null
+   */
+  public MarketDataId<?> getId() {
+    return id;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the step in which the market data was built, starting from zero.
+   * <p>
+   * The market data built in a step only depends on market data built in earlier steps
+   * or supplied by the user.
+   * @return the value of the property
+   */
+  public int getStep() {
+    return step;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the time the build of the market data started, relative to the start of building all the market data.
+   * @return the value of the property, not null
+   */
+  public Duration getStart() {
+    return start;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the time taken to build the market data.
+   * @return the value of the property, not null
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of scenarios in the market data.
+   * <p>
+   * This is one if the market data is the same in all scenarios, and zero if the market data could not be built.
+   * @return the value of the property
+   */
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the estimated memory used by the market data, in bytes.
+   * <p>
+   * This is an approximation intended to compare items of market data.
+   * It is zero if the market data could not be built.
+   * @return the value of the property
+   */
+  public long getMemoryEstimate() {
+    return memoryEstimate;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the failure if the market data could not be built, empty if it was built.
+   * @return the optional value of the property, not null
+   */
+  public Optional<Failure> getFailure() {
+    return Optional.ofNullable(failure);
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the IDs of the market data this market data depends on.
+   * @return the value of the property, not null
+   */
+  public ImmutableSet<MarketDataId<?>> getDependencies() {
+    return dependencies;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      MarketDataBuildRecord other = (MarketDataBuildRecord) obj;
+      return JodaBeanUtils.equal(id, other.id) &&
+          (step == other.step) &&
+          JodaBeanUtils.equal(start, other.start) &&
+          JodaBeanUtils.equal(duration, other.duration) &&
+          (scenarioCount == other.scenarioCount) &&
+          (memoryEstimate == other.memoryEstimate) &&
+          JodaBeanUtils.equal(failure, other.failure) &&
+          JodaBeanUtils.equal(dependencies, other.dependencies);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(id);
+    hash = hash * 31 + JodaBeanUtils.hashCode(step);
+    hash = hash * 31 + JodaBeanUtils.hashCode(start);
+    hash = hash * 31 + JodaBeanUtils.hashCode(duration);
+    hash = hash * 31 + JodaBeanUtils.hashCode(scenarioCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(memoryEstimate);
+    hash = hash * 31 + JodaBeanUtils.hashCode(failure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(dependencies);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(288);
+    buf.append("MarketDataBuildRecord{");
+    buf.append("id").append('=').append(id).append(',').append(' ');
+    buf.append("step").append('=').append(step).append(',').append(' ');
+    buf.append("start").append('=').append(start).append(',').append(' ');
+    buf.append("duration").append('=').append(duration).append(',').append(' ');
+    buf.append("scenarioCount").append('=').append(scenarioCount).append(',').append(' ');
+    buf.append("memoryEstimate").append('=').append(memoryEstimate).append(',').append(' ');
+    buf.append("failure").append('=').append(failure).append(',').append(' ');
+    buf.append("dependencies").append('=').append(JodaBeanUtils.toString(dependencies));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code MarketDataBuildRecord}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code id} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<MarketDataId<?>> id = DirectMetaProperty.ofImmutable(
+        this, "id", MarketDataBuildRecord.class, (Class) MarketDataId.class);
+    /**
+     * The meta-property for the {@code step} property.
+     */
+    private final MetaProperty<Integer> step = DirectMetaProperty.ofImmutable(
+        this, "step", MarketDataBuildRecord.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code start} property.
+     */
+    private final MetaProperty<Duration> start = DirectMetaProperty.ofImmutable(
+        this, "start", MarketDataBuildRecord.class, Duration.class);
+    /**
+     * The meta-property for the {@code duration} property.
+     */
+    private final MetaProperty<Duration> duration = DirectMetaProperty.ofImmutable(
+        this, "duration", MarketDataBuildRecord.class, Duration.class);
+    /**
+     * The meta-property for the {@code scenarioCount} property.
+     */
+    private final MetaProperty<Integer> scenarioCount = DirectMetaProperty.ofImmutable(
+        this, "scenarioCount", MarketDataBuildRecord.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code memoryEstimate} property.
+     */
+    private final MetaProperty<Long> memoryEstimate = DirectMetaProperty.ofImmutable(
+        this, "memoryEstimate", MarketDataBuildRecord.class, Long.TYPE);
+    /**
+     * The meta-property for the {@code failure} property.
+     */
+    private final MetaProperty<Failure> failure = DirectMetaProperty.ofImmutable(
+        this, "failure", MarketDataBuildRecord.class, Failure.class);
+    /**
+     * The meta-property for the {@code dependencies} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableSet<MarketDataId<?>>> dependencies = DirectMetaProperty.ofImmutable(
+        this, "dependencies", MarketDataBuildRecord.class, (Class) ImmutableSet.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "id",
+        "step",
+        "start",
+        "duration",
+        "scenarioCount",
+        "memoryEstimate",
+        "failure",
+        "dependencies");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          return id;
+        case 3540684:  // step
+          return step;
+        case 109757538:  // start
+          return start;
+        case -1992012396:  // duration
+          return duration;
+        case -1203198113:  // scenarioCount
+          return scenarioCount;
+        case -2029734583:  // memoryEstimate
+          return memoryEstimate;
+        case -1086574198:  // failure
+          return failure;
+        case 503774505:  // dependencies
+          return dependencies;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends MarketDataBuildRecord> builder() {
+      return new MarketDataBuildRecord.Builder();
+    }
+
+    @Override
+    public Class<? extends MarketDataBuildRecord> beanType() {
+      return MarketDataBuildRecord.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code id} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<MarketDataId<?>> id() {
+      return id;
+    }
+
+    /**
+     * The meta-property for the {@code step} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> step() {
+      return step;
+    }
+
+    /**
+     * The meta-property for the {@code start} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Duration> start() {
+      return start;
+    }
+
+    /**
+     * The meta-property for the {@code duration} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Duration> duration() {
+      return duration;
+    }
+
+    /**
+     * The meta-property for the {@code scenarioCount} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> scenarioCount() {
+      return scenarioCount;
+    }
+
+    /**
+     * The meta-property for the {@code memoryEstimate} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Long> memoryEstimate() {
+      return memoryEstimate;
+    }
+
+    /**
+     * The meta-property for the {@code failure} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Failure> failure() {
+      return failure;
+    }
+
+    /**
+     * The meta-property for the {@code dependencies} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableSet<MarketDataId<?>>> dependencies() {
+      return dependencies;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          return ((MarketDataBuildRecord) bean).getId();
+        case 3540684:  // step
+          return ((MarketDataBuildRecord) bean).getStep();
+        case 109757538:  // start
+          return ((MarketDataBuildRecord) bean).getStart();
+        case -1992012396:  // duration
+          return ((MarketDataBuildRecord) bean).getDuration();
+        case -1203198113:  // scenarioCount
+          return ((MarketDataBuildRecord) bean).getScenarioCount();
+        case -2029734583:  // memoryEstimate
+          return ((MarketDataBuildRecord) bean).getMemoryEstimate();
+        case -1086574198:  // failure
+          return ((MarketDataBuildRecord) bean).failure;
+        case 503774505:  // dependencies
+          return ((MarketDataBuildRecord) bean).getDependencies();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code MarketDataBuildRecord}.
+   */
+  private static final class Builder extends DirectFieldsBeanBuilder<MarketDataBuildRecord> {
+
+    private MarketDataId<?> id;
+    private int step;
+    private Duration start;
+    private Duration duration;
+    private int scenarioCount;
+    private long memoryEstimate;
+    private Failure failure;
+    private Set<MarketDataId<?>> dependencies = ImmutableSet.of();
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          return id;
+        case 3540684:  // step
+          return step;
+        case 109757538:  // start
+          return start;
+        case -1992012396:  // duration
+          return duration;
+        case -1203198113:  // scenarioCount
+          return scenarioCount;
+        case -2029734583:  // memoryEstimate
+          return memoryEstimate;
+        case -1086574198:  // failure
+          return failure;
+        case 503774505:  // dependencies
+          return dependencies;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          this.id = (MarketDataId<?>) newValue;
+          break;
+        case 3540684:  // step
+          this.step = (Integer) newValue;
+          break;
+        case 109757538:  // start
+          this.start = (Duration) newValue;
+          break;
+        case -1992012396:  // duration
+          this.duration = (Duration) newValue;
+          break;
+        case -1203198113:  // scenarioCount
+          this.scenarioCount = (Integer) newValue;
+          break;
+        case -2029734583:  // memoryEstimate
+          this.memoryEstimate = (Long) newValue;
+          break;
+        case -1086574198:  // failure
+          this.failure = (Failure) newValue;
+          break;
+        case 503774505:  // dependencies
+          this.dependencies = (Set<MarketDataId<?>>) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public Builder set(MetaProperty<?> property, Object value) {
+      super.set(property, value);
+      return this;
+    }
+
+    @Override
+    public Builder setString(String propertyName, String value) {
+      setString(meta().metaProperty(propertyName), value);
+      return this;
+    }
+
+    @Override
+    public Builder setString(MetaProperty<?> property, String value) {
+      super.setString(property, value);
+      return this;
+    }
+
+    @Override
+    public Builder setAll(Map<String, ? extends Object> propertyValueMap) {
+      super.setAll(propertyValueMap);
+      return this;
+    }
+
+    @Override
+    public MarketDataBuildRecord build() {
+      return new MarketDataBuildRecord(
+          id,
+          step,
+          start,
+          duration,
+          scenarioCount,
+          memoryEstimate,
+          failure,
+          dependencies);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(288);
+      buf.append("MarketDataBuildRecord.Builder{");
+      buf.append("id").append('=').append(JodaBeanUtils.toString(id)).append(',').append(' ');
+      buf.append("step").append('=').append(JodaBeanUtils.toString(step)).append(',').append(' ');
+      buf.append("start").append('=').append(JodaBeanUtils.toString(start)).append(',').append(' ');
+      buf.append("duration").append('=').append(JodaBeanUtils.toString(duration)).append(',').append(' ');
+      buf.append("scenarioCount").append('=').append(JodaBeanUtils.toString(scenarioCount)).append(',').append(' ');
+      buf.append("memoryEstimate").append('=').append(JodaBeanUtils.toString(memoryEstimate)).append(',').append(' ');
+      buf.append("failure").append('=').append(JodaBeanUtils.toString(failure)).append(',').append(' ');
+      buf.append("dependencies").append('=').append(JodaBeanUtils.toString(dependencies));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.market.MarketDataId;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Records the building of market data, creating a {@link MarketDataBuildRecord} for each item built.
+ * <p>
+ * A disabled recorder records nothing, avoiding the cost of timing and estimating memory
+ * when the records are not required.
+ * <p>
+ * This class is mutable and not thread-safe. It is used for building a single set of market data.
+ */
+final class MarketDataBuildRecorder {
+
+  /**
+   * Whether the recorder is enabled.
+   */
+  private final boolean enabled;
+  /**
+   * The IDs of the market data each single value depends on, keyed by the ID of the value.
+   */
+  private final Map<MarketDataId<?>, Set<MarketDataId<?>>> dependencies = new HashMap<>();
+  /**
+   * The records, keyed by ID, in the order the market data was built.
+   */
+  private final Map<MarketDataId<?>, MarketDataBuildRecord> records = new LinkedHashMap<>();
+  /**
+   * The time the build started, from {@link System#nanoTime()}.
+   */
+  private final long startNanos;
+  /**
+   * The current step.
+   */
+  private int step = -1;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a recorder that records nothing.
+   *
+   * @return the recorder
+   */
+  static MarketDataBuildRecorder disabled() {
+    return new MarketDataBuildRecorder(false, null);
+  }
+
+  /**
+   * Obtains a recorder for building the market data in a dependency tree.
+   *
+   * @param root  the root of the market data dependency tree
+   * @return the recorder
+   */
+  static MarketDataBuildRecorder of(MarketDataNode root) {
+    return new MarketDataBuildRecorder(true, root);
+  }
+
+  // restricted constructor
+  private MarketDataBuildRecorder(boolean enabled, MarketDataNode root) {
+    this.enabled = enabled;
+    if (enabled) {
+      root.addValueDependencies(dependencies);
+    }
+    this.startNanos = enabled ? System.nanoTime() : 0;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Starts the next step of building the market data.
+   */
+  void startStep() {
+    step++;
+  }
+
+  /**
+   * Returns the current time for timing a build, zero if the recorder is disabled.
+   *
+   * @return the current time, from {@link System#nanoTime()}
+   */
+  long time() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the building of an item of market data.
+   *
+   * @param id  the ID of the market data
+   * @param buildStartNanos  the time the build started, from {@link #time()}
+   * @param buildEndNanos  the time the build ended, from {@link #time()}
+   * @param result  the result of building the market data
+   */
+  void record(MarketDataId<?> id, long buildStartNanos, long buildEndNanos, Result<? extends MarketDataBox<?>> result) {
+    if (!enabled) {
+      return;
+    }
+    MarketDataBuildRecord record = MarketDataBuildRecord.of(
+        id,
+        step,
+        Duration.ofNanos(buildStartNanos - startNanos),
+        Duration.ofNanos(buildEndNanos - buildStartNanos),
+        result.isSuccess() ? result.getValue().getScenarioCount() : 0,
+        result.isSuccess() ? MemoryEstimator.estimate(result.getValue()) : 0,
+        result.isFailure() ? result.getFailure() : null,
+        dependencies.getOrDefault(id, ImmutableSet.of()));
+    records.put(id, record);
+  }
+
+  /**
+   * Records the building of items of market data built together.
+   * <p>
+   * The time taken is divided equally between the items.
+   *
+   * @param results  the results of building the market data, keyed by ID
+   * @param buildStartNanos  the time the build started, from {@link #time()}
+   * @param buildEndNanos  the time the build ended, from {@link #time()}
+   */
+  void record(Map<? extends MarketDataId<?>, Result<Double>> results, long buildStartNanos, long buildEndNanos) {
+    if (!enabled || results.isEmpty()) {
+      return;
+    }
+    long nanosPerItem = (buildEndNanos - buildStartNanos) / results.size();
+    long itemStartNanos = buildStartNanos;
+    for (Map.Entry<? extends MarketDataId<?>, Result<Double>> entry : results.entrySet()) {
+      Result<MarketDataBox<Double>> result = entry.getValue().map(MarketDataBox::ofSingleValue);
+      record(entry.getKey(), itemStartNanos, itemStartNanos + nanosPerItem, result);
+      itemStartNanos += nanosPerItem;
+    }
+  }
+
+  /**
+   * Returns the records, keyed by ID, in the order the market data was built.
+   *
+   * @return the records
+   */
+  Map<MarketDataId<?>, MarketDataBuildRecord> getRecords() {
+    return ImmutableMap.copyOf(records);
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Writes market data build records in the Chrome trace event format.
+ * <p>
+ * The trace can be loaded into the Chrome browser at {@code chrome://tracing}, or another tool
+ * supporting the format, to view the build of the market data on a timeline.
+ * Each step of the build is shown as a separate thread, with an event for each item of market data.
+ * The arguments of each event contain the number of scenarios, the estimated memory and any failure.
+ */
+final class MarketDataBuildTrace {
+
+  /**
+   * Restricted constructor.
+   */
+  private MarketDataBuildTrace() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes the records as a trace.
+   *
+   * @param records  the records
+   * @param out  the output
+   * @throws IOException if an IO error occurs
+   */
+  static void write(Collection<MarketDataBuildRecord> records, Appendable out) throws IOException {
+    out.append("{\"traceEvents\":[");
+    String separator = "\n";
+    SortedSet<Integer> steps = new TreeSet<>();
+    for (MarketDataBuildRecord record : records) {
+      steps.add(record.getStep());
+      out.append(separator)
+          .append("{\"name\":").append(quote(record.getId().toString()))
+          .append(",\"cat\":").append(quote(record.getId().getClass().getSimpleName()))
+          .append(",\"ph\":\"X\",\"pid\":1,\"tid\":").append(Integer.toString(record.getStep()))
+          .append(",\"ts\":").append(micros(record.getStart()))
+          .append(",\"dur\":").append(micros(record.getDuration()))
+          .append(",\"args\":{\"scenarioCount\":").append(Integer.toString(record.getScenarioCount()))
+          .append(",\"memoryEstimate\":").append(Long.toString(record.getMemoryEstimate()))
+          .append(",\"success\":").append(Boolean.toString(record.isSuccess()));
+      if (record.getFailure().isPresent()) {
+        out.append(",\"failure\":").append(quote(record.getFailure().get().getMessage()));
+      }
+      out.append("}}");
+      separator = ",\n";
+    }
+    for (int step : steps) {
+      out.append(separator)
+          .append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(Integer.toString(step))
+          .append(",\"args\":{\"name\":\"Step ").append(Integer.toString(step)).append("\"}}");
+    }
+    out.append("\n],\"displayTimeUnit\":\"ms\"}\n");
+  }
+
+  // formats a duration as microseconds, the unit of the trace format
+  private static String micros(Duration duration) {
+    return String.format(Locale.ENGLISH, "%.3f", duration.toNanos() / 1000d);
+  }
+
+  // quotes and escapes a string as a JSON string
+  private static String quote(String str) {
+    StringBuilder buf = new StringBuilder(str.length() + 2).append('"');
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      switch (c) {
+        case '"':
+          buf.append("\\\"");
+          break;
+        case '\\':
+          buf.append("\\\\");
+          break;
+        case '\n':
+          buf.append("\\n");
+          break;
+        case '\r':
+          buf.append("\\r");
+          break;
+        case '\t':
+          buf.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            buf.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+          } else {
+            buf.append(c);
+          }
+      }
+    }
+    return buf.append('"').toString();
+  }
+
+}
@@ -62,4 +62,39 @@ public interface MarketDataFactory {
       ReferenceData refData,
       ScenarioDefinition scenarioDefinition);
 
+  /**
+   * Builds the market data required for performing calculations for a set of scenarios,
+   * returning the data along with details of how it was built.
+   * <p>
+   * This builds the same market data as {@link #buildMarketData(MarketDataRequirements, MarketDataConfig,
+   * CalculationEnvironment, ReferenceData, ScenarioDefinition)}. The result also contains the failures,
+   * the time spent applying the scenario definition and a {@link MarketDataBuildRecord} for each item
+   * of market data built. The records can be exported as a trace using
+   * {@link MarketEnvironmentResult#writeChromeTrace(Appendable)}.
+   * <p>
+   * By default, this builds the market data without recording how it was built.
+   *
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  the base market data used to derive the data for each scenario
+   * @param refData  the reference data
+   * @param scenarioDefinition  defines how the market data for each scenario is derived from the base data
+   * @return the result of building the market data required by the calculations
+   */
+  public default MarketEnvironmentResult buildMarketDataResult(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      CalculationEnvironment suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    MarketEnvironment marketData =
+        buildMarketData(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+    return MarketEnvironmentResult.builder()
+        .marketEnvironment(marketData)
+        .singleValueFailures(marketData.getValueFailures())
+        .timeSeriesFailures(marketData.getTimeSeriesFailures())
+        .build();
+  }
+
 }
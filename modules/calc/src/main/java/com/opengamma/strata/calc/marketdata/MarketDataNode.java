@@ -5,10 +5,12 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.market.MarketDataId;
@@ -163,6 +165,19 @@ class MarketDataNode {
     return Pair.of(node, requirements);
   }
 
+  /**
+   * Adds the IDs of the market data each single value in the tree depends on to a map, keyed by the ID of the value.
+   *
+   * @param dependencyMap  the map to which the IDs of the dependencies are added
+   */
+  void addValueDependencies(Map<MarketDataId<?>, Set<MarketDataId<?>>> dependencyMap) {
+    if (id != null && dataType == DataType.SINGLE_VALUE) {
+      Set<MarketDataId<?>> ids = dependencyMap.computeIfAbsent(id, k -> new HashSet<>());
+      dependencies.forEach(child -> ids.add(child.id));
+    }
+    dependencies.forEach(child -> child.addValueDependencies(dependencyMap));
+  }
+
   /**
    * Returns true if this node has no children.
    *
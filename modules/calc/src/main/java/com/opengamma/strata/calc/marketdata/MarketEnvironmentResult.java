@@ -5,6 +5,12 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -12,6 +18,7 @@ import java.util.Set;
 import org.joda.beans.Bean;
 import org.joda.beans.BeanDefinition;
 import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableDefaults;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.Property;
@@ -21,6 +28,7 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.market.MarketDataId;
 import com.opengamma.strata.collect.result.Failure;
@@ -44,6 +52,88 @@ public final class MarketEnvironmentResult implements ImmutableBean {
   @PropertyDefinition(validate = "notNull")
   private final Map<MarketDataId<?>, Failure> timeSeriesFailures;
 
+  /**
+   * The time spent applying the scenario definition to the market data.
+   * <p>
+   * This is the time spent matching the market data against the perturbation mappings
+   * and applying the matching perturbations. It is zero if there is no scenario definition.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Duration perturbationTime;
+
+  /**
+   * The records of building the market data, keyed by ID, in the order the market data was built.
+   * <p>
+   * There is a record for each single value of market data built, including the values that failed.
+   * Market data supplied by the user and time series are not included.
+   * This is empty if the market data factory does not record the build.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Map<MarketDataId<?>, MarketDataBuildRecord> buildRecords;
+
+  //-------------------------------------------------------------------------
+  @ImmutableDefaults
+  private static void applyDefaults(Builder builder) {
+    builder.perturbationTime = Duration.ZERO;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the records of the longest chain of dependent market data.
+   * <p>
+   * Each item of market data in the chain depends on the previous item, and the sum of the build times
+   * of the chain is the largest of any chain. This is the time the build would take if the market data
+   * that does not depend on each other was built in parallel, and shows the market data to optimize
+   * to reduce that time. Market data without a build record, such as supplied data, is not included.
+   *
+   * @return the records of the longest chain of dependent market data, in the order the data was built
+   */
+  public List<MarketDataBuildRecord> getCriticalPath() {
+    // the build time of the longest chain ending with each item of market data
+    Map<MarketDataId<?>, Long> chainNanos = new HashMap<>();
+    MarketDataBuildRecord last = null;
+    for (MarketDataBuildRecord record : buildRecords.values()) {
+      // records are in build order, so the dependencies of a record are processed before it
+      long longestDependency = record.getDependencies().stream()
+          .mapToLong(id -> chainNanos.getOrDefault(id, 0L))
+          .max()
+          .orElse(0);
+      long nanos = longestDependency + record.getDuration().toNanos();
+      chainNanos.put(record.getId(), nanos);
+      if (last == null || nanos > chainNanos.get(last.getId())) {
+        last = record;
+      }
+    }
+    List<MarketDataBuildRecord> path = new ArrayList<>();
+    for (MarketDataBuildRecord record = last; record != null; ) {
+      path.add(0, record);
+      record = record.getDependencies().stream()
+          .map(buildRecords::get)
+          .filter(dependency -> dependency != null)
+          .max((a, b) -> Long.compare(chainNanos.get(a.getId()), chainNanos.get(b.getId())))
+          .orElse(null);
+    }
+    return ImmutableList.copyOf(path);
+  }
+
+  /**
+   * Writes the build records in the Chrome trace event format.
+   * <p>
+   * The trace is a JSON document that can be loaded into the Chrome browser at {@code chrome://tracing},
+   * or another tool supporting the format, to view the build of the market data on a timeline.
+   * Each step of the build is shown as a separate thread.
+   *
+   * @param out  the output, typically a file writer
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public void writeChromeTrace(Appendable out) {
+    try {
+      MarketDataBuildTrace.write(buildRecords.values(), out);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
@@ -69,13 +159,19 @@ public final class MarketEnvironmentResult implements ImmutableBean {
   private MarketEnvironmentResult(
       MarketEnvironment marketEnvironment,
       Map<MarketDataId<?>, Failure> singleValueFailures,
-      Map<MarketDataId<?>, Failure> timeSeriesFailures) {
+      Map<MarketDataId<?>, Failure> timeSeriesFailures,
+      Duration perturbationTime,
+      Map<MarketDataId<?>, MarketDataBuildRecord> buildRecords) {
     JodaBeanUtils.notNull(marketEnvironment, "marketEnvironment");
     JodaBeanUtils.notNull(singleValueFailures, "singleValueFailures");
     JodaBeanUtils.notNull(timeSeriesFailures, "timeSeriesFailures");
+    JodaBeanUtils.notNull(perturbationTime, "perturbationTime");
+    JodaBeanUtils.notNull(buildRecords, "buildRecords");
     this.marketEnvironment = marketEnvironment;
     this.singleValueFailures = ImmutableMap.copyOf(singleValueFailures);
     this.timeSeriesFailures = ImmutableMap.copyOf(timeSeriesFailures);
+    this.perturbationTime = perturbationTime;
+    this.buildRecords = ImmutableMap.copyOf(buildRecords);
   }
 
   @Override
@@ -120,6 +216,31 @@ public final class MarketEnvironmentResult implements ImmutableBean {
     return timeSeriesFailures;
   }
 
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the time spent applying the scenario definition to the market data.
+   * <p>
+   * This is the time spent matching the market data against the perturbation mappings
+   * and applying the matching perturbations. It is zero if there is no scenario definition.
+   * @return the value of the property, not null
+   */
+  public Duration getPerturbationTime() {
+    return perturbationTime;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the records of building the market data, keyed by ID, in the order the market data was built.
+   * <p>
+   * There is a record for each single value of market data built, including the values that failed.
+   * Market data supplied by the user and time series are not included.
+   * This is empty if the market data factory does not record the build.
+   * @return the value of the property, not null
+   */
+  public Map<MarketDataId<?>, MarketDataBuildRecord> getBuildRecords() {
+    return buildRecords;
+  }
+
   //-----------------------------------------------------------------------
   /**
    * Returns a builder that allows this bean to be mutated.
@@ -138,7 +259,9 @@ public final class MarketEnvironmentResult implements ImmutableBean {
       MarketEnvironmentResult other = (MarketEnvironmentResult) obj;
       return JodaBeanUtils.equal(marketEnvironment, other.marketEnvironment) &&
           JodaBeanUtils.equal(singleValueFailures, other.singleValueFailures) &&
-          JodaBeanUtils.equal(timeSeriesFailures, other.timeSeriesFailures);
+          JodaBeanUtils.equal(timeSeriesFailures, other.timeSeriesFailures) &&
+          JodaBeanUtils.equal(perturbationTime, other.perturbationTime) &&
+          JodaBeanUtils.equal(buildRecords, other.buildRecords);
     }
     return false;
   }
@@ -149,16 +272,20 @@ public final class MarketEnvironmentResult implements ImmutableBean {
     hash = hash * 31 + JodaBeanUtils.hashCode(marketEnvironment);
     hash = hash * 31 + JodaBeanUtils.hashCode(singleValueFailures);
     hash = hash * 31 + JodaBeanUtils.hashCode(timeSeriesFailures);
+    hash = hash * 31 + JodaBeanUtils.hashCode(perturbationTime);
+    hash = hash * 31 + JodaBeanUtils.hashCode(buildRecords);
     return hash;
   }
 
   @Override
   public String toString() {
-    StringBuilder buf = new StringBuilder(128);
+    StringBuilder buf = new StringBuilder(192);
     buf.append("MarketEnvironmentResult{");
     buf.append("marketEnvironment").append('=').append(marketEnvironment).append(',').append(' ');
     buf.append("singleValueFailures").append('=').append(singleValueFailures).append(',').append(' ');
-    buf.append("timeSeriesFailures").append('=').append(JodaBeanUtils.toString(timeSeriesFailures));
+    buf.append("timeSeriesFailures").append('=').append(timeSeriesFailures).append(',').append(' ');
+    buf.append("perturbationTime").append('=').append(perturbationTime).append(',').append(' ');
+    buf.append("buildRecords").append('=').append(JodaBeanUtils.toString(buildRecords));
     buf.append('}');
     return buf.toString();
   }
@@ -190,6 +317,17 @@ public final class MarketEnvironmentResult implements ImmutableBean {
     @SuppressWarnings({"unchecked", "rawtypes" })
     private final MetaProperty<Map<MarketDataId<?>, Failure>> timeSeriesFailures = DirectMetaProperty.ofImmutable(
         this, "timeSeriesFailures", MarketEnvironmentResult.class, (Class) Map.class);
+    /**
+     * The meta-property for the {@code perturbationTime} property.
+     */
+    private final MetaProperty<Duration> perturbationTime = DirectMetaProperty.ofImmutable(
+        this, "perturbationTime", MarketEnvironmentResult.class, Duration.class);
+    /**
+     * The meta-property for the {@code buildRecords} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<Map<MarketDataId<?>, MarketDataBuildRecord>> buildRecords = DirectMetaProperty.ofImmutable(
+        this, "buildRecords", MarketEnvironmentResult.class, (Class) Map.class);
     /**
      * The meta-properties.
      */
@@ -197,7 +335,9 @@ public final class MarketEnvironmentResult implements ImmutableBean {
         this, null,
         "marketEnvironment",
         "singleValueFailures",
-        "timeSeriesFailures");
+        "timeSeriesFailures",
+        "perturbationTime",
+        "buildRecords");
 
     /**
      * Restricted constructor.
@@ -214,6 +354,10 @@ public final class MarketEnvironmentResult implements ImmutableBean {
           return singleValueFailures;
         case -1580093459:  // timeSeriesFailures
           return timeSeriesFailures;
+        case -676416492:  // perturbationTime
+          return perturbationTime;
+        case -180717580:  // buildRecords
+          return buildRecords;
       }
       return super.metaPropertyGet(propertyName);
     }
@@ -258,6 +402,22 @@ public final class MarketEnvironmentResult implements ImmutableBean {
       return timeSeriesFailures;
     }
 
+    /**
+     * The meta-property for the {@code perturbationTime} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Duration> perturbationTime() {
+      return perturbationTime;
+    }
+
+    /**
+     * The meta-property for the {@code buildRecords} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Map<MarketDataId<?>, MarketDataBuildRecord>> buildRecords() {
+      return buildRecords;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
@@ -268,6 +428,10 @@ public final class MarketEnvironmentResult implements ImmutableBean {
           return ((MarketEnvironmentResult) bean).getSingleValueFailures();
         case -1580093459:  // timeSeriesFailures
           return ((MarketEnvironmentResult) bean).getTimeSeriesFailures();
+        case -676416492:  // perturbationTime
+          return ((MarketEnvironmentResult) bean).getPerturbationTime();
+        case -180717580:  // buildRecords
+          return ((MarketEnvironmentResult) bean).getBuildRecords();
       }
       return super.propertyGet(bean, propertyName, quiet);
     }
@@ -292,11 +456,14 @@ public final class MarketEnvironmentResult implements ImmutableBean {
     private MarketEnvironment marketEnvironment;
     private Map<MarketDataId<?>, Failure> singleValueFailures = ImmutableMap.of();
     private Map<MarketDataId<?>, Failure> timeSeriesFailures = ImmutableMap.of();
+    private Duration perturbationTime;
+    private Map<MarketDataId<?>, MarketDataBuildRecord> buildRecords = ImmutableMap.of();
 
     /**
      * Restricted constructor.
      */
     private Builder() {
+      applyDefaults(this);
     }
 
     /**
@@ -307,6 +474,8 @@ public final class MarketEnvironmentResult implements ImmutableBean {
       this.marketEnvironment = beanToCopy.getMarketEnvironment();
       this.singleValueFailures = ImmutableMap.copyOf(beanToCopy.getSingleValueFailures());
       this.timeSeriesFailures = ImmutableMap.copyOf(beanToCopy.getTimeSeriesFailures());
+      this.perturbationTime = beanToCopy.getPerturbationTime();
+      this.buildRecords = ImmutableMap.copyOf(beanToCopy.getBuildRecords());
     }
 
     //-----------------------------------------------------------------------
@@ -319,6 +488,10 @@ public final class MarketEnvironmentResult implements ImmutableBean {
           return singleValueFailures;
         case -1580093459:  // timeSeriesFailures
           return timeSeriesFailures;
+        case -676416492:  // perturbationTime
+          return perturbationTime;
+        case -180717580:  // buildRecords
+          return buildRecords;
         default:
           throw new NoSuchElementException("Unknown property: " + propertyName);
       }
@@ -337,6 +510,12 @@ public final class MarketEnvironmentResult implements ImmutableBean {
         case -1580093459:  // timeSeriesFailures
           this.timeSeriesFailures = (Map<MarketDataId<?>, Failure>) newValue;
           break;
+        case -676416492:  // perturbationTime
+          this.perturbationTime = (Duration) newValue;
+          break;
+        case -180717580:  // buildRecords
+          this.buildRecords = (Map<MarketDataId<?>, MarketDataBuildRecord>) newValue;
+          break;
         default:
           throw new NoSuchElementException("Unknown property: " + propertyName);
       }
@@ -372,7 +551,9 @@ public final class MarketEnvironmentResult implements ImmutableBean {
       return new MarketEnvironmentResult(
           marketEnvironment,
           singleValueFailures,
-          timeSeriesFailures);
+          timeSeriesFailures,
+          perturbationTime,
+          buildRecords);
     }
 
     //-----------------------------------------------------------------------
@@ -409,14 +590,45 @@ public final class MarketEnvironmentResult implements ImmutableBean {
       return this;
     }
 
+    /**
+     * Sets the time spent applying the scenario definition to the market data.
+     * <p>
+     * This is the time spent matching the market data against the perturbation mappings
+     * and applying the matching perturbations. It is zero if there is no scenario definition.
+     * @param perturbationTime  the new value, not null
+     * @return this, for chaining, not null
+     */
+    public Builder perturbationTime(Duration perturbationTime) {
+      JodaBeanUtils.notNull(perturbationTime, "perturbationTime");
+      this.perturbationTime = perturbationTime;
+      return this;
+    }
+
+    /**
+     * Sets the records of building the market data, keyed by ID, in the order the market data was built.
+     * <p>
+     * There is a record for each single value of market data built, including the values that failed.
+     * Market data supplied by the user and time series are not included.
+     * This is empty if the market data factory does not record the build.
+     * @param buildRecords  the new value, not null
+     * @return this, for chaining, not null
+     */
+    public Builder buildRecords(Map<MarketDataId<?>, MarketDataBuildRecord> buildRecords) {
+      JodaBeanUtils.notNull(buildRecords, "buildRecords");
+      this.buildRecords = buildRecords;
+      return this;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public String toString() {
-      StringBuilder buf = new StringBuilder(128);
+      StringBuilder buf = new StringBuilder(192);
       buf.append("MarketEnvironmentResult.Builder{");
       buf.append("marketEnvironment").append('=').append(JodaBeanUtils.toString(marketEnvironment)).append(',').append(' ');
       buf.append("singleValueFailures").append('=').append(JodaBeanUtils.toString(singleValueFailures)).append(',').append(' ');
-      buf.append("timeSeriesFailures").append('=').append(JodaBeanUtils.toString(timeSeriesFailures));
+      buf.append("timeSeriesFailures").append('=').append(JodaBeanUtils.toString(timeSeriesFailures)).append(',').append(' ');
+      buf.append("perturbationTime").append('=').append(JodaBeanUtils.toString(perturbationTime)).append(',').append(' ');
+      buf.append("buildRecords").append('=').append(JodaBeanUtils.toString(buildRecords));
       buf.append('}');
       return buf.toString();
     }
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.MetaProperty;
+
+import com.google.common.collect.Sets;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Estimates the memory used by market data.
+ * <p>
+ * The estimate walks the object graph of the market data, following the properties of beans
+ * and the elements of arrays, collections and maps. Each object is counted once.
+ * The sizes assume a 64-bit JVM with compressed references. They are approximations intended
+ * to compare the memory used by items of market data, not to account for the heap exactly.
+ * <p>
+ * Objects that are neither beans, arrays, collections, maps, time series nor simple values are
+ * counted as a single object header. This includes scenario values whose data is created lazily.
+ * Enums and classes are shared and are not counted.
+ */
+final class MemoryEstimator {
+
+  /** The size of an object header. */
+  private static final int HEADER = 16;
+  /** The size of a reference. */
+  private static final int REFERENCE = 4;
+  /** The size of an entry in a map, excluding the key and value. */
+  private static final int MAP_ENTRY = 32;
+  /** The size of an entry in a time series, the date and the value. */
+  private static final int TIME_SERIES_ENTRY = 16;
+
+  /**
+   * The objects already counted.
+   */
+  private final Set<Object> counted = Sets.newIdentityHashSet();
+
+  /**
+   * Restricted constructor.
+   */
+  private MemoryEstimator() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Estimates the memory used by the market data in a box, in bytes.
+   * <p>
+   * If the box contains a single value, this is the memory used by the value.
+   * Otherwise it is the memory used by the value containing the data for all scenarios.
+   *
+   * @param box  the market data
+   * @return the estimated memory used by the market data, in bytes
+   */
+  static long estimate(MarketDataBox<?> box) {
+    MemoryEstimator estimator = new MemoryEstimator();
+    return box.isSingleValue() ? estimator.size(box.getSingleValue()) : estimator.size(box.getScenarioValue());
+  }
+
+  //-------------------------------------------------------------------------
+  // estimates the size of an object and the objects it refers to that have not been counted
+  private long size(Object obj) {
+    if (obj == null || obj instanceof Enum || obj instanceof Class || !counted.add(obj)) {
+      return 0;
+    }
+    if (obj instanceof Number || obj instanceof Boolean || obj instanceof Character) {
+      return HEADER + 8;
+    }
+    if (obj instanceof CharSequence) {
+      return HEADER * 2 + 2L * ((CharSequence) obj).length();
+    }
+    if (obj.getClass().isArray()) {
+      return arraySize(obj);
+    }
+    if (obj instanceof LocalDateDoubleTimeSeries) {
+      return HEADER * 2 + (long) TIME_SERIES_ENTRY * ((LocalDateDoubleTimeSeries) obj).size();
+    }
+    if (obj instanceof Collection) {
+      long size = HEADER * 2;
+      for (Object element : (Collection<?>) obj) {
+        size += REFERENCE + size(element);
+      }
+      return size;
+    }
+    if (obj instanceof Map) {
+      long size = HEADER * 2;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+        size += MAP_ENTRY + size(entry.getKey()) + size(entry.getValue());
+      }
+      return size;
+    }
+    if (obj instanceof Bean) {
+      return beanSize((Bean) obj);
+    }
+    return HEADER;
+  }
+
+  // estimates the size of an array
+  private long arraySize(Object array) {
+    int length = Array.getLength(array);
+    Class<?> componentType = array.getClass().getComponentType();
+    if (!componentType.isPrimitive()) {
+      long size = HEADER + (long) REFERENCE * length;
+      for (Object element : (Object[]) array) {
+        size += size(element);
+      }
+      return size;
+    }
+    if (componentType == long.class || componentType == double.class) {
+      return HEADER + 8L * length;
+    }
+    if (componentType == int.class || componentType == float.class) {
+      return HEADER + 4L * length;
+    }
+    if (componentType == short.class || componentType == char.class) {
+      return HEADER + 2L * length;
+    }
+    return HEADER + length;
+  }
+
+  // estimates the size of a bean from its properties
+  private long beanSize(Bean bean) {
+    long size = HEADER;
+    for (MetaProperty<?> property : bean.metaBean().metaPropertyIterable()) {
+      size += REFERENCE;
+      try {
+        size += size(property.get(bean));
+      } catch (RuntimeException ex) {
+        // derived properties may not be available, they do not add to the estimate
+      }
+    }
+    return size;
+  }
+
+}
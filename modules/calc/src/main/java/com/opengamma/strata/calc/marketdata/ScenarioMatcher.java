@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.primitives.Ints;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.market.MarketDataId;
+import com.opengamma.strata.calc.marketdata.scenario.MarketDataFilter;
+import com.opengamma.strata.calc.marketdata.scenario.PerturbationMapping;
+import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * Matches market data against the perturbation mappings of a scenario definition.
+ * <p>
+ * The scenario definition applies the first mapping whose filter matches an item of market data.
+ * Applying every filter to every item of market data is slow when there are many mappings and many items.
+ * Instead, this indexes the mappings so only the mappings that can match an item are applied to it:
+ * <ul>
+ *   <li>Mappings whose filter matches a single key, such as a curve name or an index, are indexed by the key.
+ *     The key of an item of market data is calculated once for each class of filter
+ *   <li>Other mappings are indexed by the type of ID, the mappings handling a type being found
+ *     the first time an ID of the type is matched
+ * </ul>
+ * The matcher also records the time spent matching and perturbing the market data.
+ * <p>
+ * This class is mutable and not thread-safe. It is used for building a single set of market data.
+ */
+final class ScenarioMatcher {
+
+  /**
+   * The perturbation mappings, in the order they are applied.
+   */
+  private final ImmutableList<PerturbationMapping<?>> mappings;
+  /**
+   * The mappings whose filter matches a single key, grouped by the class of filter and the type of ID.
+   */
+  private final ImmutableList<KeyedMappings> keyedMappings;
+  /**
+   * The indices of the mappings whose filter may match multiple keys.
+   */
+  private final int[] typeMappings;
+  /**
+   * The mappings whose filter matches a single key, keyed by the type of ID they handle.
+   */
+  private final Map<Class<?>, List<KeyedMappings>> keyedMappingsByIdType = new HashMap<>();
+  /**
+   * The indices of the mappings whose filter may match multiple keys, keyed by the type of ID they handle.
+   */
+  private final Map<Class<?>, int[]> typeMappingsByIdType = new HashMap<>();
+  /**
+   * The time spent matching and perturbing market data, in nanoseconds.
+   */
+  private long perturbationNanos;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a matcher for the mappings in a scenario definition.
+   *
+   * @param scenarioDefinition  the scenario definition
+   */
+  ScenarioMatcher(ScenarioDefinition scenarioDefinition) {
+    this.mappings = ImmutableList.copyOf(scenarioDefinition.getMappings());
+    Map<Pair<Class<?>, Class<?>>, KeyedMappings> keyed = new LinkedHashMap<>();
+    List<Integer> unkeyed = new ArrayList<>();
+    for (int i = 0; i < mappings.size(); i++) {
+      MarketDataFilter<?, ?> filter = mappings.get(i).getFilter();
+      Optional<?> key = filter.getMatchKey();
+      if (key.isPresent()) {
+        keyed.computeIfAbsent(Pair.of(filter.getClass(), filter.getMarketDataIdType()), k -> new KeyedMappings(filter))
+            .indices.put(key.get(), i);
+      } else {
+        unkeyed.add(i);
+      }
+    }
+    this.keyedMappings = ImmutableList.copyOf(keyed.values());
+    this.typeMappings = Ints.toArray(unkeyed);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Applies the first matching perturbation mapping to an item of market data.
+   * <p>
+   * If no mapping matches the market data, empty is returned.
+   * Otherwise the result contains the perturbed market data, or the failure if the perturbation failed.
+   *
+   * @param id  the ID of the market data
+   * @param value  the market data
+   * @return the result of applying the matching perturbation, empty if no mapping matches
+   */
+  @SuppressWarnings("unchecked")
+  Optional<Result<MarketDataBox<?>>> applyPerturbation(MarketDataId<?> id, MarketDataBox<?> value) {
+    if (mappings.isEmpty()) {
+      return Optional.empty();
+    }
+    long start = System.nanoTime();
+    try {
+      PerturbationMapping<?> matched = findMapping(id, value);
+      if (matched == null) {
+        return Optional.empty();
+      }
+      // This is definitely safe because the filter matched the value and the types of the filter and perturbation
+      // are compatible
+      PerturbationMapping<Object> mapping = (PerturbationMapping<Object>) matched;
+      MarketDataBox<Object> objectValue = ((MarketDataBox<Object>) value);
+      // Result.of() catches any exceptions thrown by the mapping and wraps them in a failure
+      return Optional.of(Result.of(() -> mapping.applyPerturbation(objectValue)));
+    } finally {
+      perturbationNanos += System.nanoTime() - start;
+    }
+  }
+
+  // finds the first mapping matching the market data, null if none match
+  private PerturbationMapping<?> findMapping(MarketDataId<?> id, MarketDataBox<?> value) {
+    for (int index : candidates(id, value)) {
+      PerturbationMapping<?> mapping = mappings.get(index);
+      if (mapping.matches(id, value)) {
+        return mapping;
+      }
+    }
+    return null;
+  }
+
+  // finds the indices of the mappings that may match the market data, in the order of the scenario definition
+  private int[] candidates(MarketDataId<?> id, MarketDataBox<?> value) {
+    int[] typeCandidates = typeMappingsByIdType.computeIfAbsent(id.getClass(), this::typeMappings);
+    List<KeyedMappings> keyedCandidates = keyedMappingsByIdType.computeIfAbsent(id.getClass(), this::keyedMappings);
+    if (keyedCandidates.isEmpty()) {
+      return typeCandidates;
+    }
+    IntStream indices = IntStream.of(typeCandidates);
+    for (KeyedMappings keyed : keyedCandidates) {
+      indices = IntStream.concat(indices, keyed.indices(id, value));
+    }
+    return indices.sorted().toArray();
+  }
+
+  // finds the mappings without a single key whose filter handles the type of ID
+  private int[] typeMappings(Class<?> idType) {
+    return IntStream.of(typeMappings)
+        .filter(i -> mappings.get(i).getFilter().getMarketDataIdType().isAssignableFrom(idType))
+        .toArray();
+  }
+
+  // finds the mappings with a single key whose filter handles the type of ID
+  private List<KeyedMappings> keyedMappings(Class<?> idType) {
+    return keyedMappings.stream()
+        .filter(keyed -> keyed.filter.getMarketDataIdType().isAssignableFrom(idType))
+        .collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the time spent matching and perturbing market data.
+   *
+   * @return the time spent matching and perturbing market data
+   */
+  Duration getPerturbationTime() {
+    return Duration.ofNanos(perturbationNanos);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The mappings whose filters are of the same class, handle the same type of ID and each match a single key.
+   */
+  private static final class KeyedMappings {
+
+    /** The filter used to calculate the key of the market data. */
+    private final MarketDataFilter<?, ?> filter;
+    /** The indices of the mappings, keyed by the key matched by their filter. */
+    private final ListMultimap<Object, Integer> indices = ArrayListMultimap.create();
+
+    private KeyedMappings(MarketDataFilter<?, ?> filter) {
+      this.filter = filter;
+    }
+
+    // finds the indices of the mappings whose filter matches the key of the market data
+    @SuppressWarnings("unchecked")
+    private IntStream indices(MarketDataId<?> id, MarketDataBox<?> value) {
+      // This is safe because the filter handles the type of the ID, and the value is the market data of the ID
+      MarketDataFilter<Object, MarketDataId<Object>> objectFilter =
+          (MarketDataFilter<Object, MarketDataId<Object>>) filter;
+      Object key = objectFilter.marketDataKey((MarketDataId<Object>) id, (MarketDataBox<Object>) value);
+      return indices.get(key).stream().mapToInt(Integer::intValue);
+    }
+  }
+
+}
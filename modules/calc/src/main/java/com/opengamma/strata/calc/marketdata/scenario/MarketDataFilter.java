@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.calc.marketdata.scenario;
 
+import java.util.Optional;
+
 import com.opengamma.strata.basics.market.MarketDataBox;
 import com.opengamma.strata.basics.market.MarketDataId;
 
@@ -32,6 +34,41 @@ public interface MarketDataFilter<T, I extends MarketDataId<T>> {
    */
   public abstract Class<?> getMarketDataIdType();
 
+  /**
+   * Returns the key of the market data matched by this filter, if it only matches market data with a single key.
+   * <p>
+   * When building market data for scenarios, the filters are indexed by the type of ID they handle.
+   * A filter returning a key is also indexed by the key, so it is only applied to the market data whose key,
+   * as returned by {@link #marketDataKey(MarketDataId, MarketDataBox)}, is equal.
+   * This avoids applying every filter to every item of market data when there are many filters
+   * that each match a single item, such as the curve with a name.
+   * <p>
+   * A filter returning a key must not match market data with a different key.
+   * By default, this returns empty, meaning the filter may match any market data of the type of ID it handles.
+   *
+   * @return the key of the market data matched by this filter, empty if it may match market data with any key
+   */
+  public default Optional<?> getMatchKey() {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the key of an item of market data, which is compared to the key returned by {@link #getMatchKey()}.
+   * <p>
+   * This is only invoked if {@link #getMatchKey()} returns a key. The key of the market data must not depend
+   * on the state of the filter, as it is calculated once for all the filters of the same class
+   * handling the same type of ID.
+   * <p>
+   * By default, this returns the ID of the market data.
+   *
+   * @param marketDataId  the ID of a piece of market data
+   * @param marketData  the market data value
+   * @return the key of the market data
+   */
+  public default Object marketDataKey(I marketDataId, MarketDataBox<T> marketData) {
+    return marketDataId;
+  }
+
   /**
    * Applies the filter to a market data ID and the corresponding market data value
    * and returns true if the filter matches.
@@ -25,7 +25,12 @@ public abstract class AggregatingCalculationListener<T>
 
   @Override
   public final void calculationsComplete() {
-    future.complete(createAggregateResult());
+    // an exception creating the result is reported by the future, otherwise the result would never be available
+    try {
+      future.complete(createAggregateResult());
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+    }
   }
 
   /**
@@ -59,6 +64,7 @@ public abstract class AggregatingCalculationListener<T>
    * Invoked to create the aggregate result when the individual calculations are complete.
    * <p>
    * This is guaranteed to be invoked after all results have been passed to {@link #resultReceived}.
+   * If this method throws an exception, it is thrown by {@link #result()} wrapped in a {@code RuntimeException}.
    *
    * @return the aggregate result of all the calculations
    */
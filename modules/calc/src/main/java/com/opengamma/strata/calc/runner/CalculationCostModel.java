@@ -0,0 +1,286 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.config.Measures;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.io.CsvFile;
+import com.opengamma.strata.collect.io.CsvOutput;
+import com.opengamma.strata.collect.io.CsvRow;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * A model of the cost of calculation tasks, used to execute the most expensive tasks first.
+ * <p>
+ * When the tasks are executed in the order of the targets, a few expensive tasks at the end of the list
+ * can determine the time taken by the run while the other threads are idle. Executing the most expensive
+ * tasks first allows the cheaper tasks to fill the threads while the expensive ones are running.
+ * <p>
+ * The cost of a task is the estimated time to calculate a scenario multiplied by the number of scenarios.
+ * The time is learned from the {@link CalculationMetrics} of previous runs, for each function type and measure.
+ * Until a function and measure have been timed, the time is seeded from the measure, sensitivities being
+ * more expensive than present values, multiplied by the complexity of the target.
+ * The complexity is provided by the application, for example the number of payment periods of a trade.
+ * When the time is learned, the complexity is used to distinguish the tasks using the same function.
+ * <p>
+ * The model is a {@link CalculationMetricsSink}, learning from the metrics it receives.
+ * A runner created by {@link CalculationTaskRunner#ofCostOrdered} orders the tasks using the model
+ * and passes it the metrics of each run. The learned times can be saved to a small file
+ * and loaded in a later process.
+ * <p>
+ * This class is mutable and thread-safe.
+ */
+public final class CalculationCostModel implements CalculationMetricsSink {
+
+  /**
+   * The seed time to calculate a scenario of a measure with a weight of one, in nanoseconds.
+   */
+  private static final double SEED_NANOS = 50_000;
+  /**
+   * The weight of the time learned from a run, the remainder being the weight of the previous time.
+   */
+  private static final double LEARNING_WEIGHT = 0.5;
+  /**
+   * The relative cost of the measures whose cost differs from a present value, keyed by measure name.
+   */
+  private static final ImmutableMap<String, Double> MEASURE_WEIGHTS = ImmutableMap.<String, Double>builder()
+      .put(Measures.EXPLAIN_PRESENT_VALUE.getName(), 2d)
+      .put(Measures.PV01.getName(), 4d)
+      .put(Measures.BUCKETED_PV01.getName(), 4d)
+      .put(Measures.IR01_PARALLEL_PAR.getName(), 10d)
+      .put(Measures.IR01_PARALLEL_ZERO.getName(), 10d)
+      .put(Measures.IR01_BUCKETED_PAR.getName(), 20d)
+      .put(Measures.IR01_BUCKETED_ZERO.getName(), 20d)
+      .put(Measures.CS01_PARALLEL_PAR.getName(), 10d)
+      .put(Measures.CS01_PARALLEL_HAZARD.getName(), 10d)
+      .put(Measures.CS01_BUCKETED_PAR.getName(), 30d)
+      .put(Measures.CS01_BUCKETED_HAZARD.getName(), 30d)
+      .put(Measures.RECOVERY01.getName(), 4d)
+      .put(Measures.JUMP_TO_DEFAULT.getName(), 4d)
+      .put(Measures.BUCKETED_GAMMA_PV01.getName(), 30d)
+      .put(Measures.CROSS_GAMMA_PV01.getName(), 50d)
+      .build();
+  /**
+   * The header of the function type column in the file.
+   */
+  private static final String FUNCTION_HEADER = "Function";
+  /**
+   * The header of the measure column in the file.
+   */
+  private static final String MEASURE_HEADER = "Measure";
+  /**
+   * The header of the time column in the file.
+   */
+  private static final String NANOS_HEADER = "NanosPerScenario";
+
+  /**
+   * The complexity of a target, relative to a target with a complexity of one.
+   */
+  private final ToDoubleFunction<? super CalculationTarget> targetComplexity;
+  /**
+   * The learned time to calculate a scenario, in nanoseconds, keyed by function type name and measure name.
+   */
+  private final ConcurrentMap<Pair<String, String>, Double> learnedNanos = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a cost model where all targets have the same complexity.
+   *
+   * @return the cost model
+   */
+  public static CalculationCostModel standard() {
+    return new CalculationCostModel(target -> 1d);
+  }
+
+  /**
+   * Obtains a cost model specifying the complexity of the targets.
+   * <p>
+   * The complexity is relative to a target with a complexity of one, and must not be negative.
+   * For example, it could be the number of payment periods of a trade.
+   *
+   * @param targetComplexity  the function providing the complexity of a target
+   * @return the cost model
+   */
+  public static CalculationCostModel of(ToDoubleFunction<? super CalculationTarget> targetComplexity) {
+    return new CalculationCostModel(ArgChecker.notNull(targetComplexity, "targetComplexity"));
+  }
+
+  // restricted constructor
+  private CalculationCostModel(ToDoubleFunction<? super CalculationTarget> targetComplexity) {
+    this.targetComplexity = targetComplexity;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Orders the tasks by their estimated cost, most expensive first.
+   * <p>
+   * The tasks with the same estimated cost remain in the order of the list.
+   *
+   * @param tasks  the tasks
+   * @param scenarioCount  the number of scenarios calculated by each task
+   * @return the tasks, most expensive first
+   */
+  public ImmutableList<CalculationTask> order(List<CalculationTask> tasks, int scenarioCount) {
+    double[] costs = estimateCosts(tasks, scenarioCount);
+    return IntStream.range(0, tasks.size())
+        .boxed()
+        .sorted(Comparator.comparingDouble((Integer i) -> costs[i]).reversed())
+        .map(tasks::get)
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Estimates the cost of each task, in nanoseconds.
+   *
+   * @param tasks  the tasks
+   * @param scenarioCount  the number of scenarios calculated by each task
+   * @return the estimated cost of each task
+   */
+  double[] estimateCosts(List<CalculationTask> tasks, int scenarioCount) {
+    int scenarios = Math.max(scenarioCount, 1);
+    double[] complexities = new double[tasks.size()];
+    Map<Pair<String, String>, double[]> complexityTotals = new HashMap<>();
+    for (int i = 0; i < tasks.size(); i++) {
+      CalculationTask task = tasks.get(i);
+      complexities[i] = Math.max(targetComplexity.applyAsDouble(task.getTarget()), 0);
+      double[] total = complexityTotals.computeIfAbsent(key(task), k -> new double[2]);
+      total[0] += complexities[i];
+      total[1]++;
+    }
+    double[] costs = new double[tasks.size()];
+    for (int i = 0; i < tasks.size(); i++) {
+      CalculationTask task = tasks.get(i);
+      Pair<String, String> key = key(task);
+      Double learned = learnedNanos.get(key);
+      if (learned != null) {
+        // the learned time is the mean over the targets, scaled by the complexity relative to the mean
+        double[] total = complexityTotals.get(key);
+        double meanComplexity = total[0] / total[1];
+        double relativeComplexity = meanComplexity == 0 ? 1 : complexities[i] / meanComplexity;
+        costs[i] = learned * relativeComplexity * scenarios;
+      } else {
+        double weight = MEASURE_WEIGHTS.getOrDefault(task.getMeasure().getName(), 1d);
+        costs[i] = SEED_NANOS * weight * complexities[i] * scenarios;
+      }
+    }
+    return costs;
+  }
+
+  // the key of the learned time of a task
+  private static Pair<String, String> key(CalculationTask task) {
+    return Pair.of(task.getFunction().getClass().getName(), task.getMeasure().getName());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Learns the time taken by each function and measure from the metrics of a run.
+   * <p>
+   * The time learned from the run is blended with the time learned from the previous runs.
+   *
+   * @param metrics  the metrics of the run
+   */
+  @Override
+  public void metricsReceived(CalculationMetrics metrics) {
+    int scenarios = Math.max(metrics.getScenarioCount(), 1);
+    for (FunctionMetrics function : metrics.getFunctions()) {
+      double nanos = function.getLatency().getMean().toNanos() / (double) scenarios;
+      learnedNanos.merge(
+          Pair.of(function.getFunctionType().getName(), function.getMeasure().getName()),
+          nanos,
+          (previous, latest) -> previous * (1 - LEARNING_WEIGHT) + latest * LEARNING_WEIGHT);
+    }
+  }
+
+  /**
+   * Gets the learned time to calculate a scenario, in nanoseconds,
+   * keyed by the function type name and the measure name.
+   *
+   * @return the learned times
+   */
+  public ImmutableMap<Pair<String, String>, Double> getLearnedCosts() {
+    return ImmutableMap.copyOf(learnedNanos);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Loads the learned times from a file written by {@link #save(Path)}.
+   * <p>
+   * The times in the file replace the learned times of the same function and measure.
+   * If the file does not exist, the model is unchanged.
+   *
+   * @param file  the file
+   * @throws UncheckedIOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is invalid
+   */
+  public void load(Path file) {
+    if (!Files.exists(file)) {
+      return;
+    }
+    CsvFile csv = CsvFile.of(com.google.common.io.Files.asCharSource(file.toFile(), StandardCharsets.UTF_8), true);
+    for (CsvRow row : csv.rows()) {
+      String nanosStr = row.getField(NANOS_HEADER);
+      double nanos;
+      try {
+        nanos = Double.parseDouble(nanosStr);
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException(Messages.format("Invalid time '{}' in file: {}", nanosStr, file), ex);
+      }
+      learnedNanos.put(Pair.of(row.getField(FUNCTION_HEADER), row.getField(MEASURE_HEADER)), nanos);
+    }
+  }
+
+  /**
+   * Saves the learned times to a file, replacing the file if it exists.
+   * <p>
+   * The file is a CSV file with a row for each function type and measure.
+   *
+   * @param file  the file
+   * @throws UncheckedIOException if the file cannot be written
+   */
+  public void save(Path file) {
+    List<List<String>> lines = new ArrayList<>();
+    lines.add(ImmutableList.of(FUNCTION_HEADER, MEASURE_HEADER, NANOS_HEADER));
+    learnedNanos.entrySet().stream()
+        .sorted(Comparator.comparing((Map.Entry<Pair<String, String>, Double> e) -> e.getKey().getFirst())
+            .thenComparing(e -> e.getKey().getSecond()))
+        .forEach(e -> lines.add(ImmutableList.of(
+            e.getKey().getFirst(), e.getKey().getSecond(), Long.toString(Math.round(e.getValue())))));
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      new CsvOutput(writer, "\n").writeLines(lines, false);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("CalculationCostModel[learned={}]", learnedNanos.size());
+  }
+
+}
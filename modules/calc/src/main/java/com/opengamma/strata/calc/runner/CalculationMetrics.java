@@ -0,0 +1,312 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * The metrics of a run of calculation tasks.
+ * <p>
+ * This contains the time taken by the run and the throughput of the tasks,
+ * the time the tasks waited to be executed, the time taken by the tasks using each function
+ * to calculate each measure, and the time each thread spent executing tasks.
+ * <p>
+ * The metrics are recorded by a {@link CalculationTaskRunner} created with a {@link CalculationMetricsSink},
+ * and passed to the sink when the tasks of a run are complete.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CalculationMetrics {
+
+  /**
+   * The number of tasks.
+   */
+  private final long taskCount;
+  /**
+   * The number of scenarios calculated by each task.
+   */
+  private final int scenarioCount;
+  /**
+   * The time taken by the run, from the submission of the first task to the completion of the last.
+   */
+  private final Duration elapsedTime;
+  /**
+   * The time the tasks waited to be executed after being submitted.
+   */
+  private final LatencyHistogram queueWait;
+  /**
+   * The metrics of the tasks using each function to calculate each measure, slowest first.
+   */
+  private final ImmutableList<FunctionMetrics> functions;
+  /**
+   * The time spent by each thread executing tasks, keyed by thread name.
+   */
+  private final ImmutableMap<String, Duration> threadBusyTimes;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   *
+   * @param taskCount  the number of tasks
+   * @param scenarioCount  the number of scenarios calculated by each task
+   * @param elapsedTime  the time taken by the run
+   * @param queueWait  the time the tasks waited to be executed
+   * @param functions  the metrics of the tasks using each function to calculate each measure
+   * @param threadBusyTimes  the time spent by each thread executing tasks, keyed by thread name
+   */
+  CalculationMetrics(
+      long taskCount,
+      int scenarioCount,
+      Duration elapsedTime,
+      LatencyHistogram queueWait,
+      List<FunctionMetrics> functions,
+      Map<String, Duration> threadBusyTimes) {
+
+    this.taskCount = taskCount;
+    this.scenarioCount = scenarioCount;
+    this.elapsedTime = elapsedTime;
+    this.queueWait = queueWait;
+    this.functions = ImmutableList.copyOf(functions);
+    this.threadBusyTimes = ImmutableMap.copyOf(threadBusyTimes);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of tasks.
+   *
+   * @return the number of tasks
+   */
+  public long getTaskCount() {
+    return taskCount;
+  }
+
+  /**
+   * Gets the number of scenarios calculated by each task.
+   *
+   * @return the number of scenarios
+   */
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  /**
+   * Gets the time taken by the run, from the submission of the first task to the completion of the last.
+   *
+   * @return the time taken by the run
+   */
+  public Duration getElapsedTime() {
+    return elapsedTime;
+  }
+
+  /**
+   * Gets the throughput of the run, in tasks per second.
+   *
+   * @return the number of tasks completed per second
+   */
+  public double getThroughput() {
+    long nanos = elapsedTime.toNanos();
+    return nanos == 0 ? 0 : taskCount * 1e9 / nanos;
+  }
+
+  /**
+   * Gets the histogram of the time the tasks waited to be executed after being submitted.
+   *
+   * @return the time the tasks waited to be executed
+   */
+  public LatencyHistogram getQueueWait() {
+    return queueWait;
+  }
+
+  /**
+   * Gets the metrics of the tasks using each function to calculate each measure.
+   * <p>
+   * The metrics are sorted by the total time taken by the tasks, slowest first.
+   *
+   * @return the metrics of each function and measure
+   */
+  public ImmutableList<FunctionMetrics> getFunctions() {
+    return functions;
+  }
+
+  /**
+   * Gets the time spent by each thread executing tasks, keyed by thread name.
+   *
+   * @return the time spent by each thread executing tasks
+   */
+  public ImmutableMap<String, Duration> getThreadBusyTimes() {
+    return threadBusyTimes;
+  }
+
+  /**
+   * Gets the utilization of each thread, keyed by thread name.
+   * <p>
+   * This is the fraction of the elapsed time of the run that the thread spent executing tasks.
+   *
+   * @return the utilization of each thread, from 0 to 1
+   */
+  public ImmutableMap<String, Double> getThreadUtilization() {
+    long elapsedNanos = elapsedTime.toNanos();
+    return threadBusyTimes.entrySet().stream()
+        .collect(toImmutableMap(
+            e -> e.getKey(),
+            e -> elapsedNanos == 0 ? 0d : Math.min(1d, e.getValue().toNanos() / (double) elapsedNanos)));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a multi-line summary of the metrics, suitable for logging.
+   *
+   * @return the summary
+   */
+  public String summary() {
+    StringBuilder buf = new StringBuilder();
+    buf.append(Messages.format(
+        "Calculated {} {} with {} {} in {} ({} tasks/s), queue wait {}",
+        taskCount,
+        taskCount == 1 ? "task" : "tasks",
+        scenarioCount,
+        scenarioCount == 1 ? "scenario" : "scenarios",
+        elapsedTime,
+        format(getThroughput()),
+        queueWait));
+    for (FunctionMetrics function : functions) {
+      buf.append(System.lineSeparator()).append("  ").append(function);
+    }
+    for (Map.Entry<String, Double> entry : getThreadUtilization().entrySet()) {
+      buf.append(System.lineSeparator())
+          .append("  ").append(entry.getKey()).append(" utilization ").append(format(entry.getValue()));
+    }
+    return buf.toString();
+  }
+
+  /**
+   * Writes the metrics as JSON.
+   * <p>
+   * Times are written in microseconds.
+   *
+   * @param out  the output
+   * @throws IOException if an IO error occurs
+   */
+  public void writeJson(Appendable out) throws IOException {
+    out.append("{\"taskCount\":").append(Long.toString(taskCount))
+        .append(",\"scenarioCount\":").append(Integer.toString(scenarioCount))
+        .append(",\"elapsedMicros\":").append(micros(elapsedTime))
+        .append(",\"throughput\":").append(format(getThroughput()))
+        .append(",\"queueWait\":");
+    writeJson(queueWait, out);
+    out.append(",\"functions\":[");
+    String separator = "";
+    for (FunctionMetrics function : functions) {
+      out.append(separator)
+          .append("\n{\"function\":").append(quote(function.getFunctionType().getName()))
+          .append(",\"measure\":").append(quote(function.getMeasure().toString()))
+          .append(",\"failureCount\":").append(Long.toString(function.getFailureCount()))
+          .append(",\"marketDataMicros\":").append(micros(function.getMarketDataTime()))
+          .append(",\"calculationMicros\":").append(micros(function.getCalculationTime()))
+          .append(",\"currencyConversionMicros\":").append(micros(function.getCurrencyConversionTime()))
+          .append(",\"latency\":");
+      writeJson(function.getLatency(), out);
+      out.append('}');
+      separator = ",";
+    }
+    out.append("],\"threads\":[");
+    separator = "";
+    ImmutableMap<String, Double> utilization = getThreadUtilization();
+    for (Map.Entry<String, Duration> entry : threadBusyTimes.entrySet()) {
+      out.append(separator)
+          .append("\n{\"name\":").append(quote(entry.getKey()))
+          .append(",\"busyMicros\":").append(micros(entry.getValue()))
+          .append(",\"utilization\":").append(format(utilization.get(entry.getKey())))
+          .append('}');
+      separator = ",";
+    }
+    out.append("]}\n");
+  }
+
+  // writes a histogram as JSON
+  private static void writeJson(LatencyHistogram histogram, Appendable out) throws IOException {
+    out.append("{\"count\":").append(Long.toString(histogram.getCount()))
+        .append(",\"totalMicros\":").append(micros(histogram.getTotal()))
+        .append(",\"meanMicros\":").append(micros(histogram.getMean()))
+        .append(",\"p50Micros\":").append(micros(histogram.getPercentile(50)))
+        .append(",\"p90Micros\":").append(micros(histogram.getPercentile(90)))
+        .append(",\"p99Micros\":").append(micros(histogram.getPercentile(99)))
+        .append(",\"maxMicros\":").append(micros(histogram.getMax()))
+        .append('}');
+  }
+
+  // formats a duration as microseconds
+  private static String micros(Duration duration) {
+    return format(duration.toNanos() / 1000d);
+  }
+
+  // formats a number
+  private static String format(double value) {
+    return String.format(Locale.ENGLISH, "%.3f", value);
+  }
+
+  // quotes and escapes a string as a JSON string
+  private static String quote(String str) {
+    StringBuilder buf = new StringBuilder(str.length() + 2).append('"');
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c == '"' || c == '\\') {
+        buf.append('\\').append(c);
+      } else if (c < 0x20) {
+        buf.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+      } else {
+        buf.append(c);
+      }
+    }
+    return buf.append('"').toString();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof CalculationMetrics) {
+      CalculationMetrics other = (CalculationMetrics) obj;
+      return taskCount == other.taskCount &&
+          scenarioCount == other.scenarioCount &&
+          elapsedTime.equals(other.elapsedTime) &&
+          queueWait.equals(other.queueWait) &&
+          functions.equals(other.functions) &&
+          threadBusyTimes.equals(other.threadBusyTimes);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(taskCount, scenarioCount, elapsedTime, queueWait, functions, threadBusyTimes);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "CalculationMetrics[tasks={}, scenarios={}, elapsed={}, functions={}, threads={}]",
+        taskCount,
+        scenarioCount,
+        elapsedTime,
+        functions.size(),
+        threadBusyTimes.size());
+  }
+
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.opengamma.strata.basics.market.MarketData;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.market.MarketDataKey;
+import com.opengamma.strata.basics.market.ObservableKey;
+import com.opengamma.strata.calc.config.Measure;
+import com.opengamma.strata.calc.marketdata.CalculationMarketData;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Records the metrics of a run of calculation tasks, passing them to a sink when the run is complete.
+ * <p>
+ * The times are recorded using atomic counters, keyed by function type, measure and thread,
+ * so the cost of recording is a few counter updates for each task.
+ * The time spent looking up market data is measured by decorating the market data passed to the function.
+ * <p>
+ * A disabled recorder records nothing, avoiding the cost of the timing when no sink is configured.
+ * <p>
+ * This class is thread-safe and is used for a single run of the calculation tasks.
+ */
+final class CalculationMetricsRecorder {
+
+  private static final Logger log = LoggerFactory.getLogger(CalculationMetricsRecorder.class);
+
+  /**
+   * The recorder that records nothing.
+   */
+  private static final CalculationMetricsRecorder DISABLED = new CalculationMetricsRecorder(null, 0, 0);
+
+  /**
+   * The sink receiving the metrics, null if the recorder is disabled.
+   */
+  private final CalculationMetricsSink sink;
+  /**
+   * The number of tasks in the run.
+   */
+  private final long taskCount;
+  /**
+   * The number of scenarios calculated by each task.
+   */
+  private final int scenarioCount;
+  /**
+   * The time the run started, from {@link System#nanoTime()}.
+   */
+  private final long startNanos;
+  /**
+   * The number of tasks completed.
+   */
+  private final AtomicLong completedCount = new AtomicLong();
+  /**
+   * The time the tasks waited to be executed.
+   */
+  private final LatencyHistogram.Recorder queueWait = new LatencyHistogram.Recorder();
+  /**
+   * The times of the tasks, keyed by function type and measure.
+   */
+  private final ConcurrentMap<Class<?>, ConcurrentMap<Measure, FunctionRecorder>> functions =
+      new ConcurrentHashMap<>();
+  /**
+   * The time each thread spent executing tasks, in nanoseconds.
+   */
+  private final ConcurrentMap<Thread, LongAdder> threadBusyNanos = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a recorder that records nothing.
+   *
+   * @return the recorder
+   */
+  static CalculationMetricsRecorder disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Obtains a recorder for a run of calculation tasks, started when this method is called.
+   *
+   * @param sink  the sink receiving the metrics when the run is complete
+   * @param taskCount  the number of tasks in the run
+   * @param scenarioCount  the number of scenarios calculated by each task
+   * @return the recorder
+   */
+  static CalculationMetricsRecorder of(CalculationMetricsSink sink, long taskCount, int scenarioCount) {
+    return new CalculationMetricsRecorder(sink, taskCount, scenarioCount);
+  }
+
+  // restricted constructor
+  private CalculationMetricsRecorder(CalculationMetricsSink sink, long taskCount, int scenarioCount) {
+    this.sink = sink;
+    this.taskCount = taskCount;
+    this.scenarioCount = scenarioCount;
+    this.startNanos = time();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the current time for timing a task, zero if the recorder is disabled.
+   *
+   * @return the current time, from {@link System#nanoTime()}
+   */
+  long time() {
+    return sink != null ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the start of the execution of a task.
+   *
+   * @param submittedNanos  the time the task was submitted for execution, from {@link #time()}
+   */
+  void taskStarted(long submittedNanos) {
+    if (sink != null) {
+      queueWait.record(System.nanoTime() - submittedNanos);
+    }
+  }
+
+  /**
+   * Returns market data that measures the time spent looking up market data.
+   * <p>
+   * If the recorder is disabled, the market data is returned unchanged.
+   *
+   * @param marketData  the market data passed to a function
+   * @return the market data to pass to the function
+   */
+  CalculationMarketData marketData(CalculationMarketData marketData) {
+    return sink != null ? new TimingMarketData(marketData) : marketData;
+  }
+
+  /**
+   * Returns the time spent looking up market data returned by {@link #marketData(CalculationMarketData)}.
+   *
+   * @param marketData  the market data returned by {@code marketData(CalculationMarketData)}
+   * @return the time spent looking up market data, in nanoseconds
+   */
+  long marketDataTime(CalculationMarketData marketData) {
+    return marketData instanceof TimingMarketData ? ((TimingMarketData) marketData).nanos : 0;
+  }
+
+  /**
+   * Records the execution of a task.
+   *
+   * @param functionType  the type of the function
+   * @param measure  the measure calculated by the function
+   * @param failed  true if the task failed
+   * @param taskStartNanos  the time the execution started, from {@link #time()}
+   * @param calculatedNanos  the time the function returned, from {@link #time()}
+   * @param marketDataNanos  the time the function spent looking up market data, in nanoseconds
+   */
+  void taskExecuted(
+      Class<?> functionType,
+      Measure measure,
+      boolean failed,
+      long taskStartNanos,
+      long calculatedNanos,
+      long marketDataNanos) {
+
+    if (sink == null) {
+      return;
+    }
+    long endNanos = System.nanoTime();
+    long taskNanos = endNanos - taskStartNanos;
+    functions.computeIfAbsent(functionType, type -> new ConcurrentHashMap<>())
+        .computeIfAbsent(measure, m -> new FunctionRecorder())
+        .record(failed, taskNanos, marketDataNanos, calculatedNanos - taskStartNanos, endNanos - calculatedNanos);
+    threadBusyNanos.computeIfAbsent(Thread.currentThread(), thread -> new LongAdder()).add(taskNanos);
+  }
+
+  /**
+   * Records the completion of a task, passing the metrics to the sink if it is the last task of the run.
+   * <p>
+   * An exception thrown by the sink is logged and does not affect the results of the run.
+   */
+  void taskCompleted() {
+    if (sink == null || completedCount.incrementAndGet() != taskCount) {
+      return;
+    }
+    try {
+      sink.metricsReceived(metrics(Duration.ofNanos(System.nanoTime() - startNanos)));
+    } catch (RuntimeException ex) {
+      log.warn("Exception invoking metrics sink", ex);
+    }
+  }
+
+  // creates the metrics of the run
+  private CalculationMetrics metrics(Duration elapsedTime) {
+    List<FunctionMetrics> functionMetrics = new ArrayList<>();
+    for (Map.Entry<Class<?>, ConcurrentMap<Measure, FunctionRecorder>> typeEntry : functions.entrySet()) {
+      for (Map.Entry<Measure, FunctionRecorder> entry : typeEntry.getValue().entrySet()) {
+        functionMetrics.add(entry.getValue().metrics(typeEntry.getKey(), entry.getKey()));
+      }
+    }
+    functionMetrics.sort(Comparator.comparing((FunctionMetrics m) -> m.getLatency().getTotal()).reversed());
+    Map<String, Duration> threadBusyTimes = new LinkedHashMap<>();
+    threadBusyNanos.entrySet().stream()
+        .sorted(Comparator.comparing(e -> e.getKey().getName()))
+        .forEach(e -> threadBusyTimes.merge(
+            e.getKey().getName(), Duration.ofNanos(e.getValue().sum()), Duration::plus));
+    return new CalculationMetrics(
+        taskCount, scenarioCount, elapsedTime, queueWait.toHistogram(), functionMetrics, threadBusyTimes);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Records the times of the tasks using a function to calculate a measure.
+   */
+  private static final class FunctionRecorder {
+
+    /** The time taken by the tasks. */
+    private final LatencyHistogram.Recorder latency = new LatencyHistogram.Recorder();
+    /** The number of tasks whose result is a failure. */
+    private final LongAdder failureCount = new LongAdder();
+    /** The time spent looking up market data, in nanoseconds. */
+    private final LongAdder marketDataNanos = new LongAdder();
+    /** The time spent performing calculations, excluding looking up market data, in nanoseconds. */
+    private final LongAdder calculationNanos = new LongAdder();
+    /** The time spent converting the results to the reporting currency, in nanoseconds. */
+    private final LongAdder conversionNanos = new LongAdder();
+
+    // records a task
+    private void record(boolean failed, long taskNanos, long marketData, long function, long conversion) {
+      latency.record(taskNanos);
+      if (failed) {
+        failureCount.increment();
+      }
+      marketDataNanos.add(marketData);
+      calculationNanos.add(Math.max(function - marketData, 0));
+      conversionNanos.add(conversion);
+    }
+
+    // creates the metrics
+    private FunctionMetrics metrics(Class<?> functionType, Measure measure) {
+      return new FunctionMetrics(
+          functionType,
+          measure,
+          failureCount.sum(),
+          latency.toHistogram(),
+          Duration.ofNanos(marketDataNanos.sum()),
+          Duration.ofNanos(calculationNanos.sum()),
+          Duration.ofNanos(conversionNanos.sum()));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Market data that measures the time spent looking up market data.
+   * <p>
+   * An instance is used by a single task, and therefore a single thread.
+   */
+  private static final class TimingMarketData implements CalculationMarketData {
+
+    /** The underlying market data. */
+    private final CalculationMarketData delegate;
+    /** The time spent looking up market data, in nanoseconds. */
+    private long nanos;
+
+    private TimingMarketData(CalculationMarketData delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public MarketDataBox<LocalDate> getValuationDate() {
+      return delegate.getValuationDate();
+    }
+
+    @Override
+    public int getScenarioCount() {
+      return delegate.getScenarioCount();
+    }
+
+    @Override
+    public Stream<MarketData> scenarios() {
+      return IntStream.range(0, getScenarioCount()).mapToObj(this::scenario);
+    }
+
+    @Override
+    public MarketData scenario(int scenarioIndex) {
+      return SingleCalculationMarketData.of(this, scenarioIndex);
+    }
+
+    @Override
+    public boolean containsValue(MarketDataKey<?> key) {
+      long start = System.nanoTime();
+      try {
+        return delegate.containsValue(key);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public <T> Optional<MarketDataBox<T>> findValue(MarketDataKey<T> key) {
+      long start = System.nanoTime();
+      try {
+        return delegate.findValue(key);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public <T> MarketDataBox<T> getValue(MarketDataKey<T> key) {
+      long start = System.nanoTime();
+      try {
+        return delegate.getValue(key);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public LocalDateDoubleTimeSeries getTimeSeries(ObservableKey key) {
+      long start = System.nanoTime();
+      try {
+        return delegate.getTimeSeries(key);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+  }
+
+}
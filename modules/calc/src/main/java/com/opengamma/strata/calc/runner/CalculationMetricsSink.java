@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Receives the metrics of the runs of calculation tasks.
+ * <p>
+ * A {@link CalculationTaskRunner} created with a sink records the time taken by each task
+ * and passes the {@link CalculationMetrics} of a run to the sink when the tasks of the run are complete.
+ * The sink is invoked before the listener of the run is notified that the calculations are complete.
+ * <p>
+ * Implementations must be thread-safe, as the sink may be invoked by any of the threads executing the tasks.
+ */
+@FunctionalInterface
+public interface CalculationMetricsSink {
+
+  /**
+   * Obtains a sink that logs a summary of the metrics using SLF4J at info level.
+   *
+   * @return the sink
+   */
+  public static CalculationMetricsSink logging() {
+    Logger log = LoggerFactory.getLogger(CalculationMetricsSink.class);
+    return metrics -> log.info(metrics.summary());
+  }
+
+  /**
+   * Obtains a sink that writes the metrics as JSON to a file, replacing the metrics of the previous run.
+   * <p>
+   * The metrics are written using {@link CalculationMetrics#writeJson(Appendable)}.
+   * If the file cannot be written, the sink throws {@link UncheckedIOException}.
+   *
+   * @param file  the file
+   * @return the sink
+   */
+  public static CalculationMetricsSink json(Path file) {
+    ArgChecker.notNull(file, "file");
+    return metrics -> {
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        metrics.writeJson(writer);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    };
+  }
+
+  /**
+   * Obtains a sink that keeps the metrics in memory.
+   *
+   * @return the sink
+   */
+  public static InMemoryMetricsSink inMemory() {
+    return new InMemoryMetricsSink();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Receives the metrics of a run of calculation tasks.
+   *
+   * @param metrics  the metrics of the run
+   */
+  public abstract void metricsReceived(CalculationMetrics metrics);
+
+  /**
+   * Combines this sink with another, passing the metrics to this sink and then to the other sink.
+   *
+   * @param other  the other sink
+   * @return the combined sink
+   */
+  public default CalculationMetricsSink combinedWith(CalculationMetricsSink other) {
+    ArgChecker.notNull(other, "other");
+    return metrics -> {
+      metricsReceived(metrics);
+      other.metricsReceived(metrics);
+    };
+  }
+
+}
@@ -9,6 +9,7 @@ import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -160,6 +161,15 @@ public final class CalculationTask {
     return measure;
   }
 
+  /**
+   * Gets the function that calculates the value.
+   * 
+   * @return the function
+   */
+  CalculationFunction<?> getFunction() {
+    return function;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Returns requirements specifying the market data the function needs to perform its calculations.
@@ -213,11 +223,58 @@ public final class CalculationTask {
    * @param refData  the reference data
    * @return results of the calculation, one for every scenario in the market data
    */
-  @SuppressWarnings("unchecked")
   public CalculationResults execute(CalculationEnvironment scenarioData, ReferenceData refData) {
-    CalculationMarketData calculationData = DefaultCalculationMarketData.of(scenarioData, marketDataMappings);
-    Result<?> result = Result.wrap(() -> calculate(calculationData, refData));
-    Result<?> converted = convertToReportingCurrency(result, calculationData, refData);
+    return execute(scenarioData, refData, Result::failure, CalculationMetricsRecorder.disabled());
+  }
+
+  /**
+   * Executes the task, sharing the failures with the other tasks of the run.
+   * <p>
+   * If the function throws an exception, the failure is obtained from the shared failures,
+   * avoiding the creation of a new failure for each task failing for the same reason.
+   * The time taken by the task is recorded in the metrics.
+   *
+   * @param scenarioData  the market data used in the calculation
+   * @param refData  the reference data
+   * @param failures  the failures shared between the tasks of the run
+   * @param metrics  the recorder of the metrics of the run
+   * @return results of the calculation, one for every scenario in the market data
+   */
+  CalculationResults execute(
+      CalculationEnvironment scenarioData,
+      ReferenceData refData,
+      SharedFailures failures,
+      CalculationMetricsRecorder metrics) {
+
+    return execute(scenarioData, refData, ex -> failures.failure(function, ex), metrics);
+  }
+
+  // executes the task, converting any exception thrown by the function to a failure
+  private CalculationResults execute(
+      CalculationEnvironment scenarioData,
+      ReferenceData refData,
+      Function<Exception, Result<?>> failureFn,
+      CalculationMetricsRecorder metrics) {
+
+    long startNanos = metrics.time();
+    CalculationMarketData calculationData =
+        metrics.marketData(DefaultCalculationMarketData.of(scenarioData, marketDataMappings));
+    Result<?> result;
+    try {
+      result = calculate(calculationData, refData);
+    } catch (Exception ex) {
+      result = failureFn.apply(ex);
+    }
+    long calculatedNanos = metrics.time();
+    long marketDataNanos = metrics.marketDataTime(calculationData);
+    Result<?> converted = null;
+    try {
+      converted = convertToReportingCurrency(result, calculationData, refData);
+    } finally {
+      // the conversion is timed even if it throws an exception, in which case the task failed
+      boolean failed = converted == null || converted.isFailure();
+      metrics.taskExecuted(function.getClass(), measure, failed, startNanos, calculatedNanos, marketDataNanos);
+    }
     CalculationResult calcResult = CalculationResult.of(rowIndex, columnIndex, converted);
     return CalculationResults.of(target, ImmutableList.of(calcResult));
   }
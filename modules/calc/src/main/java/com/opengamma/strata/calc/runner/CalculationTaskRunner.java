@@ -77,6 +77,121 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and whether stack traces are captured in the failures.
+   * <p>
+   * When a function throws an exception, the result of the calculation is a failure.
+   * The tasks failing with the same function type, exception type and message share a single failure.
+   * If stack traces are captured, the failure contains the stack trace of the first exception.
+   * Otherwise, the failure only contains the message and type of the exception, avoiding the cost
+   * of rendering the stack trace when many calculations fail.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(ExecutorService executor, boolean captureStackTraces) {
+    return DefaultCalculationTaskRunner.of(executor, captureStackTraces);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor,
+   * whether stack traces are captured in the failures and the sink receiving the metrics of each run.
+   * <p>
+   * The runner records the time each task waited to be executed, the time taken by the tasks using
+   * each function to calculate each measure, split between looking up market data, calculating and
+   * converting the results to the reporting currency, and the time each thread spent executing tasks.
+   * When the tasks of a run are complete, the {@link CalculationMetrics} of the run are passed to the sink.
+   * The metrics are recorded using atomic counters, adding a small fixed cost to each task.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param metricsSink  the sink receiving the metrics of each run
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationMetricsSink metricsSink) {
+
+    return DefaultCalculationTaskRunner.of(executor, captureStackTraces, metricsSink);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the model used to execute the most expensive tasks first.
+   * <p>
+   * When the tasks are executed in the order of the targets, a few expensive tasks at the end
+   * can determine the time taken by the run while the other threads are idle.
+   * This runner orders the tasks by the cost estimated by the model, most expensive first.
+   * The metrics of each run are passed to the model, refining its estimates for the next run.
+   * <p>
+   * The results are unaffected by the order of execution, although the listener of an
+   * asynchronous calculation receives them in the order the tasks complete.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param costModel  the model estimating the cost of the tasks, learning from the metrics of each run
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofCostOrdered(ExecutorService executor, CalculationCostModel costModel) {
+    return DefaultCalculationTaskRunner.ofCostOrdered(executor, costModel);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor,
+   * whether stack traces are captured in the failures and the model used to execute the most
+   * expensive tasks first.
+   * <p>
+   * The tasks are ordered as described in {@link #ofCostOrdered(ExecutorService, CalculationCostModel)}.
+   * Stack traces are captured as described in {@link #of(ExecutorService, boolean)}.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param costModel  the model estimating the cost of the tasks, learning from the metrics of each run
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofCostOrdered(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationCostModel costModel) {
+
+    return DefaultCalculationTaskRunner.ofCostOrdered(executor, captureStackTraces, costModel);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor,
+   * whether stack traces are captured in the failures, the model used to execute the most
+   * expensive tasks first and a sink also receiving the metrics of each run.
+   * <p>
+   * The tasks are ordered as described in {@link #ofCostOrdered(ExecutorService, CalculationCostModel)}.
+   * The metrics of each run are passed to the model and then to the sink.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param costModel  the model estimating the cost of the tasks, learning from the metrics of each run
+   * @param metricsSink  the sink also receiving the metrics of each run
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofCostOrdered(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationCostModel costModel,
+      CalculationMetricsSink metricsSink) {
+
+    return DefaultCalculationTaskRunner.ofCostOrdered(executor, captureStackTraces, costModel, metricsSink);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
@@ -0,0 +1,357 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.UnaryOperator;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.calc.runner.function.result.CurrencyValuesArray;
+import com.opengamma.strata.calc.runner.function.result.ValuesArray;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * An immutable list of calculation results storing the numeric results in primitive arrays.
+ * <p>
+ * The results are stored column by column, in the same order as {@link Results#getItems()}.
+ * The numeric results of a column are stored in one {@code double[]} for each scenario, indexed by row.
+ * The currencies of the currency amounts are stored as codes and the failures are flagged in a bitmap.
+ * The numeric results are those of type {@link ValuesArray}, {@link CurrencyValuesArray},
+ * {@code Double} and {@link CurrencyAmount}. All other results, including the failures, are stored as objects.
+ * <p>
+ * This avoids creating a result object, a value object and an array for each numeric result,
+ * which dominates the memory used by the results of a large portfolio over many scenarios.
+ * The result objects are created when they are requested.
+ */
+final class CompactResultList
+    extends AbstractList<Result<?>>
+    implements RandomAccess {
+
+  /** The result is stored as an object. */
+  private static final byte OBJECT = 0;
+  /** The result is a {@link ValuesArray}. */
+  private static final byte VALUES = 1;
+  /** The result is a {@link CurrencyValuesArray}. */
+  private static final byte CURRENCY_VALUES = 2;
+  /** The result is a {@code Double}. */
+  private static final byte DOUBLE = 3;
+  /** The result is a {@link CurrencyAmount}. */
+  private static final byte CURRENCY_AMOUNT = 4;
+
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The columns of results.
+   */
+  private final ColumnResults[] columns;
+  /**
+   * The currencies, indexed by currency code.
+   */
+  private final Currency[] currencies;
+
+  /**
+   * Creates an instance.
+   *
+   * @param rowCount  the number of rows
+   * @param columns  the columns of results
+   * @param currencies  the currencies, indexed by currency code
+   */
+  private CompactResultList(int rowCount, ColumnResults[] columns, Currency[] currencies) {
+    this.rowCount = rowCount;
+    this.columns = columns;
+    this.currencies = currencies;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Result<?> get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size());
+    }
+    int columnCount = columns.length;
+    return columns[index % columnCount].get(index / columnCount, currencies);
+  }
+
+  @Override
+  public int size() {
+    return rowCount * columns.length;
+  }
+
+  /**
+   * Counts the failed results, without creating the result objects.
+   *
+   * @return the number of failed results
+   */
+  int countFailures() {
+    int count = 0;
+    for (ColumnResults column : columns) {
+      count += column.failures.cardinality();
+    }
+    return count;
+  }
+
+  /**
+   * Returns a list where the scenario results of a single scenario are replaced by their value.
+   * <p>
+   * The numeric results are unwrapped without copying the underlying arrays.
+   * The function is applied to the results stored as objects.
+   *
+   * @param unwrapFn  the function unwrapping the results stored as objects
+   * @return the list of unwrapped results
+   */
+  CompactResultList unwrapSingleScenario(UnaryOperator<Result<?>> unwrapFn) {
+    ColumnResults[] unwrapped = new ColumnResults[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      unwrapped[i] = columns[i].unwrapSingleScenario(unwrapFn);
+    }
+    return new CompactResultList(rowCount, unwrapped, currencies);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The results of a column.
+   */
+  private static final class ColumnResults {
+
+    /** The type of each result, indexed by row. */
+    private final byte[] types;
+    /** The failures, indexed by row. */
+    private final BitSet failures;
+    /** The numeric values, indexed by scenario and row, null if the column has no numeric result. */
+    private double[][] values;
+    /** The currency codes, indexed by row, null if the column has no currency amount. */
+    private short[] currencyCodes;
+    /** The results stored as objects, indexed by row, null if the column has no such result. */
+    private Result<?>[] objects;
+
+    private ColumnResults(int rowCount) {
+      this.types = new byte[rowCount];
+      this.failures = new BitSet(rowCount);
+    }
+
+    private ColumnResults(
+        byte[] types,
+        BitSet failures,
+        double[][] values,
+        short[] currencyCodes,
+        Result<?>[] objects) {
+
+      this.types = types;
+      this.failures = failures;
+      this.values = values;
+      this.currencyCodes = currencyCodes;
+      this.objects = objects;
+    }
+
+    // returns the result of the row, creating it for numeric results
+    private Result<?> get(int row, Currency[] currencies) {
+      switch (types[row]) {
+        case VALUES:
+          return Result.success(ValuesArray.of(scenarioValues(row)));
+        case CURRENCY_VALUES:
+          return Result.success(CurrencyValuesArray.of(currencies[currencyCodes[row]], scenarioValues(row)));
+        case DOUBLE:
+          return Result.success(values[0][row]);
+        case CURRENCY_AMOUNT:
+          return Result.success(CurrencyAmount.of(currencies[currencyCodes[row]], values[0][row]));
+        default:
+          return objects[row];
+      }
+    }
+
+    // returns the values of the row for all scenarios
+    private DoubleArray scenarioValues(int row) {
+      return DoubleArray.of(values.length, scenario -> values[scenario][row]);
+    }
+
+    // stores the result of the row, the currency code is only used for currency amounts
+    private void set(int row, Result<?> result, short currencyCode) {
+      if (result.isSuccess()) {
+        Object value = result.getValue();
+        if (value instanceof ValuesArray) {
+          if (setValues(row, ((ValuesArray) value).getValues())) {
+            types[row] = VALUES;
+            return;
+          }
+        } else if (value instanceof CurrencyValuesArray) {
+          if (setValues(row, ((CurrencyValuesArray) value).getValues())) {
+            setCurrencyCode(row, currencyCode);
+            types[row] = CURRENCY_VALUES;
+            return;
+          }
+        } else if (value instanceof Double) {
+          if (setValues(row, DoubleArray.of((Double) value))) {
+            types[row] = DOUBLE;
+            return;
+          }
+        } else if (value instanceof CurrencyAmount) {
+          if (setValues(row, DoubleArray.of(((CurrencyAmount) value).getAmount()))) {
+            setCurrencyCode(row, currencyCode);
+            types[row] = CURRENCY_AMOUNT;
+            return;
+          }
+        }
+      } else {
+        failures.set(row);
+      }
+      if (objects == null) {
+        objects = new Result<?>[types.length];
+      }
+      objects[row] = result;
+      types[row] = OBJECT;
+    }
+
+    // stores the values of the row, returning false if the number of scenarios differs from the other rows
+    private boolean setValues(int row, DoubleArray scenarioValues) {
+      int scenarioCount = scenarioValues.size();
+      if (values == null) {
+        values = new double[scenarioCount][types.length];
+      } else if (values.length != scenarioCount) {
+        return false;
+      }
+      for (int scenario = 0; scenario < scenarioCount; scenario++) {
+        values[scenario][row] = scenarioValues.get(scenario);
+      }
+      return true;
+    }
+
+    // stores the currency code of the row
+    private void setCurrencyCode(int row, short currencyCode) {
+      if (currencyCodes == null) {
+        currencyCodes = new short[types.length];
+      }
+      currencyCodes[row] = currencyCode;
+    }
+
+    // returns the column where the single scenario results are unwrapped
+    private ColumnResults unwrapSingleScenario(UnaryOperator<Result<?>> unwrapFn) {
+      byte[] unwrappedTypes = types.clone();
+      if (values != null && values.length == 1) {
+        for (int row = 0; row < types.length; row++) {
+          if (types[row] == VALUES) {
+            unwrappedTypes[row] = DOUBLE;
+          } else if (types[row] == CURRENCY_VALUES) {
+            unwrappedTypes[row] = CURRENCY_AMOUNT;
+          }
+        }
+      }
+      Result<?>[] unwrappedObjects = null;
+      if (objects != null) {
+        unwrappedObjects = new Result<?>[objects.length];
+        for (int row = 0; row < objects.length; row++) {
+          unwrappedObjects[row] = objects[row] == null ? null : unwrapFn.apply(objects[row]);
+        }
+      }
+      return new ColumnResults(unwrappedTypes, failures, values, currencyCodes, unwrappedObjects);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builder for the compact list of results.
+   * <p>
+   * The results can be added in any order, each cell must be set exactly once.
+   * All the cells must be set before the list is built.
+   * This class is mutable and not thread-safe.
+   */
+  static final class Builder {
+
+    /** The number of rows. */
+    private final int rowCount;
+    /** The columns of results. */
+    private final ColumnResults[] columns;
+    /** The currencies, indexed by currency code. */
+    private final List<Currency> currencies = new ArrayList<>();
+    /** The currency codes, keyed by currency. */
+    private final Map<Currency, Short> currencyCodes = new HashMap<>();
+    /** The cells that have been set, indexed by row and column in the order of the list. */
+    private final BitSet setCells = new BitSet();
+
+    /**
+     * Creates an instance.
+     *
+     * @param rowCount  the number of rows
+     * @param columnCount  the number of columns
+     */
+    Builder(int rowCount, int columnCount) {
+      this.rowCount = ArgChecker.notNegative(rowCount, "rowCount");
+      this.columns = new ColumnResults[ArgChecker.notNegative(columnCount, "columnCount")];
+      for (int i = 0; i < columnCount; i++) {
+        columns[i] = new ColumnResults(rowCount);
+      }
+    }
+
+    /**
+     * Sets the result of a cell.
+     *
+     * @param rowIndex  the row index
+     * @param columnIndex  the column index
+     * @param result  the result
+     * @return this builder
+     */
+    Builder set(int rowIndex, int columnIndex, Result<?> result) {
+      ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+      ArgChecker.inRange(columnIndex, 0, columns.length, "columnIndex");
+      ArgChecker.notNull(result, "result");
+      columns[columnIndex].set(rowIndex, result, currencyCode(result));
+      setCells.set(rowIndex * columns.length + columnIndex);
+      return this;
+    }
+
+    // returns the code of the currency of a successful currency amount result, zero otherwise
+    private short currencyCode(Result<?> result) {
+      if (result.isFailure()) {
+        return 0;
+      }
+      Object value = result.getValue();
+      if (value instanceof CurrencyValuesArray) {
+        return currencyCode(((CurrencyValuesArray) value).getCurrency());
+      }
+      if (value instanceof CurrencyAmount) {
+        return currencyCode(((CurrencyAmount) value).getCurrency());
+      }
+      return 0;
+    }
+
+    // returns the code of the currency, allocating a new code if necessary
+    private short currencyCode(Currency currency) {
+      return currencyCodes.computeIfAbsent(currency, ccy -> {
+        currencies.add(ccy);
+        return (short) (currencies.size() - 1);
+      });
+    }
+
+    /**
+     * Builds the list of results.
+     * <p>
+     * The builder must not be used after calling this method.
+     *
+     * @return the list of results
+     * @throws IllegalStateException if the result of a cell has not been set
+     */
+    CompactResultList build() {
+      int unsetCell = setCells.nextClearBit(0);
+      if (unsetCell < rowCount * columns.length) {
+        throw new IllegalStateException(Messages.format(
+            "No result has been set for row {} and column {}", unsetCell / columns.length, unsetCell % columns.length));
+      }
+      return new CompactResultList(rowCount, columns, currencies.toArray(new Currency[currencies.size()]));
+    }
+  }
+
+}
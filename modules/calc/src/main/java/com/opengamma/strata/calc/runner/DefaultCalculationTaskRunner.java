@@ -7,8 +7,6 @@ package com.opengamma.strata.calc.runner;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -19,7 +17,6 @@ import java.util.function.Supplier;
 
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.market.ReferenceData;
-import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.marketdata.CalculationEnvironment;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.ArgChecker;
@@ -38,6 +35,18 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * This will typically be multi-threaded, but single or direct executors also work.
    */
   private final ExecutorService executor;
+  /**
+   * Whether the stack traces of the exceptions thrown by the functions are captured in the failures.
+   */
+  private final boolean captureStackTraces;
+  /**
+   * The sink receiving the metrics of each run, null if metrics are not recorded.
+   */
+  private final CalculationMetricsSink metricsSink;
+  /**
+   * The model ordering the tasks by cost, most expensive first, null if the tasks are executed in order.
+   */
+  private final CalculationCostModel costModel;
 
   //-------------------------------------------------------------------------
   /**
@@ -54,7 +63,8 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner ofMultiThreaded() {
-    return new DefaultCalculationTaskRunner(createExecutor(Runtime.getRuntime().availableProcessors()));
+    ExecutorService executor = createExecutor(Runtime.getRuntime().availableProcessors());
+    return new DefaultCalculationTaskRunner(executor, true, null, null);
   }
 
   /**
@@ -66,7 +76,101 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner of(ExecutorService executor) {
-    return new DefaultCalculationTaskRunner(executor);
+    return new DefaultCalculationTaskRunner(executor, true, null, null);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and whether stack traces are captured in the failures.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(ExecutorService executor, boolean captureStackTraces) {
+    return new DefaultCalculationTaskRunner(executor, captureStackTraces, null, null);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor,
+   * whether stack traces are captured in the failures and the sink receiving the metrics of each run.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param metricsSink  the sink receiving the metrics of each run
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationMetricsSink metricsSink) {
+
+    ArgChecker.notNull(metricsSink, "metricsSink");
+    return new DefaultCalculationTaskRunner(executor, captureStackTraces, metricsSink, null);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the model used to execute the most expensive tasks first.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param costModel  the model estimating the cost of the tasks, learning from the metrics of each run
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner ofCostOrdered(ExecutorService executor, CalculationCostModel costModel) {
+    return ofCostOrdered(executor, true, costModel);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor,
+   * whether stack traces are captured in the failures and the model used to execute the most
+   * expensive tasks first.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param costModel  the model estimating the cost of the tasks, learning from the metrics of each run
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner ofCostOrdered(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationCostModel costModel) {
+
+    ArgChecker.notNull(costModel, "costModel");
+    return new DefaultCalculationTaskRunner(executor, captureStackTraces, costModel, costModel);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor,
+   * whether stack traces are captured in the failures, the model used to execute the most
+   * expensive tasks first and a sink also receiving the metrics of each run.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param costModel  the model estimating the cost of the tasks, learning from the metrics of each run
+   * @param metricsSink  the sink also receiving the metrics of each run
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner ofCostOrdered(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationCostModel costModel,
+      CalculationMetricsSink metricsSink) {
+
+    ArgChecker.notNull(costModel, "costModel");
+    ArgChecker.notNull(metricsSink, "metricsSink");
+    CalculationMetricsSink combinedSink = costModel.combinedWith(metricsSink);
+    return new DefaultCalculationTaskRunner(executor, captureStackTraces, combinedSink, costModel);
   }
 
   // create an executor with daemon threads
@@ -86,9 +190,20 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * Creates an instance specifying the executor to use.
    * 
    * @param executor  the executor that is used to perform the calculations
+   * @param captureStackTraces  whether the stack traces of the exceptions thrown by the functions are captured
+   * @param metricsSink  the sink receiving the metrics of each run, null if metrics are not recorded
+   * @param costModel  the model ordering the tasks by cost, null if the tasks are executed in order
    */
-  private DefaultCalculationTaskRunner(ExecutorService executor) {
+  private DefaultCalculationTaskRunner(
+      ExecutorService executor,
+      boolean captureStackTraces,
+      CalculationMetricsSink metricsSink,
+      CalculationCostModel costModel) {
+
     this.executor = ArgChecker.notNull(executor, "executor");
+    this.captureStackTraces = captureStackTraces;
+    this.metricsSink = metricsSink;
+    this.costModel = costModel;
   }
 
   //-------------------------------------------------------------------------
@@ -103,11 +218,14 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
 
     // unwrap the results
     // since there is only one scenario it is not desirable to return scenario result containers
-    List<Result<?>> unwrappedResults = results.getItems().stream()
-        .map(DefaultCalculationTaskRunner::unwrapScenarioResult)
-        .collect(toImmutableList());
-
-    return results.toBuilder().items(unwrappedResults).build();
+    List<Result<?>> cells = results.getCells();
+    List<Result<?>> unwrappedResults = cells instanceof CompactResultList ?
+        ((CompactResultList) cells).unwrapSingleScenario(DefaultCalculationTaskRunner::unwrapScenarioResult) :
+        cells.stream()
+            .map(DefaultCalculationTaskRunner::unwrapScenarioResult)
+            .collect(toImmutableList());
+
+    return Results.of(results.getRowCount(), results.getColumnCount(), unwrappedResults);
   }
 
   /**
@@ -145,7 +263,9 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       CalculationEnvironment marketData,
       ReferenceData refData) {
 
-    AggregatingListener listener = new AggregatingListener(tasks.getColumns());
+    int columnCount = tasks.getColumns().size();
+    int rowCount = (columnCount == 0) ? 0 : tasks.getTasks().size() / columnCount;
+    AggregatingListener listener = new AggregatingListener(rowCount, columnCount);
     calculateMultipleScenariosAsync(tasks, marketData, refData, listener);
     return listener.result();
   }
@@ -169,13 +289,22 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       ReferenceData refData,
       CalculationListener listener) {
 
-    List<CalculationTask> taskList = tasks.getTasks();
+    // the most expensive tasks are executed first if there is a cost model
+    List<CalculationTask> taskList = costModel != null ?
+        costModel.order(tasks.getTasks(), marketData.getScenarioCount()) :
+        tasks.getTasks();
     // the listener is invoked via this wrapper
     // the wrapper ensures thread-safety for the listener
     // it also calls the listener with single CalculationResult cells, not CalculationResults
     Consumer<CalculationResults> consumer = new ListenerWrapper(listener, taskList.size());
+    // the tasks failing for the same reason share their failure
+    SharedFailures failures = new SharedFailures(captureStackTraces);
+    // the metrics of the run are passed to the sink when the last task completes
+    CalculationMetricsRecorder metrics = metricsSink != null ?
+        CalculationMetricsRecorder.of(metricsSink, taskList.size(), marketData.getScenarioCount()) :
+        CalculationMetricsRecorder.disabled();
     // run each task using the executor
-    taskList.stream().forEach(task -> runTask(task, marketData, refData, consumer));
+    taskList.stream().forEach(task -> runTask(task, marketData, refData, failures, metrics, consumer));
   }
 
   // submits a task to the executor to be run
@@ -183,11 +312,22 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       CalculationTask task,
       CalculationEnvironment marketData,
       ReferenceData refData,
+      SharedFailures failures,
+      CalculationMetricsRecorder metrics,
       Consumer<CalculationResults> consumer) {
 
     // the task is executed, with the result passed to the consumer
     // the consumer wraps the listener to ensure thread-safety
-    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData);
+    long submittedNanos = metrics.time();
+    Supplier<CalculationResults> taskExecutor = () -> {
+      metrics.taskStarted(submittedNanos);
+      try {
+        return task.execute(marketData, refData, failures, metrics);
+      } finally {
+        // the metrics are only passed to the sink when all the tasks have completed, even if a task throws
+        metrics.taskCompleted();
+      }
+    };
     CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
   }
 
@@ -201,51 +341,35 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
   /**
    * Calculation listener that receives the results of individual calculations
    * and builds a set of {@link Results}. This is used by the non-async methods.
+   * <p>
+   * The results are stored directly in a {@link CompactResultList}, which holds the numeric
+   * results in primitive arrays rather than as individual result objects.
    */
   private static final class AggregatingListener extends AggregatingCalculationListener<Results> {
 
-    /** Comparator for sorting the results by row and then column. */
-    private static final Comparator<CalculationResult> COMPARATOR =
-        Comparator.comparingInt(CalculationResult::getRowIndex)
-            .thenComparingInt(CalculationResult::getColumnIndex);
+    /** The number of rows in the results. */
+    private final int rowCount;
 
-    /** List that is populated with the results as they arrive. */
-    private final List<CalculationResult> results = new ArrayList<>();
+    /** The number of columns in the results. */
+    private final int columnCount;
 
-    /** The columns that define what values are calculated. */
-    private final List<Column> columns;
+    /** Builder that is populated with the results as they arrive. */
+    private final CompactResultList.Builder results;
 
-    private AggregatingListener(List<Column> columns) {
-      this.columns = columns;
+    private AggregatingListener(int rowCount, int columnCount) {
+      this.rowCount = rowCount;
+      this.columnCount = columnCount;
+      this.results = new CompactResultList.Builder(rowCount, columnCount);
     }
 
     @Override
     public void resultReceived(CalculationTarget target, CalculationResult result) {
-      results.add(result);
+      results.set(result.getRowIndex(), result.getColumnIndex(), result.getResult());
     }
 
     @Override
     protected Results createAggregateResult() {
-      results.sort(COMPARATOR);
-      return buildResults(results, columns);
-    }
-
-    /**
-     * Builds a set of results from the results of the individual calculations.
-     *
-     * @param calculationResults  the results of the individual calculations
-     * @param columns  the columns that define what values are calculated
-     * @return the results
-     */
-    private static Results buildResults(List<CalculationResult> calculationResults, List<Column> columns) {
-      List<Result<?>> results =
-          calculationResults.stream()
-              .map(CalculationResult::getResult)
-              .collect(toImmutableList());
-
-      int columnCount = columns.size();
-      int rowCount = (columnCount == 0) ? 0 : calculationResults.size() / columnCount;
-      return Results.of(rowCount, columnCount, results);
+      return Results.of(rowCount, columnCount, results.build());
     }
   }
 
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * An immutable list of calculation results reading the results from a {@link ResultsFile}.
+ * <p>
+ * The results are in the same order as {@link Results#getItems()}.
+ * The results of a column are read from the file when a result of the column is requested,
+ * and are held in memory until a result of another column is requested.
+ * Random access is therefore only efficient when the results are accessed column by column,
+ * thus the list does not implement {@code RandomAccess}.
+ * <p>
+ * Iterating over the list, including comparing, hashing and streaming it, is row by row.
+ * To avoid reading each column once per row, the iterator reads all the columns when it is created
+ * and holds them in memory until it is discarded.
+ */
+final class FileResultList
+    extends AbstractList<Result<?>> {
+
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The number of columns.
+   */
+  private final int columnCount;
+  /**
+   * The function reading the results of a column, in row order.
+   */
+  private final IntFunction<List<Result<?>>> columnReader;
+  /**
+   * The most recently read column, null if no column has been read.
+   */
+  private volatile CachedColumn cachedColumn;
+
+  /**
+   * Creates an instance.
+   *
+   * @param file  the file
+   */
+  FileResultList(ResultsFile file) {
+    this(file.getRowCount(), file.getColumnCount(), file::readColumn);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param rowCount  the number of rows
+   * @param columnCount  the number of columns
+   * @param columnReader  the function reading the results of a column, in row order
+   */
+  FileResultList(int rowCount, int columnCount, IntFunction<List<Result<?>>> columnReader) {
+    this.rowCount = rowCount;
+    this.columnCount = columnCount;
+    this.columnReader = columnReader;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Result<?> get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size());
+    }
+    return column(index % columnCount).get(index / columnCount);
+  }
+
+  @Override
+  public int size() {
+    return rowCount * columnCount;
+  }
+
+  @Override
+  public Iterator<Result<?>> iterator() {
+    return listIterator(0);
+  }
+
+  @Override
+  public ListIterator<Result<?>> listIterator(int index) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size());
+    }
+    List<List<Result<?>>> columns = size() == 0 ?
+        ImmutableList.of() :
+        IntStream.range(0, columnCount).mapToObj(this::column).collect(toImmutableList());
+    return new AbstractList<Result<?>>() {
+
+      @Override
+      public Result<?> get(int cellIndex) {
+        return columns.get(cellIndex % columnCount).get(cellIndex / columnCount);
+      }
+
+      @Override
+      public int size() {
+        return FileResultList.this.size();
+      }
+    }.listIterator(index);
+  }
+
+  // returns the results of the column, reading them from the file if they are not the cached column
+  private List<Result<?>> column(int columnIndex) {
+    CachedColumn cached = cachedColumn;
+    if (cached == null || cached.columnIndex != columnIndex) {
+      cached = new CachedColumn(columnIndex, columnReader.apply(columnIndex));
+      cachedColumn = cached;
+    }
+    return cached.results;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The results of a column read from the file.
+   */
+  private static final class CachedColumn {
+
+    /** The column index. */
+    private final int columnIndex;
+    /** The results of the column, in row order. */
+    private final List<Result<?>> results;
+
+    private CachedColumn(int columnIndex, List<Result<?>> results) {
+      this.columnIndex = columnIndex;
+      this.results = results;
+    }
+  }
+
+}
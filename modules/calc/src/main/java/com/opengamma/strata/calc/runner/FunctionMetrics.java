@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import com.opengamma.strata.calc.config.Measure;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * The metrics of the calculation tasks using a function to calculate a measure.
+ * <p>
+ * This contains a histogram of the time taken by the tasks, together with the total time
+ * spent in each phase of the tasks:
+ * <ul>
+ *   <li>looking up market data while the function performs its calculations
+ *   <li>performing the calculations, excluding the time looking up market data
+ *   <li>converting the results to the reporting currency
+ * </ul>
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class FunctionMetrics {
+
+  /**
+   * The type of the function.
+   */
+  private final Class<?> functionType;
+  /**
+   * The measure calculated by the function.
+   */
+  private final Measure measure;
+  /**
+   * The number of tasks whose result is a failure.
+   */
+  private final long failureCount;
+  /**
+   * The time taken by the tasks.
+   */
+  private final LatencyHistogram latency;
+  /**
+   * The total time spent looking up market data.
+   */
+  private final Duration marketDataTime;
+  /**
+   * The total time spent performing calculations, excluding the time looking up market data.
+   */
+  private final Duration calculationTime;
+  /**
+   * The total time spent converting the results to the reporting currency.
+   */
+  private final Duration currencyConversionTime;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   *
+   * @param functionType  the type of the function
+   * @param measure  the measure calculated by the function
+   * @param failureCount  the number of tasks whose result is a failure
+   * @param latency  the time taken by the tasks
+   * @param marketDataTime  the total time spent looking up market data
+   * @param calculationTime  the total time spent performing calculations
+   * @param currencyConversionTime  the total time spent converting the results to the reporting currency
+   */
+  FunctionMetrics(
+      Class<?> functionType,
+      Measure measure,
+      long failureCount,
+      LatencyHistogram latency,
+      Duration marketDataTime,
+      Duration calculationTime,
+      Duration currencyConversionTime) {
+
+    this.functionType = functionType;
+    this.measure = measure;
+    this.failureCount = failureCount;
+    this.latency = latency;
+    this.marketDataTime = marketDataTime;
+    this.calculationTime = calculationTime;
+    this.currencyConversionTime = currencyConversionTime;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the type of the function.
+   *
+   * @return the type of the function
+   */
+  public Class<?> getFunctionType() {
+    return functionType;
+  }
+
+  /**
+   * Gets the measure calculated by the function.
+   *
+   * @return the measure
+   */
+  public Measure getMeasure() {
+    return measure;
+  }
+
+  /**
+   * Gets the number of tasks.
+   *
+   * @return the number of tasks
+   */
+  public long getTaskCount() {
+    return latency.getCount();
+  }
+
+  /**
+   * Gets the number of tasks whose result is a failure.
+   *
+   * @return the number of failed tasks
+   */
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  /**
+   * Gets the histogram of the time taken by the tasks.
+   *
+   * @return the time taken by the tasks
+   */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  /**
+   * Gets the total time spent looking up market data while the function performed its calculations.
+   *
+   * @return the time spent looking up market data
+   */
+  public Duration getMarketDataTime() {
+    return marketDataTime;
+  }
+
+  /**
+   * Gets the total time spent performing calculations, excluding the time looking up market data.
+   *
+   * @return the time spent performing calculations
+   */
+  public Duration getCalculationTime() {
+    return calculationTime;
+  }
+
+  /**
+   * Gets the total time spent converting the results to the reporting currency.
+   *
+   * @return the time spent converting the results
+   */
+  public Duration getCurrencyConversionTime() {
+    return currencyConversionTime;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof FunctionMetrics) {
+      FunctionMetrics other = (FunctionMetrics) obj;
+      return functionType.equals(other.functionType) &&
+          measure.equals(other.measure) &&
+          failureCount == other.failureCount &&
+          latency.equals(other.latency) &&
+          marketDataTime.equals(other.marketDataTime) &&
+          calculationTime.equals(other.calculationTime) &&
+          currencyConversionTime.equals(other.currencyConversionTime);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        functionType, measure, failureCount, latency, marketDataTime, calculationTime, currencyConversionTime);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "FunctionMetrics[{}, {}, tasks={}, failures={}, {}, marketData={}, calculation={}, conversion={}]",
+        functionType.getSimpleName(),
+        measure,
+        getTaskCount(),
+        failureCount,
+        latency,
+        marketDataTime,
+        calculationTime,
+        currencyConversionTime);
+  }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Calculation metrics sink that keeps the metrics of the latest run in memory.
+ * <p>
+ * This allows the metrics to be inspected by the application, for example to expose them
+ * to a monitoring system or to check them in a test.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class InMemoryMetricsSink implements CalculationMetricsSink {
+
+  /**
+   * The metrics of the latest run.
+   */
+  private final AtomicReference<CalculationMetrics> latest = new AtomicReference<>();
+
+  /**
+   * Creates an instance.
+   */
+  InMemoryMetricsSink() {
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void metricsReceived(CalculationMetrics metrics) {
+    latest.set(metrics);
+  }
+
+  /**
+   * Gets the metrics of the latest run.
+   *
+   * @return the metrics of the latest run, empty if no run has completed
+   */
+  public Optional<CalculationMetrics> getLatest() {
+    return Optional.ofNullable(latest.get());
+  }
+
+}
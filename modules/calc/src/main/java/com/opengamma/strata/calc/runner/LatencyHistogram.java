@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * A histogram of the time taken by an operation.
+ * <p>
+ * The times are counted in buckets whose bounds are powers of two nanoseconds.
+ * The bucket {@code n} contains the times of at least 2<sup>n-1</sup> and less than 2<sup>n</sup> nanoseconds,
+ * with bucket zero containing the times of zero. The percentiles are therefore approximate,
+ * accurate to a factor of two, while the count, total and maximum are exact.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class LatencyHistogram {
+
+  /**
+   * The number of buckets, one for zero and one for each bit of a positive long.
+   */
+  static final int BUCKET_COUNT = 64;
+  /**
+   * An empty histogram.
+   */
+  static final LatencyHistogram EMPTY = new LatencyHistogram(new long[BUCKET_COUNT], 0, 0);
+
+  /**
+   * The number of times in each bucket.
+   */
+  private final long[] bucketCounts;
+  /**
+   * The number of times.
+   */
+  private final long count;
+  /**
+   * The total of the times, in nanoseconds.
+   */
+  private final long totalNanos;
+  /**
+   * The maximum time, in nanoseconds.
+   */
+  private final long maxNanos;
+
+  // restricted constructor
+  private LatencyHistogram(long[] bucketCounts, long totalNanos, long maxNanos) {
+    this.bucketCounts = bucketCounts;
+    this.count = Arrays.stream(bucketCounts).sum();
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of times in the histogram.
+   *
+   * @return the number of times
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the total of the times in the histogram.
+   *
+   * @return the total time
+   */
+  public Duration getTotal() {
+    return Duration.ofNanos(totalNanos);
+  }
+
+  /**
+   * Gets the mean of the times in the histogram, zero if the histogram is empty.
+   *
+   * @return the mean time
+   */
+  public Duration getMean() {
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos / count);
+  }
+
+  /**
+   * Gets the maximum of the times in the histogram, zero if the histogram is empty.
+   *
+   * @return the maximum time
+   */
+  public Duration getMax() {
+    return Duration.ofNanos(maxNanos);
+  }
+
+  /**
+   * Gets an approximation of a percentile of the times in the histogram.
+   * <p>
+   * This is the upper bound of the bucket containing the percentile, limited by the maximum time.
+   * It is zero if the histogram is empty.
+   *
+   * @param percentile  the percentile, from 0 to 100 inclusive
+   * @return the approximate time of the percentile
+   */
+  public Duration getPercentile(double percentile) {
+    ArgChecker.inRangeInclusive(percentile, 0d, 100d, "percentile");
+    if (count == 0) {
+      return Duration.ZERO;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100d));
+    long cumulative = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulative += bucketCounts[i];
+      if (cumulative >= rank) {
+        return Duration.ofNanos(Math.min(upperBound(i), maxNanos));
+      }
+    }
+    return Duration.ofNanos(maxNanos);
+  }
+
+  /**
+   * Gets the number of times in each bucket.
+   * <p>
+   * The bucket {@code n} contains the times of at least 2<sup>n-1</sup> and less than 2<sup>n</sup>
+   * nanoseconds, with bucket zero containing the times of zero.
+   *
+   * @return the number of times in each bucket
+   */
+  public long[] getBucketCounts() {
+    return bucketCounts.clone();
+  }
+
+  // the upper bound of a bucket, in nanoseconds
+  private static long upperBound(int bucket) {
+    return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof LatencyHistogram) {
+      LatencyHistogram other = (LatencyHistogram) obj;
+      return totalNanos == other.totalNanos &&
+          maxNanos == other.maxNanos &&
+          Arrays.equals(bucketCounts, other.bucketCounts);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(bucketCounts) * 31 + Long.hashCode(totalNanos) * 17 + Long.hashCode(maxNanos);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "LatencyHistogram[count={}, mean={}, p50={}, p99={}, max={}]",
+        count,
+        getMean(),
+        getPercentile(50),
+        getPercentile(99),
+        getMax());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Records times in a histogram.
+   * <p>
+   * Recording a time only updates atomic counters, allowing times to be recorded
+   * concurrently by many threads at a low cost.
+   * <p>
+   * This class is mutable and thread-safe.
+   */
+  static final class Recorder {
+
+    /** The number of times in each bucket. */
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    /** The total of the times, in nanoseconds. */
+    private final LongAdder totalNanos = new LongAdder();
+    /** The maximum time, in nanoseconds. */
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a time.
+     *
+     * @param nanos  the time in nanoseconds, negative times are recorded as zero
+     */
+    void record(long nanos) {
+      long time = Math.max(nanos, 0);
+      bucketCounts.incrementAndGet(BUCKET_COUNT - Long.numberOfLeadingZeros(time));
+      totalNanos.add(time);
+      maxNanos.accumulate(time);
+    }
+
+    /**
+     * Returns a histogram of the times recorded.
+     *
+     * @return the histogram
+     */
+    LatencyHistogram toHistogram() {
+      long[] counts = new long[BUCKET_COUNT];
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        counts[i] = bucketCounts.get(i);
+      }
+      return new LatencyHistogram(counts, totalNanos.sum(), maxNanos.get());
+    }
+  }
+
+}
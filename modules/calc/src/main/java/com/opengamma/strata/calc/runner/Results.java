@@ -5,10 +5,16 @@
  */
 package com.opengamma.strata.calc.runner;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanDefinition;
@@ -24,8 +30,10 @@ import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 
 /**
@@ -50,9 +58,17 @@ public final class Results implements ImmutableBean {
    * <pre>
    *   [t1c1, t1c2, t2c1, t2c2]
    * </pre>
+   * The results produced by the calculation runner are stored in a compact form, where the numeric
+   * results are held in primitive arrays and the result objects are created when requested.
+   * The results obtained from a {@link ResultsFile} are read from the file when requested.
+   * Other results are stored in an {@code ImmutableList}.
+   */
+  @PropertyDefinition(validate = "notNull", get = "manual")
+  private final List<Result<?>> items;
+  /**
+   * The results as an immutable list, created when first requested.
    */
-  @PropertyDefinition(validate = "notNull")
-  private final ImmutableList<Result<?>> items;
+  private transient volatile ImmutableList<Result<?>> itemList;  // derived, not a property
 
   /**
    * Returns a set of results for some calculations.
@@ -75,9 +91,10 @@ public final class Results implements ImmutableBean {
   // different types for the field and parameter the constructor must be hand written.
   @ImmutableConstructor
   private Results(int rowCount, int columnCount, List<? extends Result<?>> items) {
+    JodaBeanUtils.notNull(items, "items");
     this.rowCount = ArgChecker.notNegative(rowCount, "rowCount");
     this.columnCount = ArgChecker.notNegative(columnCount, "columnCount");
-    this.items = ImmutableList.copyOf(items);
+    this.items = immutableItems(items);
 
     if (rowCount * columnCount != items.size()) {
       throw new IllegalArgumentException(
@@ -89,6 +106,49 @@ public final class Results implements ImmutableBean {
     }
   }
 
+  // the immutable lists of results used internally are not copied, as that would create all the result objects
+  @SuppressWarnings("unchecked")
+  private static List<Result<?>> immutableItems(List<? extends Result<?>> items) {
+    if (items instanceof CompactResultList || items instanceof FileResultList) {
+      return (List<Result<?>>) items;
+    }
+    return ImmutableList.copyOf(items);
+  }
+
+  /**
+   * Gets the results, with results for each target grouped together, ordered by column.
+   * <p>
+   * For example, given a set of results with two target, t1 and t2, and two columns c1 and c2, the
+   * results will be:
+   * <pre>
+   *   [t1c1, t1c2, t2c1, t2c2]
+   * </pre>
+   * When the results are stored in a compact form or in a file, the first call creates all the result
+   * objects and holds them in memory. Use {@link #get(int, int)} to access individual results without doing so.
+   *
+   * @return the results
+   */
+  public ImmutableList<Result<?>> getItems() {
+    ImmutableList<Result<?>> list = itemList;
+    if (list == null) {
+      list = ImmutableList.copyOf(items);
+      itemList = list;
+    }
+    return list;
+  }
+
+  /**
+   * Gets the storage of the results, in the same order as {@link #getItems()}.
+   * <p>
+   * Unlike {@link #getItems()}, this does not create the result objects of results held in a compact form
+   * or in a file, which are instead created when they are requested from the list.
+   *
+   * @return the results, not null
+   */
+  public List<Result<?>> getCells() {
+    return items;
+  }
+
   /**
    * Returns the results for a target and column for a set of scenarios.
    *
@@ -107,6 +167,58 @@ public final class Results implements ImmutableBean {
     return items.get(index);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Counts the failed results.
+   *
+   * @return the number of failed results
+   */
+  public int countFailures() {
+    if (items instanceof CompactResultList) {
+      return ((CompactResultList) items).countFailures();
+    }
+    return (int) failures().count();
+  }
+
+  /**
+   * Counts the failed results by failure reason.
+   * <p>
+   * The map only contains the reasons of the failed results, in the order of the {@link FailureReason} constants.
+   *
+   * @return the number of failed results for each failure reason
+   */
+  public ImmutableMap<FailureReason, Integer> countFailuresByReason() {
+    Map<FailureReason, Integer> counts = new EnumMap<>(FailureReason.class);
+    failures().forEach(result -> counts.merge(result.getFailure().getReason(), 1, Integer::sum));
+    return ImmutableMap.copyOf(counts);
+  }
+
+  /**
+   * Counts the failed results by failure message.
+   * <p>
+   * This provides a summary of the failures, where the messages are ordered by decreasing number of failures.
+   * When many calculations fail for the same reason, for example because market data is missing,
+   * the message of the failure typically appears with a large count.
+   *
+   * @return the number of failed results for each failure message, most frequent first
+   */
+  public ImmutableMap<String, Integer> countFailuresByMessage() {
+    Map<String, Integer> counts = new HashMap<>();
+    failures().forEach(result -> counts.merge(result.getFailure().getMessage(), 1, Integer::sum));
+    return counts.entrySet().stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+        .collect(toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  // the failed results, column by column as the results read from a file are held in memory by column
+  private Stream<Result<?>> failures() {
+    return IntStream.range(0, columnCount)
+        .boxed()
+        .flatMap(columnIndex -> IntStream.range(0, rowCount)
+            .<Result<?>>mapToObj(rowIndex -> get(rowIndex, columnIndex)))
+        .filter(Result::isFailure);
+  }
+
   private String invalidRowIndexMessage(int rowIndex) {
     return Messages.format(
         "Row index must be greater than or equal to zero and less than the row count ({}), but it was {}",
@@ -174,21 +286,6 @@ public final class Results implements ImmutableBean {
     return columnCount;
   }
 
-  //-----------------------------------------------------------------------
-  /**
-   * Gets the results, with results for each target grouped together, ordered by column.
-   * <p>
-   * For example, given a set of results with two target, t1 and t2, and two columns c1 and c2, the
-   * results will be:
-   * <pre>
-   * [t1c1, t1c2, t2c1, t2c2]
-   * </pre>
-   * @return the value of the property, not null
-   */
-  public ImmutableList<Result<?>> getItems() {
-    return items;
-  }
-
   //-----------------------------------------------------------------------
   /**
    * Returns a builder that allows this bean to be mutated.
@@ -223,7 +320,7 @@ public final class Results implements ImmutableBean {
 
   @Override
   public String toString() {
-    StringBuilder buf = new StringBuilder(128);
+    StringBuilder buf = new StringBuilder(160);
     buf.append("Results{");
     buf.append("rowCount").append('=').append(rowCount).append(',').append(' ');
     buf.append("columnCount").append('=').append(columnCount).append(',').append(' ');
@@ -470,8 +567,12 @@ public final class Results implements ImmutableBean {
      * For example, given a set of results with two target, t1 and t2, and two columns c1 and c2, the
      * results will be:
      * <pre>
-     * [t1c1, t1c2, t2c1, t2c2]
+     *   [t1c1, t1c2, t2c1, t2c2]
      * </pre>
+     * The results produced by the calculation runner are stored in a compact form, where the numeric
+     * results are held in primitive arrays and the result objects are created when requested.
+     * The results obtained from a {@link ResultsFile} are read from the file when requested.
+     * Other results are stored in an {@code ImmutableList}.
      * @param items  the new value, not null
      * @return this, for chaining, not null
      */
@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * A file containing the results of calculations, written by {@link ResultsFileListener}.
+ * <p>
+ * The results are stored by column, allowing the results of a single column to be read
+ * without reading the rest of the file. The results of a column are read into a compact
+ * form where the numeric results are held in primitive arrays.
+ * <p>
+ * The results can be used in place of the in-memory results of the calculations using {@link #toResults()}.
+ * The {@link Results} returned reads the columns from the file as they are accessed,
+ * only holding the results of the most recently accessed column in memory.
+ * Accessing the results column by column therefore streams the results from the file.
+ * Iterating over all the results, for example to compare them, reads each column once
+ * and holds all the results in memory during the iteration.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ResultsFile {
+
+  /**
+   * The file.
+   */
+  private final Path file;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The number of columns.
+   */
+  private final int columnCount;
+  /**
+   * The positions of the blocks of each column, keyed by column index.
+   */
+  private final ImmutableListMultimap<Integer, Long> blockPositions;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a file written by {@link ResultsFileListener}.
+   * <p>
+   * This reads the index of the file, the results are only read when requested.
+   *
+   * @param file  the file
+   * @return the results file
+   * @throws UncheckedIOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a results file
+   */
+  public static ResultsFile of(Path file) {
+    ArgChecker.notNull(file, "file");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      DataInputStream header = read(channel, 0, 8);
+      if (header.readInt() != ResultsFileFormat.MAGIC || header.readInt() != ResultsFileFormat.VERSION) {
+        throw new IllegalArgumentException(Messages.format("File is not a results file: {}", file));
+      }
+      long footerPosition = read(channel, channel.size() - 8, 8).readLong();
+      DataInputStream footer = read(channel, footerPosition, (int) (channel.size() - 8 - footerPosition));
+      int rowCount = footer.readInt();
+      int columnCount = footer.readInt();
+      int blockCount = footer.readInt();
+      ImmutableListMultimap.Builder<Integer, Long> builder = ImmutableListMultimap.builder();
+      for (int i = 0; i < blockCount; i++) {
+        builder.put(footer.readInt(), footer.readLong());
+      }
+      return new ResultsFile(file, rowCount, columnCount, builder.build());
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to read results file: " + file, ex);
+    }
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param file  the file
+   * @param rowCount  the number of rows
+   * @param columnCount  the number of columns
+   * @param blockPositions  the positions of the blocks of each column
+   */
+  private ResultsFile(Path file, int rowCount, int columnCount, ImmutableListMultimap<Integer, Long> blockPositions) {
+    this.file = file;
+    this.rowCount = rowCount;
+    this.columnCount = columnCount;
+    this.blockPositions = blockPositions;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the file.
+   *
+   * @return the file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Gets the number of rows in the results.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the results.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Reads the results of a column.
+   * <p>
+   * The list contains the result of each row, in row order.
+   *
+   * @param columnIndex  the index of the column
+   * @return the results of the column
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  public List<Result<?>> readColumn(int columnIndex) {
+    ArgChecker.inRange(columnIndex, 0, columnCount, "columnIndex");
+    CompactResultList.Builder builder = new CompactResultList.Builder(rowCount, 1);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      for (long blockPosition : blockPositions.get(columnIndex)) {
+        DataInputStream blockHeader = read(channel, blockPosition, 12);
+        blockHeader.readInt();
+        int count = blockHeader.readInt();
+        ObjectInputStream block = new ObjectInputStream(read(channel, blockPosition + 12, blockHeader.readInt()));
+        for (int i = 0; i < count; i++) {
+          int rowIndex = block.readInt();
+          builder.set(rowIndex, 0, ResultsFileFormat.readResult(block));
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to read results file: " + file, ex);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns the results, reading the columns from the file as they are accessed.
+   * <p>
+   * Only the results of the most recently accessed column are held in memory.
+   * The results should be accessed column by column using {@link Results#get(int, int)},
+   * as accessing the results of a different column than the previous access reads the column from the file.
+   * Iterating over the cells reads each column once, holding all the results in memory during the iteration.
+   *
+   * @return the results
+   */
+  public Results toResults() {
+    return Results.of(rowCount, columnCount, new FileResultList(this));
+  }
+
+  // reads the specified number of bytes from the channel at the specified position
+  private static DataInputStream read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Unexpected end of results file");
+      }
+    }
+    return new DataInputStream(new ByteArrayInputStream(buffer.array()));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("ResultsFile[{}, rows={}, columns={}]", file, rowCount, columnCount);
+  }
+
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.runner.function.result.CurrencyValuesArray;
+import com.opengamma.strata.calc.runner.function.result.MultiCurrencyValuesArray;
+import com.opengamma.strata.calc.runner.function.result.ValuesArray;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * The binary format of a results file.
+ * <p>
+ * A results file starts with a header, followed by blocks of results and ends with a footer.
+ * <ul>
+ *   <li>The header contains a magic number and the format version.
+ *   <li>Each block contains the results of a single column, as arrived from the calculations.
+ *     It contains the column index, the number of results and the length in bytes of the results,
+ *     followed by the results. Each result is stored as the row index, a type tag and the value.
+ *     The results of a block are written to a single Java serialization stream, thus the class
+ *     descriptions of the serialized values and the values shared between results are only written once per block.
+ *   <li>The footer contains the number of rows and columns, followed by the column index and
+ *     the position of each block. The last eight bytes of the file are the position of the footer.
+ * </ul>
+ * The numeric results, {@code Double}, {@link CurrencyAmount}, {@link MultiCurrencyAmount},
+ * {@link ValuesArray}, {@link CurrencyValuesArray} and {@link MultiCurrencyValuesArray}, are stored as
+ * primitive values. The failures and the other values are stored using Java serialization.
+ * A value that is neither numeric nor serializable, or whose serialization fails,
+ * is stored as a failure.
+ */
+final class ResultsFileFormat {
+
+  /** The magic number at the start of the file. */
+  static final int MAGIC = 0x53524553;
+  /** The version of the format. */
+  static final int VERSION = 2;
+
+  /** The type tag of a failure. */
+  private static final byte FAILURE = 0;
+  /** The type tag of a {@code Double}. */
+  private static final byte DOUBLE = 1;
+  /** The type tag of a {@link CurrencyAmount}. */
+  private static final byte CURRENCY_AMOUNT = 2;
+  /** The type tag of a {@link MultiCurrencyAmount}. */
+  private static final byte MULTI_CURRENCY_AMOUNT = 3;
+  /** The type tag of a {@link ValuesArray}. */
+  private static final byte VALUES = 4;
+  /** The type tag of a {@link CurrencyValuesArray}. */
+  private static final byte CURRENCY_VALUES = 5;
+  /** The type tag of a {@link MultiCurrencyValuesArray}. */
+  private static final byte MULTI_CURRENCY_VALUES = 6;
+  /** The type tag of a value stored using Java serialization. */
+  private static final byte SERIALIZED = 7;
+
+  /**
+   * Restricted constructor.
+   */
+  private ResultsFileFormat() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a result.
+   * <p>
+   * If the value of the result is neither numeric nor serializable, a failure is written instead.
+   * If the serialization of the value fails, the exception is thrown and the output cannot be used further.
+   * The failure returned by {@link #unwritableResult(Result, Exception)} can then be written instead,
+   * in a new output.
+   *
+   * @param out  the output
+   * @param result  the result
+   * @throws IOException if an IO error occurs
+   */
+  static void writeResult(ObjectOutput out, Result<?> result) throws IOException {
+    if (result.isFailure()) {
+      out.writeByte(FAILURE);
+      out.writeObject(result.getFailure());
+      return;
+    }
+    Object value = result.getValue();
+    if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+
+    } else if (value instanceof CurrencyAmount) {
+      CurrencyAmount amount = (CurrencyAmount) value;
+      out.writeByte(CURRENCY_AMOUNT);
+      writeCurrency(out, amount.getCurrency());
+      out.writeDouble(amount.getAmount());
+
+    } else if (value instanceof MultiCurrencyAmount) {
+      MultiCurrencyAmount amount = (MultiCurrencyAmount) value;
+      out.writeByte(MULTI_CURRENCY_AMOUNT);
+      out.writeInt(amount.size());
+      for (CurrencyAmount currencyAmount : amount.getAmounts()) {
+        writeCurrency(out, currencyAmount.getCurrency());
+        out.writeDouble(currencyAmount.getAmount());
+      }
+
+    } else if (value instanceof ValuesArray) {
+      out.writeByte(VALUES);
+      writeValues(out, ((ValuesArray) value).getValues());
+
+    } else if (value instanceof CurrencyValuesArray) {
+      CurrencyValuesArray values = (CurrencyValuesArray) value;
+      out.writeByte(CURRENCY_VALUES);
+      writeCurrency(out, values.getCurrency());
+      writeValues(out, values.getValues());
+
+    } else if (value instanceof MultiCurrencyValuesArray) {
+      MultiCurrencyValuesArray values = (MultiCurrencyValuesArray) value;
+      out.writeByte(MULTI_CURRENCY_VALUES);
+      out.writeInt(values.getCurrencies().size());
+      for (Currency currency : values.getCurrencies()) {
+        writeCurrency(out, currency);
+        writeValues(out, values.getValues(currency));
+      }
+
+    } else if (value instanceof Serializable) {
+      out.writeByte(SERIALIZED);
+      out.writeObject(value);
+
+    } else {
+      Failure failure = Result.failure(
+          FailureReason.NOT_APPLICABLE,
+          "Result of type {} cannot be stored in a results file as it is not serializable",
+          value.getClass().getName()).getFailure();
+      out.writeByte(FAILURE);
+      out.writeObject(failure);
+    }
+  }
+
+  /**
+   * Returns the failure to write in place of a result whose serialization failed.
+   *
+   * @param result  the result that could not be written
+   * @param exception  the exception thrown when writing the result
+   * @return the failure result
+   */
+  static Result<?> unwritableResult(Result<?> result, Exception exception) {
+    String type = result.isFailure() ? Failure.class.getName() : result.getValue().getClass().getName();
+    return Result.failure(
+        FailureReason.NOT_APPLICABLE,
+        exception,
+        "Result of type {} cannot be stored in a results file: {}",
+        type,
+        exception.toString());
+  }
+
+  /**
+   * Reads a result.
+   *
+   * @param in  the input
+   * @return the result
+   * @throws IOException if an IO error occurs
+   */
+  static Result<?> readResult(ObjectInput in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case FAILURE:
+        return Result.failure((Failure) readSerialized(in));
+      case DOUBLE:
+        return Result.success(in.readDouble());
+      case CURRENCY_AMOUNT:
+        return Result.success(CurrencyAmount.of(readCurrency(in), in.readDouble()));
+      case MULTI_CURRENCY_AMOUNT: {
+        int currencyCount = in.readInt();
+        Map<Currency, Double> amounts = new TreeMap<>();
+        for (int i = 0; i < currencyCount; i++) {
+          amounts.put(readCurrency(in), in.readDouble());
+        }
+        return Result.success(MultiCurrencyAmount.of(amounts));
+      }
+      case VALUES:
+        return Result.success(ValuesArray.of(readValues(in)));
+      case CURRENCY_VALUES:
+        return Result.success(CurrencyValuesArray.of(readCurrency(in), readValues(in)));
+      case MULTI_CURRENCY_VALUES: {
+        int currencyCount = in.readInt();
+        Map<Currency, DoubleArray> values = new TreeMap<>();
+        for (int i = 0; i < currencyCount; i++) {
+          values.put(readCurrency(in), readValues(in));
+        }
+        return Result.success(MultiCurrencyValuesArray.of(values));
+      }
+      case SERIALIZED:
+        return Result.success(readSerialized(in));
+      default:
+        throw new IOException("Invalid result type in results file: " + type);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // reads an object using Java serialization
+  private static Object readSerialized(ObjectInput in) throws IOException {
+    try {
+      return in.readObject();
+    } catch (ClassNotFoundException ex) {
+      throw new IOException("Unable to read result from results file", ex);
+    }
+  }
+
+  // writes a currency
+  private static void writeCurrency(DataOutput out, Currency currency) throws IOException {
+    out.writeUTF(currency.getCode());
+  }
+
+  // reads a currency
+  private static Currency readCurrency(DataInput in) throws IOException {
+    return Currency.of(in.readUTF());
+  }
+
+  // writes an array of values
+  private static void writeValues(DataOutput out, DoubleArray values) throws IOException {
+    out.writeInt(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      out.writeDouble(values.get(i));
+    }
+  }
+
+  // reads an array of values
+  private static DoubleArray readValues(DataInput in) throws IOException {
+    double[] values = new double[in.readInt()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = in.readDouble();
+    }
+    return DoubleArray.ofUnsafe(values);
+  }
+
+}
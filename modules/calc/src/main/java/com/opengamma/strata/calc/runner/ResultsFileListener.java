@@ -0,0 +1,256 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Calculation listener that writes the results of the calculations to a file as they arrive.
+ * <p>
+ * This allows the results of calculations that do not fit in memory to be captured,
+ * for example the results of a large portfolio over many scenarios.
+ * The results are buffered by column and written to the file in blocks, so the memory used
+ * by the listener is bounded by the block size multiplied by the number of columns.
+ * <p>
+ * When the calculations are complete, the results can be read using the {@link ResultsFile}
+ * returned by {@link #result()}. The numeric results are stored as primitive values.
+ * The failures and the other results are stored using Java serialization,
+ * and a result that is not serializable, or whose serialization fails, is stored as a failure.
+ * <p>
+ * If an error occurs when writing the file, {@link #result()} throws an exception.
+ */
+public final class ResultsFileListener
+    extends AggregatingCalculationListener<ResultsFile> {
+
+  /**
+   * The default size of the blocks, in bytes.
+   */
+  private static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+  /**
+   * The file.
+   */
+  private final Path file;
+  /**
+   * The size in bytes above which the results of a column are written to the file.
+   */
+  private final int blockSize;
+  /**
+   * The output to the file.
+   */
+  private final DataOutputStream out;
+  /**
+   * The results of each column not yet written to the file.
+   */
+  private final ColumnBuffer[] buffers;
+  /**
+   * The column index of each block written to the file.
+   */
+  private final List<Integer> blockColumns = new ArrayList<>();
+  /**
+   * The position of each block written to the file.
+   */
+  private final List<Long> blockPositions = new ArrayList<>();
+  /**
+   * The number of bytes written to the file.
+   */
+  private long position;
+  /**
+   * The number of rows, one greater than the largest row index received.
+   */
+  private int rowCount;
+  /**
+   * The error that occurred when writing the file, null if none.
+   */
+  private IOException error;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a listener writing the results to the specified file.
+   * <p>
+   * The file is created, or truncated if it already exists.
+   *
+   * @param file  the file
+   * @param columnCount  the number of columns in the calculations
+   * @return the listener
+   * @throws UncheckedIOException if the file cannot be created
+   */
+  public static ResultsFileListener of(Path file, int columnCount) {
+    return new ResultsFileListener(file, columnCount, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param file  the file
+   * @param columnCount  the number of columns in the calculations
+   * @param blockSize  the size in bytes above which the results of a column are written to the file
+   */
+  ResultsFileListener(Path file, int columnCount, int blockSize) {
+    this.file = ArgChecker.notNull(file, "file");
+    this.blockSize = ArgChecker.notNegativeOrZero(blockSize, "blockSize");
+    this.buffers = new ColumnBuffer[ArgChecker.notNegative(columnCount, "columnCount")];
+    for (int i = 0; i < columnCount; i++) {
+      buffers[i] = new ColumnBuffer();
+    }
+    this.out = new DataOutputStream(new BufferedOutputStream(Unchecked.wrap(() -> Files.newOutputStream(file))));
+    Unchecked.wrap(() -> {
+      out.writeInt(ResultsFileFormat.MAGIC);
+      out.writeInt(ResultsFileFormat.VERSION);
+    });
+    this.position = 8;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    if (error != null) {
+      return;
+    }
+    int columnIndex = result.getColumnIndex();
+    rowCount = Math.max(rowCount, result.getRowIndex() + 1);
+    try {
+      ColumnBuffer buffer = buffers[columnIndex];
+      try {
+        buffer.write(result.getRowIndex(), result.getResult());
+      } catch (IOException | RuntimeException ex) {
+        // the serialization of the value failed, the results before it are written and it is replaced by a failure
+        writeBlock(columnIndex);
+        buffer.write(result.getRowIndex(), ResultsFileFormat.unwritableResult(result.getResult(), ex));
+      }
+      if (buffer.size() >= blockSize) {
+        writeBlock(columnIndex);
+      }
+    } catch (IOException ex) {
+      error = ex;
+    }
+  }
+
+  @Override
+  protected ResultsFile createAggregateResult() {
+    try (DataOutputStream closing = out) {
+      if (error != null) {
+        throw error;
+      }
+      for (int i = 0; i < buffers.length; i++) {
+        writeBlock(i);
+      }
+      // write the footer
+      long footerPosition = position;
+      out.writeInt(rowCount);
+      out.writeInt(buffers.length);
+      out.writeInt(blockColumns.size());
+      for (int i = 0; i < blockColumns.size(); i++) {
+        out.writeInt(blockColumns.get(i));
+        out.writeLong(blockPositions.get(i));
+      }
+      out.writeLong(footerPosition);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Unable to write results file: " + file, ex);
+    }
+    return ResultsFile.of(file);
+  }
+
+  // writes the buffered results of a column to the file as a block, unless there are none
+  private void writeBlock(int columnIndex) throws IOException {
+    ColumnBuffer buffer = buffers[columnIndex];
+    if (buffer.count > 0) {
+      buffer.finish();
+      blockColumns.add(columnIndex);
+      blockPositions.add(position);
+      out.writeInt(columnIndex);
+      out.writeInt(buffer.count);
+      out.writeInt(buffer.size());
+      buffer.bytes.writeTo(out);
+      position += 12 + buffer.size();
+    }
+    buffer.reset();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The results of a column not yet written to the file.
+   * <p>
+   * The results are written to a single object stream, which is started by the first result of the block.
+   * If the serialization of a result fails, the bytes written for it are discarded and the stream is ended,
+   * thus the block must be written to the file before the next result.
+   */
+  private static final class ColumnBuffer {
+
+    /** The bytes of the block. */
+    private final Bytes bytes = new Bytes();
+    /** The object stream of the block, null if not started or ended by a failure. */
+    private ObjectOutputStream stream;
+    /** The number of results in the block. */
+    private int count;
+
+    // writes a result, discarding the bytes written for it if it fails
+    private void write(int rowIndex, Result<?> result) throws IOException {
+      if (stream == null) {
+        if (bytes.size() > 0) {
+          throw new IllegalStateException("Results file block must be written after a failure");
+        }
+        stream = new ObjectOutputStream(bytes);
+      }
+      // the bytes of the previous results must be in the buffer to be able to discard the bytes of this result
+      stream.flush();
+      int mark = bytes.size();
+      try {
+        stream.writeInt(rowIndex);
+        ResultsFileFormat.writeResult(stream, result);
+        count++;
+      } catch (IOException | RuntimeException ex) {
+        stream = null;
+        bytes.truncate(mark);
+        throw ex;
+      }
+    }
+
+    // flushes the object stream to the bytes
+    private void finish() throws IOException {
+      if (stream != null) {
+        stream.flush();
+      }
+    }
+
+    // the number of bytes in the buffer
+    private int size() {
+      return bytes.size();
+    }
+
+    // clears the buffer, the next result starting a new object stream
+    private void reset() {
+      bytes.reset();
+      stream = null;
+      count = 0;
+    }
+  }
+
+  /**
+   * A byte array output stream that can discard the bytes written after a position.
+   */
+  private static final class Bytes extends ByteArrayOutputStream {
+
+    private void truncate(int size) {
+      count = size;
+    }
+  }
+
+}
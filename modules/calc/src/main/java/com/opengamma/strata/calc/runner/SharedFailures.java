@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.runner.function.CalculationFunction;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureException;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * The failures of the calculation tasks of a run, shared between the tasks failing for the same reason.
+ * <p>
+ * When market data is missing or a function cannot handle a type of target, a large number of
+ * tasks typically fail with the same exception. Creating a failure for each task would render
+ * the same stack trace many times, which is expensive in both time and memory.
+ * <p>
+ * Instead, a single failure is created for each combination of function type, exception type
+ * and exception message, and is shared by all the tasks failing with that combination.
+ * The failures caused by a {@link FailureException}, typically thrown when market data failed to build,
+ * share the failure of the exception.
+ * <p>
+ * This class is thread-safe and is used for a single run of the calculation tasks.
+ */
+final class SharedFailures {
+
+  /**
+   * Whether the stack traces of the exceptions are captured.
+   */
+  private final boolean captureStackTraces;
+  /**
+   * The failures, keyed by function type, exception type and exception message.
+   */
+  private final ConcurrentMap<List<Object>, Failure> failures = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an instance.
+   *
+   * @param captureStackTraces  whether the stack traces of the exceptions are captured
+   */
+  SharedFailures(boolean captureStackTraces) {
+    this.captureStackTraces = captureStackTraces;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the failure result for an exception thrown when invoking a function.
+   * <p>
+   * If the stack traces are captured, the stack trace of the failure is the one of the first
+   * exception with the same function type, exception type and exception message.
+   *
+   * @param function  the function that was invoked
+   * @param exception  the exception
+   * @return the failure result
+   */
+  Result<?> failure(CalculationFunction<?> function, Exception exception) {
+    // the failure of a FailureException is already shared
+    if (exception instanceof FailureException) {
+      return Result.failure(((FailureException) exception).getFailure());
+    }
+    List<Object> key = ImmutableList.of(
+        function.getClass(),
+        exception.getClass(),
+        Objects.toString(exception.getMessage(), ""));
+    Failure failure = failures.computeIfAbsent(key, k -> createFailure(exception));
+    return Result.failure(failure);
+  }
+
+  // creates the failure, capturing the stack trace if configured
+  private Failure createFailure(Exception exception) {
+    Result<?> result = captureStackTraces ?
+        Result.failure(exception) :
+        Result.failureWithoutStackTrace(FailureReason.ERROR, exception);
+    return result.getFailure();
+  }
+
+}
@@ -10,6 +10,8 @@ import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -360,6 +362,94 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketDataB2.getSingleValue()).isEqualTo(expectedB2);
   }
 
+  /**
+   * Tests the build of each item of market data is recorded.
+   */
+  public void buildRecords() {
+    LocalDateDoubleTimeSeries timeSeries = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 1)
+        .put(date(2011, 3, 9), 2)
+        .build();
+    TestIdA idA = new TestIdA("1");
+    TestIdB idB = new TestIdB("1");
+    TestIdC idC = new TestIdC("1");
+    DefaultMarketDataFactory factory = new DefaultMarketDataFactory(
+        new TestTimeSeriesProvider(ImmutableMap.of(idA, timeSeries)),
+        new TestObservableMarketDataFunction(),
+        FeedIdMapping.identity(),
+        new TestMarketDataFunctionB(),
+        new TestMarketDataFunctionC());
+
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(idB).build();
+    MarketEnvironment suppliedData = MarketEnvironment.builder(date(2011, 3, 8)).build();
+    MarketEnvironmentResult result = factory.buildMarketDataResult(
+        requirements,
+        MARKET_DATA_CONFIG,
+        suppliedData,
+        REF_DATA,
+        ScenarioDefinition.empty());
+
+    Map<MarketDataId<?>, MarketDataBuildRecord> records = result.getBuildRecords();
+    assertThat(records.keySet()).containsExactly(idA, idC, idB);
+    MarketDataBuildRecord recordA = records.get(idA);
+    assertThat(recordA.getStep()).isEqualTo(0);
+    assertThat(recordA.isSuccess()).isTrue();
+    assertThat(recordA.getScenarioCount()).isEqualTo(1);
+    assertThat(recordA.getMemoryEstimate()).isGreaterThan(0);
+    assertThat(recordA.getDependencies()).isEmpty();
+    MarketDataBuildRecord recordC = records.get(idC);
+    assertThat(recordC.getStep()).isEqualTo(1);
+    assertThat(recordC.getDependencies()).containsOnly(idA);
+    MarketDataBuildRecord recordB = records.get(idB);
+    assertThat(recordB.getStep()).isEqualTo(2);
+    assertThat(recordB.getDependencies()).containsOnly(idA, idC);
+    assertThat(recordB.getStart()).isGreaterThanOrEqualTo(recordC.getStart().plus(recordC.getDuration()));
+    assertThat(recordB.getFailure()).isEmpty();
+
+    List<MarketDataBuildRecord> criticalPath = result.getCriticalPath();
+    assertThat(criticalPath.get(criticalPath.size() - 1)).isEqualTo(recordB);
+    assertThat(criticalPath).isSubsetOf(recordA, recordC, recordB);
+
+    StringBuilder trace = new StringBuilder();
+    result.writeChromeTrace(trace);
+    assertThat(trace.toString())
+        .startsWith("{\"traceEvents\":[")
+        .contains("\"ph\":\"X\",\"pid\":1,\"tid\":2")
+        .contains("\"args\":{\"name\":\"Step 2\"}");
+
+    // the build is only recorded when requested
+    MarketEnvironment marketData = factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+    assertThat(marketData).isEqualTo(result.getMarketEnvironment());
+  }
+
+  /**
+   * Tests a failure to build market data is recorded.
+   */
+  public void buildRecordsFailure() {
+    DefaultMarketDataFactory factory = new DefaultMarketDataFactory(
+        new TestTimeSeriesProvider(ImmutableMap.of()),
+        new TestObservableMarketDataFunction(),
+        new TestFeedIdMapping());
+    TestObservableId id = TestObservableId.of(StandardId.of("reqs", "z"));
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id).build();
+    MarketEnvironment suppliedData = MarketEnvironment.builder(date(2011, 3, 8)).build();
+    MarketEnvironmentResult result = factory.buildMarketDataResult(
+        requirements,
+        MARKET_DATA_CONFIG,
+        suppliedData,
+        REF_DATA,
+        ScenarioDefinition.empty());
+
+    MarketDataBuildRecord record = result.getBuildRecords().get(id);
+    assertThat(record.isSuccess()).isFalse();
+    assertThat(record.getFailure()).contains(result.getSingleValueFailures().get(id));
+    assertThat(record.getScenarioCount()).isEqualTo(0);
+    assertThat(record.getMemoryEstimate()).isEqualTo(0);
+    StringBuilder trace = new StringBuilder();
+    result.writeChromeTrace(trace);
+    assertThat(trace.toString()).contains("\"success\":false,\"failure\":");
+  }
+
   /**
    * Tests building market data that depends on other market data that is supplied by the user.
    *
@@ -678,6 +768,45 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketData.getValue(id2)).isEqualTo(MarketDataBox.ofScenarioValues(2.2d, 2.4d, 2.6d));
   }
 
+  /**
+   * Tests the first matching mapping is applied when the mappings are indexed by ID and by ID type.
+   */
+  public void perturbationMappingOrder() {
+    DefaultMarketDataFactory factory = new DefaultMarketDataFactory(
+        new TestTimeSeriesProvider(ImmutableMap.of()),
+        new TestObservableMarketDataFunction(),
+        new TestFeedIdMapping());
+
+    MarketEnvironment suppliedData = MarketEnvironment.builder(date(2011, 3, 8)).build();
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    TestObservableId id2 = TestObservableId.of(StandardId.of("reqs", "b"));
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id1, id2).build();
+    PerturbationMapping<Double> mapping1 = PerturbationMapping.of(
+        Double.class,
+        new ExactIdFilter<>(id2),
+        new RelativeDoubleShift(0.1, 0.2, 0.3));
+    PerturbationMapping<Double> mapping2 = PerturbationMapping.of(
+        Double.class,
+        new IdTypeFilter<>(TestObservableId.class),
+        new AbsoluteDoubleShift(1, 2, 3));
+    PerturbationMapping<Double> mapping3 = PerturbationMapping.of(
+        Double.class,
+        new ExactIdFilter<>(id1),
+        new RelativeDoubleShift(0.5, 0.6, 0.7));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(mapping1, mapping2, mapping3);
+    MarketEnvironmentResult result = factory.buildMarketDataResult(
+        requirements,
+        MARKET_DATA_CONFIG,
+        suppliedData,
+        REF_DATA, scenarioDefinition);
+
+    MarketEnvironment marketData = result.getMarketEnvironment();
+    assertThat(marketData.getValue(id1)).isEqualTo(MarketDataBox.ofScenarioValues(2d, 3d, 4d));
+    assertThat(marketData.getValue(id2)).isEqualTo(MarketDataBox.ofScenarioValues(2.2d, 2.4d, 2.6d));
+    assertThat(result.getSingleValueFailures()).isEmpty();
+    assertThat(result.getPerturbationTime()).isGreaterThan(Duration.ZERO);
+  }
+
   /**
    * Tests building multiple values of non-observable market data for multiple scenarios. The data isn't perturbed.
    */
@@ -1433,6 +1562,33 @@ public class DefaultMarketDataFactoryTest {
     public Class<?> getMarketDataIdType() {
       return id.getClass();
     }
+
+    @Override
+    public Optional<I> getMatchKey() {
+      return Optional.of(id);
+    }
+  }
+
+  /**
+   * Filter that matches any ID of a type.
+   */
+  private static final class IdTypeFilter<T, I extends MarketDataId<T>> implements MarketDataFilter<T, I> {
+
+    private final Class<?> idType;
+
+    private IdTypeFilter(Class<?> idType) {
+      this.idType = idType;
+    }
+
+    @Override
+    public boolean matches(I marketDataId, MarketDataBox<T> marketData) {
+      return true;
+    }
+
+    @Override
+    public Class<?> getMarketDataIdType() {
+      return idType;
+    }
   }
 
   /**
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Test {@link MarketDataBuildRecord}.
+ */
+@Test
+public class MarketDataBuildRecordTest {
+
+  private static final TestId ID1 = new TestId("1");
+  private static final TestId ID2 = new TestId("2");
+
+  public void of() {
+    MarketDataBuildRecord test = MarketDataBuildRecord.of(
+        ID1, 1, Duration.ofMillis(2), Duration.ofMillis(3), 4, 5, null, ImmutableSet.of(ID2));
+    assertThat(test.getId()).isEqualTo(ID1);
+    assertThat(test.getStep()).isEqualTo(1);
+    assertThat(test.getStart()).isEqualTo(Duration.ofMillis(2));
+    assertThat(test.getDuration()).isEqualTo(Duration.ofMillis(3));
+    assertThat(test.getScenarioCount()).isEqualTo(4);
+    assertThat(test.getMemoryEstimate()).isEqualTo(5);
+    assertThat(test.isSuccess()).isTrue();
+    assertThat(test.getFailure()).isEmpty();
+    assertThat(test.getDependencies()).containsOnly(ID2);
+  }
+
+  public void of_failure() {
+    Result<?> failure = Result.failure(FailureReason.MISSING_DATA, "Missing");
+    MarketDataBuildRecord test = MarketDataBuildRecord.of(
+        ID1, 0, Duration.ZERO, Duration.ZERO, 0, 0, failure.getFailure(), ImmutableSet.of());
+    assertThat(test.isSuccess()).isFalse();
+    assertThat(test.getFailure()).contains(failure.getFailure());
+  }
+
+  public void of_invalid() {
+    assertThrowsIllegalArg(() -> MarketDataBuildRecord.of(
+        ID1, -1, Duration.ZERO, Duration.ZERO, 0, 0, null, ImmutableSet.of()));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    MarketDataBuildRecord test = MarketDataBuildRecord.of(
+        ID1, 1, Duration.ofMillis(2), Duration.ofMillis(3), 4, 5, null, ImmutableSet.of(ID2));
+    coverImmutableBean(test);
+    MarketDataBuildRecord test2 = MarketDataBuildRecord.of(
+        ID2,
+        2,
+        Duration.ofMillis(3),
+        Duration.ofMillis(4),
+        5,
+        6,
+        Result.failure(FailureReason.MISSING_DATA, "Missing").getFailure(),
+        ImmutableSet.of());
+    coverBeanEquals(test, test2);
+  }
+
+}
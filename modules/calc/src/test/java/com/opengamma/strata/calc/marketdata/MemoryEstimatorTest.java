@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link MemoryEstimator}.
+ */
+@Test
+public class MemoryEstimatorTest {
+
+  public void simpleValues() {
+    assertThat(MemoryEstimator.estimate(MarketDataBox.ofSingleValue(1d))).isEqualTo(24);
+    assertThat(MemoryEstimator.estimate(MarketDataBox.ofSingleValue("abc"))).isEqualTo(38);
+  }
+
+  public void arrays() {
+    long small = MemoryEstimator.estimate(MarketDataBox.ofSingleValue(DoubleArray.filled(10)));
+    long large = MemoryEstimator.estimate(MarketDataBox.ofSingleValue(DoubleArray.filled(20)));
+    assertThat(large - small).isEqualTo(80);
+  }
+
+  public void scenarioValues() {
+    long single = MemoryEstimator.estimate(MarketDataBox.ofSingleValue(DoubleArray.filled(10)));
+    long scenarios = MemoryEstimator.estimate(
+        MarketDataBox.ofScenarioValues(DoubleArray.filled(10), DoubleArray.filled(10)));
+    assertThat(scenarios).isGreaterThan(2 * single);
+  }
+
+  public void sharedObjectsCountedOnce() {
+    DoubleArray array = DoubleArray.filled(100);
+    long once = MemoryEstimator.estimate(MarketDataBox.ofSingleValue(ImmutableList.of(array)));
+    long twice = MemoryEstimator.estimate(MarketDataBox.ofSingleValue(ImmutableList.of(array, array)));
+    assertThat(twice - once).isEqualTo(4);
+  }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.config.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.config.Measure;
+import com.opengamma.strata.calc.config.Measures;
+import com.opengamma.strata.calc.marketdata.CalculationMarketData;
+import com.opengamma.strata.calc.marketdata.FunctionRequirements;
+import com.opengamma.strata.calc.marketdata.MarketEnvironment;
+import com.opengamma.strata.calc.marketdata.mapping.MarketDataMappings;
+import com.opengamma.strata.calc.runner.function.CalculationFunction;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * Test {@link CalculationCostModel}.
+ */
+@Test
+public class CalculationCostModelTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final TestFunction FUNCTION = new TestFunction();
+  private static final Pair<String, String> PV_KEY =
+      Pair.of(TestFunction.class.getName(), Measures.PRESENT_VALUE.getName());
+  private static final Pair<String, String> PV01_KEY =
+      Pair.of(TestFunction.class.getName(), Measures.PV01.getName());
+
+  //-------------------------------------------------------------------------
+  public void seededByMeasure() {
+    CalculationTask pv = task(new TestTarget(1), Measures.PRESENT_VALUE, 0);
+    CalculationTask gamma = task(new TestTarget(1), Measures.CROSS_GAMMA_PV01, 1);
+    CalculationTask pv01 = task(new TestTarget(1), Measures.PV01, 2);
+    CalculationCostModel test = CalculationCostModel.standard();
+    assertThat(test.order(ImmutableList.of(pv, gamma, pv01), 1)).containsExactly(gamma, pv01, pv);
+  }
+
+  public void seededByComplexity() {
+    CalculationTask small = task(new TestTarget(2), Measures.PRESENT_VALUE, 0);
+    CalculationTask large = task(new TestTarget(40), Measures.PRESENT_VALUE, 1);
+    CalculationTask medium = task(new TestTarget(10), Measures.PRESENT_VALUE, 2);
+    List<CalculationTask> tasks = ImmutableList.of(small, large, medium);
+
+    // the standard model treats all targets the same, retaining the order
+    assertThat(CalculationCostModel.standard().order(tasks, 1)).containsExactly(small, large, medium);
+    CalculationCostModel test = CalculationCostModel.of(target -> ((TestTarget) target).periods);
+    assertThat(test.order(tasks, 1)).containsExactly(large, medium, small);
+    double[] costs = test.estimateCosts(tasks, 10);
+    assertThat(costs[1]).isEqualTo(costs[0] * 20);
+    assertThat(test.estimateCosts(tasks, 20)[0]).isEqualTo(costs[0] * 2);
+  }
+
+  public void learned() {
+    CalculationTask pv = task(new TestTarget(1), Measures.PRESENT_VALUE, 0);
+    CalculationTask pv01 = task(new TestTarget(1), Measures.PV01, 1);
+    List<CalculationTask> tasks = ImmutableList.of(pv, pv01);
+    CalculationCostModel test = CalculationCostModel.standard();
+    assertThat(test.order(tasks, 1)).containsExactly(pv01, pv);
+
+    // the present value is learned to be slower than the seeded PV01
+    test.metricsReceived(metrics(2, ImmutableMap.of(Measures.PRESENT_VALUE, 1_000_000L)));
+    assertThat(test.getLearnedCosts()).containsEntry(PV_KEY, 500_000d);
+    assertThat(test.order(tasks, 1)).containsExactly(pv, pv01);
+
+    // later runs are blended with the previous runs
+    test.metricsReceived(metrics(1, ImmutableMap.of(Measures.PRESENT_VALUE, 100_000L, Measures.PV01, 300_000L)));
+    assertThat(test.getLearnedCosts()).containsEntry(PV_KEY, 300_000d);
+    assertThat(test.getLearnedCosts()).containsEntry(PV01_KEY, 300_000d);
+    assertThat(test.estimateCosts(tasks, 3)).containsExactly(900_000d, 900_000d);
+  }
+
+  public void learnedScaledByComplexity() {
+    CalculationTask small = task(new TestTarget(1), Measures.PRESENT_VALUE, 0);
+    CalculationTask large = task(new TestTarget(3), Measures.PRESENT_VALUE, 1);
+    CalculationCostModel test = CalculationCostModel.of(target -> ((TestTarget) target).periods);
+    test.metricsReceived(metrics(1, ImmutableMap.of(Measures.PRESENT_VALUE, 200_000L)));
+    // the learned time is the mean, the mean complexity is 2
+    assertThat(test.estimateCosts(ImmutableList.of(small, large), 1)).containsExactly(100_000d, 300_000d);
+  }
+
+  public void saveAndLoad() throws IOException {
+    CalculationCostModel model = CalculationCostModel.standard();
+    model.metricsReceived(metrics(1, ImmutableMap.of(Measures.PRESENT_VALUE, 1_000L, Measures.PV01, 4_000L)));
+    Path file = Files.createTempFile("cost", ".csv");
+    try {
+      model.save(file);
+      List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      assertThat(lines).hasSize(3);
+      assertThat(lines.get(0)).isEqualTo("Function,Measure,NanosPerScenario");
+
+      CalculationCostModel test = CalculationCostModel.standard();
+      test.load(file);
+      assertThat(test.getLearnedCosts()).isEqualTo(model.getLearnedCosts());
+    } finally {
+      Files.delete(file);
+    }
+    // a missing file leaves the model unchanged
+    CalculationCostModel test = CalculationCostModel.standard();
+    test.load(file);
+    assertThat(test.getLearnedCosts()).isEmpty();
+  }
+
+  public void loadInvalid() throws IOException {
+    Path file = Files.createTempFile("cost", ".csv");
+    try {
+      Files.write(file, ImmutableList.of("Function,Measure,NanosPerScenario", "a,b,c"), StandardCharsets.UTF_8);
+      CalculationCostModel test = CalculationCostModel.standard();
+      assertThrows(() -> test.load(file), IllegalArgumentException.class, "Invalid time 'c' in file: .*");
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void runner() {
+    List<CalculationTask> taskList = IntStream.range(0, 3)
+        .mapToObj(i -> task(new TestTarget(i + 1), Measures.PRESENT_VALUE, i))
+        .collect(toImmutableList());
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(Column.of(Measures.PRESENT_VALUE)));
+    CalculationCostModel model = CalculationCostModel.of(target -> ((TestTarget) target).periods);
+
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationTaskRunner test = CalculationTaskRunner.ofCostOrdered(MoreExecutors.newDirectExecutorService(), model);
+    Listener listener = new Listener();
+    test.calculateSingleScenarioAsync(tasks, MarketEnvironment.empty(date(2011, 3, 8)), REF_DATA, listener);
+    // the most complex target is calculated first, the results are in the correct cells
+    assertThat(listener.periods).containsExactly(3, 2, 1);
+    assertThat(listener.rows).containsExactly(2, 1, 0);
+    assertThat(model.getLearnedCosts()).containsOnlyKeys(PV_KEY);
+  }
+
+  public void runner_metricsSink() {
+    List<CalculationTask> taskList = IntStream.range(0, 3)
+        .mapToObj(i -> task(new TestTarget(i + 1), Measures.PRESENT_VALUE, i))
+        .collect(toImmutableList());
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(Column.of(Measures.PRESENT_VALUE)));
+    CalculationCostModel model = CalculationCostModel.of(target -> ((TestTarget) target).periods);
+    InMemoryMetricsSink sink = CalculationMetricsSink.inMemory();
+
+    // the metrics of the run are passed to both the model and the sink
+    CalculationTaskRunner test = CalculationTaskRunner.ofCostOrdered(
+        MoreExecutors.newDirectExecutorService(), false, model, sink);
+    Listener listener = new Listener();
+    test.calculateSingleScenarioAsync(tasks, MarketEnvironment.empty(date(2011, 3, 8)), REF_DATA, listener);
+    assertThat(listener.periods).containsExactly(3, 2, 1);
+    assertThat(model.getLearnedCosts()).containsOnlyKeys(PV_KEY);
+    assertThat(sink.getLatest().get().getTaskCount()).isEqualTo(3);
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationTask task(TestTarget target, Measure measure, int row) {
+    return CalculationTask.of(target, measure, row, 0, FUNCTION, MarketDataMappings.empty(), NATURAL);
+  }
+
+  // creates metrics where each task of a measure took the same time
+  private static CalculationMetrics metrics(int scenarioCount, Map<Measure, Long> nanos) {
+    List<FunctionMetrics> functions = nanos.entrySet().stream()
+        .map(e -> {
+          LatencyHistogram.Recorder recorder = new LatencyHistogram.Recorder();
+          recorder.record(e.getValue());
+          return new FunctionMetrics(
+              TestFunction.class,
+              e.getKey(),
+              0,
+              recorder.toHistogram(),
+              Duration.ZERO,
+              Duration.ofNanos(e.getValue()),
+              Duration.ZERO);
+        })
+        .collect(toImmutableList());
+    return new CalculationMetrics(
+        nanos.size(), scenarioCount, Duration.ofSeconds(1), LatencyHistogram.EMPTY, functions, ImmutableMap.of());
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class TestTarget implements CalculationTarget {
+
+    private final int periods;
+
+    private TestTarget(int periods) {
+      this.periods = periods;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class TestFunction implements CalculationFunction<TestTarget> {
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PV01, Measures.CROSS_GAMMA_PV01);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(TestTarget target, Set<Measure> measures, ReferenceData refData) {
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationMarketData marketData,
+        ReferenceData refData) {
+
+      return measures.stream().collect(toImmutableMap(m -> m, m -> Result.success(target.periods)));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class Listener implements CalculationListener {
+
+    private final List<Integer> periods = new ArrayList<>();
+    private final List<Integer> rows = new ArrayList<>();
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      periods.add((Integer) result.getResult().getValue());
+      rows.add(result.getRowIndex());
+    }
+
+    @Override
+    public void calculationsComplete() {
+      // do nothing
+    }
+  }
+
+}
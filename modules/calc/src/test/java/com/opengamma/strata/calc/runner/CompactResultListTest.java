@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.calc.runner.function.result.CurrencyValuesArray;
+import com.opengamma.strata.calc.runner.function.result.DefaultScenarioResult;
+import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
+import com.opengamma.strata.calc.runner.function.result.ValuesArray;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Test {@link CompactResultList}.
+ */
+@Test
+public class CompactResultListTest {
+
+  private static final Result<?> FAILURE = Result.failure(FailureReason.MISSING_DATA, "Missing");
+
+  public void scenarioValues() {
+    List<Result<?>> expected = ImmutableList.of(
+        Result.success(ValuesArray.of(DoubleArray.of(1, 2))),
+        Result.success(CurrencyValuesArray.of(USD, DoubleArray.of(3, 4))),
+        Result.success(ValuesArray.of(DoubleArray.of(5, 6))),
+        Result.success(CurrencyValuesArray.of(EUR, DoubleArray.of(7, 8))),
+        FAILURE,
+        Result.success(CurrencyValuesArray.of(USD, DoubleArray.of(9, 10))),
+        Result.success(ValuesArray.of(DoubleArray.of(11, 12, 13))),
+        Result.success(DefaultScenarioResult.of("A", "B")));
+    CompactResultList test = build(4, 2, expected);
+    assertThat(test).isEqualTo(expected);
+    assertThat(test.size()).isEqualTo(8);
+    assertThat(test.countFailures()).isEqualTo(1);
+    assertThrows(() -> test.get(8), IndexOutOfBoundsException.class);
+    assertThrows(() -> test.get(-1), IndexOutOfBoundsException.class);
+  }
+
+  public void singleValues() {
+    List<Result<?>> expected = ImmutableList.of(
+        Result.success(1d),
+        Result.success(CurrencyAmount.of(GBP, 2)),
+        FAILURE,
+        Result.success(CurrencyAmount.of(USD, 4)),
+        Result.success("A"),
+        FAILURE);
+    CompactResultList test = build(3, 2, expected);
+    assertThat(test).isEqualTo(expected);
+    assertThat(test.countFailures()).isEqualTo(2);
+  }
+
+  public void unwrapSingleScenario() {
+    List<Result<?>> results = ImmutableList.of(
+        Result.success(ValuesArray.of(DoubleArray.of(1))),
+        Result.success(CurrencyValuesArray.of(USD, DoubleArray.of(2))),
+        FAILURE,
+        Result.success(DefaultScenarioResult.of("A")));
+    CompactResultList test = build(2, 2, results).unwrapSingleScenario(
+        result -> result.map(value -> ((ScenarioResult<?>) value).get(0)));
+    assertThat(test).containsExactly(
+        Result.success(1d),
+        Result.success(CurrencyAmount.of(USD, 2)),
+        FAILURE,
+        Result.success("A"));
+  }
+
+  public void results() {
+    List<Result<?>> items = ImmutableList.of(Result.success(ValuesArray.of(DoubleArray.of(1))), FAILURE);
+    Results test = Results.of(2, 1, build(2, 1, items));
+    assertThat(test.getCells()).isInstanceOf(CompactResultList.class);
+    assertThat(test.getItems()).isInstanceOf(ImmutableList.class).isEqualTo(items);
+    assertThat(test.getItems()).isSameAs(test.getItems());
+    assertThat(test.toBuilder().build()).isEqualTo(test);
+    assertThat(test.get(0, 0)).isEqualTo(items.get(0));
+    assertThat(test.countFailures()).isEqualTo(1);
+    assertThat(test).isEqualTo(Results.of(2, 1, items));
+  }
+
+  public void unsetCell() {
+    CompactResultList.Builder builder = new CompactResultList.Builder(2, 2);
+    builder.set(0, 0, FAILURE);
+    builder.set(0, 1, FAILURE);
+    builder.set(1, 1, FAILURE);
+    assertThrows(builder::build, IllegalStateException.class, "No result has been set for row 1 and column 0");
+  }
+
+  //-------------------------------------------------------------------------
+  private static CompactResultList build(int rowCount, int columnCount, List<Result<?>> results) {
+    // add the results in reverse order, as they arrive in any order from the runner
+    CompactResultList.Builder builder = new CompactResultList.Builder(rowCount, columnCount);
+    for (int i = results.size() - 1; i >= 0; i--) {
+      builder.set(i / columnCount, i % columnCount, results.get(i));
+    }
+    return builder.build();
+  }
+
+}
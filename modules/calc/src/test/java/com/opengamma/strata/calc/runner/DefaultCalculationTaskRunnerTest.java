@@ -8,12 +8,17 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.calc.config.ReportingCurrency.NATURAL;
 import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.testng.annotations.Test;
 
@@ -35,7 +40,11 @@ import com.opengamma.strata.calc.marketdata.MarketEnvironment;
 import com.opengamma.strata.calc.marketdata.TestKey;
 import com.opengamma.strata.calc.marketdata.mapping.MarketDataMappings;
 import com.opengamma.strata.calc.runner.function.CalculationFunction;
+import com.opengamma.strata.calc.runner.function.result.CurrencyValuesArray;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 
 /**
@@ -122,10 +131,197 @@ public class DefaultCalculationTaskRunnerTest {
     assertThat(result2).hasValue(scenarioResult);
   }
 
+  /**
+   * Test that the tasks failing with the same exception share a single failure.
+   */
+  public void sharedFailures() {
+    FailingFunction fn = new FailingFunction();
+    List<CalculationTask> taskList = IntStream.range(0, 3)
+        .mapToObj(i -> CalculationTask.of(
+            TARGET, Measures.PRESENT_VALUE, i, 0, fn, MarketDataMappings.empty(), NATURAL))
+        .collect(toImmutableList());
+    Column column = Column.of(Measures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(column));
+    CalculationEnvironment marketData = MarketEnvironment.empty(VAL_DATE);
+
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    Results results = test.calculateSingleScenario(tasks, marketData, REF_DATA);
+    assertThat(results.countFailures()).isEqualTo(3);
+    Failure failure = results.get(0, 0).getFailure();
+    assertThat(failure.getReason()).isEqualTo(FailureReason.ERROR);
+    assertThat(failure.getMessage()).isEqualTo("Unsupported target");
+    assertThat(failure.getItems().iterator().next().getStackTrace()).isNotEmpty();
+    assertThat(results.get(1, 0).getFailure()).isSameAs(failure);
+    assertThat(results.get(2, 0).getFailure()).isSameAs(failure);
+
+    // without stack traces
+    CalculationTaskRunner noStackTrace = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), false);
+    Results resultsNoStackTrace = noStackTrace.calculateSingleScenario(tasks, marketData, REF_DATA);
+    Failure failureNoStackTrace = resultsNoStackTrace.get(0, 0).getFailure();
+    assertThat(failureNoStackTrace.getMessage()).isEqualTo("Unsupported target");
+    assertThat(failureNoStackTrace.getItems().iterator().next().getStackTrace()).isEmpty();
+    assertThat(resultsNoStackTrace.get(2, 0).getFailure()).isSameAs(failureNoStackTrace);
+
+    // the task executed on its own creates its own failure
+    Result<?> single = taskList.get(0).execute(marketData, REF_DATA).getCells().get(0).getResult();
+    assertThat(single.getFailure()).isNotSameAs(failure);
+    assertThat(single.getFailure().getMessage()).isEqualTo("Unsupported target");
+  }
+
+  /**
+   * Test that the metrics of a run are passed to the sink.
+   */
+  public void metrics() throws IOException {
+    ScenarioResultFunction fn = new ScenarioResultFunction(Measures.PRESENT_VALUE, ScenarioResult.of("foo"));
+    FailingFunction failingFn = new FailingFunction();
+    List<CalculationTask> taskList = ImmutableList.of(
+        CalculationTask.of(TARGET, Measures.PRESENT_VALUE, 0, 0, fn, MarketDataMappings.empty(), NATURAL),
+        CalculationTask.of(TARGET, Measures.PRESENT_VALUE, 1, 0, fn, MarketDataMappings.empty(), NATURAL),
+        CalculationTask.of(TARGET, Measures.PRESENT_VALUE, 2, 0, failingFn, MarketDataMappings.empty(), NATURAL));
+    Column column = Column.of(Measures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(column));
+    CalculationEnvironment marketData = MarketEnvironment.empty(VAL_DATE);
+
+    // using the direct executor means there is no need to close/shutdown the runner
+    InMemoryMetricsSink sink = CalculationMetricsSink.inMemory();
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), true, sink);
+    assertThat(sink.getLatest()).isEmpty();
+    test.calculateSingleScenario(tasks, marketData, REF_DATA);
+
+    CalculationMetrics metrics = sink.getLatest().get();
+    assertThat(metrics.getTaskCount()).isEqualTo(3);
+    assertThat(metrics.getScenarioCount()).isEqualTo(1);
+    assertThat(metrics.getQueueWait().getCount()).isEqualTo(3);
+    assertThat(metrics.getFunctions()).hasSize(2);
+    Map<Class<?>, FunctionMetrics> byFunction = metrics.getFunctions().stream()
+        .collect(toImmutableMap(FunctionMetrics::getFunctionType));
+    FunctionMetrics fnMetrics = byFunction.get(ScenarioResultFunction.class);
+    assertThat(fnMetrics.getMeasure()).isEqualTo(Measures.PRESENT_VALUE);
+    assertThat(fnMetrics.getTaskCount()).isEqualTo(2);
+    assertThat(fnMetrics.getFailureCount()).isEqualTo(0);
+    assertThat(fnMetrics.getLatency().getTotal()).isGreaterThanOrEqualTo(fnMetrics.getCalculationTime());
+    assertThat(byFunction.get(FailingFunction.class).getTaskCount()).isEqualTo(1);
+    assertThat(byFunction.get(FailingFunction.class).getFailureCount()).isEqualTo(1);
+    // the direct executor runs the tasks on the calling thread
+    assertThat(metrics.getThreadBusyTimes()).containsOnlyKeys(Thread.currentThread().getName());
+    assertThat(metrics.getThreadUtilization().get(Thread.currentThread().getName())).isBetween(0d, 1d);
+
+    StringBuilder json = new StringBuilder();
+    metrics.writeJson(json);
+    assertThat(json.toString())
+        .startsWith("{\"taskCount\":3,\"scenarioCount\":1,")
+        .contains("\"function\":\"" + FailingFunction.class.getName() + "\"")
+        .contains("\"measure\":\"PresentValue\"")
+        .contains("\"name\":\"" + Thread.currentThread().getName() + "\"");
+    assertThat(metrics.summary()).startsWith("Calculated 3 tasks with 1 scenario in ");
+  }
+
+  /**
+   * Test that an exception thrown by the metrics sink does not affect the results.
+   */
+  public void metricsSinkFailure() {
+    ScenarioResultFunction fn = new ScenarioResultFunction(Measures.PRESENT_VALUE, ScenarioResult.of("foo"));
+    CalculationTask task = CalculationTask.of(TARGET, Measures.PRESENT_VALUE, 0, 0, fn, MarketDataMappings.empty(), NATURAL);
+    Column column = Column.of(Measures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(column));
+    CalculationMetricsSink sink = metrics -> {
+      throw new IllegalStateException("Sink failed");
+    };
+
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), true, sink);
+    Results results = test.calculateSingleScenario(tasks, MarketEnvironment.empty(VAL_DATE), REF_DATA);
+    assertThat(results.get(0, 0)).hasValue("foo");
+  }
+
+  /**
+   * Test that a task throwing an exception when converting its result is timed and completes the run.
+   */
+  public void metricsConversionFailure() {
+    ConversionFailingFunction fn = new ConversionFailingFunction();
+    CalculationTask task =
+        CalculationTask.of(TARGET, Measures.PRESENT_VALUE, 0, 0, fn, MarketDataMappings.empty(), NATURAL);
+    Column column = Column.of(Measures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(column));
+
+    // using the direct executor means there is no need to close/shutdown the runner
+    InMemoryMetricsSink sink = CalculationMetricsSink.inMemory();
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), true, sink);
+    Listener listener = new Listener();
+    test.calculateSingleScenarioAsync(tasks, MarketEnvironment.empty(VAL_DATE), REF_DATA, listener);
+    assertThat(listener.result).isNull();
+
+    CalculationMetrics metrics = sink.getLatest().get();
+    assertThat(metrics.getTaskCount()).isEqualTo(1);
+    FunctionMetrics fnMetrics = metrics.getFunctions().get(0);
+    assertThat(fnMetrics.getFunctionType()).isEqualTo(ConversionFailingFunction.class);
+    assertThat(fnMetrics.getTaskCount()).isEqualTo(1);
+    assertThat(fnMetrics.getFailureCount()).isEqualTo(1);
+  }
+
   //-------------------------------------------------------------------------
   private static class TestTarget implements CalculationTarget {
   }
 
+  //-------------------------------------------------------------------------
+  private static final class ConversionFailingFunction implements CalculationFunction<TestTarget> {
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return MEASURES;
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      throw new IllegalStateException("No natural currency");
+    }
+
+    @Override
+    public FunctionRequirements requirements(TestTarget target, Set<Measure> measures, ReferenceData refData) {
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationMarketData marketData,
+        ReferenceData refData) {
+
+      return ImmutableMap.of(Measures.PRESENT_VALUE, Result.success(CurrencyValuesArray.of(USD, DoubleArray.of(1))));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class FailingFunction implements CalculationFunction<TestTarget> {
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return MEASURES;
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(TestTarget target, Set<Measure> measures, ReferenceData refData) {
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationMarketData marketData,
+        ReferenceData refData) {
+
+      throw new UnsupportedOperationException("Unsupported target");
+    }
+  }
+
   //-------------------------------------------------------------------------
   public static final class TestFunction implements CalculationFunction<TestTarget> {
 
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Test {@link FileResultList}.
+ */
+@Test
+public class FileResultListTest {
+
+  private static final int ROWS = 3;
+  private static final int COLUMNS = 2;
+  private static final List<Result<?>> EXPECTED = IntStream.range(0, ROWS * COLUMNS)
+      .mapToObj(i -> Result.success(i))
+      .collect(toImmutableList());
+
+  //-------------------------------------------------------------------------
+  public void get_columnByColumn() {
+    List<Integer> reads = new ArrayList<>();
+    FileResultList test = list(reads);
+    for (int column = 0; column < COLUMNS; column++) {
+      for (int row = 0; row < ROWS; row++) {
+        assertThat(test.get(row * COLUMNS + column)).isEqualTo(EXPECTED.get(row * COLUMNS + column));
+      }
+    }
+    assertThat(reads).containsExactly(0, 1);
+    assertThat(test.size()).isEqualTo(ROWS * COLUMNS);
+    assertThrows(() -> test.get(ROWS * COLUMNS), IndexOutOfBoundsException.class);
+    assertThrows(() -> test.get(-1), IndexOutOfBoundsException.class);
+  }
+
+  public void get_rowByRow() {
+    // random access reads the column whenever it differs from the previous access
+    List<Integer> reads = new ArrayList<>();
+    FileResultList test = list(reads);
+    for (int i = 0; i < 4; i++) {
+      test.get(i);
+    }
+    assertThat(reads).containsExactly(0, 1, 0, 1);
+  }
+
+  public void iterate() {
+    // iterating reads each column once
+    List<Integer> reads = new ArrayList<>();
+    FileResultList test = list(reads);
+    assertThat(test).isEqualTo(EXPECTED);
+    assertThat(reads).containsExactly(0, 1);
+
+    reads.clear();
+    assertThat(test.hashCode()).isEqualTo(EXPECTED.hashCode());
+    assertThat(reads).containsExactly(0, 1);
+
+    reads.clear();
+    assertThat(test.stream().collect(toImmutableList())).isEqualTo(EXPECTED);
+    assertThat(reads).containsExactly(0, 1);
+
+    assertThat(test.listIterator(ROWS * COLUMNS).previous()).isEqualTo(EXPECTED.get(ROWS * COLUMNS - 1));
+    assertThrows(() -> test.listIterator(ROWS * COLUMNS + 1), IndexOutOfBoundsException.class);
+  }
+
+  public void empty() {
+    List<Integer> reads = new ArrayList<>();
+    FileResultList test = new FileResultList(0, COLUMNS, columnIndex -> {
+      reads.add(columnIndex);
+      return new ArrayList<>();
+    });
+    assertThat(test).isEmpty();
+    assertThat(test.iterator().hasNext()).isFalse();
+    assertThat(reads).isEmpty();
+  }
+
+  //-------------------------------------------------------------------------
+  // creates a list whose column reader records the columns read
+  private static FileResultList list(List<Integer> reads) {
+    return new FileResultList(ROWS, COLUMNS, columnIndex -> {
+      reads.add(columnIndex);
+      return IntStream.range(0, ROWS)
+          .mapToObj(row -> EXPECTED.get(row * COLUMNS + columnIndex))
+          .collect(toImmutableList());
+    });
+  }
+
+}
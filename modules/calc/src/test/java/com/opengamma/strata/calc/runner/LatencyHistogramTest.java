@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link LatencyHistogram}.
+ */
+@Test
+public class LatencyHistogramTest {
+
+  public void empty() {
+    LatencyHistogram test = new LatencyHistogram.Recorder().toHistogram();
+    assertThat(test).isEqualTo(LatencyHistogram.EMPTY);
+    assertThat(test.getCount()).isEqualTo(0);
+    assertThat(test.getTotal()).isEqualTo(Duration.ZERO);
+    assertThat(test.getMean()).isEqualTo(Duration.ZERO);
+    assertThat(test.getMax()).isEqualTo(Duration.ZERO);
+    assertThat(test.getPercentile(50)).isEqualTo(Duration.ZERO);
+  }
+
+  public void record() {
+    LatencyHistogram.Recorder recorder = new LatencyHistogram.Recorder();
+    recorder.record(0);
+    recorder.record(-5);
+    recorder.record(1);
+    recorder.record(100);
+    recorder.record(1000);
+    LatencyHistogram test = recorder.toHistogram();
+    assertThat(test.getCount()).isEqualTo(5);
+    assertThat(test.getTotal()).isEqualTo(Duration.ofNanos(1101));
+    assertThat(test.getMean()).isEqualTo(Duration.ofNanos(220));
+    assertThat(test.getMax()).isEqualTo(Duration.ofNanos(1000));
+    long[] buckets = test.getBucketCounts();
+    assertThat(buckets[0]).isEqualTo(2);
+    assertThat(buckets[1]).isEqualTo(1);
+    // 100 is between 64 and 127
+    assertThat(buckets[7]).isEqualTo(1);
+    // 1000 is between 512 and 1023
+    assertThat(buckets[10]).isEqualTo(1);
+  }
+
+  public void percentiles() {
+    LatencyHistogram.Recorder recorder = new LatencyHistogram.Recorder();
+    for (int i = 0; i < 99; i++) {
+      recorder.record(100);
+    }
+    recorder.record(1000);
+    LatencyHistogram test = recorder.toHistogram();
+    assertThat(test.getPercentile(0)).isEqualTo(Duration.ofNanos(127));
+    assertThat(test.getPercentile(50)).isEqualTo(Duration.ofNanos(127));
+    assertThat(test.getPercentile(99)).isEqualTo(Duration.ofNanos(127));
+    // the upper bound of the bucket is limited by the maximum
+    assertThat(test.getPercentile(100)).isEqualTo(Duration.ofNanos(1000));
+    assertThrowsIllegalArg(() -> test.getPercentile(101));
+    assertThrowsIllegalArg(() -> test.getPercentile(-1));
+  }
+
+  public void largeTimes() {
+    LatencyHistogram.Recorder recorder = new LatencyHistogram.Recorder();
+    recorder.record(Long.MAX_VALUE);
+    LatencyHistogram test = recorder.toHistogram();
+    assertThat(test.getBucketCounts()[LatencyHistogram.BUCKET_COUNT - 1]).isEqualTo(1);
+    assertThat(test.getPercentile(50)).isEqualTo(Duration.ofNanos(Long.MAX_VALUE));
+  }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.runner.function.result.CurrencyValuesArray;
+import com.opengamma.strata.calc.runner.function.result.DefaultScenarioResult;
+import com.opengamma.strata.calc.runner.function.result.MultiCurrencyValuesArray;
+import com.opengamma.strata.calc.runner.function.result.ValuesArray;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Test {@link ResultsFileListener} and {@link ResultsFile}.
+ */
+@Test
+public class ResultsFileListenerTest {
+
+  private static final CalculationTarget TARGET = new CalculationTarget() { };
+  private static final List<Result<?>> RESULTS = ImmutableList.of(
+      Result.success(ValuesArray.of(DoubleArray.of(1, 2))),
+      Result.success(CurrencyValuesArray.of(USD, DoubleArray.of(3, 4))),
+      Result.success(MultiCurrencyValuesArray.of(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 5)))),
+      Result.failure(FailureReason.MISSING_DATA, "Missing {} data", "market"),
+      Result.success(2.5d),
+      Result.success(CurrencyAmount.of(EUR, 6)),
+      Result.success(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 7), CurrencyAmount.of(USD, 8))),
+      Result.success(DefaultScenarioResult.of(LocalDate.of(2016, 6, 30))),
+      Result.success("A"));
+
+  private Path file;
+
+  @BeforeMethod
+  public void createFile() throws IOException {
+    file = Files.createTempFile("results", ".bin");
+  }
+
+  @AfterMethod
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  //-------------------------------------------------------------------------
+  public void writeRead() {
+    // a small block size writes each result in its own block
+    ResultsFileListener listener = new ResultsFileListener(file, 3, 1);
+    send(listener, 3, RESULTS);
+    ResultsFile test = listener.result();
+    assertThat(test.getFile()).isEqualTo(file);
+    assertThat(test.getRowCount()).isEqualTo(3);
+    assertThat(test.getColumnCount()).isEqualTo(3);
+    assertThat(test.readColumn(1)).containsExactly(RESULTS.get(1), RESULTS.get(4), RESULTS.get(7));
+    assertThrows(() -> test.readColumn(3), IllegalArgumentException.class);
+
+    Results results = test.toResults();
+    assertThat(results).isEqualTo(Results.of(3, 3, RESULTS));
+    assertThat(results.get(1, 0))
+        .isFailure(FailureReason.MISSING_DATA)
+        .hasFailureMessageMatching("Missing market data");
+    assertThat(results.countFailures()).isEqualTo(1);
+    assertThat(ResultsFile.of(file).toResults()).isEqualTo(results);
+  }
+
+  public void writeRead_defaultBlockSize() {
+    ResultsFileListener listener = ResultsFileListener.of(file, 3);
+    send(listener, 3, RESULTS);
+    assertThat(listener.result().toResults()).isEqualTo(Results.of(3, 3, RESULTS));
+  }
+
+  public void notSerializable() {
+    ResultsFileListener listener = ResultsFileListener.of(file, 1);
+    send(listener, 1, ImmutableList.of(Result.success(new Object())));
+    Result<?> result = listener.result().readColumn(0).get(0);
+    assertThat(result).isFailure(FailureReason.NOT_APPLICABLE).hasFailureMessageMatching(".*not serializable");
+  }
+
+  public void serializationFails() {
+    List<Result<?>> results = ImmutableList.of(
+        Result.success(DefaultScenarioResult.of(LocalDate.of(2016, 6, 30))),
+        Result.success(new Unserializable()),
+        Result.success("B"));
+    ResultsFileListener listener = ResultsFileListener.of(file, 1);
+    send(listener, 1, results);
+    // the results written before and after the failure are read
+    List<Result<?>> test = listener.result().readColumn(0);
+    assertThat(test.get(0)).isEqualTo(results.get(0));
+    assertThat(test.get(1))
+        .isFailure(FailureReason.NOT_APPLICABLE)
+        .hasFailureMessageMatching(".*cannot be stored in a results file: java.io.NotSerializableException.*");
+    assertThat(test.get(2)).isEqualTo(results.get(2));
+  }
+
+  public void serializedOncePerBlock() throws IOException {
+    long emptySize = fileSize(0);
+    long oneSize = fileSize(1);
+    long twoSize = fileSize(2);
+    // the class descriptions are only written for the first result of the block
+    assertThat(twoSize - oneSize).isLessThan((oneSize - emptySize) / 2);
+  }
+
+  public void invalidFile() throws IOException {
+    Files.write(file, new byte[16]);
+    assertThrows(() -> ResultsFile.of(file), IllegalArgumentException.class, "File is not a results file.*");
+  }
+
+  //-------------------------------------------------------------------------
+  // the size of the file containing the specified number of serialized results in a single block
+  private long fileSize(int resultCount) throws IOException {
+    ResultsFileListener listener = ResultsFileListener.of(file, 1);
+    List<Result<?>> results = IntStream.range(0, resultCount)
+        .mapToObj(i -> Result.success(DefaultScenarioResult.of(LocalDate.of(2016, 6, 1).plusDays(i))))
+        .collect(toImmutableList());
+    send(listener, 1, results);
+    assertThat(listener.result().readColumn(0)).isEqualTo(results);
+    return Files.size(file);
+  }
+
+  // sends the results to the listener in reverse order
+  private static void send(CalculationListener listener, int columnCount, List<Result<?>> results) {
+    for (int i = results.size() - 1; i >= 0; i--) {
+      listener.resultReceived(TARGET, CalculationResult.of(i / columnCount, i % columnCount, results.get(i)));
+    }
+    listener.calculationsComplete();
+  }
+
+  //-------------------------------------------------------------------------
+  // a value declared as serializable which cannot be serialized
+  private static final class Unserializable implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("unused")
+    private final Object value = new Object();
+  }
+
+}
@@ -8,6 +8,7 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static org.assertj.core.api.Assertions.entry;
 
 import java.util.Arrays;
 import java.util.List;
@@ -15,6 +16,7 @@ import java.util.List;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 
 @Test
@@ -61,6 +63,33 @@ public class ResultsTest {
     assertThrows(() -> Results.of(-1, 2, results(4)), IllegalArgumentException.class, ".* must not be negative");
   }
 
+  public void countFailures() {
+    Result<Integer> missing = Result.failure(FailureReason.MISSING_DATA, "Missing");
+    Result<Integer> error = Result.failure(FailureReason.ERROR, "Error");
+    Results results = Results.of(2, 3, ImmutableList.of(missing, Result.success(1), error, missing, missing, error));
+    assertThat(results.countFailures()).isEqualTo(5);
+    assertThat(results.countFailuresByReason()).containsExactly(
+        entry(FailureReason.ERROR, 2),
+        entry(FailureReason.MISSING_DATA, 3));
+    assertThat(results.countFailuresByMessage()).containsExactly(entry("Missing", 3), entry("Error", 2));
+
+    Results success = Results.of(1, 2, results(1, 2));
+    assertThat(success.countFailures()).isEqualTo(0);
+    assertThat(success.countFailuresByReason()).isEmpty();
+    assertThat(success.countFailuresByMessage()).isEmpty();
+  }
+
+  public void builder() {
+    Results results = Results.of(1, 2, results(1, 2));
+    assertThat(Results.builder().rowCount(1).columnCount(2).items(Result.success(1), Result.success(2)).build())
+        .isEqualTo(results);
+    assertThat(Results.builder().rowCount(1).columnCount(2).items(results.getItems()).build()).isEqualTo(results);
+    assertThat(Results.meta().builder().set("rowCount", 1).set("columnCount", 2).set("items", results(1, 2)).build())
+        .isEqualTo(results);
+    assertThat(results.property("items").get()).isEqualTo(results(1, 2));
+    assertThat(results.toString()).isEqualTo("Results{rowCount=1, columnCount=2, items=" + results(1, 2) + "}");
+  }
+
   @SafeVarargs
   private static <T> List<Result<T>> results(T... items) {
     return Arrays.stream(items).map(Result::success).collect(toImmutableList());
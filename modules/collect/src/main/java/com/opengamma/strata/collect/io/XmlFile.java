@@ -7,8 +7,13 @@ package com.opengamma.strata.collect.io;
 
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -31,6 +36,9 @@ import com.opengamma.strata.collect.Unchecked;
  * This approach is suitable for XML files where the size of the parsed XML file is
  * known to be manageable in memory.
  * <p>
+ * For larger files, {@link #parseElements(ByteSource, Predicate, String, BiConsumer)} can be used
+ * to stream selected elements without holding the whole document in memory.
+ * <p>
  * Note that the {@link XmlElement} representation does not express all XML features.
  * No support is provided for processing instructions, comments or mixed content.
  * In addition, it is not possible to determine the difference between empty content and no children.
@@ -101,6 +109,83 @@ public final class XmlFile {
     });
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Parses the specified source as an XML file, streaming selected elements to a consumer.
+   * <p>
+   * This parses the specified byte source expecting an XML file format.
+   * Unlike {@link #of(ByteSource, String)}, the whole document is not held in memory.
+   * Instead, each element is checked using the matcher, which is passed the path of element
+   * names from the root element to the element being checked inclusive.
+   * If the matcher returns true, the element is parsed to a DOM-like structure and passed
+   * to the consumer before parsing continues. Elements nested within a matched element are
+   * not checked, and the path passed to the matcher must not be retained.
+   * <p>
+   * This supports capturing attribute references, such as an id/href pair.
+   * References are only captured within the scope of each matched element.
+   * The map passed to the consumer contains the references found within that element.
+   * <p>
+   * The matcher and consumer are invoked in document order, on the calling thread.
+   * The consumer is always invoked immediately after the matcher returns true.
+   * 
+   * @param source  the XML source data
+   * @param matcher  the matcher, passed the path of element names, returning true to parse the element
+   * @param refAttrName  the attribute name that should be parsed as a reference
+   * @param consumer  the consumer of each matched element and its map of references
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static void parseElements(
+      ByteSource source,
+      Predicate<List<String>> matcher,
+      String refAttrName,
+      BiConsumer<XmlElement, ImmutableMap<String, XmlElement>> consumer) {
+
+    ArgChecker.notNull(source, "source");
+    ArgChecker.notNull(matcher, "matcher");
+    ArgChecker.notNull(refAttrName, "refAttrName");
+    ArgChecker.notNull(consumer, "consumer");
+    Unchecked.wrap(() -> {
+      try (InputStream in = source.openBufferedStream()) {
+        XMLStreamReader xmlReader = xmlInputFactory().createXMLStreamReader(in);
+        try {
+          parseElements(xmlReader, matcher, refAttrName, consumer);
+        } finally {
+          xmlReader.close();
+        }
+      }
+    });
+  }
+
+  // walks the stream, tracking the element path and parsing each matched element in turn
+  private static void parseElements(
+      XMLStreamReader reader,
+      Predicate<List<String>> matcher,
+      String refAttr,
+      BiConsumer<XmlElement, ImmutableMap<String, XmlElement>> consumer) {
+
+    try {
+      List<String> path = new ArrayList<>();
+      List<String> unmodifiablePath = Collections.unmodifiableList(path);
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          path.add(reader.getLocalName());
+          if (matcher.test(unmodifiablePath)) {
+            HashMap<String, XmlElement> refs = new HashMap<>();
+            XmlElement parsed = parse(reader, refAttr, refs);
+            path.remove(path.size() - 1);
+            consumer.accept(parsed, ImmutableMap.copyOf(refs));
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          path.remove(path.size() - 1);
+        }
+      }
+    } catch (XMLStreamException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Parses the tree from the StAX stream reader, capturing references.
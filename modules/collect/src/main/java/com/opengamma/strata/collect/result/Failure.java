@@ -105,6 +105,21 @@ public final class Failure
     return Failure.of(reason, message, cause);
   }
 
+  /**
+   * Obtains a failure from a reason and exception, without the stack trace of the exception.
+   * 
+   * @param reason  the reason
+   * @param cause  the cause
+   * @return the failure
+   */
+  static Failure ofWithoutStackTrace(FailureReason reason, Exception cause) {
+    ArgChecker.notNull(reason, "reason");
+    ArgChecker.notNull(cause, "cause");
+    String causeMessage = cause.getMessage();
+    String message = Strings.isNullOrEmpty(causeMessage) ? cause.getClass().getSimpleName() : causeMessage;
+    return Failure.of(FailureItem.of(reason, message, "", cause.getClass()));
+  }
+
   /**
    * Obtains a failure for a single failure item.
    * 
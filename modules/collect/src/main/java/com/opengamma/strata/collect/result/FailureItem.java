@@ -60,6 +60,7 @@ public final class FailureItem
    * Stack trace where the failure occurred.
    * If the failure was caused by an {@code Exception} its stack trace is used, otherwise it's the
    * location where the failure was created.
+   * The stack trace is empty if it was not captured when the failure was created.
    */
   @PropertyDefinition(validate = "notNull")
   private final String stackTrace;
@@ -155,6 +156,7 @@ public final class FailureItem
    * Gets stack trace where the failure occurred.
    * If the failure was caused by an {@code Exception} its stack trace is used, otherwise it's the
    * location where the failure was created.
+   * The stack trace is empty if it was not captured when the failure was created.
    * @return the value of the property, not null
    */
   public String getStackTrace() {
@@ -170,6 +170,23 @@ public final class Result<T>
     return new Result<>(Failure.of(FailureReason.ERROR, exception));
   }
 
+  /**
+   * Creates a failed result caused by an exception, without the stack trace of the exception.
+   * <p>
+   * The failure contains the message and the type of the exception, but its stack trace is empty.
+   * Rendering the stack trace of an exception is expensive in both time and memory.
+   * This method is intended for failures created in large numbers, where the message and the type
+   * of the exception are sufficient to identify the cause.
+   *
+   * @param <R> the expected type of the result
+   * @param reason  the result reason
+   * @param exception  the cause of the failure
+   * @return a failure result
+   */
+  public static <R> Result<R> failureWithoutStackTrace(FailureReason reason, Exception exception) {
+    return new Result<>(Failure.ofWithoutStackTrace(reason, exception));
+  }
+
   /**
    * Creates a failed result caused by an exception.
    * <p>
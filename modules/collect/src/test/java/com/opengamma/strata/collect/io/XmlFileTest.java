@@ -13,6 +13,7 @@ import static org.testng.Assert.assertFalse;
 import java.io.File;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -130,6 +131,72 @@ public class XmlFileTest {
     assertThrows(() -> XmlFile.of(source, "key"), UncheckedIOException.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_parseElements() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<XmlElement> elements = new ArrayList<>();
+    List<Map<String, XmlElement>> refs = new ArrayList<>();
+    List<List<String>> paths = new ArrayList<>();
+    XmlFile.parseElements(
+        source,
+        path -> {
+          paths.add(ImmutableList.copyOf(path));
+          return path.get(path.size() - 1).equals("test");
+        },
+        "key",
+        (el, elRefs) -> {
+          elements.add(el);
+          refs.add(elRefs);
+        });
+    assertEquals(elements.size(), 1);
+    assertEquals(elements.get(0), XmlElement.ofChildren("test", ATTR_MAP, CHILD_LIST_MULTI));
+    assertEquals(refs.get(0), ImmutableMap.of("value", elements.get(0)));
+    assertEquals(paths, ImmutableList.of(ImmutableList.of("base"), ImmutableList.of("base", "test")));
+  }
+
+  public void test_parseElements_nested() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<XmlElement> elements = new ArrayList<>();
+    List<List<String>> paths = new ArrayList<>();
+    XmlFile.parseElements(
+        source,
+        path -> {
+          paths.add(ImmutableList.copyOf(path));
+          return path.size() == 3;
+        },
+        "key",
+        (el, elRefs) -> {
+          elements.add(el);
+          assertEquals(elRefs, ImmutableMap.of());
+        });
+    assertEquals(elements, CHILD_LIST_MULTI);
+    assertEquals(paths, ImmutableList.of(
+        ImmutableList.of("base"),
+        ImmutableList.of("base", "test"),
+        ImmutableList.of("base", "test", "leaf1"),
+        ImmutableList.of("base", "test", "leaf2"),
+        ImmutableList.of("base", "test", "leaf2")));
+  }
+
+  public void test_parseElements_noMatch() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<XmlElement> elements = new ArrayList<>();
+    XmlFile.parseElements(source, path -> false, "key", (el, elRefs) -> elements.add(el));
+    assertEquals(elements.size(), 0);
+  }
+
+  public void test_parseElements_mismatchedTags() {
+    ByteSource source = ByteSource.wrap(SAMPLE_MISMATCHED_TAGS.getBytes(StandardCharsets.UTF_8));
+    assertThrowsIllegalArg(() -> XmlFile.parseElements(source, path -> false, "key", (el, elRefs) -> {}));
+  }
+
+  public void test_parseElements_ioException() {
+    ByteSource source = Files.asByteSource(new File("/oh-dear-no-such-file"));
+    assertThrows(
+        () -> XmlFile.parseElements(source, path -> true, "key", (el, elRefs) -> {}),
+        UncheckedIOException.class);
+  }
+
   //-------------------------------------------------------------------------
   public void test_equalsHashCodeToString() {
     ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
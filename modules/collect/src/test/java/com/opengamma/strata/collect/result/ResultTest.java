@@ -284,6 +284,20 @@ public class ResultTest {
     assertTrue(item.getStackTrace() != null);
   }
 
+  public void failureWithoutStackTrace() {
+    IllegalArgumentException ex = new IllegalArgumentException("my failure");
+    Result<Integer> test = Result.failureWithoutStackTrace(CALCULATION_FAILED, ex);
+    assertTrue(test.isFailure());
+    assertEquals(test.getFailure().getReason(), CALCULATION_FAILED);
+    assertEquals(test.getFailure().getMessage(), "my failure");
+    FailureItem item = test.getFailure().getItems().iterator().next();
+    assertEquals(item.getCauseType().get(), IllegalArgumentException.class);
+    assertEquals(item.getStackTrace(), "");
+    Result<Integer> noMessage = Result.failureWithoutStackTrace(ERROR, new IllegalArgumentException());
+    assertEquals(noMessage.getFailure().getMessage(), "IllegalArgumentException");
+    assertEquals(noMessage, Result.failureWithoutStackTrace(ERROR, new IllegalArgumentException()));
+  }
+
   //-------------------------------------------------------------------------
   public void ofNullable_nonNull() {
     Result<Integer> test = Result.ofNullable(6);
@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.calculation;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.basics.market.ImmutableReferenceData;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.basics.market.ReferenceDataId;
+import com.opengamma.strata.basics.market.StandardId;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.product.ResolvableTrade;
+import com.opengamma.strata.product.ResolvedTrade;
+
+/**
+ * A cache of resolved trades, avoiding the cost of resolving the same trade more than once.
+ * <p>
+ * Resolving a trade, such as a swap, generates schedules, applies holiday calendars and
+ * creates rate observations. Where the same trade instance is priced many times, for example
+ * for many measures or in repeated runs, the resolved form can be reused.
+ * <p>
+ * A cache is created by the application for a specific set of reference data, and is owned
+ * by the application. It is made available to the standard calculation functions by passing the
+ * reference data returned by {@link #getReferenceData()} to the calculation runner.
+ * The functions resolve trades using {@link #resolve(ResolvableTrade, ReferenceData)}, which only
+ * uses a cache if one is found in the reference data. As such, caching is disabled by default.
+ * <p>
+ * Entries are keyed by the identity of the trade instance, thus the cache does not compute the hash code
+ * of the trade and does not prevent the trade from being garbage collected. An amended trade is a different
+ * instance, and is resolved when it is first seen. The superseded version can be removed using
+ * {@link #invalidate(StandardId)} or {@link #invalidate(ResolvableTrade)}.
+ * When the reference data changes, such as the addition of a holiday, a new cache must be created.
+ * <p>
+ * The cache holds the resolved trades using soft references, allowing them to be garbage collected
+ * if memory is short. By default the number of entries is not limited, as a limit smaller than the
+ * number of trades being priced would evict each trade before it is priced again.
+ * This class is thread-safe.
+ */
+public final class ResolvedTradeCache {
+
+  /**
+   * The identifier used to find the cache in reference data.
+   */
+  public static final ReferenceDataId<ResolvedTradeCache> ID = CacheId.INSTANCE;
+  /**
+   * The reference data used to resolve the trades.
+   */
+  private final ReferenceData refData;
+  /**
+   * The underlying cache, keyed by the identity of the trade.
+   */
+  private final Cache<ResolvableTrade<?>, ResolvedTrade> cache;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a new cache resolving trades using the specified reference data.
+   * <p>
+   * The number of entries in the cache is not limited.
+   *
+   * @param refData  the reference data to use when resolving
+   * @return the cache
+   */
+  public static ResolvedTradeCache of(ReferenceData refData) {
+    ArgChecker.notNull(refData, "refData");
+    return new ResolvedTradeCache(refData, CacheBuilder.newBuilder());
+  }
+
+  /**
+   * Obtains a new cache resolving trades using the specified reference data,
+   * with the specified maximum number of entries.
+   *
+   * @param refData  the reference data to use when resolving
+   * @param maximumSize  the maximum number of entries in the cache
+   * @return the cache
+   */
+  public static ResolvedTradeCache of(ReferenceData refData, int maximumSize) {
+    ArgChecker.notNull(refData, "refData");
+    ArgChecker.notNegative(maximumSize, "maximumSize");
+    return new ResolvedTradeCache(refData, CacheBuilder.newBuilder().maximumSize(maximumSize));
+  }
+
+  // restricted constructor
+  private ResolvedTradeCache(ReferenceData refData, CacheBuilder<Object, Object> cacheBuilder) {
+    this.refData = refData;
+    this.cache = cacheBuilder
+        .weakKeys()
+        .softValues()
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Resolves the trade using the cache found in the reference data, if any.
+   * <p>
+   * This is used by the calculation functions. If the reference data contains a cache,
+   * as returned by {@link #getReferenceData()}, the trade is resolved using the cache.
+   * Otherwise the trade is resolved directly against the reference data.
+   *
+   * @param <T>  the type of the resolved trade
+   * @param trade  the trade to resolve
+   * @param refData  the reference data, which may contain a cache
+   * @return the resolved trade
+   * @throws RuntimeException if unable to resolve the trade
+   */
+  public static <T extends ResolvedTrade> T resolve(ResolvableTrade<T> trade, ReferenceData refData) {
+    Optional<ResolvedTradeCache> cache = refData.findValue(ID);
+    return cache.isPresent() ? cache.get().resolve(trade) : trade.resolve(refData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the reference data used to resolve the trades.
+   *
+   * @return the reference data used to resolve the trades
+   */
+  public ReferenceData getUnderlyingReferenceData() {
+    return refData;
+  }
+
+  /**
+   * Gets the reference data to pass to the calculation runner to use this cache.
+   * <p>
+   * The result contains the underlying reference data and this cache.
+   *
+   * @return the reference data containing this cache
+   */
+  public ReferenceData getReferenceData() {
+    return ImmutableReferenceData.of(ID, this).combinedWith(refData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Resolves the trade, returning the cached resolved trade if available.
+   * <p>
+   * If the trade instance has not been resolved before, it is resolved and the result
+   * added to the cache. Exceptions thrown when resolving are not cached.
+   *
+   * @param <T>  the type of the resolved trade
+   * @param trade  the trade to resolve
+   * @return the resolved trade
+   * @throws RuntimeException if unable to resolve the trade
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends ResolvedTrade> T resolve(ResolvableTrade<T> trade) {
+    ArgChecker.notNull(trade, "trade");
+    ResolvedTrade cached = cache.getIfPresent(trade);
+    if (cached != null) {
+      return (T) cached;
+    }
+    T resolved = trade.resolve(refData);
+    cache.put(trade, resolved);
+    return resolved;
+  }
+
+  /**
+   * Resolves all the trades in parallel, adding them to the cache.
+   * <p>
+   * This is intended to be used to populate the cache before calculations are run.
+   * Trades that are already in the cache are not resolved again.
+   * Trades that cannot be resolved are ignored, allowing the failure to be reported
+   * when the trade is resolved during the calculation.
+   *
+   * @param trades  the trades to resolve
+   */
+  public void resolveAll(Collection<? extends ResolvableTrade<?>> trades) {
+    ArgChecker.notNull(trades, "trades");
+    trades.parallelStream().forEach(trade -> {
+      try {
+        resolve(trade);
+      } catch (RuntimeException ex) {
+        // ignored, failure will be reported when the trade is priced
+      }
+    });
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Removes all entries for trades equal to the specified trade.
+   *
+   * @param trade  the trade to remove
+   */
+  public void invalidate(ResolvableTrade<?> trade) {
+    ArgChecker.notNull(trade, "trade");
+    cache.asMap().keySet().removeIf(key -> key.equals(trade));
+  }
+
+  /**
+   * Removes all entries for trades with the specified identifier.
+   * <p>
+   * This is used when a trade is amended, to remove all previous versions of the trade.
+   *
+   * @param tradeId  the identifier of the trade to remove
+   */
+  public void invalidate(StandardId tradeId) {
+    ArgChecker.notNull(tradeId, "tradeId");
+    Optional<StandardId> id = Optional.of(tradeId);
+    cache.asMap().keySet().removeIf(key -> key.getInfo().getId().equals(id));
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Returns the approximate number of entries in the cache.
+   *
+   * @return the number of entries
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "ResolvedTradeCache[size=" + size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The identifier of the cache in reference data.
+   */
+  private static enum CacheId implements ReferenceDataId<ResolvedTradeCache> {
+    INSTANCE;
+
+    @Override
+    public Class<ResolvedTradeCache> getReferenceDataType() {
+      return ResolvedTradeCache.class;
+    }
+  }
+
+}
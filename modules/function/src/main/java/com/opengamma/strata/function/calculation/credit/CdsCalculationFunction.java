@@ -24,6 +24,7 @@ import com.opengamma.strata.calc.runner.function.FunctionUtils;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.function.calculation.ResolvedTradeCache;
 import com.opengamma.strata.market.key.IsdaIndexCreditCurveInputsKey;
 import com.opengamma.strata.market.key.IsdaIndexRecoveryRateKey;
 import com.opengamma.strata.market.key.IsdaSingleNameCreditCurveInputsKey;
@@ -149,8 +150,8 @@ public class CdsCalculationFunction
       CalculationMarketData scenarioMarketData,
       ReferenceData refData) {
 
-    // resolve the trade once for all measures and all scenarios
-    ResolvedCdsTrade resolved = trade.resolve(refData);
+    // resolve the trade once for all measures and all scenarios, reusing a previously resolved trade
+    ResolvedCdsTrade resolved = ResolvedTradeCache.resolve(trade, refData);
 
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
@@ -22,6 +22,7 @@ import com.opengamma.strata.calc.runner.function.FunctionUtils;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.function.calculation.ResolvedTradeCache;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.product.deposit.ResolvedTermDepositTrade;
 import com.opengamma.strata.product.deposit.TermDeposit;
@@ -101,8 +102,8 @@ public class TermDepositCalculationFunction
       CalculationMarketData scenarioMarketData,
       ReferenceData refData) {
 
-    // resolve the trade once for all measures and all scenarios
-    ResolvedTermDepositTrade resolved = trade.resolve(refData);
+    // resolve the trade once for all measures and all scenarios, reusing a previously resolved trade
+    ResolvedTermDepositTrade resolved = ResolvedTradeCache.resolve(trade, refData);
 
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
@@ -29,6 +29,7 @@ import com.opengamma.strata.calc.runner.function.FunctionUtils;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.function.calculation.ResolvedTradeCache;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IborIndexCurveKey;
 import com.opengamma.strata.market.key.IndexRateKey;
@@ -51,6 +52,7 @@ import com.opengamma.strata.product.fra.ResolvedFraTrade;
  *   <li>{@linkplain Measures#PV01 PV01}
  *   <li>{@linkplain Measures#BUCKETED_PV01 Bucketed PV01}
  *   <li>{@linkplain Measures#BUCKETED_GAMMA_PV01 Bucketed Gamma PV01}
+ *   <li>{@linkplain Measures#CROSS_GAMMA_PV01 Cross Gamma PV01}
  * </ul>
  */
 public class FraCalculationFunction
@@ -69,6 +71,7 @@ public class FraCalculationFunction
           .put(Measures.PV01, FraMeasureCalculations::pv01)
           .put(Measures.BUCKETED_PV01, FraMeasureCalculations::bucketedPv01)
           .put(Measures.BUCKETED_GAMMA_PV01, FraMeasureCalculations::bucketedGammaPv01)
+          .put(Measures.CROSS_GAMMA_PV01, FraMeasureCalculations::crossGammaPv01)
           .build();
 
   private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
@@ -135,8 +138,8 @@ public class FraCalculationFunction
       CalculationMarketData scenarioMarketData,
       ReferenceData refData) {
 
-    // resolve the trade once for all measures and all scenarios
-    ResolvedFraTrade resolved = trade.resolve(refData);
+    // resolve the trade once for all measures and all scenarios, reusing a previously resolved trade
+    ResolvedFraTrade resolved = ResolvedTradeCache.resolve(trade, refData);
 
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
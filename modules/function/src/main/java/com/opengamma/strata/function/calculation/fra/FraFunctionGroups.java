@@ -32,6 +32,7 @@ public final class FraFunctionGroups {
           .addFunction(Measures.PV01, FraCalculationFunction.class)
           .addFunction(Measures.BUCKETED_PV01, FraCalculationFunction.class)
           .addFunction(Measures.BUCKETED_GAMMA_PV01, FraCalculationFunction.class)
+          .addFunction(Measures.CROSS_GAMMA_PV01, FraCalculationFunction.class)
           .build();
 
   /**
@@ -56,6 +57,7 @@ public final class FraFunctionGroups {
    *   <li>{@linkplain Measures#PV01 PV01}
    *   <li>{@linkplain Measures#BUCKETED_PV01 Bucketed PV01}
    *   <li>{@linkplain Measures#BUCKETED_GAMMA_PV01 Bucketed Gamma PV01}
+   *   <li>{@linkplain Measures#CROSS_GAMMA_PV01 Cross Gamma PV01}
    * </ul>
    * 
    * @return the function group
@@ -31,8 +31,10 @@ import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IborIndexCurveKey;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.MarketDataRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.CurveCrossGamma;
 import com.opengamma.strata.pricer.sensitivity.CurveGammaCalculator;
 import com.opengamma.strata.product.fra.ResolvedFra;
 import com.opengamma.strata.product.fra.ResolvedFraTrade;
@@ -210,6 +212,32 @@ final class FraMeasureCalculations {
     return CurveCurrencyParameterSensitivities.of(gamma).multipliedBy(ONE_BASIS_POINT * ONE_BASIS_POINT);
   }
 
+  //-------------------------------------------------------------------------
+  // calculates cross gamma PV01 for all scenarios
+  static ScenarioResult<CurveCrossGamma> crossGammaPv01(
+      ResolvedFraTrade trade,
+      CalculationMarketData marketData) {
+
+    ResolvedFra product = trade.getProduct();
+    return ScenarioResult.of(
+        marketData.getScenarioCount(),
+        i -> calculateCrossGammaPv01(product, marketData.scenario(i)));
+  }
+
+  // cross gamma PV01 for one scenario
+  private static CurveCrossGamma calculateCrossGammaPv01(
+      ResolvedFra product,
+      MarketData marketData) {
+
+    Currency currency = product.getCurrency();
+    ImmutableRatesProvider provider = MarketDataUtils.toRatesProvider(marketData, currency, product.allIndices());
+    CurveCrossGamma crossGamma = CurveGammaCalculator.DEFAULT.calculateCrossGamma(
+        provider,
+        currency,
+        p -> p.curveParameterSensitivity(PRICER.presentValueSensitivity(product, p)));
+    return crossGamma.multipliedBy(ONE_BASIS_POINT * ONE_BASIS_POINT);
+  }
+
   // validates that the indices all resolve to the single specified curve
   private static void validateSingleCurve(Set<IborIndex> indices, MarketData marketData, NodalCurve nodalCurve) {
     Set<IborIndexCurveKey> differentForwardCurves = indices.stream()
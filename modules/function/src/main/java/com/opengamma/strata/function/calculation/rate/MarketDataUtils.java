@@ -14,7 +14,10 @@ import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.basics.market.MarketData;
 import com.opengamma.strata.market.curve.NodalCurve;
+import com.opengamma.strata.market.key.CurveKey;
+import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IndexRateKey;
+import com.opengamma.strata.market.key.MarketDataKeys;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 
@@ -59,4 +62,35 @@ public final class MarketDataUtils {
         .build();
   }
 
+  /**
+   * Creates a rates provider from a set of market data containing a discounting curve,
+   * and forward curves and fixing series for a given set of indices.
+   * <p>
+   * Unlike {@link #toSingleCurveRatesProvider(MarketData, Currency, Set, NodalCurve)},
+   * the curves are those of the market data, and may differ from one another.
+   *
+   * @param marketData  the market data
+   * @param currency  the currency of the discounting curve
+   * @param indices  the indices
+   * @return the rates provider
+   */
+  public static ImmutableRatesProvider toRatesProvider(
+      MarketData marketData,
+      Currency currency,
+      Set<? extends Index> indices) {
+
+    return ImmutableRatesProvider.builder(marketData.getValuationDate())
+        .discountCurve(currency, marketData.getValue(DiscountCurveKey.of(currency)))
+        .indexCurves(indices.stream()
+            .collect(toImmutableMap(Function.identity(), k -> marketData.getValue(indexCurveKey(k)))))
+        .timeSeries(indices.stream()
+            .collect(toImmutableMap(Function.identity(), k -> marketData.getTimeSeries(IndexRateKey.of(k)))))
+        .build();
+  }
+
+  // the key of the forward curve of an index
+  private static CurveKey indexCurveKey(Index index) {
+    return (CurveKey) MarketDataKeys.indexCurve(index);
+  }
+
 }
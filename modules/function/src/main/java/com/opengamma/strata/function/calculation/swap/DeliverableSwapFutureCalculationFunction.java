@@ -27,6 +27,7 @@ import com.opengamma.strata.calc.runner.function.FunctionUtils;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.function.calculation.ResolvedTradeCache;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IndexRateKey;
 import com.opengamma.strata.market.key.MarketDataKeys;
@@ -120,8 +121,8 @@ public class DeliverableSwapFutureCalculationFunction
       CalculationMarketData scenarioMarketData,
       ReferenceData refData) {
 
-    // resolve the trade once for all measures and all scenarios
-    ResolvedDeliverableSwapFutureTrade resolved = trade.resolve(refData);
+    // resolve the trade once for all measures and all scenarios, reusing a previously resolved trade
+    ResolvedDeliverableSwapFutureTrade resolved = ResolvedTradeCache.resolve(trade, refData);
 
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
@@ -28,6 +28,7 @@ import com.opengamma.strata.calc.runner.function.FunctionUtils;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.function.calculation.ResolvedTradeCache;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IndexRateKey;
 import com.opengamma.strata.market.key.MarketDataKeys;
@@ -51,6 +52,7 @@ import com.opengamma.strata.product.swap.SwapTrade;
  *   <li>{@linkplain Measures#PV01 PV01}
  *   <li>{@linkplain Measures#BUCKETED_PV01 Bucketed PV01}
  *   <li>{@linkplain Measures#BUCKETED_GAMMA_PV01 Gamma PV01}
+ *   <li>{@linkplain Measures#CROSS_GAMMA_PV01 Cross Gamma PV01}
  *   <li>{@linkplain Measures#ACCRUED_INTEREST Accrued interest}
  *   <li>{@linkplain Measures#LEG_INITIAL_NOTIONAL Leg initial notional}
  *   <li>{@linkplain Measures#LEG_PRESENT_VALUE Leg present value}
@@ -76,6 +78,7 @@ public class SwapCalculationFunction
           .put(Measures.PV01, SwapMeasureCalculations::pv01)
           .put(Measures.BUCKETED_PV01, SwapMeasureCalculations::bucketedPv01)
           .put(Measures.BUCKETED_GAMMA_PV01, SwapMeasureCalculations::bucketedGammaPv01)
+          .put(Measures.CROSS_GAMMA_PV01, SwapMeasureCalculations::crossGammaPv01)
           .put(Measures.ACCRUED_INTEREST, SwapMeasureCalculations::accruedInterest)
           .put(Measures.LEG_INITIAL_NOTIONAL, SwapMeasureCalculations::legInitialNotional)
           .put(Measures.LEG_PRESENT_VALUE, SwapMeasureCalculations::legPresentValue)
@@ -148,8 +151,8 @@ public class SwapCalculationFunction
       CalculationMarketData scenarioMarketData,
       ReferenceData refData) {
 
-    // resolve the trade once for all measures and all scenarios
-    ResolvedSwapTrade resolved = trade.resolve(refData);
+    // resolve the trade once for all measures and all scenarios, reusing a previously resolved trade
+    ResolvedSwapTrade resolved = ResolvedTradeCache.resolve(trade, refData);
 
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
@@ -34,6 +34,7 @@ public final class SwapFunctionGroups {
           .addFunction(Measures.PV01, SwapCalculationFunction.class)
           .addFunction(Measures.BUCKETED_PV01, SwapCalculationFunction.class)
           .addFunction(Measures.BUCKETED_GAMMA_PV01, SwapCalculationFunction.class)
+          .addFunction(Measures.CROSS_GAMMA_PV01, SwapCalculationFunction.class)
           .addFunction(Measures.ACCRUED_INTEREST, SwapCalculationFunction.class)
           .addFunction(Measures.CURRENCY_EXPOSURE, SwapCalculationFunction.class)
           .addFunction(Measures.CURRENT_CASH, SwapCalculationFunction.class)
@@ -61,6 +62,7 @@ public final class SwapFunctionGroups {
    *   <li>{@linkplain Measures#PV01 PV01}
    *   <li>{@linkplain Measures#BUCKETED_PV01 Bucketed PV01}
    *   <li>{@linkplain Measures#BUCKETED_GAMMA_PV01 Gamma PV01}
+   *   <li>{@linkplain Measures#CROSS_GAMMA_PV01 Cross Gamma PV01}
    *   <li>{@linkplain Measures#ACCRUED_INTEREST Accrued interest}
    *   <li>{@linkplain Measures#LEG_INITIAL_NOTIONAL Leg initial notional}
    *   <li>{@linkplain Measures#LEG_PRESENT_VALUE Leg present value}
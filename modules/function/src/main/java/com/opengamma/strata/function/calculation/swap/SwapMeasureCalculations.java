@@ -40,8 +40,10 @@ import com.opengamma.strata.market.explain.ExplainMap;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.MarketDataKeys;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.MarketDataRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.CurveCrossGamma;
 import com.opengamma.strata.pricer.sensitivity.CurveGammaCalculator;
 import com.opengamma.strata.pricer.swap.DiscountingSwapLegPricer;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
@@ -239,6 +241,35 @@ final class SwapMeasureCalculations {
         .multipliedBy(ONE_BASIS_POINT * ONE_BASIS_POINT);
   }
 
+  //-------------------------------------------------------------------------
+  // calculates cross gamma PV01 for all scenarios
+  static ScenarioResult<CurveCrossGamma> crossGammaPv01(
+      ResolvedSwapTrade trade,
+      CalculationMarketData marketData) {
+
+    ResolvedSwap product = trade.getProduct();
+    return ScenarioResult.of(
+        marketData.getScenarioCount(),
+        i -> calculateCrossGammaPv01(product, marketData.scenario(i)));
+  }
+
+  // cross gamma PV01 for one scenario
+  private static CurveCrossGamma calculateCrossGammaPv01(
+      ResolvedSwap product,
+      MarketData marketData) {
+
+    if (product.isCrossCurrency()) {
+      throw new IllegalArgumentException("Implementation only supports a single currency, but swap is cross-currency");
+    }
+    Currency currency = product.getLegs().get(0).getCurrency();
+    ImmutableRatesProvider provider = MarketDataUtils.toRatesProvider(marketData, currency, product.allIndices());
+    CurveCrossGamma crossGamma = CurveGammaCalculator.DEFAULT.calculateCrossGamma(
+        provider,
+        currency,
+        p -> p.curveParameterSensitivity(PRICER.presentValueSensitivity(product, p).build()));
+    return crossGamma.multipliedBy(ONE_BASIS_POINT * ONE_BASIS_POINT);
+  }
+
   // validates that the indices all resolve to the single specified curve
   private static void validateSingleCurve(Set<Index> indices, MarketData marketData, NodalCurve nodalCurve) {
     Set<MarketDataKey<?>> differentForwardCurves = indices.stream()
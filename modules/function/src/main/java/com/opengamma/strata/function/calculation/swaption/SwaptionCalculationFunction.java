@@ -23,6 +23,7 @@ import com.opengamma.strata.calc.runner.function.FunctionUtils;
 import com.opengamma.strata.calc.runner.function.result.ScenarioResult;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.function.calculation.ResolvedTradeCache;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IborIndexCurveKey;
 import com.opengamma.strata.market.key.IndexRateKey;
@@ -102,8 +103,8 @@ public class SwaptionCalculationFunction
       CalculationMarketData scenarioMarketData,
       ReferenceData refData) {
 
-    // expand the trade once for all measures and all scenarios
-    ResolvedSwaptionTrade resolved = trade.resolve(refData);
+    // resolve the trade once for all measures and all scenarios, reusing a previously resolved trade
+    ResolvedSwaptionTrade resolved = ResolvedTradeCache.resolve(trade, refData);
     IborIndex index = trade.getProduct().getIndex();
     SwaptionVolatilitiesKey volKey = SwaptionVolatilitiesKey.of(index);
 
@@ -6,11 +6,17 @@
 package com.opengamma.strata.function.marketdata.curve;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -26,21 +32,36 @@ import com.opengamma.strata.calc.marketdata.config.MarketDataConfig;
 import com.opengamma.strata.calc.marketdata.function.MarketDataFunction;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroup;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
 import com.opengamma.strata.market.curve.CurveInputs;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.NodalCurveDefinition;
 import com.opengamma.strata.market.id.CurveGroupId;
 import com.opengamma.strata.market.id.CurveInputsId;
 import com.opengamma.strata.pricer.calibration.CalibrationMeasures;
 import com.opengamma.strata.pricer.calibration.CurveCalibrator;
+import com.opengamma.strata.pricer.calibration.LinearCalibrationResult;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 
 /**
  * Market data function that builds a curve group.
  * <p>
  * This function calibrates curves, turning a {@link CurveGroupDefinition} into a {@link CurveGroup}.
+ * <p>
+ * When the curve inputs contain values for multiple scenarios, one curve group is calibrated for each scenario.
+ * The curve group of the first scenario is calibrated first and is used as the starting point of the calibration
+ * of the other scenarios, which are calibrated in parallel using the executor of the function.
+ * If the calibration fails in some scenarios only, the result contains the curve groups of the other scenarios
+ * and the failures, see {@link ScenarioCurveGroups}.
+ * <p>
+ * The {@link MarketDataConfig} may contain a {@link ScenarioCalibrationMode} that specifies that the curve groups
+ * of the scenarios other than the first are derived linearly from the first scenario instead of calibrated.
+ * The result then contains the calibration error of each scenario, see {@link ScenarioCurveGroups}.
  */
 public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGroup, CurveGroupId> {
 
@@ -48,6 +69,10 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
    * The default analytics object that performs the curve calibration.
    */
   private final CalibrationMeasures calibrationMeasures;
+  /**
+   * The executor used to calibrate the scenarios in parallel.
+   */
+  private final Executor executor;
 
   //-------------------------------------------------------------------------
   /**
@@ -70,7 +95,23 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
    * @param calibrationMeasures  the calibration measures to be used in the calibrator
    */
   public CurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures) {
+    this(calibrationMeasures, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a new function for building curve groups, calibrating the scenarios using the specified executor.
+   * <p>
+   * The scenarios are calibrated in parallel by submitting one task per scenario to the executor.
+   * The thread building the market data waits for the tasks to complete, thus the executor
+   * should not be the one running the market data build if it has a bounded number of threads.
+   * A direct executor, such as {@code Runnable::run}, calibrates the scenarios sequentially.
+   *
+   * @param calibrationMeasures  the calibration measures to be used in the calibrator
+   * @param executor  the executor used to calibrate the scenarios
+   */
+  public CurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures, Executor executor) {
     this.calibrationMeasures = ArgChecker.notNull(calibrationMeasures, "calibrationMeasures");
+    this.executor = ArgChecker.notNull(executor, "executor");
   }
 
   //-------------------------------------------------------------------------
@@ -100,11 +141,13 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
     RootFinderConfig rfc = marketDataConfig.find(RootFinderConfig.class).orElse(RootFinderConfig.standard());
     CurveCalibrator calibrator = CurveCalibrator.of(
         rfc.getAbsoluteTolerance(), rfc.getRelativeTolerance(), rfc.getMaximumSteps(), calibrationMeasures);
+    ScenarioCalibrationMode mode =
+        marketDataConfig.find(ScenarioCalibrationMode.class).orElse(ScenarioCalibrationMode.FULL);
 
     // calibrate
     CurveGroupName groupName = id.getName();
     CurveGroupDefinition groupDefn = marketDataConfig.get(CurveGroupDefinition.class, groupName);
-    return buildCurveGroup(groupDefn, calibrator, marketData, refData, id.getMarketDataFeed());
+    return buildCurveGroup(groupDefn, calibrator, mode, marketData, refData, id.getMarketDataFeed());
   }
 
   @Override
@@ -130,6 +173,29 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
       ReferenceData refData,
       MarketDataFeed feed) {
 
+    return buildCurveGroup(groupDefn, calibrator, ScenarioCalibrationMode.FULL, marketData, refData, feed);
+  }
+
+  /**
+   * Builds a curve group given the configuration for the group and a set of market data,
+   * calibrating the scenarios using the specified mode.
+   *
+   * @param groupDefn  the definition of the curve group
+   * @param calibrator  the calibrator
+   * @param mode  the mode used to calibrate the scenarios
+   * @param marketData  the market data containing any values required to build the curve group
+   * @param refData  the reference data, used for resolving trades
+   * @param feed  the market data feed that is the source of the observable data
+   * @return a result containing the curve group or details of why it couldn't be built
+   */
+  MarketDataBox<CurveGroup> buildCurveGroup(
+      CurveGroupDefinition groupDefn,
+      CurveCalibrator calibrator,
+      ScenarioCalibrationMode mode,
+      CalculationEnvironment marketData,
+      ReferenceData refData,
+      MarketDataFeed feed) {
+
     // find and combine all the input data
     CurveGroupName groupName = groupDefn.getName();
 
@@ -141,7 +207,7 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
     boolean multipleValues = inputBoxes.stream().anyMatch(MarketDataBox::isScenarioValue);
 
     return multipleValues ?
-        buildMultipleCurveGroups(groupDefn, calibrator, marketData.getValuationDate(), inputBoxes, refData) :
+        buildMultipleCurveGroups(groupDefn, calibrator, mode, marketData.getValuationDate(), inputBoxes, refData) :
         buildSingleCurveGroup(groupDefn, calibrator, marketData.getValuationDate(), inputBoxes, refData);
   }
 
@@ -149,27 +215,106 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
   private MarketDataBox<CurveGroup> buildMultipleCurveGroups(
       CurveGroupDefinition groupDefn,
       CurveCalibrator calibrator,
+      ScenarioCalibrationMode mode,
+      MarketDataBox<LocalDate> valuationDateBox,
+      List<MarketDataBox<CurveInputs>> inputBoxes,
+      ReferenceData refData) {
+
+    int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
+    // the curves of the first scenario are the starting point of the calibration of the other scenarios
+    MarketData firstInputs = inputsForScenario(valuationDateBox, inputBoxes, 0);
+    Result<ImmutableRatesProvider> first = scenarioResult(
+        groupDefn, 0, () -> calibrate(groupDefn, calibrator, firstInputs, refData, ImmutableMap.of()));
+    if (mode != ScenarioCalibrationMode.FULL && first.isSuccess()) {
+      ImmutableRatesProvider baseProvider = first.getValue();
+      return buildLinearCurveGroups(groupDefn, calibrator, mode, baseProvider, valuationDateBox, inputBoxes, refData);
+    }
+    Result<CurveGroup> firstGroup = first.map(provider -> curveGroup(groupDefn, provider));
+    Map<CurveName, Curve> initialCurves = firstGroup.isSuccess() ?
+        firstGroup.getValue().stream()
+            .collect(toImmutableMap(Curve::getName, curve -> curve, (curve1, curve2) -> curve1)) :
+        ImmutableMap.of();
+    List<CompletableFuture<Result<CurveGroup>>> futures = IntStream.range(1, scenarioCount)
+        .mapToObj(i -> CompletableFuture.supplyAsync(
+            () -> scenarioResult(groupDefn, i, () -> {
+              MarketData inputs = inputsForScenario(valuationDateBox, inputBoxes, i);
+              return curveGroup(groupDefn, calibrate(groupDefn, calibrator, inputs, refData, initialCurves));
+            }),
+            executor))
+        .collect(toImmutableList());
+    ImmutableList.Builder<Result<CurveGroup>> builder = ImmutableList.builder();
+    builder.add(firstGroup);
+    futures.forEach(future -> builder.add(future.join()));
+    ImmutableList<Result<CurveGroup>> results = builder.build();
+
+    if (results.stream().allMatch(Result::isSuccess)) {
+      return MarketDataBox.ofScenarioValues(results.stream().map(Result::getValue).collect(toImmutableList()));
+    }
+    if (results.stream().allMatch(Result::isFailure)) {
+      throw new IllegalArgumentException(first.getFailure().getMessage());
+    }
+    return MarketDataBox.ofScenarioValue(ScenarioCurveGroups.of(results));
+  }
+
+  // derives the groups of the scenarios from the first scenario using the Jacobian of its calibration
+  private MarketDataBox<CurveGroup> buildLinearCurveGroups(
+      CurveGroupDefinition groupDefn,
+      CurveCalibrator calibrator,
+      ScenarioCalibrationMode mode,
+      ImmutableRatesProvider baseProvider,
       MarketDataBox<LocalDate> valuationDateBox,
       List<MarketDataBox<CurveInputs>> inputBoxes,
       ReferenceData refData) {
 
     int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
-    ImmutableList.Builder<CurveGroup> builder = ImmutableList.builder();
+    boolean newtonCorrection = mode == ScenarioCalibrationMode.LINEAR_WITH_CORRECTION;
+    List<CompletableFuture<Result<LinearCalibrationResult>>> futures = IntStream.range(1, scenarioCount)
+        .mapToObj(i -> CompletableFuture.supplyAsync(
+            () -> scenarioResult(groupDefn, i, () -> {
+              MarketData inputs = inputsForScenario(valuationDateBox, inputBoxes, i);
+              return calibrator.calibrateLinear(groupDefn, baseProvider, inputs, refData, newtonCorrection);
+            }),
+            executor))
+        .collect(toImmutableList());
+    ImmutableList.Builder<Result<CurveGroup>> builder = ImmutableList.builder();
+    double[] calibrationErrors = new double[scenarioCount];
+    builder.add(Result.success(curveGroup(groupDefn, baseProvider)));
+    for (int i = 1; i < scenarioCount; i++) {
+      Result<LinearCalibrationResult> result = futures.get(i - 1).join();
+      builder.add(result.map(linear -> curveGroup(groupDefn, linear.getRatesProvider())));
+      calibrationErrors[i] = result.isSuccess() ? result.getValue().getMaxResidual() : Double.NaN;
+    }
+    ScenarioCurveGroups groups = ScenarioCurveGroups.of(builder.build(), DoubleArray.ofUnsafe(calibrationErrors));
+    return MarketDataBox.ofScenarioValue(groups);
+  }
 
-    for (int i = 0; i < scenarioCount; i++) {
-      List<CurveInputs> curveInputsList = inputsForScenario(inputBoxes, i);
-      LocalDate valuationDate = valuationDateBox.getValue(scenarioCount);
-      MarketData inputs = inputsByKey(valuationDate, curveInputsList);
-      builder.add(buildGroup(groupDefn, calibrator, valuationDate, inputs, refData));
+  // calibrates the group of a scenario, capturing the failure
+  private static <T> Result<T> scenarioResult(
+      CurveGroupDefinition groupDefn,
+      int scenarioIndex,
+      Supplier<T> calibration) {
+
+    try {
+      return Result.success(calibration.get());
+    } catch (RuntimeException ex) {
+      return Result.failure(
+          ex,
+          "Unable to calibrate curve group '{}' for scenario {}: {}",
+          groupDefn.getName(),
+          scenarioIndex,
+          ex.getMessage());
     }
-    ImmutableList<CurveGroup> curveGroups = builder.build();
-    return MarketDataBox.ofScenarioValues(curveGroups);
   }
 
-  private static List<CurveInputs> inputsForScenario(List<MarketDataBox<CurveInputs>> boxes, int scenarioIndex) {
-    return boxes.stream()
+  private static MarketData inputsForScenario(
+      MarketDataBox<LocalDate> valuationDateBox,
+      List<MarketDataBox<CurveInputs>> boxes,
+      int scenarioIndex) {
+
+    List<CurveInputs> curveInputsList = boxes.stream()
         .map(box -> box.getValue(scenarioIndex))
         .collect(toImmutableList());
+    return inputsByKey(valuationDateBox.getValue(scenarioIndex), curveInputsList);
   }
 
   // calibrates when there is a single group
@@ -183,8 +328,9 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
     List<CurveInputs> inputs = inputBoxes.stream().map(MarketDataBox::getSingleValue).collect(toImmutableList());
     LocalDate valuationDate = valuationDateBox.getValue(0);
     MarketData inputValues = inputsByKey(valuationDate, inputs);
-    CurveGroup curveGroup = buildGroup(groupDefn, calibrator, valuationDateBox.getSingleValue(), inputValues, refData);
-    return MarketDataBox.ofSingleValue(curveGroup);
+    ImmutableRatesProvider calibratedProvider =
+        calibrate(groupDefn, calibrator, inputValues, refData, ImmutableMap.of());
+    return MarketDataBox.ofSingleValue(curveGroup(groupDefn, calibratedProvider));
   }
 
   /**
@@ -219,21 +365,24 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
     return ImmutableMarketData.of(valuationDate, marketDataMap);
   }
 
-  private CurveGroup buildGroup(
+  private static ImmutableRatesProvider calibrate(
       CurveGroupDefinition groupDefn,
       CurveCalibrator calibrator,
-      LocalDate valuationDate,
       MarketData marketData,
-      ReferenceData refData) {
+      ReferenceData refData,
+      Map<CurveName, Curve> initialCurves) {
 
     // perform the calibration
-    ImmutableRatesProvider calibratedProvider = calibrator.calibrate(
+    return calibrator.calibrate(
         groupDefn,
-        valuationDate,
+        marketData.getValuationDate(),
         marketData,
         refData,
-        ImmutableMap.of());
+        ImmutableMap.of(),
+        initialCurves);
+  }
 
+  private static CurveGroup curveGroup(CurveGroupDefinition groupDefn, ImmutableRatesProvider calibratedProvider) {
     return CurveGroup.of(
         groupDefn.getName(),
         calibratedProvider.getDiscountCurves(),
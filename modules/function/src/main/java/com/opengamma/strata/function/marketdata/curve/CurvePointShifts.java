@@ -118,44 +118,68 @@ public final class CurvePointShifts
 
   //-------------------------------------------------------------------------
 
+  // the shifted curves are created when first requested, see LazyScenarioCurves
+  // the curves are checked and their nodes matched to the shifts up front, leaving only the y-values to shift
   @Override
   public MarketDataBox<Curve> applyTo(MarketDataBox<Curve> marketData) {
     log.debug("Applying {} point shift to curve '{}'", shiftType, marketData.getValue(0).getName());
-    return marketData.apply(shifts.rowCount(), (curve, scenarioIndex) -> applyShifts(scenarioIndex, curve));
+    if (marketData.isSingleValue()) {
+      Curve curve = marketData.getSingleValue();
+      int[] shiftColumns = shiftColumns(curve);
+      NodalCurve nodalCurve = curve.toNodalCurve();
+      return LazyScenarioCurves.of(
+          marketData,
+          shifts.rowCount(),
+          (baseCurve, scenarioIndex) -> applyShifts(scenarioIndex, nodalCurve, shiftColumns));
+    }
+    int[][] shiftColumns = new int[marketData.getScenarioCount()][];
+    for (int i = 0; i < shiftColumns.length; i++) {
+      shiftColumns[i] = shiftColumns(marketData.getValue(i));
+    }
+    return LazyScenarioCurves.of(
+        marketData,
+        shifts.rowCount(),
+        (baseCurve, scenarioIndex) ->
+            applyShifts(scenarioIndex, baseCurve.toNodalCurve(), shiftColumns[scenarioIndex]));
   }
 
-  private Curve applyShifts(int scenarioIndex, Curve curve) {
+  // finds the column in the matrix of shifts of each node of the curve, -1 if the node is not shifted
+  private int[] shiftColumns(Curve curve) {
     // curve parameter metadata is required, otherwise there is no way to find the nodes and apply the shifts
     List<CurveParameterMetadata> nodeMetadata = curve.getMetadata().getParameterMetadata()
         .orElseThrow(() -> new IllegalArgumentException(Messages.format(
             "Unable to apply point shifts to curve '{}' because it has no parameter metadata", curve.getName())));
-    NodalCurve nodalCurve = curve.toNodalCurve();
-    DoubleArray yValues = nodalCurve.getYValues();
-    DoubleArray shifted = yValues.mapWithIndex((i, v) -> {
-      CurveParameterMetadata meta = nodeMetadata.get(i);
-      double shift = shiftForNode(scenarioIndex, meta);
-      return shiftType.applyShift(v, shift);
-    });
-    return nodalCurve.withYValues(shifted);
-  }
-
-  @Override
-  public int getScenarioCount() {
-    return shifts.rowCount();
+    return nodeMetadata.stream()
+        .mapToInt(this::shiftColumn)
+        .toArray();
   }
 
-  private double shiftForNode(int scenarioIndex, CurveParameterMetadata meta) {
+  private int shiftColumn(CurveParameterMetadata meta) {
     Integer nodeIndex = nodeIndices.get(meta.getIdentifier());
 
     if (nodeIndex != null) {
-      return shifts.get(scenarioIndex, nodeIndex);
+      return nodeIndex;
     }
     nodeIndex = nodeIndices.get(meta.getLabel());
 
     if (nodeIndex != null) {
-      return shifts.get(scenarioIndex, nodeIndex);
+      return nodeIndex;
     }
-    return 0;
+    return -1;
+  }
+
+  private Curve applyShifts(int scenarioIndex, NodalCurve nodalCurve, int[] shiftColumns) {
+    DoubleArray yValues = nodalCurve.getYValues();
+    DoubleArray shifted = yValues.mapWithIndex((i, v) -> {
+      double shift = shiftColumns[i] < 0 ? 0 : shifts.get(scenarioIndex, shiftColumns[i]);
+      return shiftType.applyShift(v, shift);
+    });
+    return nodalCurve.withYValues(shifted);
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return shifts.rowCount();
   }
 
   //------------------------- AUTOGENERATED START -------------------------
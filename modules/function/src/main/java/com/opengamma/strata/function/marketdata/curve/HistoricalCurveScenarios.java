@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.marketdata.scenario.MarketDataFilter;
+import com.opengamma.strata.calc.marketdata.scenario.PerturbationMapping;
+import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.curve.Curve;
+
+/**
+ * A set of historical scenarios generated from the daily changes in a series of curves.
+ * <p>
+ * This is used to perform historical simulation, such as historical VaR.
+ * Each scenario corresponds to one date in the history, with the shifts being
+ * the change in each curve node between the previous date and that date.
+ * <p>
+ * The changes are calculated once when the instance is built and are held in a single
+ * array per curve, with one row per scenario and one column per curve node.
+ * Scenario definitions are only created when requested, containing {@link CurvePointShifts}
+ * for a range of scenarios. This allows a long history, such as 1,000 days or more, to be
+ * processed in batches using {@link #forEachBatch(int, ObjIntConsumer)} without needing the
+ * market data for every scenario at the same time.
+ * <p>
+ * Instances are created using {@link #builder(ShiftType, List)}.
+ * This class is immutable and thread-safe.
+ */
+public final class HistoricalCurveScenarios {
+
+  /**
+   * The type of shift applied to the curve values.
+   */
+  private final ShiftType shiftType;
+  /**
+   * The scenario dates, one for each scenario.
+   */
+  private final ImmutableList<LocalDate> scenarioDates;
+  /**
+   * The changes for each curve.
+   */
+  private final ImmutableList<CurveHistory> curves;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a new mutable builder for building historical scenarios.
+   * <p>
+   * The dates are the dates of the historical curves, in ascending order.
+   * There is one scenario for each date except the first.
+   *
+   * @param shiftType  the type of shift, absolute changes or relative changes
+   * @param curveDates  the dates of the historical curves, in ascending order
+   * @return a new mutable builder
+   */
+  public static HistoricalCurveScenariosBuilder builder(ShiftType shiftType, List<LocalDate> curveDates) {
+    return new HistoricalCurveScenariosBuilder(shiftType, curveDates);
+  }
+
+  /**
+   * Restricted constructor used by the builder.
+   *
+   * @param shiftType  the type of shift
+   * @param scenarioDates  the scenario dates
+   * @param curves  the changes for each curve
+   */
+  HistoricalCurveScenarios(ShiftType shiftType, List<LocalDate> scenarioDates, List<CurveHistory> curves) {
+    this.shiftType = shiftType;
+    this.scenarioDates = ImmutableList.copyOf(scenarioDates);
+    this.curves = ImmutableList.copyOf(curves);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the type of shift applied to the curve values.
+   *
+   * @return the shift type
+   */
+  public ShiftType getShiftType() {
+    return shiftType;
+  }
+
+  /**
+   * Gets the scenario dates, one for each scenario.
+   * <p>
+   * The scenario date is the date of the curve at the end of the daily change.
+   *
+   * @return the scenario dates
+   */
+  public ImmutableList<LocalDate> getScenarioDates() {
+    return scenarioDates;
+  }
+
+  /**
+   * Gets the number of scenarios.
+   *
+   * @return the number of scenarios
+   */
+  public int getScenarioCount() {
+    return scenarioDates.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the scenario definition containing all scenarios.
+   *
+   * @return the scenario definition
+   */
+  public ScenarioDefinition scenarios() {
+    return scenarios(0, getScenarioCount());
+  }
+
+  /**
+   * Creates the scenario definition containing a range of scenarios.
+   * <p>
+   * The scenarios are named using the scenario date.
+   *
+   * @param startInclusive  the index of the first scenario, inclusive
+   * @param endExclusive  the index of the last scenario, exclusive
+   * @return the scenario definition
+   * @throws IllegalArgumentException if the range is invalid or empty
+   */
+  public ScenarioDefinition scenarios(int startInclusive, int endExclusive) {
+    ArgChecker.inOrderNotEqual(startInclusive, endExclusive, "startInclusive", "endExclusive");
+    ArgChecker.inRange(startInclusive, 0, getScenarioCount(), "startInclusive");
+    ArgChecker.inRangeInclusive(endExclusive, 0, getScenarioCount(), "endExclusive");
+    List<PerturbationMapping<Curve>> mappings = curves.stream()
+        .map(curve -> curve.mapping(shiftType, startInclusive, endExclusive))
+        .collect(toImmutableList());
+    List<String> names = scenarioDates.subList(startInclusive, endExclusive).stream()
+        .map(LocalDate::toString)
+        .collect(toImmutableList());
+    return ScenarioDefinition.ofMappings(mappings, names);
+  }
+
+  /**
+   * Creates the scenario definitions in batches, passing each to the consumer.
+   * <p>
+   * This allows a large number of scenarios to be calculated without building the
+   * market data for all scenarios at once. Each batch is typically used to build the
+   * scenario market data and run the calculations, before the next batch is created.
+   * The consumer is passed the scenario definition and the index of the first scenario in the batch.
+   * Every batch except the last contains {@code batchSize} scenarios.
+   *
+   * @param batchSize  the maximum number of scenarios in each batch
+   * @param consumer  the consumer of each batch and the index of its first scenario
+   */
+  public void forEachBatch(int batchSize, ObjIntConsumer<ScenarioDefinition> consumer) {
+    ArgChecker.notNegativeOrZero(batchSize, "batchSize");
+    ArgChecker.notNull(consumer, "consumer");
+    for (int start = 0; start < getScenarioCount(); start += batchSize) {
+      int end = Math.min(start + batchSize, getScenarioCount());
+      consumer.accept(scenarios(start, end), start);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "HistoricalCurveScenarios[shiftType=" + shiftType + ", curves=" + curves.size() +
+        ", scenarios=" + getScenarioCount() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The history of changes for a single curve.
+   */
+  static final class CurveHistory {
+    /**
+     * The filter used to select the curve to be shifted.
+     */
+    private final MarketDataFilter<Curve, ?> filter;
+    /**
+     * The node identifiers, one per column.
+     */
+    private final ImmutableList<Object> nodeIdentifiers;
+    /**
+     * The changes, with one row for each scenario and one column for each node, stored by row.
+     */
+    private final double[] changes;
+
+    CurveHistory(MarketDataFilter<Curve, ?> filter, List<Object> nodeIdentifiers, double[] changes) {
+      this.filter = filter;
+      this.nodeIdentifiers = ImmutableList.copyOf(nodeIdentifiers);
+      this.changes = changes;
+    }
+
+    // creates the point shifts for the range of scenarios
+    PerturbationMapping<Curve> mapping(ShiftType shiftType, int startInclusive, int endExclusive) {
+      int nodeCount = nodeIdentifiers.size();
+      DoubleMatrix shifts = DoubleMatrix.ofArrays(endExclusive - startInclusive, nodeCount, row -> {
+        int offset = (startInclusive + row) * nodeCount;
+        return Arrays.copyOfRange(changes, offset, offset + nodeCount);
+      });
+      return PerturbationMapping.of(Curve.class, filter, new CurvePointShifts(shiftType, shifts, nodeIdentifiers));
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.marketdata.scenario.MarketDataFilter;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.function.marketdata.curve.HistoricalCurveScenarios.CurveHistory;
+import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveParameterMetadata;
+
+/**
+ * Mutable builder for building instances of {@link HistoricalCurveScenarios}.
+ * <p>
+ * This is created via {@link HistoricalCurveScenarios#builder(ShiftType, List)}.
+ */
+public final class HistoricalCurveScenariosBuilder {
+
+  /**
+   * The type of shift, absolute changes or relative changes.
+   */
+  private final ShiftType shiftType;
+  /**
+   * The dates of the historical curves.
+   */
+  private final ImmutableList<LocalDate> curveDates;
+  /**
+   * The changes for each curve added so far.
+   */
+  private final List<CurveHistory> curves = new ArrayList<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor used by {@link HistoricalCurveScenarios#builder}.
+   *
+   * @param shiftType  the type of shift, absolute changes or relative changes
+   * @param curveDates  the dates of the historical curves, in ascending order
+   */
+  HistoricalCurveScenariosBuilder(ShiftType shiftType, List<LocalDate> curveDates) {
+    this.shiftType = ArgChecker.notNull(shiftType, "shiftType");
+    ArgChecker.notNull(curveDates, "curveDates");
+    ArgChecker.isTrue(curveDates.size() >= 2, "At least two curve dates are required to create historical scenarios");
+    for (int i = 1; i < curveDates.size(); i++) {
+      ArgChecker.inOrderNotEqual(curveDates.get(i - 1), curveDates.get(i), "curveDate", "nextCurveDate");
+    }
+    this.curveDates = ImmutableList.copyOf(curveDates);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the history of a curve to the builder.
+   * <p>
+   * The curves must be in the same order as the curve dates, with one curve for each date.
+   * Each curve must have parameter metadata and the same number of nodes.
+   * The node identifiers of the latest curve are used to match the shifts to the perturbed curve.
+   * <p>
+   * The daily changes in the node values are calculated immediately.
+   * For absolute shifts, the change is the difference between the values.
+   * For relative shifts, the change is the ratio of the values minus one.
+   *
+   * @param filter  the filter used to select the curve to be shifted in each scenario
+   * @param historicalCurves  the historical curves, one for each curve date
+   * @return this builder
+   * @throws IllegalArgumentException if the curves are not consistent
+   */
+  public HistoricalCurveScenariosBuilder addCurve(
+      MarketDataFilter<Curve, ?> filter,
+      List<? extends Curve> historicalCurves) {
+
+    ArgChecker.notNull(filter, "filter");
+    ArgChecker.notNull(historicalCurves, "historicalCurves");
+    if (historicalCurves.size() != curveDates.size()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} historical curves, one for each curve date, but found {}",
+          curveDates.size(),
+          historicalCurves.size()));
+    }
+    Curve latest = historicalCurves.get(historicalCurves.size() - 1);
+    List<CurveParameterMetadata> nodeMetadata = latest.getMetadata().getParameterMetadata()
+        .orElseThrow(() -> new IllegalArgumentException(Messages.format(
+            "Unable to create historical scenarios for curve '{}' because it has no parameter metadata",
+            latest.getName())));
+    List<Object> nodeIdentifiers = nodeMetadata.stream()
+        .map(CurveParameterMetadata::getIdentifier)
+        .collect(toImmutableList());
+    int nodeCount = nodeIdentifiers.size();
+    ArgChecker.isTrue(nodeCount > 0, "Curve '{}' must have at least one node", latest.getName());
+
+    // calculate the changes, one row for each scenario, with the rows held in a single array
+    double[] changes = new double[(curveDates.size() - 1) * nodeCount];
+    DoubleArray previous = nodeValues(historicalCurves.get(0), nodeCount, curveDates.get(0));
+    for (int i = 1; i < curveDates.size(); i++) {
+      DoubleArray current = nodeValues(historicalCurves.get(i), nodeCount, curveDates.get(i));
+      int offset = (i - 1) * nodeCount;
+      for (int node = 0; node < nodeCount; node++) {
+        changes[offset + node] = change(previous.get(node), current.get(node));
+      }
+      previous = current;
+    }
+    curves.add(new CurveHistory(filter, nodeIdentifiers, changes));
+    return this;
+  }
+
+  // obtains the node values of the curve, checking the node count
+  private static DoubleArray nodeValues(Curve curve, int nodeCount, LocalDate curveDate) {
+    DoubleArray values = curve.toNodalCurve().getYValues();
+    if (values.size() != nodeCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Historical curve '{}' on {} has {} nodes but {} were expected",
+          curve.getName(),
+          curveDate,
+          values.size(),
+          nodeCount));
+    }
+    return values;
+  }
+
+  // calculates the change in a node value, consistent with the shift type
+  private double change(double previous, double current) {
+    return shiftType == ShiftType.ABSOLUTE ? current - previous : current / previous - 1;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns an instance of {@link HistoricalCurveScenarios} built from the data in this builder.
+   *
+   * @return the historical scenarios
+   */
+  public HistoricalCurveScenarios build() {
+    ArgChecker.isFalse(curves.isEmpty(), "At least one curve must be added to create historical scenarios");
+    return new HistoricalCurveScenarios(shiftType, curveDates.subList(1, curveDates.size()), curves);
+  }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.market.ScenarioMarketDataValue;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+import com.opengamma.strata.market.curve.Curve;
+
+/**
+ * Scenario curves derived from base curves, created when first requested.
+ * <p>
+ * A perturbation typically derives a curve for each scenario from the base curve.
+ * Creating all the curves up front is wasteful when only some of the scenarios are used,
+ * and holds every curve in memory while the scenarios are set up.
+ * Instead, this holds the base curves and the function deriving the curve of a scenario.
+ * The curve of a scenario is created the first time it is requested and is cached for subsequent requests.
+ * <p>
+ * This class is thread-safe. If the curve of a scenario is requested concurrently it may be created
+ * more than once, in which case the first curve created is retained.
+ */
+final class LazyScenarioCurves
+    implements ScenarioMarketDataValue<Curve> {
+
+  /**
+   * The base curves, a single curve or one curve for each scenario.
+   */
+  private final MarketDataBox<Curve> baseCurves;
+  /**
+   * The function deriving the curve of a scenario from the base curve of the scenario and the scenario index.
+   */
+  private final ObjIntFunction<Curve, Curve> curveFunction;
+  /**
+   * The curves of the scenarios, null until created.
+   */
+  private final AtomicReferenceArray<Curve> curves;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a box containing the curves derived from the base curves.
+   * <p>
+   * The base curves must contain a single curve or a curve for each scenario.
+   * The function is not invoked by this method.
+   *
+   * @param baseCurves  the base curves
+   * @param scenarioCount  the number of scenarios
+   * @param curveFunction  the function deriving the curve of a scenario from the base curve and the scenario index
+   * @return a box containing the scenario curves
+   * @throws IllegalArgumentException if the base curves contain a different number of scenarios
+   */
+  static MarketDataBox<Curve> of(
+      MarketDataBox<Curve> baseCurves,
+      int scenarioCount,
+      ObjIntFunction<Curve, Curve> curveFunction) {
+
+    ArgChecker.notNull(baseCurves, "baseCurves");
+    ArgChecker.notNull(curveFunction, "curveFunction");
+    if (baseCurves.isScenarioValue() && baseCurves.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario count {} does not equal the scenario count of the value {}",
+              scenarioCount,
+              baseCurves.getScenarioCount()));
+    }
+    return MarketDataBox.ofScenarioValue(new LazyScenarioCurves(baseCurves, scenarioCount, curveFunction));
+  }
+
+  // restricted constructor
+  private LazyScenarioCurves(
+      MarketDataBox<Curve> baseCurves,
+      int scenarioCount,
+      ObjIntFunction<Curve, Curve> curveFunction) {
+
+    this.baseCurves = baseCurves;
+    this.curveFunction = curveFunction;
+    this.curves = new AtomicReferenceArray<>(ArgChecker.notNegative(scenarioCount, "scenarioCount"));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Curve getValue(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, curves.length(), "scenarioIndex");
+    Curve curve = curves.get(scenarioIndex);
+    if (curve != null) {
+      return curve;
+    }
+    Curve created = curveFunction.apply(baseCurves.getValue(scenarioIndex), scenarioIndex);
+    return curves.compareAndSet(scenarioIndex, null, created) ? created : curves.get(scenarioIndex);
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return curves.length();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      LazyScenarioCurves other = (LazyScenarioCurves) obj;
+      if (getScenarioCount() != other.getScenarioCount()) {
+        return false;
+      }
+      for (int i = 0; i < getScenarioCount(); i++) {
+        if (!getValue(i).equals(other.getValue(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    for (int i = 0; i < getScenarioCount(); i++) {
+      hash = hash * 31 + getValue(i).hashCode();
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format("LazyScenarioCurves[scenarioCount={}, baseCurves={}]", getScenarioCount(), baseCurves);
+  }
+
+}
@@ -45,7 +45,7 @@ public final class OvernightIndexCurveMarketDataFunction implements MarketDataFu
 
     CurveGroupId curveGroupId = CurveGroupId.of(id.getCurveGroupName(), id.getMarketDataFeed());
     MarketDataBox<CurveGroup> curveGroupBox = marketData.getValue(curveGroupId);
-    return curveGroupBox.apply(curveGroup -> buildCurve(id, curveGroup));
+    return ScenarioCurves.of(curveGroupBox, curveGroup -> buildCurve(id, curveGroup));
   }
 
   private Curve buildCurve(OvernightIndexCurveId id, CurveGroup curveGroup) {
@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+
+import com.google.common.base.CaseFormat;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * The mode used to calibrate the curve groups of scenarios.
+ * <p>
+ * The curve group of the first scenario is always fully calibrated.
+ * The mode controls how the curve groups of the other scenarios are derived from the market data of the scenario.
+ * The mode is specified by adding it as a default value to the
+ * {@link com.opengamma.strata.calc.marketdata.config.MarketDataConfig MarketDataConfig},
+ * the full calibration is used if it is not specified.
+ * <p>
+ * The linear modes are much faster than the full calibration but are only accurate when the market data
+ * of the scenario is close to the market data of the first scenario.
+ * The calibration error of each scenario is reported by {@link ScenarioCurveGroups#getCalibrationErrors()}.
+ */
+public enum ScenarioCalibrationMode {
+
+  /**
+   * The curve group of each scenario is fully calibrated.
+   * The calibration of the first scenario is used as the starting point of the root finder.
+   */
+  FULL,
+  /**
+   * The curve group of each scenario is derived from the first scenario at first order,
+   * using the Jacobian of the calibration of the first scenario.
+   */
+  LINEAR,
+  /**
+   * The curve group of each scenario is derived from the first scenario at first order,
+   * followed by a Newton correction step using the Jacobian of the calibration of the first scenario.
+   */
+  LINEAR_WITH_CORRECTION;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the specified unique name.
+   *
+   * @param uniqueName  the unique name
+   * @return the mode
+   * @throws IllegalArgumentException if the name is not known
+   */
+  @FromString
+  public static ScenarioCalibrationMode of(String uniqueName) {
+    ArgChecker.notNull(uniqueName, "uniqueName");
+    return valueOf(CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, uniqueName));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the formatted unique name of the mode.
+   *
+   * @return the formatted string representing the mode
+   */
+  @ToString
+  @Override
+  public String toString() {
+    return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, name());
+  }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.market.ScenarioMarketDataValue;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.market.curve.CurveGroup;
+
+/**
+ * The curve groups calibrated for a set of scenarios, where the calibration may have failed in some scenarios.
+ * <p>
+ * The result of the calibration is available for each scenario, and the calibration failures
+ * do not prevent the use of the curve groups of the other scenarios.
+ * Requesting the curve group of a scenario whose calibration failed throws an exception
+ * containing the details of the failure.
+ * <p>
+ * When the curve groups are derived from the first scenario using a linear
+ * {@linkplain ScenarioCalibrationMode calibration mode}, the calibration error of each scenario
+ * is also available.
+ */
+public final class ScenarioCurveGroups implements ScenarioMarketDataValue<CurveGroup> {
+
+  /**
+   * The calibration results, one for each scenario.
+   */
+  private final ImmutableList<Result<CurveGroup>> results;
+  /**
+   * The calibration errors, one for each scenario.
+   */
+  private final DoubleArray calibrationErrors;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the calibration results, one for each scenario.
+   * <p>
+   * The curve groups are fully calibrated, thus the calibration error is zero
+   * for the successful scenarios and NaN for the failed scenarios.
+   *
+   * @param results  the calibration results, one for each scenario
+   * @return the scenario curve groups
+   */
+  public static ScenarioCurveGroups of(List<Result<CurveGroup>> results) {
+    ArgChecker.notEmpty(results, "results");
+    DoubleArray calibrationErrors =
+        DoubleArray.of(results.size(), i -> results.get(i).isSuccess() ? 0d : Double.NaN);
+    return new ScenarioCurveGroups(ImmutableList.copyOf(results), calibrationErrors);
+  }
+
+  /**
+   * Obtains an instance from the calibration results and the calibration errors, one for each scenario.
+   * <p>
+   * The calibration error of a failed scenario is expected to be NaN.
+   *
+   * @param results  the calibration results, one for each scenario
+   * @param calibrationErrors  the calibration errors, one for each scenario
+   * @return the scenario curve groups
+   */
+  public static ScenarioCurveGroups of(List<Result<CurveGroup>> results, DoubleArray calibrationErrors) {
+    ArgChecker.notEmpty(results, "results");
+    ArgChecker.notNull(calibrationErrors, "calibrationErrors");
+    ArgChecker.isTrue(
+        results.size() == calibrationErrors.size(),
+        "Calibration errors must contain one value for each scenario, expected {} but was {}",
+        results.size(),
+        calibrationErrors.size());
+    return new ScenarioCurveGroups(ImmutableList.copyOf(results), calibrationErrors);
+  }
+
+  // restricted constructor
+  private ScenarioCurveGroups(ImmutableList<Result<CurveGroup>> results, DoubleArray calibrationErrors) {
+    this.results = results;
+    this.calibrationErrors = calibrationErrors;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the calibration results, one for each scenario.
+   *
+   * @return the calibration results
+   */
+  public ImmutableList<Result<CurveGroup>> getResults() {
+    return results;
+  }
+
+  /**
+   * Gets the calibration result of a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the calibration result of the scenario
+   */
+  public Result<CurveGroup> getResult(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, results.size(), "scenarioIndex");
+    return results.get(scenarioIndex);
+  }
+
+  /**
+   * Gets the number of scenarios whose calibration failed.
+   *
+   * @return the number of failures
+   */
+  public int getFailureCount() {
+    return (int) results.stream().filter(Result::isFailure).count();
+  }
+
+  /**
+   * Gets the calibration errors, one for each scenario.
+   * <p>
+   * The calibration error of a scenario is the largest absolute calibration measure of its curve group,
+   * such as a par spread, which a full calibration brings to zero.
+   * It is zero for the scenarios that are fully calibrated and NaN for the scenarios whose calibration failed.
+   *
+   * @return the calibration errors
+   */
+  public DoubleArray getCalibrationErrors() {
+    return calibrationErrors;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the curve group of a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the curve group of the scenario
+   * @throws IllegalStateException if the calibration failed in the scenario
+   */
+  @Override
+  public CurveGroup getValue(int scenarioIndex) {
+    return getResult(scenarioIndex).getValue();
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return results.size();
+  }
+
+  @Override
+  public Class<?> getMarketDataType() {
+    return CurveGroup.class;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ScenarioCurveGroups other = (ScenarioCurveGroups) obj;
+      return results.equals(other.results) && calibrationErrors.equals(other.calibrationErrors);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return results.hashCode() * 31 + calibrationErrors.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "ScenarioCurveGroups[scenarioCount=" + results.size() + ", failureCount=" + getFailureCount() + "]";
+  }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.market.ScenarioMarketDataValue;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveGroup;
+
+/**
+ * The curves extracted from the curve groups of a set of scenarios, where the curve may be missing in some scenarios.
+ * <p>
+ * When the calibration of the curve groups fails in some scenarios, the curves of the other
+ * scenarios remain available. Requesting the curve of a scenario whose curve group failed to calibrate,
+ * or which does not contain the curve, throws an exception containing the details of the failure.
+ * The failure therefore only affects the calculations using the curve in that scenario.
+ */
+final class ScenarioCurves implements ScenarioMarketDataValue<Curve> {
+
+  /**
+   * The curves, one result for each scenario.
+   */
+  private final ImmutableList<Result<Curve>> results;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a box containing the curve of each scenario extracted from the curve groups.
+   * <p>
+   * If the curve groups are {@link ScenarioCurveGroups}, the curve of each scenario is extracted
+   * from the result of the scenario, and a failure to calibrate or extract the curve is only
+   * reported when the curve of the scenario is requested.
+   * Otherwise the curves are extracted from all the curve groups, failing if the curve
+   * cannot be extracted in any scenario.
+   *
+   * @param curveGroups  the curve groups
+   * @param curveFunction  the function extracting the curve from a curve group
+   * @return a box containing the curves
+   */
+  static MarketDataBox<Curve> of(MarketDataBox<CurveGroup> curveGroups, Function<CurveGroup, Curve> curveFunction) {
+    if (!curveGroups.isScenarioValue() || !(curveGroups.getScenarioValue() instanceof ScenarioCurveGroups)) {
+      return curveGroups.apply(curveFunction);
+    }
+    ScenarioCurveGroups groups = (ScenarioCurveGroups) curveGroups.getScenarioValue();
+    ImmutableList<Result<Curve>> results = groups.getResults().stream()
+        .map(result -> result.flatMap(group -> Result.of(() -> curveFunction.apply(group))))
+        .collect(toImmutableList());
+    return MarketDataBox.ofScenarioValue(new ScenarioCurves(results));
+  }
+
+  // restricted constructor
+  private ScenarioCurves(ImmutableList<Result<Curve>> results) {
+    this.results = results;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the result of a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the curve of the scenario, or the failure
+   */
+  Result<Curve> getResult(int scenarioIndex) {
+    return results.get(scenarioIndex);
+  }
+
+  /**
+   * Gets the curve of a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the curve of the scenario
+   * @throws IllegalStateException if the curve is not available in the scenario
+   */
+  @Override
+  public Curve getValue(int scenarioIndex) {
+    return results.get(scenarioIndex).getValue();
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return results.size();
+  }
+
+  @Override
+  public Class<?> getMarketDataType() {
+    return Curve.class;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ScenarioCurves other = (ScenarioCurves) obj;
+      return results.equals(other.results);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return results.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    long failureCount = results.stream().filter(Result::isFailure).count();
+    return "ScenarioCurves[scenarioCount=" + results.size() + ", failureCount=" + failureCount + "]";
+  }
+
+}
@@ -7,6 +7,7 @@ package com.opengamma.strata.function.marketdata.scenario.curve;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 
 import org.joda.beans.Bean;
@@ -61,6 +62,16 @@ public final class CurveNameFilter
     return CurveId.class;
   }
 
+  @Override
+  public Optional<CurveName> getMatchKey() {
+    return Optional.of(curveName);
+  }
+
+  @Override
+  public CurveName marketDataKey(CurveId marketDataId, MarketDataBox<Curve> marketData) {
+    return marketData.getValue(0).getName();
+  }
+
   @Override
   public boolean matches(CurveId marketDataId, MarketDataBox<Curve> marketData) {
     Curve curve = marketData.getValue(0);
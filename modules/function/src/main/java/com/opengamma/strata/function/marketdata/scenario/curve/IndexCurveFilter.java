@@ -7,6 +7,7 @@ package com.opengamma.strata.function.marketdata.scenario.curve;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 
 import org.joda.beans.Bean;
@@ -61,6 +62,16 @@ public final class IndexCurveFilter
     return IndexCurveId.class;
   }
 
+  @Override
+  public Optional<Index> getMatchKey() {
+    return Optional.of(index);
+  }
+
+  @Override
+  public Index marketDataKey(IndexCurveId marketDataId, MarketDataBox<Curve> marketData) {
+    return marketDataId.getIndex();
+  }
+
   @Override
   public boolean matches(IndexCurveId marketDataId, MarketDataBox<Curve> marketData) {
     return index.equals(marketDataId.getIndex());
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.calculation;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.basics.market.ReferenceDataNotFoundException;
+import com.opengamma.strata.basics.market.StandardId;
+import com.opengamma.strata.pricer.fra.FraDummyData;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.product.fra.ResolvedFraTrade;
+
+/**
+ * Test {@link ResolvedTradeCache}.
+ */
+@Test
+public class ResolvedTradeCacheTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final StandardId ID1 = StandardId.of("OG-Trade", "1");
+  private static final StandardId ID2 = StandardId.of("OG-Trade", "2");
+  private static final FraTrade TRADE1 = FraDummyData.FRA_TRADE.toBuilder()
+      .info(TradeInfo.builder().id(ID1).tradeDate(date(2014, 6, 30)).build())
+      .build();
+  private static final FraTrade TRADE1_AMENDED = TRADE1.toBuilder()
+      .product(TRADE1.getProduct().toBuilder().fixedRate(0.5).build())
+      .build();
+  private static final FraTrade TRADE2 = FraDummyData.FRA_TRADE.toBuilder()
+      .info(TradeInfo.builder().id(ID2).tradeDate(date(2014, 6, 30)).build())
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_resolve() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA, 10);
+    ResolvedFraTrade resolved = test.resolve(TRADE1);
+    assertEquals(resolved, TRADE1.resolve(REF_DATA));
+    assertSame(test.resolve(TRADE1), resolved);
+    assertSame(test.getUnderlyingReferenceData(), REF_DATA);
+    assertEquals(test.size(), 1);
+  }
+
+  public void test_resolve_tradeIdentity() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA, 10);
+    FraTrade copy = TRADE1.toBuilder().build();
+    ResolvedFraTrade resolved = test.resolve(TRADE1);
+    ResolvedFraTrade resolvedCopy = test.resolve(copy);
+    assertNotSame(resolvedCopy, resolved);
+    assertEquals(resolvedCopy, resolved);
+    assertEquals(test.size(), 2);
+  }
+
+  public void test_resolve_failure() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(ReferenceData.empty(), 10);
+    assertThrows(() -> test.resolve(TRADE1), ReferenceDataNotFoundException.class);
+    assertEquals(test.size(), 0);
+  }
+
+  public void test_resolve_referenceData() {
+    ResolvedTradeCache cache = ResolvedTradeCache.of(REF_DATA);
+    ReferenceData refData = cache.getReferenceData();
+    assertSame(refData.getValue(ResolvedTradeCache.ID), cache);
+    ResolvedFraTrade resolved = ResolvedTradeCache.resolve(TRADE1, refData);
+    assertSame(ResolvedTradeCache.resolve(TRADE1, refData), resolved);
+    assertEquals(cache.size(), 1);
+  }
+
+  public void test_resolve_disabledByDefault() {
+    ResolvedFraTrade resolved = ResolvedTradeCache.resolve(TRADE1, REF_DATA);
+    assertEquals(resolved, TRADE1.resolve(REF_DATA));
+    assertNotSame(ResolvedTradeCache.resolve(TRADE1, REF_DATA), resolved);
+  }
+
+  public void test_resolveAll() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA, 10);
+    test.resolveAll(ImmutableList.of(TRADE1, TRADE2));
+    assertEquals(test.size(), 2);
+    assertEquals(test.resolve(TRADE2), TRADE2.resolve(REF_DATA));
+    ResolvedTradeCache empty = ResolvedTradeCache.of(ReferenceData.empty(), 10);
+    empty.resolveAll(ImmutableList.of(TRADE1, TRADE2));
+    assertEquals(empty.size(), 0);
+  }
+
+  public void test_resolveAll_largeBook() {
+    // the default cache is not bounded, thus a second pass over a large book finds every trade
+    List<FraTrade> trades = IntStream.range(0, 100_001)
+        .mapToObj(i -> TRADE1.toBuilder().build())
+        .collect(toImmutableList());
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA);
+    test.resolveAll(trades);
+    assertEquals(test.size(), trades.size());
+    List<ResolvedFraTrade> firstPass = trades.stream().map(test::resolve).collect(toImmutableList());
+    for (int i = 0; i < trades.size(); i++) {
+      assertSame(test.resolve(trades.get(i)), firstPass.get(i));
+    }
+    assertEquals(test.size(), trades.size());
+  }
+
+  public void test_resolve_maximumSize() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA, 1);
+    test.resolveAll(ImmutableList.of(TRADE1, TRADE2));
+    assertEquals(test.size(), 1);
+    assertThrows(() -> ResolvedTradeCache.of(REF_DATA, -1), IllegalArgumentException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_invalidate_trade() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA, 10);
+    test.resolveAll(ImmutableList.of(TRADE1, TRADE1_AMENDED, TRADE2));
+    assertEquals(test.size(), 3);
+    test.invalidate(TRADE1.toBuilder().build());
+    assertEquals(test.size(), 2);
+  }
+
+  public void test_invalidate_id() {
+    ResolvedTradeCache test = ResolvedTradeCache.of(REF_DATA, 10);
+    test.resolveAll(ImmutableList.of(TRADE1, TRADE1_AMENDED, TRADE2));
+    assertEquals(test.size(), 3);
+    test.invalidate(ID1);
+    assertEquals(test.size(), 1);
+    test.invalidateAll();
+    assertEquals(test.size(), 0);
+  }
+
+}
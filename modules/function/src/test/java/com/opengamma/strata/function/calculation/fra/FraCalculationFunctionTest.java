@@ -8,6 +8,7 @@ package com.opengamma.strata.function.calculation.fra;
 import static com.opengamma.strata.basics.date.DayCounts.ACT_360;
 import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -47,6 +48,7 @@ import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
 import com.opengamma.strata.pricer.fra.FraDummyData;
 import com.opengamma.strata.pricer.rate.MarketDataRatesProvider;
+import com.opengamma.strata.pricer.sensitivity.CurveCrossGamma;
 import com.opengamma.strata.product.fra.FraTrade;
 import com.opengamma.strata.product.fra.ResolvedFra;
 
@@ -62,6 +64,7 @@ public class FraCalculationFunctionTest {
   private static final IborIndex INDEX = TRADE.getProduct().getIndex();
   private static final Currency CURRENCY = TRADE.getProduct().getCurrency();
   private static final LocalDate VAL_DATE = TRADE.getProduct().getStartDate().minusDays(7);
+  private static final double ZERO_RATE = 0.02;
 
   //-------------------------------------------------------------------------
   public void test_group() {
@@ -74,7 +77,8 @@ public class FraCalculationFunctionTest {
         Measures.CASH_FLOWS,
         Measures.PV01,
         Measures.BUCKETED_PV01,
-        Measures.BUCKETED_GAMMA_PV01);
+        Measures.BUCKETED_GAMMA_PV01,
+        Measures.CROSS_GAMMA_PV01);
     FunctionConfig<FraTrade> config =
         FraFunctionGroups.discounting().functionConfig(TRADE, Measures.PRESENT_VALUE).get();
     assertThat(config.createFunction()).isInstanceOf(FraCalculationFunction.class);
@@ -139,9 +143,41 @@ public class FraCalculationFunctionTest {
             Measures.BUCKETED_PV01, Result.success(ScenarioResult.of(ImmutableList.of(expectedBucketedPv01))));
   }
 
+  public void test_crossGammaPv01() {
+    FraCalculationFunction function = new FraCalculationFunction();
+    CalculationMarketData md = marketData(zeroRateCurve(ZERO_RATE));
+    Result<?> result = function.calculate(TRADE, ImmutableSet.of(Measures.CROSS_GAMMA_PV01), md, REF_DATA)
+        .get(Measures.CROSS_GAMMA_PV01);
+    CurveCrossGamma crossGamma = (CurveCrossGamma) ((ScenarioResult<?>) result.getValue()).get(0);
+    assertThat(crossGamma.getCurrency()).isEqualTo(CURRENCY);
+    assertThat(crossGamma.getMatrix().rowCount()).isEqualTo(1);
+
+    // the single parameter is shared by discounting and forward curves
+    // the cross-gamma PV01 is the finite difference of the PV01 scaled by one basis point
+    double shift = 1e-5;
+    double expected = (pv01(function, ZERO_RATE + shift) - pv01(function, ZERO_RATE - shift)) / (2 * shift) * 1e-4;
+    assertThat(Math.abs(expected)).isGreaterThan(1e-4);
+    assertThat(crossGamma.getMatrix().get(0, 0)).isCloseTo(expected, offset(Math.abs(expected) * 1e-4));
+  }
+
+  // the PV01 with a constant zero rate curve
+  private static double pv01(FraCalculationFunction function, double zeroRate) {
+    CalculationMarketData md = marketData(zeroRateCurve(zeroRate));
+    Result<?> result = function.calculate(TRADE, ImmutableSet.of(Measures.PV01), md, REF_DATA)
+        .get(Measures.PV01);
+    return ((MultiCurrencyValuesArray) result.getValue()).get(0).getAmount(CURRENCY).getAmount();
+  }
+
   //-------------------------------------------------------------------------
-  private CalculationMarketData marketData() {
-    Curve curve = ConstantNodalCurve.of(Curves.discountFactors("Test", ACT_360), 0.99);
+  private static CalculationMarketData marketData() {
+    return marketData(ConstantNodalCurve.of(Curves.discountFactors("Test", ACT_360), 0.99));
+  }
+
+  private static Curve zeroRateCurve(double zeroRate) {
+    return ConstantNodalCurve.of(Curves.zeroRates("Test", ACT_360), zeroRate);
+  }
+
+  private static CalculationMarketData marketData(Curve curve) {
     TestMarketDataMap md = new TestMarketDataMap(
         VAL_DATE,
         ImmutableMap.of(DiscountCurveKey.of(CURRENCY), curve, IborIndexCurveKey.of(INDEX), curve),
@@ -77,6 +77,7 @@ public class SwapCalculationFunctionTest {
         Measures.PV01,
         Measures.BUCKETED_PV01,
         Measures.BUCKETED_GAMMA_PV01,
+        Measures.CROSS_GAMMA_PV01,
         Measures.ACCRUED_INTEREST,
         Measures.LEG_INITIAL_NOTIONAL,
         Measures.LEG_PRESENT_VALUE,
@@ -7,6 +7,7 @@ package com.opengamma.strata.function.marketdata.curve;
 
 import static com.opengamma.strata.basics.date.DayCounts.ACT_360;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -49,16 +50,20 @@ import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterMetadata;
 import com.opengamma.strata.market.curve.DefaultCurveMetadata;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
+import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.market.curve.node.FixedIborSwapCurveNode;
 import com.opengamma.strata.market.curve.node.FraCurveNode;
 import com.opengamma.strata.market.curve.node.FxSwapCurveNode;
 import com.opengamma.strata.market.id.CurveGroupId;
 import com.opengamma.strata.market.id.CurveInputsId;
+import com.opengamma.strata.market.id.DiscountCurveId;
+import com.opengamma.strata.market.id.IborIndexCurveId;
 import com.opengamma.strata.market.interpolator.CurveExtrapolators;
 import com.opengamma.strata.market.interpolator.CurveInterpolators;
 import com.opengamma.strata.market.key.DiscountCurveKey;
 import com.opengamma.strata.market.key.IborIndexCurveKey;
 import com.opengamma.strata.market.key.QuoteKey;
+import com.opengamma.strata.pricer.calibration.CalibrationMeasures;
 import com.opengamma.strata.pricer.calibration.CurveCalibrator;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
 import com.opengamma.strata.pricer.rate.MarketDataRatesProvider;
@@ -279,6 +284,219 @@ public class CurveGroupMarketDataFunctionTest {
     assertThat(forwardMetadata).isEqualTo(expectedForwardMetadata);
   }
 
+  //-------------------------------------------------------------------------
+  public void scenarios() {
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraCurveDefinition();
+    List<MarketDataKey<?>> keys = curveDefn.getNodes().stream()
+        .map(FraCurveNode.class::cast)
+        .map(CurveTestUtils::key)
+        .collect(toImmutableList());
+    double[] rates = {0.003, 0.0033, 0.0037, 0.0054, 0.007, 0.0091, 0.0134};
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    CurveName curveName = curveDefn.getName();
+    CurveGroupDefinition groupDefn = CurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+    CurveInputs base = fraInputs(keys, rates, 0d, keys.size());
+    CurveInputs shifted = fraInputs(keys, rates, 0.0001, keys.size());
+    CurveInputs missing = fraInputs(keys, rates, 0d, keys.size() - 1);
+    CurveInputsId inputsId = CurveInputsId.of(groupName, curveName, MarketDataFeed.NONE);
+    LocalDate valuationDate = date(2011, 3, 8);
+    MarketEnvironment marketData = MarketEnvironment.builder(valuationDate)
+        .addValue(inputsId, ImmutableList.of(base, shifted, missing, base))
+        .build();
+
+    CurveGroupMarketDataFunction function = new CurveGroupMarketDataFunction();
+    MarketDataBox<CurveGroup> computed =
+        function.buildCurveGroup(groupDefn, CALIBRATOR, marketData, REF_DATA, MarketDataFeed.NONE);
+    assertThat(computed.getScenarioCount()).isEqualTo(4);
+    assertThat(computed.getMarketDataType()).isEqualTo(CurveGroup.class);
+    ScenarioCurveGroups groups = (ScenarioCurveGroups) computed.getScenarioValue();
+    assertThat(groups.getFailureCount()).isEqualTo(1);
+    assertThat(groups.getResult(2).isFailure()).isTrue();
+    assertThat(groups.getResult(2).getFailure().getMessage())
+        .startsWith("Unable to calibrate curve group 'Curve Group' for scenario 2");
+    assertThrows(() -> computed.getValue(2), IllegalStateException.class);
+
+    // the other scenarios match the calibration of a single scenario
+    CurveGroup expectedBase = singleScenario(function, groupDefn, inputsId, valuationDate, base);
+    CurveGroup expectedShifted = singleScenario(function, groupDefn, inputsId, valuationDate, shifted);
+    assertThat(computed.getValue(0)).isEqualTo(expectedBase);
+    assertCurveGroup(computed.getValue(1), expectedShifted);
+    assertCurveGroup(computed.getValue(3), expectedBase);
+
+    // sequential calibration
+    CurveGroupMarketDataFunction sequential =
+        new CurveGroupMarketDataFunction(CalibrationMeasures.PAR_SPREAD, Runnable::run);
+    MarketDataBox<CurveGroup> computedSequential =
+        sequential.buildCurveGroup(groupDefn, CALIBRATOR, marketData, REF_DATA, MarketDataFeed.NONE);
+    for (int i : new int[] {0, 1, 3}) {
+      assertThat(computedSequential.getValue(i)).isEqualTo(computed.getValue(i));
+    }
+    assertThat(((ScenarioCurveGroups) computedSequential.getScenarioValue()).getFailureCount()).isEqualTo(1);
+
+    // no failure
+    MarketEnvironment marketDataSuccess = MarketEnvironment.builder(valuationDate)
+        .addValue(inputsId, ImmutableList.of(base, shifted))
+        .build();
+    MarketDataBox<CurveGroup> computedSuccess =
+        function.buildCurveGroup(groupDefn, CALIBRATOR, marketDataSuccess, REF_DATA, MarketDataFeed.NONE);
+    assertThat(computedSuccess.getScenarioValue()).isNotInstanceOf(ScenarioCurveGroups.class);
+    assertCurveGroup(computedSuccess.getValue(1), expectedShifted);
+
+    // all scenarios fail
+    MarketEnvironment marketDataFailure = MarketEnvironment.builder(valuationDate)
+        .addValue(inputsId, ImmutableList.of(missing, missing))
+        .build();
+    assertThrowsIllegalArg(
+        () -> function.buildCurveGroup(groupDefn, CALIBRATOR, marketDataFailure, REF_DATA, MarketDataFeed.NONE));
+  }
+
+  // the curves derived from the curve groups are only unavailable in the scenario that failed to calibrate
+  public void scenarios_derivedCurves() {
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraCurveDefinition();
+    List<FraCurveNode> nodes = curveDefn.getNodes().stream()
+        .map(FraCurveNode.class::cast)
+        .collect(toImmutableList());
+    List<MarketDataKey<?>> keys = nodes.stream().map(CurveTestUtils::key).collect(toImmutableList());
+    double[] rates = {0.003, 0.0033, 0.0037, 0.0054, 0.007, 0.0091, 0.0134};
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    CurveGroupDefinition groupDefn = CurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+    CurveInputs base = fraInputs(keys, rates, 0d, keys.size());
+    CurveInputs shifted = fraInputs(keys, rates, 0.0001, keys.size());
+    CurveInputs missing = fraInputs(keys, rates, 0d, keys.size() - 1);
+    List<CurveInputs> inputs = ImmutableList.of(base, missing, shifted);
+    CurveInputsId inputsId = CurveInputsId.of(groupName, curveDefn.getName(), MarketDataFeed.NONE);
+    LocalDate valuationDate = date(2011, 3, 8);
+    MarketEnvironment calibrationData = MarketEnvironment.builder(valuationDate)
+        .addValue(inputsId, inputs)
+        .build();
+    MarketDataBox<CurveGroup> curveGroups = new CurveGroupMarketDataFunction()
+        .buildCurveGroup(groupDefn, CALIBRATOR, calibrationData, REF_DATA, MarketDataFeed.NONE);
+    MarketEnvironment marketData = MarketEnvironment.builder(valuationDate)
+        .addValue(CurveGroupId.of(groupName), curveGroups)
+        .build();
+
+    MarketDataBox<Curve> discountCurves = new DiscountCurveMarketDataFunction()
+        .build(DiscountCurveId.of(Currency.USD, groupName), MarketDataConfig.empty(), marketData, REF_DATA);
+    IborIndexCurveId forwardCurveId = IborIndexCurveId.of(IborIndices.USD_LIBOR_3M, groupName);
+    MarketDataBox<Curve> forwardCurves = new IborIndexCurveMarketDataFunction()
+        .build(forwardCurveId, MarketDataConfig.empty(), marketData, REF_DATA);
+    assertThat(discountCurves.getScenarioCount()).isEqualTo(3);
+    assertThat(discountCurves.getMarketDataType()).isEqualTo(Curve.class);
+    assertThat(forwardCurves.getScenarioCount()).isEqualTo(3);
+    assertThrows(
+        () -> discountCurves.getValue(1),
+        IllegalStateException.class,
+        ".*Unable to calibrate curve group 'Curve Group' for scenario 1.*");
+    assertThrows(() -> forwardCurves.getValue(1), IllegalStateException.class);
+
+    // the curve instruments are priced at par in the other scenarios
+    for (int i : new int[] {0, 2}) {
+      Map<MarketDataKey<?>, Object> marketDataMap = ImmutableMap.<MarketDataKey<?>, Object>builder()
+          .putAll(inputs.get(i).getMarketData())
+          .put(DiscountCurveKey.of(Currency.USD), discountCurves.getValue(i))
+          .put(IborIndexCurveKey.of(IborIndices.USD_LIBOR_3M), forwardCurves.getValue(i))
+          .build();
+      MarketData scenarioData = ImmutableMarketData.of(valuationDate, marketDataMap);
+      TestMarketDataMap calculationMarketData = new TestMarketDataMap(valuationDate, marketDataMap, ImmutableMap.of());
+      MarketDataRatesProvider ratesProvider = MarketDataRatesProvider.of(calculationMarketData.scenario(0));
+      nodes.forEach(node -> checkFraPvIsZero(node, valuationDate, ratesProvider, scenarioData));
+    }
+  }
+
+  public void scenarios_linear() {
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraCurveDefinition();
+    List<MarketDataKey<?>> keys = curveDefn.getNodes().stream()
+        .map(FraCurveNode.class::cast)
+        .map(CurveTestUtils::key)
+        .collect(toImmutableList());
+    double[] rates = {0.003, 0.0033, 0.0037, 0.0054, 0.007, 0.0091, 0.0134};
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    CurveGroupDefinition groupDefn = CurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+    CurveInputs base = fraInputs(keys, rates, 0d, keys.size());
+    CurveInputs shifted = fraInputs(keys, rates, 0.0001, keys.size());
+    CurveInputs missing = fraInputs(keys, rates, 0d, keys.size() - 1);
+    CurveInputsId inputsId = CurveInputsId.of(groupName, curveDefn.getName(), MarketDataFeed.NONE);
+    LocalDate valuationDate = date(2011, 3, 8);
+    MarketEnvironment marketData = MarketEnvironment.builder(valuationDate)
+        .addValue(inputsId, ImmutableList.of(base, shifted, missing))
+        .build();
+
+    CurveGroupMarketDataFunction function = new CurveGroupMarketDataFunction();
+    MarketDataBox<CurveGroup> full = function.buildCurveGroup(
+        groupDefn, CALIBRATOR, ScenarioCalibrationMode.FULL, marketData, REF_DATA, MarketDataFeed.NONE);
+    MarketDataBox<CurveGroup> linear = function.buildCurveGroup(
+        groupDefn, CALIBRATOR, ScenarioCalibrationMode.LINEAR, marketData, REF_DATA, MarketDataFeed.NONE);
+    ScenarioCalibrationMode correction = ScenarioCalibrationMode.LINEAR_WITH_CORRECTION;
+    MarketDataBox<CurveGroup> corrected = function.buildCurveGroup(
+        groupDefn, CALIBRATOR, correction, marketData, REF_DATA, MarketDataFeed.NONE);
+    ScenarioCurveGroups fullGroups = (ScenarioCurveGroups) full.getScenarioValue();
+    ScenarioCurveGroups linearGroups = (ScenarioCurveGroups) linear.getScenarioValue();
+    ScenarioCurveGroups correctedGroups = (ScenarioCurveGroups) corrected.getScenarioValue();
+    assertThat(fullGroups.getCalibrationErrors().get(1)).isEqualTo(0d);
+    assertThat(linearGroups.getFailureCount()).isEqualTo(1);
+    assertThat(linearGroups.getCalibrationErrors().get(2)).isNaN();
+
+    // the first scenario is fully calibrated, the other scenarios are close to the full calibration
+    assertThat(linear.getValue(0)).isEqualTo(full.getValue(0));
+    assertThat(linearGroups.getCalibrationErrors().get(0)).isEqualTo(0d);
+    double linearError = linearGroups.getCalibrationErrors().get(1);
+    double correctedError = correctedGroups.getCalibrationErrors().get(1);
+    assertThat(linearError).isGreaterThan(0d).isLessThan(1e-6);
+    assertThat(correctedError).isLessThan(linearError);
+    NodalCurve fullCurve = (NodalCurve) full.getValue(1).findDiscountCurve(Currency.USD).get();
+    NodalCurve linearCurve = (NodalCurve) linear.getValue(1).findDiscountCurve(Currency.USD).get();
+    assertThat(linearCurve.getYValues().equalWithTolerance(fullCurve.getYValues(), 1e-6)).isTrue();
+
+    // the mode is specified in the market data configuration
+    MarketDataConfig marketDataConfig = MarketDataConfig.builder()
+        .add(groupName, groupDefn)
+        .addDefault(ScenarioCalibrationMode.LINEAR)
+        .build();
+    MarketDataBox<CurveGroup> configured =
+        function.build(CurveGroupId.of(groupName), marketDataConfig, marketData, REF_DATA);
+    assertThat(((ScenarioCurveGroups) configured.getScenarioValue()).getCalibrationErrors().get(1))
+        .isCloseTo(linearError, offset(1e-12));
+  }
+
+  // creates the inputs of the FRA curve, with a shift of the rates and possibly missing rates
+  private static CurveInputs fraInputs(List<MarketDataKey<?>> keys, double[] rates, double shift, int count) {
+    ImmutableMap.Builder<MarketDataKey<?>, Double> builder = ImmutableMap.builder();
+    for (int i = 0; i < count; i++) {
+      builder.put(keys.get(i), rates[i] + shift);
+    }
+    return CurveInputs.of(builder.build(), DefaultCurveMetadata.of(CurveTestUtils.fraCurveDefinition().getName()));
+  }
+
+  // calibrates the curve group of a single scenario
+  private static CurveGroup singleScenario(
+      CurveGroupMarketDataFunction function,
+      CurveGroupDefinition groupDefn,
+      CurveInputsId inputsId,
+      LocalDate valuationDate,
+      CurveInputs inputs) {
+
+    MarketEnvironment marketData = MarketEnvironment.builder(valuationDate).addValue(inputsId, inputs).build();
+    return function.buildCurveGroup(groupDefn, CALIBRATOR, marketData, REF_DATA, MarketDataFeed.NONE)
+        .getSingleValue();
+  }
+
+  // compares the curves of two groups, the calibration may start from different initial guesses
+  private static void assertCurveGroup(CurveGroup computed, CurveGroup expected) {
+    NodalCurve computedCurve = (NodalCurve) computed.findDiscountCurve(Currency.USD).get();
+    NodalCurve expectedCurve = (NodalCurve) expected.findDiscountCurve(Currency.USD).get();
+    assertThat(computedCurve.getXValues()).isEqualTo(expectedCurve.getXValues());
+    assertThat(computedCurve.getYValues().equalWithTolerance(expectedCurve.getYValues(), 1e-10)).isTrue();
+  }
+
   //-------------------------------------------------------------------------
   public void duplicateInputDataKeys() {
     FxSwapTemplate template1 = FxSwapTemplate.of(Period.ofMonths(1), FxSwapConventions.EUR_USD);
@@ -179,6 +179,31 @@ public class CurvePointShiftsTest {
     }
   }
 
+  public void scenarioCurves() {
+    List<SimpleCurveNodeMetadata> nodeMetadata = ImmutableList.of(
+        SimpleCurveNodeMetadata.of(date(2011, 3, 8), TNR_1M),
+        SimpleCurveNodeMetadata.of(date(2011, 5, 8), TNR_3M));
+    CurvePointShifts shift = CurvePointShifts.builder(ShiftType.ABSOLUTE)
+        .addShift(0, TNR_1M, 0.1)
+        .addShift(1, TNR_3M, 0.2)
+        .build();
+    InterpolatedNodalCurve curve1 = InterpolatedNodalCurve.of(
+        Curves.zeroRates(CurveName.of("curve"), DayCounts.ACT_365F, nodeMetadata),
+        DoubleArray.of(1, 2),
+        DoubleArray.of(5, 6),
+        INTERPOLATOR);
+    InterpolatedNodalCurve curve2 = curve1.withYValues(DoubleArray.of(7, 8));
+
+    MarketDataBox<Curve> shiftedCurveBox = shift.applyTo(MarketDataBox.ofScenarioValues(curve1, curve2));
+    assertThat(shiftedCurveBox.getScenarioCount()).isEqualTo(2);
+    assertThat(shiftedCurveBox.getValue(0)).isEqualTo(curve1.withYValues(DoubleArray.of(5.1, 6)));
+    assertThat(shiftedCurveBox.getValue(1)).isEqualTo(curve2.withYValues(DoubleArray.of(7, 8.2)));
+    assertThat(shiftedCurveBox.getValue(1)).isSameAs(shiftedCurveBox.getValue(1));
+
+    MarketDataBox<Curve> box = MarketDataBox.ofScenarioValues(curve1, curve2, curve1);
+    assertThrows(() -> shift.applyTo(box), IllegalArgumentException.class, "Scenario count .*");
+  }
+
   public void noNodeMetadata() {
     Curve curve = InterpolatedNodalCurve.of(
         DefaultCurveMetadata.of("curve"),
@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
+import com.opengamma.strata.calc.marketdata.scenario.ScenarioPerturbation;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.function.marketdata.scenario.curve.CurveNameFilter;
+import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.meta.SimpleCurveNodeMetadata;
+import com.opengamma.strata.market.interpolator.CurveInterpolators;
+
+/**
+ * Test {@link HistoricalCurveScenarios}.
+ */
+@Test
+public class HistoricalCurveScenariosTest {
+
+  private static final CurveName NAME = CurveName.of("curve");
+  private static final CurveNameFilter FILTER = CurveNameFilter.of(NAME);
+  private static final List<SimpleCurveNodeMetadata> NODES = ImmutableList.of(
+      SimpleCurveNodeMetadata.of(date(2011, 3, 8), "1M"),
+      SimpleCurveNodeMetadata.of(date(2011, 5, 8), "3M"),
+      SimpleCurveNodeMetadata.of(date(2011, 8, 8), "6M"));
+  private static final List<LocalDate> DATES = ImmutableList.of(
+      date(2011, 3, 1), date(2011, 3, 2), date(2011, 3, 3), date(2011, 3, 4));
+  private static final List<Curve> CURVES = ImmutableList.of(
+      curve(0.01, 0.02, 0.03),
+      curve(0.011, 0.02, 0.029),
+      curve(0.012, 0.022, 0.03),
+      curve(0.012, 0.021, 0.033));
+  private static final Curve BASE = curve(0.02, 0.03, 0.04);
+
+  //-------------------------------------------------------------------------
+  public void test_absolute() {
+    HistoricalCurveScenarios test = HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, CURVES)
+        .build();
+    assertThat(test.getShiftType()).isEqualTo(ShiftType.ABSOLUTE);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    assertThat(test.getScenarioDates()).isEqualTo(DATES.subList(1, 4));
+    assertThat(test.toString()).isEqualTo("HistoricalCurveScenarios[shiftType=Absolute, curves=1, scenarios=3]");
+
+    ScenarioDefinition scenarios = test.scenarios();
+    assertThat(scenarios.getScenarioCount()).isEqualTo(3);
+    assertThat(scenarios.getScenarioNames()).containsExactly("2011-03-02", "2011-03-03", "2011-03-04");
+    MarketDataBox<Curve> shifted = applyTo(scenarios, BASE);
+    assertYValues(shifted.getValue(0), 0.021, 0.03, 0.039);
+    assertYValues(shifted.getValue(1), 0.021, 0.032, 0.041);
+    assertYValues(shifted.getValue(2), 0.02, 0.029, 0.043);
+  }
+
+  public void test_relative() {
+    HistoricalCurveScenarios test = HistoricalCurveScenarios.builder(ShiftType.RELATIVE, DATES)
+        .addCurve(FILTER, CURVES)
+        .build();
+    MarketDataBox<Curve> shifted = applyTo(test.scenarios(), BASE);
+    assertYValues(shifted.getValue(0), 0.022, 0.03, 0.04 * 29 / 30);
+    assertYValues(shifted.getValue(2), 0.02, 0.03 * 21 / 22, 0.04 * 1.1);
+  }
+
+  public void test_multipleCurves() {
+    CurveNameFilter filter2 = CurveNameFilter.of(CurveName.of("curve2"));
+    HistoricalCurveScenarios test = HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, CURVES)
+        .addCurve(filter2, CURVES)
+        .build();
+    ScenarioDefinition scenarios = test.scenarios(1, 3);
+    assertThat(scenarios.getMappings()).hasSize(2);
+    assertThat(scenarios.getMappings().get(1).getFilter()).isEqualTo(filter2);
+    assertThat(scenarios.getScenarioNames()).containsExactly("2011-03-03", "2011-03-04");
+  }
+
+  public void test_forEachBatch() {
+    HistoricalCurveScenarios test = HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, CURVES)
+        .build();
+    List<Integer> starts = new ArrayList<>();
+    List<Curve> shiftedCurves = new ArrayList<>();
+    test.forEachBatch(2, (scenarios, start) -> {
+      starts.add(start);
+      MarketDataBox<Curve> shifted = applyTo(scenarios, BASE);
+      for (int i = 0; i < shifted.getScenarioCount(); i++) {
+        shiftedCurves.add(shifted.getValue(i));
+      }
+    });
+    assertThat(starts).containsExactly(0, 2);
+    MarketDataBox<Curve> expected = applyTo(test.scenarios(), BASE);
+    assertThat(shiftedCurves).hasSize(3);
+    for (int i = 0; i < 3; i++) {
+      assertThat(shiftedCurves.get(i)).isEqualTo(expected.getValue(i));
+    }
+    assertThrowsIllegalArg(() -> test.forEachBatch(0, (scenarios, start) -> {}));
+  }
+
+  public void test_scenarios_badRange() {
+    HistoricalCurveScenarios test = HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, CURVES)
+        .build();
+    assertThrowsIllegalArg(() -> test.scenarios(1, 1));
+    assertThrowsIllegalArg(() -> test.scenarios(2, 1));
+    assertThrowsIllegalArg(() -> test.scenarios(-1, 1));
+    assertThrowsIllegalArg(() -> test.scenarios(0, 4));
+  }
+
+  public void test_builder_invalid() {
+    assertThrowsIllegalArg(() -> HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES.subList(0, 1)));
+    assertThrowsIllegalArg(() -> HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, ImmutableList.of(
+        date(2011, 3, 2), date(2011, 3, 1))));
+    assertThrowsIllegalArg(() -> HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES).build());
+    assertThrowsIllegalArg(() -> HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, CURVES.subList(0, 3)));
+    Curve shorter = InterpolatedNodalCurve.of(
+        Curves.zeroRates(NAME, DayCounts.ACT_365F, NODES.subList(0, 2)),
+        DoubleArray.of(1, 2),
+        DoubleArray.of(0.01, 0.02),
+        CurveInterpolators.LINEAR);
+    assertThrowsIllegalArg(() -> HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, ImmutableList.of(shorter, CURVES.get(1), CURVES.get(2), CURVES.get(3))));
+    Curve noMetadata = InterpolatedNodalCurve.of(
+        Curves.zeroRates(NAME, DayCounts.ACT_365F),
+        DoubleArray.of(1, 2, 3),
+        DoubleArray.of(0.01, 0.02, 0.03),
+        CurveInterpolators.LINEAR);
+    assertThrowsIllegalArg(() -> HistoricalCurveScenarios.builder(ShiftType.ABSOLUTE, DATES)
+        .addCurve(FILTER, ImmutableList.of(CURVES.get(0), CURVES.get(1), CURVES.get(2), noMetadata)));
+  }
+
+  //-------------------------------------------------------------------------
+  private static Curve curve(double y1, double y2, double y3) {
+    return InterpolatedNodalCurve.of(
+        Curves.zeroRates(NAME, DayCounts.ACT_365F, NODES),
+        DoubleArray.of(1, 2, 3),
+        DoubleArray.of(y1, y2, y3),
+        CurveInterpolators.LINEAR);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static MarketDataBox<Curve> applyTo(ScenarioDefinition scenarios, Curve curve) {
+    ScenarioPerturbation<Curve> perturbation =
+        (ScenarioPerturbation<Curve>) scenarios.getMappings().get(0).getPerturbation();
+    return perturbation.applyTo(MarketDataBox.ofSingleValue(curve));
+  }
+
+  private static void assertYValues(Curve curve, double... expected) {
+    DoubleArray yValues = curve.toNodalCurve().getYValues();
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(yValues.get(i)).isCloseTo(expected[i], offset(1e-12));
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.function.marketdata.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.curve.ConstantNodalCurve;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.perturb.ParallelShiftedCurve;
+
+/**
+ * Test {@link LazyScenarioCurves}.
+ */
+@Test
+public class LazyScenarioCurvesTest {
+
+  private static final Curve CURVE = ConstantNodalCurve.of("curve", 1d);
+  private static final Curve CURVE2 = ConstantNodalCurve.of("curve", 2d);
+
+  public void createdWhenRequested() {
+    AtomicInteger count = new AtomicInteger();
+    MarketDataBox<Curve> test = LazyScenarioCurves.of(
+        MarketDataBox.ofSingleValue(CURVE),
+        3,
+        (curve, scenarioIndex) -> {
+          count.incrementAndGet();
+          return ParallelShiftedCurve.absolute(curve, scenarioIndex);
+        });
+    assertThat(count.get()).isEqualTo(0);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+
+    Curve curve = test.getValue(2);
+    assertThat(curve).isEqualTo(ParallelShiftedCurve.absolute(CURVE, 2));
+    assertThat(test.getValue(2)).isSameAs(curve);
+    assertThat(count.get()).isEqualTo(1);
+    assertThat(test.getMarketDataType()).isEqualTo(ParallelShiftedCurve.class);
+    assertThat(count.get()).isEqualTo(2);
+    assertThrows(() -> test.getValue(3), IllegalArgumentException.class);
+  }
+
+  public void scenarioBaseCurves() {
+    MarketDataBox<Curve> test = LazyScenarioCurves.of(
+        MarketDataBox.ofScenarioValues(CURVE, CURVE2),
+        2,
+        (curve, scenarioIndex) -> ParallelShiftedCurve.relative(curve, 0.1));
+    assertThat(test.getValue(0)).isEqualTo(ParallelShiftedCurve.relative(CURVE, 0.1));
+    assertThat(test.getValue(1)).isEqualTo(ParallelShiftedCurve.relative(CURVE2, 0.1));
+  }
+
+  public void scenarioCountMismatch() {
+    MarketDataBox<Curve> base = MarketDataBox.ofScenarioValues(CURVE, CURVE2);
+    assertThrowsIllegalArg(() -> LazyScenarioCurves.of(base, 3, (curve, scenarioIndex) -> curve));
+  }
+
+  //-------------------------------------------------------------------------
+  public void equalsHashCode() {
+    MarketDataBox<Curve> test = CurveParallelShifts.absolute(0.1, 0.2).applyTo(MarketDataBox.ofSingleValue(CURVE));
+    MarketDataBox<Curve> test2 = CurveParallelShifts.absolute(0.1, 0.2).applyTo(MarketDataBox.ofSingleValue(CURVE));
+    MarketDataBox<Curve> test3 = CurveParallelShifts.absolute(0.1, 0.3).applyTo(MarketDataBox.ofSingleValue(CURVE));
+    assertThat(test).isEqualTo(test2);
+    assertThat(test.hashCode()).isEqualTo(test2.hashCode());
+    assertThat(test).isNotEqualTo(test3);
+    assertThat(test.getValue(1)).isEqualTo(ParallelShiftedCurve.of(CURVE, ShiftType.ABSOLUTE, 0.2));
+    assertThat(test.getScenarioValue().toString()).contains("scenarioCount=2");
+  }
+
+}
@@ -7,12 +7,28 @@ package com.opengamma.strata.function.marketdata.scenario.curve;
 
 import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Optional;
 
 import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.calc.marketdata.DefaultMarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.MarketEnvironment;
+import com.opengamma.strata.calc.marketdata.config.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.function.ObservableMarketDataFunction;
+import com.opengamma.strata.calc.marketdata.function.TimeSeriesProvider;
+import com.opengamma.strata.calc.marketdata.mapping.FeedIdMapping;
+import com.opengamma.strata.calc.marketdata.scenario.MarketDataFilter;
+import com.opengamma.strata.calc.marketdata.scenario.PerturbationMapping;
+import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
+import com.opengamma.strata.function.marketdata.curve.CurveParallelShifts;
 import com.opengamma.strata.market.curve.ConstantNodalCurve;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupName;
@@ -26,12 +42,16 @@ import com.opengamma.strata.market.id.DiscountCurveId;
 @Test
 public class CurveNameFilterTest {
 
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+
   public void match() {
     CurveNameFilter test = CurveNameFilter.of(CurveName.of("curveName"));
     assertThat(test.getMarketDataIdType()).isEqualTo(CurveId.class);
     DiscountCurveId id = DiscountCurveId.of(Currency.GBP, CurveGroupName.of("curveGroupName"));
     Curve curve = ConstantNodalCurve.of("curveName", 1);
     assertThat(test.matches(id, MarketDataBox.ofSingleValue(curve))).isTrue();
+    assertThat(test.getMatchKey()).isEqualTo(Optional.of(CurveName.of("curveName")));
+    assertThat(test.marketDataKey(id, MarketDataBox.ofSingleValue(curve))).isEqualTo(CurveName.of("curveName"));
   }
 
   public void noMatch() {
@@ -41,6 +61,38 @@ public class CurveNameFilterTest {
     assertThat(test.matches(id, MarketDataBox.ofSingleValue(curve))).isFalse();
   }
 
+  /**
+   * Tests a curve is only matched against the mappings whose filter has the name of the curve.
+   */
+  public void matchedByName() {
+    CountingFilter filter1 = new CountingFilter(CurveNameFilter.of(CurveName.of("curve1")));
+    CountingFilter filter2 = new CountingFilter(CurveNameFilter.of(CurveName.of("curve2")));
+    DiscountCurveId id1 = DiscountCurveId.of(Currency.GBP, CurveGroupName.of("curveGroupName"));
+    DiscountCurveId id2 = DiscountCurveId.of(Currency.USD, CurveGroupName.of("curveGroupName"));
+    MarketEnvironment marketData = MarketEnvironment.builder(date(2011, 3, 8))
+        .addValue(id1, ConstantNodalCurve.of("curve1", 1))
+        .addValue(id2, ConstantNodalCurve.of("curve2", 2))
+        .build();
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(
+        PerturbationMapping.of(Curve.class, filter1, CurveParallelShifts.absolute(0.1)),
+        PerturbationMapping.of(Curve.class, filter2, CurveParallelShifts.absolute(0.2)));
+    DefaultMarketDataFactory marketDataFactory = new DefaultMarketDataFactory(
+        mock(TimeSeriesProvider.class),
+        mock(ObservableMarketDataFunction.class),
+        FeedIdMapping.identity());
+    MarketEnvironment scenarioData = marketDataFactory.buildMarketData(
+        MarketDataRequirements.builder().addValues(id1, id2).build(),
+        MarketDataConfig.empty(),
+        marketData,
+        REF_DATA,
+        scenarioDefinition);
+
+    assertThat(scenarioData.getValue(id1).getValue(0).yValue(0)).isEqualTo(1.1);
+    assertThat(scenarioData.getValue(id2).getValue(0).yValue(0)).isEqualTo(2.2);
+    assertThat(filter1.matchCount).isEqualTo(1);
+    assertThat(filter2.matchCount).isEqualTo(1);
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     CurveNameFilter test = CurveNameFilter.of(CurveName.of("curveName1"));
@@ -49,4 +101,39 @@ public class CurveNameFilterTest {
     coverBeanEquals(test, test2);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Filter delegating to a curve name filter, counting the number of times it is applied.
+   */
+  private static final class CountingFilter implements MarketDataFilter<Curve, CurveId> {
+
+    private final CurveNameFilter underlying;
+    private int matchCount;
+
+    private CountingFilter(CurveNameFilter underlying) {
+      this.underlying = underlying;
+    }
+
+    @Override
+    public Class<?> getMarketDataIdType() {
+      return underlying.getMarketDataIdType();
+    }
+
+    @Override
+    public Optional<CurveName> getMatchKey() {
+      return underlying.getMatchKey();
+    }
+
+    @Override
+    public CurveName marketDataKey(CurveId marketDataId, MarketDataBox<Curve> marketData) {
+      return underlying.marketDataKey(marketDataId, marketData);
+    }
+
+    @Override
+    public boolean matches(CurveId marketDataId, MarketDataBox<Curve> marketData) {
+      matchCount++;
+      return underlying.matches(marketDataId, marketData);
+    }
+  }
+
 }
@@ -9,6 +9,8 @@ import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Optional;
+
 import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.index.IborIndices;
@@ -31,6 +33,8 @@ public class IndexCurveFilterTest {
     IndexCurveId id = IborIndexCurveId.of(IborIndices.USD_LIBOR_1M, CurveGroupName.of("curveName"));
     Curve curve = ConstantNodalCurve.of("curveName", 1);
     assertThat(test.matches(id, MarketDataBox.ofSingleValue(curve))).isTrue();
+    assertThat(test.getMatchKey()).isEqualTo(Optional.of(IborIndices.USD_LIBOR_1M));
+    assertThat(test.marketDataKey(id, MarketDataBox.ofSingleValue(curve))).isEqualTo(IborIndices.USD_LIBOR_1M);
   }
 
   public void noMatch() {
@@ -12,6 +12,7 @@ import java.time.LocalTime;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -200,6 +201,40 @@ public final class FpmlDocument {
     this.refData = refData;
   }
 
+  /**
+   * Creates an instance sharing the parties of another document, with a different set of references.
+   * 
+   * @param base  the document to copy the parties from
+   * @param references  the map of id/href to referenced element
+   */
+  private FpmlDocument(FpmlDocument base, Map<String, XmlElement> references) {
+    this.fpmlRoot = base.fpmlRoot;
+    this.references = ImmutableMap.copyOf(references);
+    this.parties = base.parties;
+    this.ourPartyHrefId = base.ourPartyHrefId;
+    this.tradeInfoParser = base.tradeInfoParser;
+    this.refData = base.refData;
+  }
+
+  /**
+   * Returns a copy of this document with additional references in scope.
+   * <p>
+   * This is used when streaming, where the references within a single trade
+   * are added to the references of the root-level party elements.
+   * The parties, selected party, trade info parser and reference data are shared.
+   * 
+   * @param scopedReferences  the additional references, which take precedence over those in this document
+   * @return the document with the combined references
+   */
+  FpmlDocument withScopedReferences(Map<String, XmlElement> scopedReferences) {
+    if (scopedReferences.isEmpty()) {
+      return this;
+    }
+    Map<String, XmlElement> combined = new HashMap<>(references);
+    combined.putAll(scopedReferences);
+    return new FpmlDocument(this, combined);
+  }
+
   // parse all the root-level party elements
   private static ImmutableListMultimap<String, String> parseParties(XmlElement root) {
     ListMultimap<String, String> parties = ArrayListMultimap.create();
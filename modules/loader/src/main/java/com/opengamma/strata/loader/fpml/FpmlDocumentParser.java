@@ -7,19 +7,36 @@ package com.opengamma.strata.loader.fpml;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.Trade;
 import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.io.XmlElement;
 import com.opengamma.strata.collect.io.XmlFile;
 import com.opengamma.strata.collect.named.ExtendedEnum;
+import com.opengamma.strata.collect.tuple.Pair;
 
 /**
  * Loader of trade data in FpML format.
@@ -33,7 +50,13 @@ import com.opengamma.strata.collect.named.ExtendedEnum;
 public final class FpmlDocumentParser {
   // Notes: Streaming trades directly from the file is difficult due to the
   // need to parse the party element at the root, which is after the trades
+  // As such, streaming reads the source twice, once for the parties and once for the trades
 
+  /**
+   * The maximum number of trades that are parsed ahead of the consumer when streaming.
+   * This bounds the memory used when the consumer is slower than the parser.
+   */
+  private static final int MAX_TRADES_IN_FLIGHT = 1024;
   /**
    * The lookup of trade parsers.
    */
@@ -193,6 +216,135 @@ public final class FpmlDocumentParser {
     return parseTrades(root, xmlFile.getReferences());
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Parses FpML from the specified source, streaming the trades to a consumer.
+   * <p>
+   * This parses the specified byte source which must be an XML document.
+   * Unlike {@link #parseTrades(ByteSource)}, the whole document is not held in memory,
+   * making this method suitable for very large documents.
+   * <p>
+   * The source is read twice. The first pass finds the FpML root and captures the {@code <party>} elements.
+   * The second pass reads one {@code <trade>} element at a time, parsing it to a trade
+   * and passing it to the consumer. The FpML href references are resolved within the scope
+   * of the trade being parsed, together with the references of the party elements.
+   * <p>
+   * The trades are parsed and passed to the consumer on the calling thread, in document order.
+   * 
+   * @param source  the source of the FpML XML document
+   * @param consumer  the consumer of the parsed trades
+   * @throws RuntimeException if a parse error occurred
+   */
+  public void streamTrades(ByteSource source, Consumer<Trade> consumer) {
+    streamTrades(source, MoreExecutors.newDirectExecutorService(), consumer);
+  }
+
+  /**
+   * Parses FpML from the specified source, streaming the trades to a consumer
+   * using the specified executor to parse the trades.
+   * <p>
+   * This parses the specified byte source which must be an XML document.
+   * Unlike {@link #parseTrades(ByteSource)}, the whole document is not held in memory,
+   * making this method suitable for very large documents.
+   * <p>
+   * The source is read twice. The first pass finds the FpML root and captures the {@code <party>} elements.
+   * The second pass reads one {@code <trade>} element at a time, passing it to the
+   * {@link FpmlParserPlugin} using the executor. The FpML href references are resolved
+   * within the scope of the trade being parsed, together with the references of the party elements.
+   * <p>
+   * The consumer is invoked on the calling thread, in document order.
+   * A bounded number of trades are parsed ahead of the consumer.
+   * If a trade cannot be parsed, the exception is thrown once all earlier trades have been consumed.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param source  the source of the FpML XML document
+   * @param executor  the executor used to parse the trades
+   * @param consumer  the consumer of the parsed trades
+   * @throws RuntimeException if a parse error occurred
+   */
+  public void streamTrades(ByteSource source, ExecutorService executor, Consumer<Trade> consumer) {
+    ArgChecker.notNull(source, "source");
+    ArgChecker.notNull(executor, "executor");
+    ArgChecker.notNull(consumer, "consumer");
+    Pair<List<String>, FpmlDocument> pair = parseRootAndParties(source);
+    List<String> rootPath = pair.getFirst();
+    FpmlDocument document = pair.getSecond();
+    Deque<CompletableFuture<Trade>> inFlight = new ArrayDeque<>();
+    try {
+      Predicate<List<String>> matcher = path -> isChild(path, rootPath, "trade");
+      XmlFile.parseElements(source, matcher, FpmlDocument.ID, (tradeEl, tradeRefs) -> {
+        FpmlDocument tradeDocument = document.withScopedReferences(tradeRefs);
+        inFlight.add(CompletableFuture.supplyAsync(() -> parseTrade(tradeDocument, tradeEl), executor));
+        if (inFlight.size() >= MAX_TRADES_IN_FLIGHT) {
+          consumer.accept(join(inFlight.remove()));
+        }
+      });
+      while (!inFlight.isEmpty()) {
+        consumer.accept(join(inFlight.remove()));
+      }
+    } finally {
+      inFlight.forEach(future -> future.cancel(false));
+    }
+  }
+
+  // first pass, finds the path to the FpML root element and parses the party elements within it
+  // the FpML root is found in the same way as the non-streaming approach, but without parsing the trades
+  private Pair<List<String>, FpmlDocument> parseRootAndParties(ByteSource source) {
+    Set<List<String>> tradeParentPaths = new HashSet<>();
+    List<List<String>> partyParentPaths = new ArrayList<>();
+    ListMultimap<List<String>, XmlElement> partyEls = ArrayListMultimap.create();
+    Map<List<String>, Map<String, XmlElement>> partyRefs = new HashMap<>();
+    Predicate<List<String>> matcher = path -> {
+      // the FpML root is the root element, or within one or two levels of wrapper
+      if (path.size() < 2 || path.size() > 4) {
+        return false;
+      }
+      String name = path.get(path.size() - 1);
+      if (name.equals("trade")) {
+        tradeParentPaths.add(ImmutableList.copyOf(path.subList(0, path.size() - 1)));
+      } else if (name.equals("party")) {
+        partyParentPaths.add(ImmutableList.copyOf(path.subList(0, path.size() - 1)));
+        return true;
+      }
+      return false;
+    };
+    XmlFile.parseElements(source, matcher, FpmlDocument.ID, (partyEl, refs) -> {
+      // the consumer is invoked directly after the matcher, thus the last path is for this party
+      List<String> parentPath = partyParentPaths.get(partyParentPaths.size() - 1);
+      partyEls.put(parentPath, partyEl);
+      partyRefs.computeIfAbsent(parentPath, path -> new HashMap<>()).putAll(refs);
+    });
+    // select the shallowest element that has both party and trade children, first in document order
+    List<String> rootPath = partyParentPaths.stream()
+        .filter(tradeParentPaths::contains)
+        .min(Comparator.comparingInt(List::size))
+        .orElseThrow(() -> new FpmlParseException("Unable to find FpML root element"));
+    XmlElement rootEl = XmlElement.ofChildren(rootPath.get(rootPath.size() - 1), partyEls.get(rootPath));
+    FpmlDocument document =
+        new FpmlDocument(rootEl, partyRefs.get(rootPath), ourPartySelector, tradeInfoParser, refData);
+    return Pair.of(rootPath, document);
+  }
+
+  // checks if the path is to a child element with the specified name
+  private static boolean isChild(List<String> path, List<String> parentPath, String name) {
+    return path.size() == parentPath.size() + 1 &&
+        path.get(path.size() - 1).equals(name) &&
+        path.subList(0, parentPath.size()).equals(parentPath);
+  }
+
+  // waits for the trade to be parsed, unwrapping any parse exception
+  private static Trade join(CompletableFuture<Trade> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
   // intelligently finds the FpML root element
   private static XmlElement findFpmlRoot(XmlElement root) {
     if (isFpmlRoot(root)) {
@@ -43,8 +43,11 @@ import static org.testng.Assert.fail;
 
 import java.time.Period;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.joda.beans.Bean;
 import org.testng.annotations.Test;
@@ -1105,6 +1108,60 @@ public class FpmlDocumentParserTest {
         "Unable to find FpML root element.*");
   }
 
+  //-------------------------------------------------------------------------
+  public void streamTrades() {
+    ImmutableList<String> files = ImmutableList.of(
+        "ird-ex08-fra.xml",
+        "ird-ex08-fra-namespace.xml",
+        "ird-ex08-fra-wrapper2.xml",
+        "ird-ex01-vanilla-swap.xml",
+        "ird-ex06-xccy-swap.xml",
+        "ird-ex28-bullet-payments.xml",
+        "fx-ex08-fx-swap.xml");
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (String file : files) {
+        ByteSource resource = ResourceLocator.of("classpath:com/opengamma/strata/loader/fpml/" + file).getByteSource();
+        List<Trade> expected = parser.parseTrades(resource);
+        List<Trade> streamed = new ArrayList<>();
+        parser.streamTrades(resource, streamed::add);
+        assertEquals(streamed, expected);
+        List<Trade> streamedParallel = new ArrayList<>();
+        parser.streamTrades(resource, executor, streamedParallel::add);
+        assertEquals(streamedParallel, expected);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void streamTrades_badSelector() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(allParties -> Optional.of("rubbish"));
+    assertThrows(
+        () -> parser.streamTrades(resource, trade -> fail()),
+        FpmlParseException.class,
+        "Selector returned an ID .*");
+  }
+
+  public void streamTrades_unknownProduct() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(
+        FpmlPartySelector.any(), FpmlTradeInfoParserPlugin.standard(), ImmutableMap.of());
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThrows(
+          () -> parser.streamTrades(resource, executor, trade -> fail()),
+          FpmlParseException.class,
+          "Unknown product type.*");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void document() {
     XmlElement tradeDateEl = XmlElement.ofContent("tradeDate", "2000-06-30");
@@ -162,6 +162,22 @@ public final class InterpolatedNodalCurve
     this.boundInterpolator = interpolator.bind(xValues, yValues, extrapolatorLeft, extrapolatorRight);
   }
 
+  // creates an instance with different y-values
+  // the x-values and metadata have been validated by the base curve, so only the y-values are checked
+  private InterpolatedNodalCurve(InterpolatedNodalCurve base, DoubleArray yValues) {
+    JodaBeanUtils.notNull(yValues, "values");
+    if (base.xValues.size() != yValues.size()) {
+      throw new IllegalArgumentException("Length of x-values and y-values must match");
+    }
+    this.metadata = base.metadata;
+    this.xValues = base.xValues;
+    this.yValues = yValues;
+    this.extrapolatorLeft = base.extrapolatorLeft;
+    this.interpolator = base.interpolator;
+    this.extrapolatorRight = base.extrapolatorRight;
+    this.boundInterpolator = interpolator.bind(xValues, yValues, extrapolatorLeft, extrapolatorRight);
+  }
+
   @ImmutableDefaults
   private static void applyDefaults(Builder builder) {
     builder.extrapolatorLeft = CurveExtrapolators.FLAT;
@@ -199,7 +215,7 @@ public final class InterpolatedNodalCurve
   //-------------------------------------------------------------------------
   @Override
   public InterpolatedNodalCurve withYValues(DoubleArray yValues) {
-    return new InterpolatedNodalCurve(metadata, xValues, yValues, extrapolatorLeft, interpolator, extrapolatorRight);
+    return new InterpolatedNodalCurve(this, yValues);
   }
 
   @Override
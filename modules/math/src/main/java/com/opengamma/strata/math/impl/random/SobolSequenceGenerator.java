@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Generator of Sobol low-discrepancy sequences.
+ * <p>
+ * This generates quasi-random points in the unit hypercube, using the Gray code ordering
+ * of Antonov and Saleev. The first dimension is the van der Corput sequence in base 2,
+ * the other dimensions use the primitive polynomials and initial direction numbers of Joe and Kuo.
+ * <p>
+ * The point with index zero, which has all coordinates equal to zero, is skipped.
+ * The first point returned is thus the point with index one.
+ * The generator can be positioned at any index, allowing a sequence to be split into
+ * independent blocks that are generated separately and in any order.
+ * <p>
+ * Instances are mutable and not thread-safe.
+ * <p>
+ * Reference: Joe, S. and Kuo, F. Y. "Remark on Algorithm 659: Implementing Sobol's quasirandom sequence generator",
+ * ACM Transactions on Mathematical Software, 2003, 29, 49-57
+ */
+public final class SobolSequenceGenerator {
+
+  /**
+   * The number of bits of each coordinate.
+   */
+  private static final int BITS = 52;
+  /**
+   * The scale converting the integer coordinates to doubles.
+   */
+  private static final double SCALE = Math.pow(2d, -BITS);
+  /**
+   * The primitive polynomials and initial direction numbers, for each dimension after the first.
+   * Each row contains the degree of the polynomial, the encoded coefficients and the initial direction numbers.
+   */
+  private static final int[][] DIRECTION_DATA = {
+      {1, 0, 1},
+      {2, 1, 1, 3},
+      {3, 1, 1, 3, 1},
+      {3, 2, 1, 1, 1},
+      {4, 1, 1, 1, 3, 3},
+      {4, 4, 1, 3, 5, 13},
+      {5, 2, 1, 1, 5, 5, 17},
+      {5, 4, 1, 1, 5, 5, 5},
+      {5, 7, 1, 1, 7, 11, 19},
+      {5, 11, 1, 1, 5, 1, 1},
+      {5, 13, 1, 1, 1, 3, 11},
+      {5, 14, 1, 3, 5, 5, 31},
+      {6, 1, 1, 3, 3, 9, 7, 49},
+      {6, 13, 1, 1, 1, 15, 21, 21},
+      {6, 16, 1, 3, 1, 13, 27, 49},
+      {6, 19, 1, 1, 1, 15, 7, 5},
+      {6, 22, 1, 3, 1, 15, 13, 25},
+      {6, 25, 1, 1, 5, 5, 19, 61},
+      {7, 1, 1, 3, 7, 11, 23, 15, 103},
+      {7, 4, 1, 3, 7, 13, 13, 15, 69},
+  };
+  /**
+   * The maximum dimension supported.
+   */
+  public static final int MAX_DIMENSION = DIRECTION_DATA.length + 1;
+
+  /**
+   * The direction numbers, indexed by dimension and bit.
+   */
+  private final long[][] direction;
+  /**
+   * The integer coordinates of the next point.
+   */
+  private final long[] current;
+  /**
+   * The index of the next point.
+   */
+  private long index;
+
+  /**
+   * Creates an instance.
+   * <p>
+   * The generator is positioned at the point with index one.
+   *
+   * @param dimension  the dimension of the points, from 1 to {@link #MAX_DIMENSION}
+   */
+  public SobolSequenceGenerator(int dimension) {
+    ArgChecker.inRangeInclusive(dimension, 1, MAX_DIMENSION, "dimension");
+    this.direction = new long[dimension][BITS + 1];
+    for (int i = 1; i <= BITS; i++) {
+      direction[0][i] = 1L << (BITS - i);
+    }
+    for (int d = 1; d < dimension; d++) {
+      int[] data = DIRECTION_DATA[d - 1];
+      int degree = data[0];
+      int coefficients = data[1];
+      long[] v = direction[d];
+      for (int i = 1; i <= Math.min(degree, BITS); i++) {
+        v[i] = ((long) data[i + 1]) << (BITS - i);
+      }
+      for (int i = degree + 1; i <= BITS; i++) {
+        v[i] = v[i - degree] ^ (v[i - degree] >> degree);
+        for (int k = 1; k < degree; k++) {
+          if (((coefficients >> (degree - 1 - k)) & 1) == 1) {
+            v[i] ^= v[i - k];
+          }
+        }
+      }
+    }
+    this.current = new long[dimension];
+    skipTo(1);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the dimension of the points.
+   *
+   * @return the dimension
+   */
+  public int getDimension() {
+    return current.length;
+  }
+
+  /**
+   * Gets the index of the next point to be generated.
+   *
+   * @return the index of the next point
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  /**
+   * Positions the generator at the point with the specified index.
+   * <p>
+   * The point is calculated directly from the index, thus the cost is independent of the index.
+   *
+   * @param index  the index of the next point, one or greater
+   */
+  public void skipTo(long index) {
+    ArgChecker.isTrue(index >= 1, "index must be one or greater");
+    long gray = index ^ (index >>> 1);
+    for (int d = 0; d < current.length; d++) {
+      long x = 0L;
+      for (int i = 1; i <= BITS; i++) {
+        if (((gray >>> (i - 1)) & 1L) == 1L) {
+          x ^= direction[d][i];
+        }
+      }
+      current[d] = x;
+    }
+    this.index = index;
+  }
+
+  /**
+   * Generates the next point, storing the coordinates in the specified array.
+   * <p>
+   * Each coordinate is in the interval (0, 1).
+   *
+   * @param result  the array to populate, of size equal to the dimension
+   */
+  public void nextVector(double[] result) {
+    ArgChecker.isTrue(result.length == current.length, "result size must match the dimension");
+    for (int d = 0; d < current.length; d++) {
+      result[d] = current[d] * SCALE;
+    }
+    // the next point in Gray code order differs by the direction number of the lowest zero bit
+    index++;
+    int bit = Long.numberOfTrailingZeros(index) + 1;
+    for (int d = 0; d < current.length; d++) {
+      current[d] ^= direction[d][bit];
+    }
+  }
+
+  /**
+   * Generates the next point.
+   * <p>
+   * Each coordinate is in the interval (0, 1).
+   *
+   * @return the point, of size equal to the dimension
+   */
+  public double[] nextVector() {
+    double[] result = new double[current.length];
+    nextVector(result);
+    return result;
+  }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SobolSequenceGenerator}.
+ */
+@Test
+public class SobolSequenceGeneratorTest {
+
+  private static final double TOLERANCE = 1.0E-15;
+
+  public void test_firstPoints() {
+    SobolSequenceGenerator test = new SobolSequenceGenerator(3);
+    assertEquals(test.getDimension(), 3);
+    assertEquals(test.getIndex(), 1L);
+    double[][] expected = {
+        {0.5, 0.5, 0.5},
+        {0.75, 0.25, 0.25},
+        {0.25, 0.75, 0.75},
+        {0.375, 0.375, 0.625}};
+    for (double[] point : expected) {
+      double[] computed = test.nextVector();
+      for (int d = 0; d < point.length; d++) {
+        assertEquals(computed[d], point[d], TOLERANCE);
+      }
+    }
+    assertEquals(test.getIndex(), 5L);
+  }
+
+  public void test_stratification() {
+    // the first 2^k - 1 points of each dimension are the multiples of 2^-k
+    int dimension = SobolSequenceGenerator.MAX_DIMENSION;
+    SobolSequenceGenerator test = new SobolSequenceGenerator(dimension);
+    int count = 1023;
+    double[][] values = new double[dimension][count];
+    double[] point = new double[dimension];
+    for (int i = 0; i < count; i++) {
+      test.nextVector(point);
+      for (int d = 0; d < dimension; d++) {
+        values[d][i] = point[d];
+      }
+    }
+    for (int d = 0; d < dimension; d++) {
+      Arrays.sort(values[d]);
+      for (int i = 0; i < count; i++) {
+        assertEquals(values[d][i], (i + 1) / 1024d, TOLERANCE);
+      }
+    }
+  }
+
+  public void test_skipTo() {
+    int dimension = 5;
+    SobolSequenceGenerator sequential = new SobolSequenceGenerator(dimension);
+    SobolSequenceGenerator skipped = new SobolSequenceGenerator(dimension);
+    double[] expected = new double[dimension];
+    for (int i = 1; i < 1000; i++) {
+      sequential.nextVector(expected);
+      if (i % 97 == 0) {
+        skipped.skipTo(i);
+        double[] computed = skipped.nextVector();
+        for (int d = 0; d < dimension; d++) {
+          assertEquals(computed[d], expected[d], TOLERANCE);
+        }
+      }
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> new SobolSequenceGenerator(0));
+    assertThrowsIllegalArg(() -> new SobolSequenceGenerator(SobolSequenceGenerator.MAX_DIMENSION + 1));
+    SobolSequenceGenerator test = new SobolSequenceGenerator(2);
+    assertThrowsIllegalArg(() -> test.skipTo(0));
+    assertThrowsIllegalArg(() -> test.nextVector(new double[3]));
+  }
+
+}
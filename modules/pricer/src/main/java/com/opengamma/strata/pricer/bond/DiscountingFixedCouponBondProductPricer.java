@@ -11,6 +11,8 @@ import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.U
 import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.US_STREET;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
@@ -19,6 +21,7 @@ import com.opengamma.strata.basics.currency.Payment;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.basics.market.StandardId;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.sensitivity.IssuerCurveZeroRateSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.market.sensitivity.RepoCurveZeroRateSensitivity;
@@ -584,7 +587,8 @@ public class DiscountingFixedCouponBondProductPricer {
    * <p>
    * The dirty price must be fractional. 
    * If the analytic formula is not available, the yield is computed by solving
-   * a root-finding problem with {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)}.  
+   * a root-finding problem with {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)}.
+   * The root is found by Newton-Halley iteration on the {@linkplain #yieldKernel yield kernel} of the bond.
    * The result is also expressed in fraction. 
    * 
    * @param bond  the product
@@ -593,22 +597,120 @@ public class DiscountingFixedCouponBondProductPricer {
    * @return the yield of the product 
    */
   public double yieldFromDirtyPrice(ResolvedFixedCouponBond bond, LocalDate settlementDate, double dirtyPrice) {
-    if (bond.getYieldConvention().equals(JAPAN_SIMPLE)) {
-      double cleanPrice = cleanPriceFromDirtyPrice(bond, settlementDate, dirtyPrice);
-      LocalDate maturityDate = bond.getUnadjustedEndDate();
-      double maturity = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
-      return (bond.getFixedRate() + (1d - cleanPrice) / maturity) / cleanPrice;
+    return yieldKernel(bond, settlementDate).yieldFromDirtyPrice(dirtyPrice);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the yield kernel of the fixed coupon bond product for a settlement date.
+   * <p>
+   * The kernel caches the coupon schedule, the accrual factor to the next coupon and the accrued interest
+   * so that repeated conversions between yield and dirty price do not go through the payment periods again.
+   * The conversions of the kernel match {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)}
+   * and {@link #yieldFromDirtyPrice(ResolvedFixedCouponBond, LocalDate, double)}.
+   * 
+   * @param bond  the product
+   * @param settlementDate  the settlement date
+   * @return the yield kernel
+   * @throws UnsupportedOperationException if the yield convention is not supported
+   */
+  public FixedCouponBondYieldKernel yieldKernel(ResolvedFixedCouponBond bond, LocalDate settlementDate) {
+    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
+    int nCoupon = payments.size() - couponIndex(payments, settlementDate);
+    FixedCouponBondYieldConvention yieldConv = bond.getYieldConvention();
+    double fixedRate = bond.getFixedRate();
+    if (yieldConv.equals(JAPAN_SIMPLE) && settlementDate.isAfter(bond.getUnadjustedEndDate())) {
+      return FixedCouponBondYieldKernel.ofSimple(yieldConv, 0d, fixedRate, 0d, 0d, 0d);
     }
+    double accrued = accruedInterest(bond, settlementDate) / bond.getNotional();
+    if (nCoupon == 1) {
+      if (yieldConv.equals(US_STREET) || yieldConv.equals(GERMAN_BONDS)) {
+        FixedCouponBondPaymentPeriod payment = payments.get(payments.size() - 1);
+        double time = factorToNextCoupon(bond, settlementDate) / bond.getFrequency().eventsPerYear();
+        return FixedCouponBondYieldKernel.ofSimple(
+            yieldConv, accrued, fixedRate, 1d + payment.getFixedRate() * payment.getYearFraction(), time, 0d);
+      }
+    }
+    if (yieldConv.equals(US_STREET) || yieldConv.equals(UK_BUMP_DMO) || yieldConv.equals(GERMAN_BONDS)) {
+      return yieldKernelStandard(bond, settlementDate, accrued);
+    }
+    if (yieldConv.equals(JAPAN_SIMPLE)) {
+      double maturity = bond.getDayCount().relativeYearFraction(settlementDate, bond.getUnadjustedEndDate());
+      return FixedCouponBondYieldKernel.ofSimple(
+          yieldConv, accrued, fixedRate, 1d + fixedRate * maturity, maturity, accrued);
+    }
+    throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
+  }
 
-    final Function<Double, Double> priceResidual = new Function<Double, Double>() {
-      @Override
-      public Double apply(final Double y) {
-        return dirtyPriceFromYield(bond, settlementDate, y) - dirtyPrice;
+  // the coupons are discounted with the same periodic factor, the principal is paid with the last coupon
+  private FixedCouponBondYieldKernel yieldKernelStandard(
+      ResolvedFixedCouponBond bond,
+      LocalDate settlementDate,
+      double accrued) {
+
+    double fixedRate = bond.getFixedRate();
+    double[] amounts = new double[bond.getPeriodicPayments().size()];
+    int nbFlows = 0;
+    for (FixedCouponBondPaymentPeriod period : bond.getPeriodicPayments()) {
+      if ((period.hasExCouponPeriod() && !settlementDate.isAfter(period.getDetachmentDate())) ||
+          (!period.hasExCouponPeriod() && period.getPaymentDate().isAfter(settlementDate))) {
+        amounts[nbFlows++] = fixedRate * period.getYearFraction();
       }
-    };
-    double[] range = ROOT_BRACKETER.getBracketedPoints(priceResidual, 0.00, 0.20);
-    double yield = ROOT_FINDER.getRoot(priceResidual, range[0], range[1]);
-    return yield;
+    }
+    double factorToNextCoupon = factorToNextCoupon(bond, settlementDate);
+    double couponPerYear = bond.getFrequency().eventsPerYear();
+    if (nbFlows == 0) {
+      return FixedCouponBondYieldKernel.ofPeriodic(
+          bond.getYieldConvention(), accrued, fixedRate, couponPerYear, factorToNextCoupon - 1d, new double[] {1d});
+    }
+    double[] flows = Arrays.copyOf(amounts, nbFlows);
+    flows[nbFlows - 1] += 1d;
+    return FixedCouponBondYieldKernel.ofPeriodic(
+        bond.getYieldConvention(), accrued, fixedRate, couponPerYear, factorToNextCoupon, flows);
+  }
+
+  /**
+   * Calculates the dirty prices of several fixed coupon bond products from their yields.
+   * <p>
+   * The yields must be fractional and in the order of the products.
+   * The result is the same as calling {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)}
+   * for each product.
+   * 
+   * @param bonds  the products
+   * @param settlementDate  the settlement date
+   * @param yields  the yields
+   * @return the dirty prices of the products
+   */
+  public DoubleArray dirtyPricesFromYields(
+      List<ResolvedFixedCouponBond> bonds,
+      LocalDate settlementDate,
+      DoubleArray yields) {
+
+    ArgChecker.isTrue(bonds.size() == yields.size(), "Number of bonds and yields must match");
+    return DoubleArray.of(
+        bonds.size(), i -> yieldKernel(bonds.get(i), settlementDate).dirtyPriceFromYield(yields.get(i)));
+  }
+
+  /**
+   * Calculates the yields of several fixed coupon bond products from their dirty prices.
+   * <p>
+   * The dirty prices must be fractional and in the order of the products.
+   * The result is the same as calling {@link #yieldFromDirtyPrice(ResolvedFixedCouponBond, LocalDate, double)}
+   * for each product.
+   * 
+   * @param bonds  the products
+   * @param settlementDate  the settlement date
+   * @param dirtyPrices  the dirty prices
+   * @return the yields of the products
+   */
+  public DoubleArray yieldsFromDirtyPrices(
+      List<ResolvedFixedCouponBond> bonds,
+      LocalDate settlementDate,
+      DoubleArray dirtyPrices) {
+
+    ArgChecker.isTrue(bonds.size() == dirtyPrices.size(), "Number of bonds and prices must match");
+    return DoubleArray.of(
+        bonds.size(), i -> yieldKernel(bonds.get(i), settlementDate).yieldFromDirtyPrice(dirtyPrices.get(i)));
   }
 
   //-------------------------------------------------------------------------
@@ -0,0 +1,391 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
+import com.opengamma.strata.math.impl.rootfinding.BrentSingleRootFinder;
+import com.opengamma.strata.math.impl.rootfinding.RealSingleRootFinder;
+import com.opengamma.strata.product.bond.FixedCouponBondYieldConvention;
+
+/**
+ * The yield/price conversion of a fixed coupon bond for a given settlement date.
+ * <p>
+ * The coupon schedule of the bond, the accrual factor to the next coupon and the accrued interest
+ * are computed once, when the kernel is created by
+ * {@link DiscountingFixedCouponBondProductPricer#yieldKernel}.
+ * The dirty price and its first and second derivatives with respect to the yield are then
+ * computed in closed form in a single pass over the remaining cash flows, and the yield is
+ * computed from the dirty price by Newton-Halley iteration.
+ * <p>
+ * The kernel is intended for repeated conversions, for example over many prices of the same bond.
+ * The dirty prices are expressed in fraction of the notional and the yields are fractional.
+ */
+public final class FixedCouponBondYieldKernel {
+
+  /**
+   * The root finder used when the Newton-Halley iteration does not converge.
+   */
+  private static final RealSingleRootFinder ROOT_FINDER = new BrentSingleRootFinder();
+  /**
+   * Brackets the root when the Newton-Halley iteration does not converge.
+   */
+  private static final BracketRoot ROOT_BRACKETER = new BracketRoot();
+  /**
+   * The absolute tolerance on the yield of the Newton-Halley iteration.
+   */
+  private static final double TOLERANCE = 1.0e-13;
+  /**
+   * The maximum number of Newton-Halley iterations.
+   */
+  private static final int MAX_ITERATIONS = 25;
+
+  /**
+   * The yield convention.
+   */
+  private final FixedCouponBondYieldConvention yieldConvention;
+  /**
+   * The accrued interest at the settlement date, in fraction of the notional.
+   */
+  private final double accruedInterest;
+  /**
+   * The initial guess of the yield.
+   */
+  private final double initialGuess;
+  /**
+   * Whether the dirty price is given by the simple formula {@code amount / (1 + yield * time) + accrued}.
+   */
+  private final boolean simple;
+  /**
+   * The amount of the simple formula.
+   */
+  private final double simpleAmount;
+  /**
+   * The time of the simple formula.
+   */
+  private final double simpleTime;
+  /**
+   * The accrued part of the simple formula.
+   */
+  private final double simpleAccrued;
+  /**
+   * The number of coupons per year of the periodic formula.
+   */
+  private final double couponPerYear;
+  /**
+   * The exponent of the discount factor of the first cash flow of the periodic formula.
+   * <p>
+   * The exponent of the cash flow {@code k} is {@code firstExponent + k}.
+   */
+  private final double firstExponent;
+  /**
+   * The cash flows of the periodic formula, in fraction of the notional, including the principal.
+   */
+  private final double[] amounts;
+  /**
+   * The cash flows multiplied by their exponent.
+   */
+  private final double[] amountsFirstOrder;
+  /**
+   * The cash flows multiplied by their exponent and their exponent plus one.
+   */
+  private final double[] amountsSecondOrder;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a kernel for the simple formula {@code amount / (1 + yield * time) + accrued}.
+   *
+   * @param yieldConvention  the yield convention
+   * @param accruedInterest  the accrued interest, in fraction of the notional
+   * @param initialGuess  the initial guess of the yield
+   * @param amount  the amount
+   * @param time  the time
+   * @param accrued  the accrued part of the dirty price
+   * @return the kernel
+   */
+  static FixedCouponBondYieldKernel ofSimple(
+      FixedCouponBondYieldConvention yieldConvention,
+      double accruedInterest,
+      double initialGuess,
+      double amount,
+      double time,
+      double accrued) {
+
+    return new FixedCouponBondYieldKernel(
+        yieldConvention, accruedInterest, initialGuess, true, amount, time, accrued, 1d, 0d, new double[0]);
+  }
+
+  /**
+   * Creates a kernel for the periodic compounding formula.
+   * <p>
+   * The cash flow {@code k} is discounted with the factor {@code (1 + yield / couponPerYear)^-(firstExponent + k)}.
+   *
+   * @param yieldConvention  the yield convention
+   * @param accruedInterest  the accrued interest, in fraction of the notional
+   * @param initialGuess  the initial guess of the yield
+   * @param couponPerYear  the number of coupons per year
+   * @param firstExponent  the exponent of the first cash flow
+   * @param amounts  the cash flows, in fraction of the notional
+   * @return the kernel
+   */
+  static FixedCouponBondYieldKernel ofPeriodic(
+      FixedCouponBondYieldConvention yieldConvention,
+      double accruedInterest,
+      double initialGuess,
+      double couponPerYear,
+      double firstExponent,
+      double[] amounts) {
+
+    return new FixedCouponBondYieldKernel(
+        yieldConvention, accruedInterest, initialGuess, false, 0d, 0d, 0d, couponPerYear, firstExponent, amounts);
+  }
+
+  // restricted constructor
+  private FixedCouponBondYieldKernel(
+      FixedCouponBondYieldConvention yieldConvention,
+      double accruedInterest,
+      double initialGuess,
+      boolean simple,
+      double simpleAmount,
+      double simpleTime,
+      double simpleAccrued,
+      double couponPerYear,
+      double firstExponent,
+      double[] amounts) {
+
+    this.yieldConvention = yieldConvention;
+    this.accruedInterest = accruedInterest;
+    this.initialGuess = initialGuess;
+    this.simple = simple;
+    this.simpleAmount = simpleAmount;
+    this.simpleTime = simpleTime;
+    this.simpleAccrued = simpleAccrued;
+    this.couponPerYear = couponPerYear;
+    this.firstExponent = firstExponent;
+    this.amounts = amounts;
+    int nbFlows = amounts.length;
+    this.amountsFirstOrder = new double[nbFlows];
+    this.amountsSecondOrder = new double[nbFlows];
+    for (int i = 0; i < nbFlows; i++) {
+      double exponent = firstExponent + i;
+      amountsFirstOrder[i] = amounts[i] * exponent;
+      amountsSecondOrder[i] = amounts[i] * exponent * (exponent + 1d);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the yield convention.
+   *
+   * @return the yield convention
+   */
+  public FixedCouponBondYieldConvention getYieldConvention() {
+    return yieldConvention;
+  }
+
+  /**
+   * Gets the accrued interest at the settlement date, in fraction of the notional.
+   * <p>
+   * This is the difference between the dirty price and the clean price.
+   *
+   * @return the accrued interest
+   */
+  public double getAccruedInterest() {
+    return accruedInterest;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty price from the yield.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#dirtyPriceFromYield}.
+   *
+   * @param yield  the yield
+   * @return the dirty price
+   */
+  public double dirtyPriceFromYield(double yield) {
+    if (simple) {
+      return simpleAmount / (1d + yield * simpleTime) + simpleAccrued;
+    }
+    double factorOnPeriod = 1d + yield / couponPerYear;
+    double discount = 1d / factorOnPeriod;
+    double sum = 0d;
+    for (int i = amounts.length - 1; i >= 0; i--) {
+      sum = sum * discount + amounts[i];
+    }
+    return sum * Math.pow(factorOnPeriod, -firstExponent);
+  }
+
+  /**
+   * Calculates the dirty price from the yield, with its first and second derivatives with respect to the yield.
+   * <p>
+   * The result is an array of size 3 containing the dirty price, the first derivative and the second derivative.
+   *
+   * @param yield  the yield
+   * @return the dirty price and its derivatives
+   */
+  public double[] dirtyPriceFromYieldWithDerivatives(double yield) {
+    double[] result = new double[3];
+    priceAndDerivatives(yield, result);
+    return result;
+  }
+
+  /**
+   * Calculates the modified duration from the yield.
+   * <p>
+   * This is minus the first derivative of the dirty price with respect to the yield, divided by the dirty price.
+   *
+   * @param yield  the yield
+   * @return the modified duration
+   */
+  public double modifiedDurationFromYield(double yield) {
+    double[] values = dirtyPriceFromYieldWithDerivatives(yield);
+    return values[0] == 0d ? 0d : -values[1] / values[0];  // zero when no cash flow is left
+  }
+
+  /**
+   * Calculates the convexity from the yield.
+   * <p>
+   * This is the second derivative of the dirty price with respect to the yield, divided by the dirty price.
+   *
+   * @param yield  the yield
+   * @return the convexity
+   */
+  public double convexityFromYield(double yield) {
+    double[] values = dirtyPriceFromYieldWithDerivatives(yield);
+    return values[0] == 0d ? 0d : values[2] / values[0];  // zero when no cash flow is left
+  }
+
+  // computes the price and its derivatives in a single pass over the cash flows
+  private void priceAndDerivatives(double yield, double[] result) {
+    if (simple) {
+      double den = 1d / (1d + yield * simpleTime);
+      double price = simpleAmount * den;
+      result[0] = price + simpleAccrued;
+      result[1] = -price * simpleTime * den;
+      result[2] = 2d * price * simpleTime * simpleTime * den * den;
+      return;
+    }
+    double factorOnPeriod = 1d + yield / couponPerYear;
+    double discount = 1d / factorOnPeriod;
+    double sum0 = 0d;
+    double sum1 = 0d;
+    double sum2 = 0d;
+    for (int i = amounts.length - 1; i >= 0; i--) {
+      sum0 = sum0 * discount + amounts[i];
+      sum1 = sum1 * discount + amountsFirstOrder[i];
+      sum2 = sum2 * discount + amountsSecondOrder[i];
+    }
+    double base = Math.pow(factorOnPeriod, -firstExponent);
+    double scale = discount / couponPerYear;
+    result[0] = sum0 * base;
+    result[1] = -sum1 * base * scale;
+    result[2] = sum2 * base * scale * scale;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the yield from the dirty price.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#yieldFromDirtyPrice}.
+   *
+   * @param dirtyPrice  the dirty price
+   * @return the yield
+   */
+  public double yieldFromDirtyPrice(double dirtyPrice) {
+    return yieldFromDirtyPrice(dirtyPrice, initialGuess);
+  }
+
+  /**
+   * Calculates the yield from the dirty price, starting the iteration from the specified yield.
+   * <p>
+   * A good initial guess, such as the yield of a nearby price, reduces the number of iterations.
+   * The initial guess is not used if the yield is available in closed form.
+   *
+   * @param dirtyPrice  the dirty price
+   * @param initialGuess  the initial guess of the yield
+   * @return the yield
+   */
+  public double yieldFromDirtyPrice(double dirtyPrice, double initialGuess) {
+    if (simple) {
+      return (simpleAmount / (dirtyPrice - simpleAccrued) - 1d) / simpleTime;
+    }
+    double[] values = new double[3];
+    double yield = initialGuess;
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      priceAndDerivatives(yield, values);
+      double residual = values[0] - dirtyPrice;
+      double newton = residual / values[1];
+      double step = newton / (1d - 0.5d * newton * values[2] / values[1]);
+      if (!Double.isFinite(step)) {
+        break;
+      }
+      double next = yield - step;
+      if (next <= -couponPerYear) {
+        // stay within the domain of the periodic compounding
+        next = 0.5d * (yield - couponPerYear);
+      }
+      if (Math.abs(next - yield) < TOLERANCE) {
+        return next;
+      }
+      yield = next;
+    }
+    return yieldFromDirtyPriceBracketed(dirtyPrice);
+  }
+
+  // fallback when the iteration does not converge
+  private double yieldFromDirtyPriceBracketed(double dirtyPrice) {
+    Function<Double, Double> priceResidual = y -> dirtyPriceFromYield(y) - dirtyPrice;
+    double[] range = ROOT_BRACKETER.getBracketedPoints(priceResidual, 0.00, 0.20);
+    return ROOT_FINDER.getRoot(priceResidual, range[0], range[1]);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty prices for an array of yields.
+   *
+   * @param yields  the yields
+   * @return the dirty prices, in the order of the yields
+   */
+  public DoubleArray dirtyPricesFromYields(DoubleArray yields) {
+    ArgChecker.notNull(yields, "yields");
+    return yields.map(this::dirtyPriceFromYield);
+  }
+
+  /**
+   * Calculates the yields for an array of dirty prices.
+   * <p>
+   * The iteration for each price starts from the yield of the previous price,
+   * which is efficient when the prices are close to each other or sorted.
+   *
+   * @param dirtyPrices  the dirty prices
+   * @return the yields, in the order of the dirty prices
+   */
+  public DoubleArray yieldsFromDirtyPrices(DoubleArray dirtyPrices) {
+    ArgChecker.notNull(dirtyPrices, "dirtyPrices");
+    int size = dirtyPrices.size();
+    double[] yields = new double[size];
+    double guess = initialGuess;
+    for (int i = 0; i < size; i++) {
+      yields[i] = yieldFromDirtyPrice(dirtyPrices.get(i), guess);
+      if (Double.isFinite(yields[i])) {
+        guess = yields[i];
+      }
+    }
+    return DoubleArray.ofUnsafe(yields);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "FixedCouponBondYieldKernel[yieldConvention=" + yieldConvention +
+        ", accruedInterest=" + accruedInterest + ", cashFlows=" + (simple ? 1 : amounts.length) + "]";
+  }
+
+}
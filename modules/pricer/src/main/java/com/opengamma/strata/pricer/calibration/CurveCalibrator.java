@@ -14,18 +14,23 @@ import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Doubles;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.basics.market.MarketData;
 import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
+import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
+import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
@@ -173,6 +178,41 @@ public final class CurveCalibrator {
     return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
   }
 
+  /**
+   * Calibrates a single curve group, starting the calibration from existing curves.
+   * <p>
+   * This is the same as {@link #calibrate(CurveGroupDefinition, LocalDate, MarketData, ReferenceData, Map)}
+   * except that the parameters of the initial curves are used as the starting point of the root finder,
+   * instead of the initial guesses of the curve nodes.
+   * This is typically used to recalibrate curves after a small change of the market data,
+   * for example in scenarios, with the curves calibrated to the base market data as initial curves.
+   * <p>
+   * An initial curve is only used if it has the same name and the same number of parameters as a curve
+   * of the group, and if it is a nodal curve. The initial guesses of the nodes are used otherwise.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param valuationDate  the validation date
+   * @param marketData  the market data required to build a trade for the instrument
+   * @param refData  the reference data, used to resolve the trades
+   * @param timeSeries  the time-series
+   * @param initialCurves  the curves used as starting point of the calibration, keyed by name
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      CurveGroupDefinition curveGroupDefn,
+      LocalDate valuationDate,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<Index, LocalDateDoubleTimeSeries> timeSeries,
+      Map<CurveName, ? extends Curve> initialCurves) {
+
+    ImmutableRatesProvider knownData = ImmutableRatesProvider.builder(valuationDate)
+        .fxRateProvider(new MarketDataFxRateProvider(marketData))
+        .timeSeries(timeSeries)
+        .build();
+    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData, initialCurves);
+  }
+
   /**
    * Calibrates a list of curve groups, each containing one or more curves.
    * <p>
@@ -193,6 +233,33 @@ public final class CurveCalibrator {
       MarketData marketData,
       ReferenceData refData) {
 
+    return calibrate(allGroupsDefn, knownData, marketData, refData, ImmutableMap.of());
+  }
+
+  /**
+   * Calibrates a list of curve groups, starting the calibration from existing curves.
+   * <p>
+   * This is the same as {@link #calibrate(List, ImmutableRatesProvider, MarketData, ReferenceData)}
+   * except that the parameters of the initial curves are used as the starting point of the root finder,
+   * instead of the initial guesses of the curve nodes.
+   * <p>
+   * An initial curve is only used if it has the same name and the same number of parameters as a curve
+   * of the groups, and if it is a nodal curve. The initial guesses of the nodes are used otherwise.
+   *
+   * @param allGroupsDefn  the curve group definitions
+   * @param knownData  the starting data for the calibration
+   * @param marketData  the market data required to build a trade for the instrument
+   * @param refData  the reference data, used to resolve the trades
+   * @param initialCurves  the curves used as starting point of the calibration, keyed by name
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      List<CurveGroupDefinition> allGroupsDefn,
+      ImmutableRatesProvider knownData,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<CurveName, ? extends Curve> initialCurves) {
+
     // perform calibration one group at a time, building up the result by mutating these variables
     ImmutableRatesProvider providerCombined = knownData;
     ImmutableList<CurveParameterSize> orderPrev = ImmutableList.of();
@@ -200,8 +267,9 @@ public final class CurveCalibrator {
     for (CurveGroupDefinition groupDefn : allGroupsDefn) {
       // combine all data in the group into flat lists
       ImmutableList<ResolvedTrade> trades = groupDefn.resolvedTrades(knownData.getValuationDate(), marketData, refData);
-      ImmutableList<Double> initialGuesses = groupDefn.initialGuesses(knownData.getValuationDate(), marketData);
       ImmutableList<CurveParameterSize> orderGroup = toOrder(groupDefn);
+      DoubleArray initialGuesses = initialGuesses(
+          groupDefn.initialGuesses(knownData.getValuationDate(), marketData), orderGroup, initialCurves);
       ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
           .addAll(orderPrev)
           .addAll(orderGroup)
@@ -224,17 +292,135 @@ public final class CurveCalibrator {
     return providerCombined;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Recalibrates a single curve group linearly, using the Jacobian of an existing calibration.
+   * <p>
+   * The base provider must contain the curves of the group, calibrated using this calibrator
+   * and the group definition, typically by
+   * {@link #calibrate(CurveGroupDefinition, LocalDate, MarketData, ReferenceData, Map)}.
+   * The curves contain the Jacobian of the calibration, the sensitivity of the curve parameters
+   * to the calibration measures, which is used to move the parameters to match the new market data.
+   * <p>
+   * The trades of the nodes are resolved using the new market data and their calibration measures
+   * are calculated with the base curves. The parameters are then moved by the Jacobian multiplied by
+   * the measures, which is a Newton step of the calibration where the derivatives are not recomputed.
+   * When the market data is shifted by a small amount, the result is the first order approximation
+   * of the curves that a full calibration would produce.
+   * If the Newton correction is requested, a second step is performed from the first order curves,
+   * still using the Jacobian of the base calibration.
+   * <p>
+   * No root finding takes place and no derivative is calculated, thus the recalibration costs
+   * a few valuations of the calibration trades and a matrix-vector multiplication.
+   * The calibration measures of the resulting curves are returned as residuals,
+   * allowing the error compared to a full calibration to be assessed.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param baseProvider  the rates provider containing the calibrated curves of the group
+   * @param marketData  the market data required to build a trade for the instrument
+   * @param refData  the reference data, used to resolve the trades
+   * @param newtonCorrection  whether to perform a second Newton step
+   * @return the recalibrated curves and the residuals
+   * @throws IllegalArgumentException if the base curves do not contain the Jacobian of the group
+   */
+  public LinearCalibrationResult calibrateLinear(
+      CurveGroupDefinition curveGroupDefn,
+      ImmutableRatesProvider baseProvider,
+      MarketData marketData,
+      ReferenceData refData,
+      boolean newtonCorrection) {
+
+    LocalDate valuationDate = baseProvider.getValuationDate();
+    ArgChecker.isTrue(
+        marketData.getValuationDate().equals(valuationDate),
+        "Linear calibration requires the valuation date of the base curves {}, but market data was for {}",
+        valuationDate,
+        marketData.getValuationDate());
+    ImmutableRatesProvider knownData = ImmutableRatesProvider.builder(valuationDate)
+        .fxRateProvider(new MarketDataFxRateProvider(marketData))
+        .timeSeries(baseProvider.getTimeSeries())
+        .build();
+    ImmutableList<ResolvedTrade> trades = curveGroupDefn.resolvedTrades(valuationDate, marketData, refData);
+    ImmutableList<CurveParameterSize> order = toOrder(curveGroupDefn);
+
+    // parameters and Jacobian of the base calibration, stacked in the curve order
+    int totalParams = order.stream().mapToInt(e -> e.getParameterCount()).sum();
+    double[] baseParams = new double[totalParams];
+    double[][] jacobian = new double[totalParams][];
+    ImmutableMap.Builder<CurveName, JacobianCalibrationMatrix> jacobians = ImmutableMap.builder();
+    int startIndex = 0;
+    for (CurveParameterSize curveOrder : order) {
+      CurveName name = curveOrder.getName();
+      Curve curve = baseProvider.findCurve(name)
+          .orElseThrow(() -> new IllegalArgumentException(
+              Messages.format("Linear calibration requires base curve '{}'", name)));
+      JacobianCalibrationMatrix curveJacobian = curve.getMetadata().getInfo(CurveInfoType.JACOBIAN);
+      ArgChecker.isTrue(
+          curveJacobian.getOrder().equals(order),
+          "Linear calibration requires the Jacobian of base curve '{}' to be relative to the curve group",
+          name);
+      curve.toNodalCurve().getYValues().copyInto(baseParams, startIndex);
+      for (int p = 0; p < curveOrder.getParameterCount(); p++) {
+        jacobian[startIndex + p] = curveJacobian.getJacobianMatrix().rowArray(p);
+      }
+      jacobians.put(name, curveJacobian);
+      startIndex += curveOrder.getParameterCount();
+    }
+
+    // Newton steps with the Jacobian of the base calibration
+    RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(knownData, curveGroupDefn, refData);
+    Function<DoubleArray, DoubleArray> valueCalculator = new CalibrationValue(trades, measures, providerGenerator);
+    DoubleArray params = DoubleArray.ofUnsafe(baseParams);
+    DoubleArray residuals = valueCalculator.apply(params);
+    int stepCount = newtonCorrection ? 2 : 1;
+    for (int step = 0; step < stepCount; step++) {
+      params = newtonStep(params, jacobian, residuals);
+      residuals = valueCalculator.apply(params);
+    }
+    return new LinearCalibrationResult(providerGenerator.generate(params, jacobians.build()), residuals);
+  }
+
+  // moves the parameters by the Jacobian multiplied by the measures
+  private static DoubleArray newtonStep(DoubleArray params, double[][] jacobian, DoubleArray measures) {
+    return params.mapWithIndex((i, param) -> {
+      double step = 0d;
+      for (int j = 0; j < measures.size(); j++) {
+        step += jacobian[i][j] * measures.get(j);
+      }
+      return param - step;
+    });
+  }
+
   // converts a definition to the curve order list
   private static ImmutableList<CurveParameterSize> toOrder(CurveGroupDefinition groupDefn) {
     return groupDefn.getCurveDefinitions().stream().map(def -> def.toCurveParameterSize()).collect(toImmutableList());
   }
 
+  // replaces the initial guesses of the nodes by the parameters of the matching initial curves
+  private static DoubleArray initialGuesses(
+      ImmutableList<Double> nodeGuesses,
+      ImmutableList<CurveParameterSize> curveOrder,
+      Map<CurveName, ? extends Curve> initialCurves) {
+
+    double[] guesses = Doubles.toArray(nodeGuesses);
+    int startIndex = 0;
+    for (CurveParameterSize order : curveOrder) {
+      Curve curve = initialCurves.get(order.getName());
+      int paramCount = order.getParameterCount();
+      if (curve instanceof NodalCurve && curve.getParameterCount() == paramCount) {
+        ((NodalCurve) curve).getYValues().copyInto(guesses, startIndex);
+      }
+      startIndex += paramCount;
+    }
+    return DoubleArray.ofUnsafe(guesses);
+  }
+
   //-------------------------------------------------------------------------
   // calibrates a single group
   private DoubleArray calibrateGroup(
       RatesProviderGenerator providerGenerator,
       ImmutableList<ResolvedTrade> trades,
-      ImmutableList<Double> initialGuesses,
+      DoubleArray initialGuesses,
       ImmutableList<CurveParameterSize> curveOrder) {
 
     // setup for calibration
@@ -243,8 +429,7 @@ public final class CurveCalibrator {
         new CalibrationDerivative(trades, measures, providerGenerator, curveOrder);
 
     // calibrate
-    DoubleArray initGuessMatrix = DoubleArray.copyOf(initialGuesses);
-    return rootFinder.getRoot(valueCalculator, derivativeCalculator, initGuessMatrix);
+    return rootFinder.getRoot(valueCalculator, derivativeCalculator, initialGuesses);
   }
 
   //-------------------------------------------------------------------------
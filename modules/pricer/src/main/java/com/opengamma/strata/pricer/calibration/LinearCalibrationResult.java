@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.calibration;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * The result of the linear recalibration of a curve group.
+ * <p>
+ * The linear recalibration moves the parameters of calibrated curves using the calibration Jacobian
+ * instead of solving the calibration equations, see
+ * {@link CurveCalibrator#calibrateLinear(com.opengamma.strata.market.curve.CurveGroupDefinition,
+ * ImmutableRatesProvider, com.opengamma.strata.basics.market.MarketData,
+ * com.opengamma.strata.basics.market.ReferenceData, boolean)}.
+ * <p>
+ * The residuals are the values of the calibration measures for the recalibrated curves.
+ * A full calibration brings all the residuals to zero, within the tolerance of the root finder,
+ * thus the residuals measure the error of the linear recalibration compared to a full calibration.
+ */
+public final class LinearCalibrationResult {
+
+  /**
+   * The rates provider containing the recalibrated curves.
+   */
+  private final ImmutableRatesProvider ratesProvider;
+  /**
+   * The calibration measures of the recalibrated curves, one for each node.
+   */
+  private final DoubleArray residuals;
+
+  // restricted constructor
+  LinearCalibrationResult(ImmutableRatesProvider ratesProvider, DoubleArray residuals) {
+    this.ratesProvider = ratesProvider;
+    this.residuals = residuals;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the rates provider containing the recalibrated curves.
+   * <p>
+   * The curves contain the Jacobian of the base calibration.
+   *
+   * @return the rates provider
+   */
+  public ImmutableRatesProvider getRatesProvider() {
+    return ratesProvider;
+  }
+
+  /**
+   * Gets the residuals, the calibration measures of the recalibrated curves.
+   * <p>
+   * There is one residual for each node of the curve group, in the order of the curves and nodes.
+   *
+   * @return the residuals
+   */
+  public DoubleArray getResiduals() {
+    return residuals;
+  }
+
+  /**
+   * Gets the largest absolute residual.
+   * <p>
+   * This is the calibration error of the linear recalibration, expressed in the unit of the calibration measures.
+   *
+   * @return the largest absolute residual
+   */
+  public double getMaxResidual() {
+    return residuals.stream().map(Math::abs).max().orElse(0d);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "LinearCalibrationResult[maxResidual=" + getMaxResidual() + ", residuals=" + residuals + "]";
+  }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.capfloor;
+
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+
+/**
+ * The present value of a cap/floor leg and its sensitivities, calculated in a single pass.
+ * <p>
+ * The values of the caplet/floorlet periods are in the order of the periods of the leg.
+ */
+public final class IborCapFloorLegValues {
+
+  /**
+   * The present value of the leg.
+   */
+  private final CurrencyAmount presentValue;
+  /**
+   * The present value of each caplet/floorlet period.
+   */
+  private final DoubleArray periodPresentValues;
+  /**
+   * The present value sensitivity to the implied volatility of each caplet/floorlet period.
+   */
+  private final DoubleArray periodVegas;
+  /**
+   * The present value curve sensitivity of the leg.
+   */
+  private final PointSensitivityBuilder presentValueSensitivity;
+  /**
+   * The present value volatility sensitivity of the leg.
+   */
+  private final PointSensitivityBuilder presentValueSensitivityVolatility;
+
+  // restricted constructor
+  IborCapFloorLegValues(
+      CurrencyAmount presentValue,
+      DoubleArray periodPresentValues,
+      DoubleArray periodVegas,
+      PointSensitivityBuilder presentValueSensitivity,
+      PointSensitivityBuilder presentValueSensitivityVolatility) {
+
+    this.presentValue = presentValue;
+    this.periodPresentValues = periodPresentValues;
+    this.periodVegas = periodVegas;
+    this.presentValueSensitivity = presentValueSensitivity;
+    this.presentValueSensitivityVolatility = presentValueSensitivityVolatility;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the present value of the leg.
+   *
+   * @return the present value
+   */
+  public CurrencyAmount getPresentValue() {
+    return presentValue;
+  }
+
+  /**
+   * Gets the present value of each caplet/floorlet period.
+   *
+   * @return the present values, in the currency of the leg
+   */
+  public DoubleArray getPeriodPresentValues() {
+    return periodPresentValues;
+  }
+
+  /**
+   * Gets the present value sensitivity to the implied volatility of each caplet/floorlet period.
+   * <p>
+   * The vega is zero for the periods whose fixing date is on or before the valuation date.
+   *
+   * @return the vegas, in the currency of the leg
+   */
+  public DoubleArray getPeriodVegas() {
+    return periodVegas;
+  }
+
+  /**
+   * Gets the present value curve sensitivity of the leg.
+   *
+   * @return the present value curve sensitivity
+   */
+  public PointSensitivityBuilder getPresentValueSensitivity() {
+    return presentValueSensitivity;
+  }
+
+  /**
+   * Gets the present value volatility sensitivity of the leg.
+   *
+   * @return the present value volatility sensitivity
+   */
+  public PointSensitivityBuilder getPresentValueSensitivityVolatility() {
+    return presentValueSensitivityVolatility;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "IborCapFloorLegValues[presentValue=" + presentValue + ", periodPresentValues=" + periodPresentValues +
+        ", periodVegas=" + periodVegas + "]";
+  }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.capfloor;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.basics.PutCall;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.sensitivity.IborCapletFloorletSensitivity;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.market.view.IborCapletFloorletVolatilities;
+import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
+import com.opengamma.strata.pricer.impl.option.NormalFormulaRepository;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.capfloor.IborCapletFloorletPeriod;
+import com.opengamma.strata.product.capfloor.ResolvedIborCapFloorLeg;
+
+/**
+ * Pricer for cap/floor legs based on volatilities, pricing all the caplet/floorlet periods at once.
+ * <p>
+ * This function provides the same figures as {@link VolatilityIborCapFloorLegPricer}.
+ * The market data of all the periods of the leg, the forward rates, the discount factors and the volatilities,
+ * are first gathered in arrays. The options are then priced by a single call to the formula of the model
+ * of the volatilities, which computes the price, the delta and the vega of each option in the same pass.
+ * <p>
+ * The Black and normal formulas are used for {@link BlackIborCapletFloorletVolatilities} and
+ * {@link NormalIborCapletFloorletVolatilities} respectively.
+ * Other volatilities are priced one option at a time using the volatilities.
+ * <p>
+ * The scenarios of a {@link MarketDataBox} can also be priced together, the periods of all the scenarios
+ * being priced by a single call to the formula.
+ */
+public class VectorizedIborCapFloorLegPricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final VectorizedIborCapFloorLegPricer DEFAULT = new VectorizedIborCapFloorLegPricer();
+
+  // the period is before its fixing date, or on it
+  private static final byte LIVE = 0;
+  // the period has fixed, but is not paid
+  private static final byte EXPIRED = 1;
+  // the period is paid
+  private static final byte PAID = 2;
+
+  /**
+   * Creates an instance.
+   */
+  public VectorizedIborCapFloorLegPricer() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the cap/floor leg.
+   * <p>
+   * The present value of the leg is the value on the valuation date.
+   * The result is returned using the payment currency of the leg.
+   *
+   * @param capFloorLeg  the cap/floor leg
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the volatilities
+   * @return the present value
+   */
+  public CurrencyAmount presentValue(
+      ResolvedIborCapFloorLeg capFloorLeg,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities) {
+
+    validate(ratesProvider, volatilities);
+    PeriodArrays arrays = new PeriodArrays(capFloorLeg, 1);
+    arrays.gather(0, ratesProvider, volatilities);
+    arrays.evaluate(volatilities);
+    return CurrencyAmount.of(capFloorLeg.getCurrency(), arrays.presentValue(0));
+  }
+
+  /**
+   * Calculates the present value of the cap/floor leg for each scenario.
+   * <p>
+   * The options of all the scenarios are priced together.
+   * If both the rates providers and the volatilities are single values, the result is a single value.
+   * Otherwise, the scenario values must have the same number of scenarios,
+   * and a single value is used in every scenario.
+   *
+   * @param capFloorLeg  the cap/floor leg
+   * @param ratesProviders  the rates providers
+   * @param volatilities  the volatilities
+   * @return the present value for each scenario
+   */
+  public MarketDataBox<CurrencyAmount> presentValue(
+      ResolvedIborCapFloorLeg capFloorLeg,
+      MarketDataBox<? extends RatesProvider> ratesProviders,
+      MarketDataBox<? extends IborCapletFloorletVolatilities> volatilities) {
+
+    if (ratesProviders.isSingleValue() && volatilities.isSingleValue()) {
+      return MarketDataBox.ofSingleValue(
+          presentValue(capFloorLeg, ratesProviders.getSingleValue(), volatilities.getSingleValue()));
+    }
+    int scenarioCount = scenarioCount(ratesProviders, volatilities);
+    PeriodArrays arrays = new PeriodArrays(capFloorLeg, scenarioCount);
+    List<IborCapletFloorletVolatilities> scenarioVolatilities = new ArrayList<>(scenarioCount);
+    for (int scenario = 0; scenario < scenarioCount; scenario++) {
+      RatesProvider ratesProvider = ratesProviders.getValue(scenario);
+      IborCapletFloorletVolatilities scenarioVols = volatilities.getValue(scenario);
+      validate(ratesProvider, scenarioVols);
+      arrays.gather(scenario, ratesProvider, scenarioVols);
+      scenarioVolatilities.add(scenarioVols);
+    }
+    arrays.evaluate(scenarioVolatilities);
+    Currency currency = capFloorLeg.getCurrency();
+    return MarketDataBox.ofScenarioValues(IntStream.range(0, scenarioCount)
+        .mapToObj(scenario -> CurrencyAmount.of(currency, arrays.presentValue(scenario)))
+        .collect(toImmutableList()));
+  }
+
+  // the number of scenarios, checking the scenario values are consistent
+  private static int scenarioCount(MarketDataBox<?> ratesProviders, MarketDataBox<?> volatilities) {
+    if (ratesProviders.isSingleValue()) {
+      return volatilities.getScenarioCount();
+    }
+    if (volatilities.isSingleValue()) {
+      return ratesProviders.getScenarioCount();
+    }
+    ArgChecker.isTrue(ratesProviders.getScenarioCount() == volatilities.getScenarioCount(),
+        "Rates providers and volatilities must have the same number of scenarios, but were {} and {}",
+        ratesProviders.getScenarioCount(), volatilities.getScenarioCount());
+    return ratesProviders.getScenarioCount();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the cap/floor leg and its sensitivities.
+   * <p>
+   * The result contains the present value of the leg and of each period, the vega of each period,
+   * and the sensitivities of the present value to the curves and to the volatilities.
+   * The options are priced only once for all these figures.
+   *
+   * @param capFloorLeg  the cap/floor leg
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the volatilities
+   * @return the present value and the sensitivities
+   */
+  public IborCapFloorLegValues presentValueWithSensitivities(
+      ResolvedIborCapFloorLeg capFloorLeg,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities) {
+
+    validate(ratesProvider, volatilities);
+    PeriodArrays arrays = new PeriodArrays(capFloorLeg, 1);
+    arrays.gather(0, ratesProvider, volatilities);
+    arrays.evaluate(volatilities);
+    Currency currency = capFloorLeg.getCurrency();
+    List<IborCapletFloorletPeriod> periods = capFloorLeg.getCapletFloorletPeriods();
+    int nbPeriods = periods.size();
+    double[] presentValues = new double[nbPeriods];
+    double[] vegas = new double[nbPeriods];
+    PointSensitivityBuilder curveSensitivity = PointSensitivityBuilder.none();
+    PointSensitivityBuilder volatilitySensitivity = PointSensitivityBuilder.none();
+    for (int i = 0; i < nbPeriods; i++) {
+      IborCapletFloorletPeriod period = periods.get(i);
+      presentValues[i] = arrays.periodPresentValue(i);
+      vegas[i] = arrays.periodVega(i);
+      if (arrays.states[i] == PAID) {
+        continue;
+      }
+      PointSensitivityBuilder dfSensitivity =
+          ratesProvider.discountFactors(currency).zeroRatePointSensitivity(period.getPaymentDate());
+      if (arrays.states[i] == EXPIRED) {
+        curveSensitivity = curveSensitivity.combinedWith(
+            dfSensitivity.multipliedBy(arrays.payoffs[i] * arrays.factors[i]));
+        continue;
+      }
+      PointSensitivityBuilder rateSensitivity = ratesProvider.iborIndexRates(period.getIndex())
+          .ratePointSensitivity(period.getIborRate().getObservation());
+      double fwdPv = arrays.factors[i] * arrays.prices[i];
+      double fwdDelta = arrays.factors[i] * arrays.deltas[i];
+      curveSensitivity = curveSensitivity
+          .combinedWith(dfSensitivity.multipliedBy(fwdPv))
+          .combinedWith(rateSensitivity.multipliedBy(fwdDelta * arrays.discountFactors[i]));
+      if (arrays.expiries[i] > 0d) {
+        volatilitySensitivity = volatilitySensitivity.combinedWith(IborCapletFloorletSensitivity.of(
+            period.getIndex(),
+            period.getFixingDateTime(),
+            period.getStrike(),
+            arrays.forwards[i],
+            currency,
+            vegas[i]));
+      }
+    }
+    return new IborCapFloorLegValues(
+        CurrencyAmount.of(currency, arrays.presentValue(0)),
+        DoubleArray.ofUnsafe(presentValues),
+        DoubleArray.ofUnsafe(vegas),
+        curveSensitivity,
+        volatilitySensitivity);
+  }
+
+  //-------------------------------------------------------------------------
+  private void validate(RatesProvider ratesProvider, IborCapletFloorletVolatilities volatilities) {
+    ArgChecker.isTrue(volatilities.getValuationDate().equals(ratesProvider.getValuationDate()),
+        "volatility and rate data must be for the same date");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The market data and the option values of the periods of a leg, for one or more scenarios.
+   * <p>
+   * The periods of the scenario {@code s} are stored from index {@code s * nbPeriods}.
+   * The options of the periods which are not live are priced with zero forward, strike and volatility,
+   * which is valid in all the models, and their option values are not used.
+   */
+  private static final class PeriodArrays {
+    private final List<IborCapletFloorletPeriod> periods;
+    private final int nbPeriods;
+    private final byte[] states;
+    private final double[] expiries;
+    private final double[] forwards;
+    private final double[] strikes;
+    private final double[] volatilities;
+    private final boolean[] isCalls;
+    private final double[] discountFactors;
+    private final double[] factors;
+    private final double[] payoffs;
+    private final double[] prices;
+    private final double[] deltas;
+    private final double[] vegas;
+
+    private PeriodArrays(ResolvedIborCapFloorLeg capFloorLeg, int scenarioCount) {
+      this.periods = capFloorLeg.getCapletFloorletPeriods();
+      this.nbPeriods = periods.size();
+      int size = nbPeriods * scenarioCount;
+      this.states = new byte[size];
+      this.expiries = new double[size];
+      this.forwards = new double[size];
+      this.strikes = new double[size];
+      this.volatilities = new double[size];
+      this.isCalls = new boolean[size];
+      this.discountFactors = new double[size];
+      this.factors = new double[size];
+      this.payoffs = new double[size];
+      this.prices = new double[size];
+      this.deltas = new double[size];
+      this.vegas = new double[size];
+    }
+
+    // gathers the market data of the periods for a scenario
+    private void gather(int scenario, RatesProvider ratesProvider, IborCapletFloorletVolatilities vols) {
+      int start = scenario * nbPeriods;
+      for (int j = 0; j < nbPeriods; j++) {
+        IborCapletFloorletPeriod period = periods.get(j);
+        int i = start + j;
+        isCalls[i] = period.getPutCall().isCall();
+        if (ratesProvider.getValuationDate().isAfter(period.getPaymentDate())) {
+          states[i] = PAID;
+          continue;
+        }
+        double expiry = vols.relativeTime(period.getFixingDateTime());
+        double forward = ratesProvider.iborIndexRates(period.getIndex()).rate(period.getIborRate().getObservation());
+        double strike = period.getStrike();
+        forwards[i] = forward;
+        discountFactors[i] = ratesProvider.discountFactor(period.getCurrency(), period.getPaymentDate());
+        factors[i] = period.getNotional() * period.getYearFraction();
+        if (expiry < 0d) {
+          states[i] = EXPIRED;
+          payoffs[i] = Math.max((isCalls[i] ? 1d : -1d) * (forward - strike), 0d);
+          forwards[i] = 0d;
+          continue;
+        }
+        states[i] = LIVE;
+        expiries[i] = expiry;
+        strikes[i] = strike;
+        volatilities[i] = vols.volatility(expiry, strike, forward);
+      }
+    }
+
+    // prices the options of a single scenario
+    private void evaluate(IborCapletFloorletVolatilities vols) {
+      List<IborCapletFloorletVolatilities> scenarioVolatilities = new ArrayList<>(1);
+      scenarioVolatilities.add(vols);
+      evaluate(scenarioVolatilities);
+    }
+
+    // prices the options of all the scenarios, with a single call to the formula when the model is known
+    private void evaluate(List<IborCapletFloorletVolatilities> scenarioVolatilities) {
+      if (scenarioVolatilities.stream().allMatch(v -> v instanceof BlackIborCapletFloorletVolatilities)) {
+        BlackFormulaRepository.priceDeltaVega(
+            forwards, strikes, expiries, volatilities, isCalls, prices, deltas, vegas);
+      } else if (scenarioVolatilities.stream().allMatch(v -> v instanceof NormalIborCapletFloorletVolatilities)) {
+        NormalFormulaRepository.priceDeltaVega(
+            forwards, strikes, expiries, volatilities, isCalls, prices, deltas, vegas);
+      } else {
+        for (int i = 0; i < prices.length; i++) {
+          IborCapletFloorletVolatilities vols = scenarioVolatilities.get(i / nbPeriods);
+          PutCall putCall = PutCall.ofPut(!isCalls[i]);
+          prices[i] = vols.price(expiries[i], putCall, strikes[i], forwards[i], volatilities[i]);
+          deltas[i] = vols.priceDelta(expiries[i], putCall, strikes[i], forwards[i], volatilities[i]);
+          vegas[i] = vols.priceVega(expiries[i], putCall, strikes[i], forwards[i], volatilities[i]);
+        }
+      }
+    }
+
+    // the present value of a period, the index including the scenario offset
+    private double periodPresentValue(int i) {
+      switch (states[i]) {
+        case LIVE:
+          return discountFactors[i] * factors[i] * prices[i];
+        case EXPIRED:
+          return discountFactors[i] * factors[i] * payoffs[i];
+        default:
+          return 0d;
+      }
+    }
+
+    // the vega of a period, the index including the scenario offset
+    private double periodVega(int i) {
+      return states[i] == LIVE && expiries[i] > 0d ? discountFactors[i] * factors[i] * vegas[i] : 0d;
+    }
+
+    // the present value of the leg for a scenario
+    private double presentValue(int scenario) {
+      int start = scenario * nbPeriods;
+      double total = 0d;
+      for (int i = start; i < start + nbPeriods; i++) {
+        total += periodPresentValue(i);
+      }
+      return total;
+    }
+  }
+
+}
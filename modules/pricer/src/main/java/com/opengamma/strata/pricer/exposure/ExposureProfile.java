@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.exposure;
+
+import java.time.LocalDate;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The exposure profile of a netting set.
+ * <p>
+ * The profile contains, for each date of the simulation grid, the statistics of the value of the netting set
+ * on that date over the simulated paths:
+ * <ul>
+ * <li>the expected positive exposure, the average of the positive part of the value
+ * <li>the expected negative exposure, the average of the negative part of the value, which is not positive
+ * <li>the potential future exposure, the positive part of the quantile of the value at the confidence level
+ * </ul>
+ * The statistics on each date are calculated under the forward measure associated with that date,
+ * thus they are not discounted to the valuation date.
+ */
+public final class ExposureProfile {
+
+  /**
+   * The currency of the exposures.
+   */
+  private final Currency currency;
+  /**
+   * The dates of the simulation grid.
+   */
+  private final ImmutableList<LocalDate> dates;
+  /**
+   * The expected positive exposure on each date.
+   */
+  private final DoubleArray expectedPositiveExposure;
+  /**
+   * The expected negative exposure on each date.
+   */
+  private final DoubleArray expectedNegativeExposure;
+  /**
+   * The potential future exposure on each date.
+   */
+  private final DoubleArray potentialFutureExposure;
+  /**
+   * The confidence level of the potential future exposure.
+   */
+  private final double confidenceLevel;
+  /**
+   * The number of paths.
+   */
+  private final int pathCount;
+
+  // restricted constructor
+  ExposureProfile(
+      Currency currency,
+      ImmutableList<LocalDate> dates,
+      DoubleArray expectedPositiveExposure,
+      DoubleArray expectedNegativeExposure,
+      DoubleArray potentialFutureExposure,
+      double confidenceLevel,
+      int pathCount) {
+
+    this.currency = currency;
+    this.dates = dates;
+    this.expectedPositiveExposure = expectedPositiveExposure;
+    this.expectedNegativeExposure = expectedNegativeExposure;
+    this.potentialFutureExposure = potentialFutureExposure;
+    this.confidenceLevel = confidenceLevel;
+    this.pathCount = pathCount;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the currency of the exposures.
+   *
+   * @return the currency
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  /**
+   * Gets the dates of the simulation grid.
+   *
+   * @return the dates
+   */
+  public ImmutableList<LocalDate> getDates() {
+    return dates;
+  }
+
+  /**
+   * Gets the expected positive exposure on each date.
+   *
+   * @return the expected positive exposure
+   */
+  public DoubleArray getExpectedPositiveExposure() {
+    return expectedPositiveExposure;
+  }
+
+  /**
+   * Gets the expected negative exposure on each date.
+   * <p>
+   * The values are negative or zero.
+   *
+   * @return the expected negative exposure
+   */
+  public DoubleArray getExpectedNegativeExposure() {
+    return expectedNegativeExposure;
+  }
+
+  /**
+   * Gets the potential future exposure on each date.
+   *
+   * @return the potential future exposure
+   */
+  public DoubleArray getPotentialFutureExposure() {
+    return potentialFutureExposure;
+  }
+
+  /**
+   * Gets the confidence level of the potential future exposure.
+   *
+   * @return the confidence level
+   */
+  public double getConfidenceLevel() {
+    return confidenceLevel;
+  }
+
+  /**
+   * Gets the number of paths simulated.
+   *
+   * @return the number of paths
+   */
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "ExposureProfile[currency=" + currency + ", dates=" + dates +
+        ", expectedPositiveExposure=" + expectedPositiveExposure +
+        ", expectedNegativeExposure=" + expectedNegativeExposure +
+        ", potentialFutureExposure=" + potentialFutureExposure +
+        ", confidenceLevel=" + confidenceLevel + ", pathCount=" + pathCount + "]";
+  }
+
+}
@@ -0,0 +1,576 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.exposure;
+
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.basics.index.OvernightIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.DoubleArrayMath;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveMetadata;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.view.DiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloPath;
+import com.opengamma.strata.pricer.index.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProviderBuilder;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.rate.IborAveragedFixing;
+import com.opengamma.strata.product.rate.IborAveragedRateObservation;
+import com.opengamma.strata.product.rate.IborInterpolatedRateObservation;
+import com.opengamma.strata.product.rate.IborRateObservation;
+import com.opengamma.strata.product.rate.OvernightAveragedRateObservation;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateObservation;
+import com.opengamma.strata.product.rate.RateObservation;
+import com.opengamma.strata.product.swap.PaymentEvent;
+import com.opengamma.strata.product.swap.PaymentPeriod;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.ResolvedSwapTrade;
+
+/**
+ * Calculator of the exposure profiles of netting sets of swaps in the Hull-White one factor model.
+ * <p>
+ * The short rate is simulated with {@link HullWhiteMonteCarloEngine} on the dates of the simulation grid.
+ * On each path and each grid date, the discount and forward curves of the currency are rebuilt from the simulated
+ * zero-coupon bonds, keeping the spread between the curves deterministic. Each simulated curve is a zero-rate curve,
+ * linearly interpolated on a fixed set of tenors from the grid date.
+ * The trades are then valued with {@link DiscountingSwapProductPricer} against the simulated rates provider,
+ * and the values are summed by netting set.
+ * <p>
+ * The fixings of the Ibor and overnight indices between two grid dates are set to the forward rates
+ * of the provider of the earlier grid date, which is the usual approximation on a discrete grid.
+ * Fixings already present in the time-series of the rates provider are not changed.
+ * <p>
+ * The paths are simulated in blocks, in parallel when the engine is parallel, and each path is revalued
+ * as soon as it is simulated. Only the value of each netting set on each date and path is retained,
+ * thus the memory used is proportional to the number of netting sets, dates and paths,
+ * and does not depend on the number of trades.
+ * <p>
+ * The model has a single factor, thus all the trades must be in the same currency.
+ */
+public class HullWhiteSwapExposureCalculator {
+
+  /**
+   * Default implementation, using 4096 antithetic pseudo-random paths and a 95% potential future exposure.
+   * <p>
+   * The blocks are small as the revaluation of each path is costly.
+   */
+  public static final HullWhiteSwapExposureCalculator DEFAULT = new HullWhiteSwapExposureCalculator(
+      DiscountingSwapProductPricer.DEFAULT,
+      HullWhiteMonteCarloEngine.ofAntithetic(4096, 1L).withBlockSize(64),
+      0.95);
+
+  /**
+   * The tenors of the nodes of the simulated curves.
+   */
+  private static final ImmutableList<Period> NODE_TENORS = ImmutableList.of(
+      Period.ofMonths(1), Period.ofMonths(3), Period.ofMonths(6), Period.ofYears(1), Period.ofYears(2),
+      Period.ofYears(3), Period.ofYears(4), Period.ofYears(5), Period.ofYears(7), Period.ofYears(10),
+      Period.ofYears(15), Period.ofYears(20), Period.ofYears(30), Period.ofYears(40), Period.ofYears(50));
+
+  /**
+   * Pricer for {@link ResolvedSwap}.
+   */
+  private final DiscountingSwapProductPricer swapPricer;
+  /**
+   * The Monte Carlo engine.
+   */
+  private final HullWhiteMonteCarloEngine engine;
+  /**
+   * The confidence level of the potential future exposure.
+   */
+  private final double confidenceLevel;
+
+  /**
+   * Creates an instance.
+   *
+   * @param swapPricer  the pricer for {@link ResolvedSwap}
+   * @param engine  the Monte Carlo engine
+   * @param confidenceLevel  the confidence level of the potential future exposure, strictly between 0 and 1
+   */
+  public HullWhiteSwapExposureCalculator(
+      DiscountingSwapProductPricer swapPricer,
+      HullWhiteMonteCarloEngine engine,
+      double confidenceLevel) {
+
+    this.swapPricer = ArgChecker.notNull(swapPricer, "swapPricer");
+    this.engine = ArgChecker.notNull(engine, "engine");
+    this.confidenceLevel = ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the exposure profile of each netting set.
+   * <p>
+   * The grid dates must be increasing and after the valuation date.
+   * The profiles are returned in the order of the netting sets.
+   *
+   * @param nettingSets  the trades of each netting set, keyed by netting set name
+   * @param gridDates  the dates of the simulation grid
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the exposure profile of each netting set
+   */
+  public ImmutableMap<String, ExposureProfile> exposureProfiles(
+      Map<String, ? extends List<ResolvedSwapTrade>> nettingSets,
+      List<LocalDate> gridDates,
+      ImmutableRatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    ArgChecker.notEmpty(nettingSets, "nettingSets");
+    ArgChecker.noNulls(gridDates, "gridDates");
+    ArgChecker.notEmpty(gridDates, "gridDates");
+    ArgChecker.notNull(ratesProvider, "ratesProvider");
+    ArgChecker.notNull(hwProvider, "hwProvider");
+    ArgChecker.isTrue(hwProvider.getValuationDateTime().toLocalDate().equals(ratesProvider.getValuationDate()),
+        "Hull-White model data and rate data should be for the same date");
+    ArgChecker.isTrue(gridDates.get(0).isAfter(ratesProvider.getValuationDate()),
+        "grid dates must be after the valuation date");
+    for (int i = 1; i < gridDates.size(); i++) {
+      ArgChecker.isTrue(gridDates.get(i).isAfter(gridDates.get(i - 1)), "grid dates must be increasing");
+    }
+    List<List<ResolvedSwap>> swaps = nettingSets.values().stream()
+        .map(trades -> trades.stream().map(ResolvedSwapTrade::getProduct).collect(toImmutableList()))
+        .collect(toImmutableList());
+    ExposureSimulation simulation = new ExposureSimulation(swaps, gridDates, ratesProvider, hwProvider);
+    List<ExposureBlock> blocks = engine.simulateBlocks(
+        hwProvider.getParameters(),
+        simulation.observationTimes(),
+        simulation.maturityTimes(),
+        blockPathCount -> new ExposureBlock(swaps.size(), gridDates.size(), blockPathCount),
+        (block, path) -> block.add(simulation, path));
+    ImmutableMap.Builder<String, ExposureProfile> profiles = ImmutableMap.builder();
+    int set = 0;
+    for (String name : nettingSets.keySet()) {
+      profiles.put(name, profile(simulation.currency, ImmutableList.copyOf(gridDates), blocks, set++));
+    }
+    return profiles.build();
+  }
+
+  // calculates the profile of a netting set, gathering the values of the blocks for one date at a time
+  private ExposureProfile profile(
+      Currency currency,
+      ImmutableList<LocalDate> dates,
+      List<ExposureBlock> blocks,
+      int set) {
+
+    int pathCount = engine.getPathCount();
+    double[] epe = new double[dates.size()];
+    double[] ene = new double[dates.size()];
+    double[] pfe = new double[dates.size()];
+    double[] values = new double[pathCount];
+    double[] weights = new double[pathCount];
+    for (int k = 0; k < dates.size(); k++) {
+      int start = 0;
+      for (ExposureBlock block : blocks) {
+        System.arraycopy(block.values[set][k], 0, values, start, block.pathCount);
+        System.arraycopy(block.weights[k], 0, weights, start, block.pathCount);
+        start += block.pathCount;
+      }
+      double totalWeight = 0d;
+      double positive = 0d;
+      double negative = 0d;
+      for (int p = 0; p < pathCount; p++) {
+        totalWeight += weights[p];
+        positive += weights[p] * Math.max(values[p], 0d);
+        negative += weights[p] * Math.min(values[p], 0d);
+      }
+      epe[k] = positive / totalWeight;
+      ene[k] = negative / totalWeight;
+      pfe[k] = Math.max(quantile(values, weights, confidenceLevel * totalWeight), 0d);
+    }
+    return new ExposureProfile(
+        currency,
+        dates,
+        DoubleArray.ofUnsafe(epe),
+        DoubleArray.ofUnsafe(ene),
+        DoubleArray.ofUnsafe(pfe),
+        confidenceLevel,
+        pathCount);
+  }
+
+  // the smallest value for which the cumulative weight reaches the target, the arrays are sorted in place
+  private static double quantile(double[] values, double[] weights, double targetWeight) {
+    DoubleArrayMath.sortPairs(values, weights);
+    double cumulative = 0d;
+    for (int p = 0; p < values.length; p++) {
+      cumulative += weights[p];
+      if (cumulative >= targetWeight) {
+        return values[p];
+      }
+    }
+    return values[values.length - 1];
+  }
+
+  //-------------------------------------------------------------------------
+  // the values of the netting sets on the paths of a block
+  private final class ExposureBlock {
+
+    // the value of each netting set, indexed by netting set, date and path
+    private final double[][][] values;
+    // the density of the forward measure of each date, indexed by date and path
+    private final double[][] weights;
+    private final int pathCount;
+    private int count;
+
+    private ExposureBlock(int setCount, int dateCount, int pathCount) {
+      this.values = new double[setCount][dateCount][pathCount];
+      this.weights = new double[dateCount][pathCount];
+      this.pathCount = pathCount;
+    }
+
+    // revalues the netting sets on each date of the path
+    private void add(ExposureSimulation simulation, HullWhiteMonteCarloPath path) {
+      Map<Index, LocalDateDoubleTimeSeriesBuilder> fixings = simulation.initialFixings();
+      ImmutableRatesProvider provider = simulation.baseProvider;
+      for (int k = 0; k < weights.length; k++) {
+        provider = simulation.provider(k, path, provider, fixings);
+        weights[k][count] = path.observationFactor(k);
+        LocalDate date = simulation.gridDates.get(k);
+        for (int set = 0; set < values.length; set++) {
+          double value = 0d;
+          for (SwapEntry entry : simulation.swaps.get(set)) {
+            if (!entry.lastPaymentDate.isBefore(date)) {
+              value += swapPricer.presentValue(entry.swap, simulation.currency, provider).getAmount();
+            }
+          }
+          values[set][k][count] = value;
+        }
+      }
+      count++;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // a swap and its last payment date
+  private static final class SwapEntry {
+
+    private final ResolvedSwap swap;
+    private final LocalDate lastPaymentDate;
+
+    private SwapEntry(ResolvedSwap swap) {
+      this.swap = swap;
+      LocalDate last = swap.getEndDate();
+      for (ResolvedSwapLeg leg : swap.getLegs()) {
+        for (PaymentPeriod period : leg.getPaymentPeriods()) {
+          last = period.getPaymentDate().isAfter(last) ? period.getPaymentDate() : last;
+        }
+        for (PaymentEvent event : leg.getPaymentEvents()) {
+          last = event.getPaymentDate().isAfter(last) ? event.getPaymentDate() : last;
+        }
+      }
+      this.lastPaymentDate = last;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the data of the simulation that does not depend on the path, shared by all the blocks
+  private static final class ExposureSimulation {
+
+    private final ImmutableRatesProvider baseProvider;
+    private final Currency currency;
+    private final ImmutableList<LocalDate> gridDates;
+    private final ImmutableList<ImmutableList<SwapEntry>> swaps;
+    // the model time of each grid date
+    private final double[] gridTimes;
+    // the model time of the nodes of each grid date, in grid date order
+    private final double[] nodeTimes;
+    // the times of the nodes from each grid date, used as x-values of the simulated curves
+    private final DoubleArray[] curveTimes;
+    // the curves of the currency, with their metadata and the log ratios of discount factors of each node and date
+    private final List<Curve> curves = new ArrayList<>();
+    private final List<CurveMetadata> curveMetadata = new ArrayList<>();
+    private final List<double[][]> logRatios = new ArrayList<>();
+    // the curve used by the currency and each index of the currency
+    private final int discountCurve;
+    private final Map<Index, Integer> indexCurves = new LinkedHashMap<>();
+    // the fixings to set on each grid date
+    private final List<List<IborIndexObservation>> iborFixings = new ArrayList<>();
+    private final List<List<OvernightIndexObservation>> overnightFixings = new ArrayList<>();
+    // the time-series of the indices with simulated fixings, restricted to the dates used by the swaps
+    private final Map<Index, LocalDateDoubleTimeSeries> baseFixings = new HashMap<>();
+
+    private ExposureSimulation(
+        List<List<ResolvedSwap>> nettingSets,
+        List<LocalDate> gridDates,
+        ImmutableRatesProvider ratesProvider,
+        HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+      this.baseProvider = ratesProvider;
+      this.gridDates = ImmutableList.copyOf(gridDates);
+      this.swaps = nettingSets.stream()
+          .map(set -> set.stream().map(SwapEntry::new).collect(toImmutableList()))
+          .collect(toImmutableList());
+      this.currency = currency(nettingSets);
+      int nbDates = gridDates.size();
+      int nbNodes = NODE_TENORS.size();
+      this.gridTimes = new double[nbDates];
+      this.nodeTimes = new double[nbDates * nbNodes];
+      this.curveTimes = new DoubleArray[nbDates];
+      for (int k = 0; k < nbDates; k++) {
+        LocalDate gridDate = gridDates.get(k);
+        gridTimes[k] = hwProvider.relativeTime(gridDate);
+        double[] times = new double[nbNodes];
+        for (int i = 0; i < nbNodes; i++) {
+          LocalDate nodeDate = gridDate.plus(NODE_TENORS.get(i));
+          nodeTimes[k * nbNodes + i] = hwProvider.relativeTime(nodeDate);
+          times[i] = ACT_365F.yearFraction(gridDate, nodeDate);
+        }
+        curveTimes[k] = DoubleArray.ofUnsafe(times);
+      }
+      // the same curve may be used for discounting and forward rates
+      Map<Curve, Integer> curveIndices = new HashMap<>();
+      Curve discount = ratesProvider.getDiscountCurves().get(currency);
+      ArgChecker.isTrue(discount != null, "Unable to find discount curve for {}", currency);
+      this.discountCurve = curveIndex(discount, curveIndices);
+      for (Map.Entry<Index, Curve> entry : ratesProvider.getIndexCurves().entrySet()) {
+        Index index = entry.getKey();
+        if ((index instanceof IborIndex && ((IborIndex) index).getCurrency().equals(currency)) ||
+            (index instanceof OvernightIndex && ((OvernightIndex) index).getCurrency().equals(currency))) {
+          indexCurves.put(index, curveIndex(entry.getValue(), curveIndices));
+        }
+      }
+      initFixings(ratesProvider);
+    }
+
+    // the currency of the swaps, which must be the same for all
+    private static Currency currency(List<List<ResolvedSwap>> nettingSets) {
+      Currency currency = null;
+      for (List<ResolvedSwap> set : nettingSets) {
+        for (ResolvedSwap swap : set) {
+          for (ResolvedSwapLeg leg : swap.getLegs()) {
+            currency = currency == null ? leg.getCurrency() : currency;
+            ArgChecker.isTrue(leg.getCurrency().equals(currency),
+                "All swaps must be in the same currency, but found {} and {}", currency, leg.getCurrency());
+          }
+        }
+      }
+      ArgChecker.isTrue(currency != null, "Netting sets must contain at least one swap");
+      return currency;
+    }
+
+    // the index of a curve, adding it with its discount factor ratios if not present
+    private int curveIndex(Curve curve, Map<Curve, Integer> curveIndices) {
+      Integer existing = curveIndices.get(curve);
+      if (existing != null) {
+        return existing;
+      }
+      DiscountFactors discountFactors = DiscountFactors.of(currency, baseProvider.getValuationDate(), curve);
+      int nbNodes = NODE_TENORS.size();
+      double[][] ratios = new double[gridDates.size()][nbNodes];
+      for (int k = 0; k < gridDates.size(); k++) {
+        LocalDate gridDate = gridDates.get(k);
+        double logGrid = Math.log(discountFactors.discountFactor(gridDate));
+        for (int i = 0; i < nbNodes; i++) {
+          ratios[k][i] = Math.log(discountFactors.discountFactor(gridDate.plus(NODE_TENORS.get(i)))) - logGrid;
+        }
+      }
+      int index = curves.size();
+      curves.add(curve);
+      curveMetadata.add(Curves.zeroRates(curve.getName(), ACT_365F));
+      logRatios.add(ratios);
+      curveIndices.put(curve, index);
+      return index;
+    }
+
+    // finds the fixings of the unpaid periods that are not in the time-series, and splits them by grid date
+    private void initFixings(ImmutableRatesProvider ratesProvider) {
+      Map<IborIndex, TreeMap<LocalDate, IborIndexObservation>> ibor = new HashMap<>();
+      Map<OvernightIndex, TreeMap<LocalDate, OvernightIndexObservation>> overnight = new HashMap<>();
+      for (List<SwapEntry> set : swaps) {
+        for (SwapEntry entry : set) {
+          for (ResolvedSwapLeg leg : entry.swap.getLegs()) {
+            for (PaymentPeriod period : leg.getPaymentPeriods()) {
+              boolean unpaid = !period.getPaymentDate().isBefore(ratesProvider.getValuationDate());
+              if (period instanceof RatePaymentPeriod && unpaid) {
+                for (RateAccrualPeriod accrual : ((RatePaymentPeriod) period).getAccrualPeriods()) {
+                  addObservations(accrual.getRateObservation(), ibor, overnight);
+                }
+              }
+            }
+          }
+        }
+      }
+      LocalDate lastDate = gridDates.get(gridDates.size() - 1);
+      for (int k = 0; k < gridDates.size(); k++) {
+        iborFixings.add(new ArrayList<>());
+        overnightFixings.add(new ArrayList<>());
+      }
+      for (TreeMap<LocalDate, IborIndexObservation> observations : ibor.values()) {
+        IborIndex index = observations.firstEntry().getValue().getIndex();
+        LocalDateDoubleTimeSeries ts = baseFixings(index, observations.firstKey(), ratesProvider);
+        for (IborIndexObservation observation : observations.headMap(lastDate).values()) {
+          if (!ts.get(observation.getFixingDate()).isPresent()) {
+            iborFixings.get(gridIndex(observation.getFixingDate())).add(observation);
+          }
+        }
+      }
+      for (TreeMap<LocalDate, OvernightIndexObservation> observations : overnight.values()) {
+        OvernightIndex index = observations.firstEntry().getValue().getIndex();
+        LocalDateDoubleTimeSeries ts = baseFixings(index, observations.firstKey(), ratesProvider);
+        for (OvernightIndexObservation observation : observations.headMap(lastDate).values()) {
+          if (!ts.get(observation.getFixingDate()).isPresent()) {
+            overnightFixings.get(gridIndex(observation.getFixingDate())).add(observation);
+          }
+        }
+      }
+    }
+
+    // collects the index observations of a rate observation
+    private static void addObservations(
+        RateObservation observation,
+        Map<IborIndex, TreeMap<LocalDate, IborIndexObservation>> ibor,
+        Map<OvernightIndex, TreeMap<LocalDate, OvernightIndexObservation>> overnight) {
+
+      if (observation instanceof IborRateObservation) {
+        addIbor(((IborRateObservation) observation).getObservation(), ibor);
+      } else if (observation instanceof IborInterpolatedRateObservation) {
+        addIbor(((IborInterpolatedRateObservation) observation).getShortObservation(), ibor);
+        addIbor(((IborInterpolatedRateObservation) observation).getLongObservation(), ibor);
+      } else if (observation instanceof IborAveragedRateObservation) {
+        for (IborAveragedFixing fixing : ((IborAveragedRateObservation) observation).getFixings()) {
+          addIbor(fixing.getObservation(), ibor);
+        }
+      } else if (observation instanceof OvernightCompoundedRateObservation) {
+        OvernightCompoundedRateObservation on = (OvernightCompoundedRateObservation) observation;
+        TreeMap<LocalDate, OvernightIndexObservation> map =
+            overnight.computeIfAbsent(on.getIndex(), i -> new TreeMap<>());
+        HolidayCalendar calendar = on.getFixingCalendar();
+        for (LocalDate date = on.getStartDate(); date.isBefore(on.getEndDate()); date = calendar.next(date)) {
+          map.put(date, on.observeOn(date));
+        }
+      } else if (observation instanceof OvernightAveragedRateObservation) {
+        OvernightAveragedRateObservation on = (OvernightAveragedRateObservation) observation;
+        TreeMap<LocalDate, OvernightIndexObservation> map =
+            overnight.computeIfAbsent(on.getIndex(), i -> new TreeMap<>());
+        HolidayCalendar calendar = on.getFixingCalendar();
+        for (LocalDate date = on.getStartDate(); date.isBefore(on.getEndDate()); date = calendar.next(date)) {
+          map.put(date, on.observeOn(date));
+        }
+      }
+    }
+
+    private static void addIbor(
+        IborIndexObservation observation,
+        Map<IborIndex, TreeMap<LocalDate, IborIndexObservation>> ibor) {
+
+      ibor.computeIfAbsent(observation.getIndex(), i -> new TreeMap<>()).put(observation.getFixingDate(), observation);
+    }
+
+    // the time-series of an index from the first fixing used, as the earlier fixings are never needed
+    private LocalDateDoubleTimeSeries baseFixings(
+        Index index,
+        LocalDate firstFixing,
+        ImmutableRatesProvider ratesProvider) {
+
+      LocalDateDoubleTimeSeries ts =
+          ratesProvider.getTimeSeries().getOrDefault(index, LocalDateDoubleTimeSeries.empty());
+      LocalDateDoubleTimeSeries used = ts.filter((date, value) -> !date.isBefore(firstFixing));
+      baseFixings.put(index, used);
+      return used;
+    }
+
+    // the index of the first grid date after the fixing date
+    private int gridIndex(LocalDate fixingDate) {
+      int k = 0;
+      while (!gridDates.get(k).isAfter(fixingDate)) {
+        k++;
+      }
+      return k;
+    }
+
+    //-------------------------------------------------------------------------
+    private DoubleArray observationTimes() {
+      return DoubleArray.ofUnsafe(gridTimes);
+    }
+
+    private DoubleArray maturityTimes() {
+      return DoubleArray.ofUnsafe(nodeTimes);
+    }
+
+    // the time-series builders of a new path
+    private Map<Index, LocalDateDoubleTimeSeriesBuilder> initialFixings() {
+      Map<Index, LocalDateDoubleTimeSeriesBuilder> fixings = new HashMap<>();
+      for (Map.Entry<Index, LocalDateDoubleTimeSeries> entry : baseFixings.entrySet()) {
+        fixings.put(entry.getKey(), entry.getValue().toBuilder());
+      }
+      return fixings;
+    }
+
+    // the provider on a grid date of a path, the fixings being set from the provider of the previous date
+    private ImmutableRatesProvider provider(
+        int k,
+        HullWhiteMonteCarloPath path,
+        ImmutableRatesProvider previous,
+        Map<Index, LocalDateDoubleTimeSeriesBuilder> fixings) {
+
+      for (IborIndexObservation observation : iborFixings.get(k)) {
+        double rate = previous.iborIndexRates(observation.getIndex()).rate(observation);
+        fixings.get(observation.getIndex()).put(observation.getFixingDate(), rate);
+      }
+      for (OvernightIndexObservation observation : overnightFixings.get(k)) {
+        double rate = previous.overnightIndexRates(observation.getIndex()).rate(observation);
+        fixings.get(observation.getIndex()).put(observation.getFixingDate(), rate);
+      }
+      ImmutableRatesProviderBuilder builder = baseProvider.toBuilder(gridDates.get(k));
+      for (Map.Entry<Index, LocalDateDoubleTimeSeriesBuilder> entry : fixings.entrySet()) {
+        builder.timeSeries(entry.getKey(), entry.getValue().build());
+      }
+      Curve[] simulated = new Curve[curves.size()];
+      for (int c = 0; c < simulated.length; c++) {
+        simulated[c] = simulatedCurve(c, k, path);
+      }
+      builder.discountCurve(currency, simulated[discountCurve]);
+      for (Map.Entry<Index, Integer> entry : indexCurves.entrySet()) {
+        builder.indexCurve(entry.getKey(), simulated[entry.getValue()]);
+      }
+      return builder.build();
+    }
+
+    // the zero-rate curve on a grid date of a path
+    private Curve simulatedCurve(int c, int k, HullWhiteMonteCarloPath path) {
+      int nbNodes = NODE_TENORS.size();
+      double[][] ratios = logRatios.get(c);
+      double logObservation = Math.log(path.observationFactor(k));
+      double[] rates = new double[nbNodes];
+      for (int i = 0; i < nbNodes; i++) {
+        double logBond = ratios[k][i] + Math.log(path.bondFactor(k, k * nbNodes + i)) - logObservation;
+        rates[i] = -logBond / curveTimes[k].get(i);
+      }
+      return InterpolatedNodalCurve.of(
+          curveMetadata.get(c), curveTimes[k], DoubleArray.ofUnsafe(rates), CurveInterpolators.LINEAR);
+    }
+  }
+
+}
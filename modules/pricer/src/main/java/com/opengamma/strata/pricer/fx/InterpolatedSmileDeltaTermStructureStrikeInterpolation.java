@@ -30,6 +30,8 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
@@ -51,11 +53,20 @@ import com.opengamma.strata.market.interpolator.CurveInterpolator;
  * <p>
  * The default for the time direction is time squire interpolation with flat extrapolation.
  * The default for the strike direction is linear interpolation with flat extrapolation.
+ * <p>
+ * The smile for an expiry and forward, bound to the strike interpolator, is cached.
+ * Options sharing the same expiry and forward thus share the same smile.
+ * The cache is bounded, with the least recently used smiles being discarded first.
  */
 @BeanDefinition(builderScope = "private")
 public final class InterpolatedSmileDeltaTermStructureStrikeInterpolation
     implements InterpolatedSmileDeltaTermStructure, ImmutableBean, Serializable {
 
+  /**
+   * The maximum number of bound smiles to cache.
+   */
+  private static final int SMILE_CACHE_SIZE = 1000;
+
   /**
    * The name of the smile term structure.
    */
@@ -104,6 +115,10 @@ public final class InterpolatedSmileDeltaTermStructureStrikeInterpolation
    */
   @PropertyDefinition(validate = "notNull", overrideGet = true)
   private final DoubleArray timeToExpiry;
+  /**
+   * The cache of smiles bound to the strike interpolator, keyed by expiry time and forward.
+   */
+  private final transient Cache<SmileKey, BoundCurveInterpolator> smileCache;  // derived, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -495,32 +510,94 @@ public final class InterpolatedSmileDeltaTermStructureStrikeInterpolation
     this.strikeInterpolator = strikeInterpolator;
     this.strikeRightExtrapolator = strikeRightExtrapolator;
     this.timeToExpiry = timeToExpiry;
+    this.smileCache = CacheBuilder.newBuilder()
+        .maximumSize(SMILE_CACHE_SIZE)
+        .build();
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new InterpolatedSmileDeltaTermStructureStrikeInterpolation(
+        name,
+        volatilityTerm,
+        timeLeftExtrapolator,
+        timeInterpolator,
+        timeRightExtrapolator,
+        strikeLeftExtrapolator,
+        strikeInterpolator,
+        strikeRightExtrapolator,
+        timeToExpiry);
   }
 
   //-------------------------------------------------------------------------
   @Override
   public double volatility(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForTime(time);
-    DoubleArray strikes = smile.getStrike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeLeftExtrapolator, strikeRightExtrapolator);
-    return bound.interpolate(strike);
+    return boundSmile(time, forward).interpolate(strike);
+  }
+
+  @Override
+  public DoubleArray volatilities(double time, DoubleArray strikes, double forward) {
+    ArgChecker.isTrue(time >= 0, "Positive time");
+    BoundCurveInterpolator bound = boundSmile(time, forward);
+    return strikes.map(bound::interpolate);
   }
 
   @Override
   public VolatilityAndBucketedSensitivities volatilityAndSensitivities(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForTime(time);
-    DoubleArray strikes = smile.getStrike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeLeftExtrapolator, strikeRightExtrapolator);
+    BoundCurveInterpolator bound = boundSmile(time, forward);
     double volatility = bound.interpolate(strike);
     DoubleArray smileVolatilityBar = bound.parameterSensitivity(strike);
     SmileAndBucketedSensitivities smileAndSensitivities = smileAndSensitivitiesForTime(time, smileVolatilityBar);
     return VolatilityAndBucketedSensitivities.of(volatility, smileAndSensitivities.getSensitivities());
   }
 
+  // obtains the smile for the time and forward bound to the strike interpolator, using the cache
+  // the bound interpolator is immutable, thus it is harmless if two threads bind the same smile
+  private BoundCurveInterpolator boundSmile(double time, double forward) {
+    SmileKey key = new SmileKey(time, forward);
+    BoundCurveInterpolator cached = smileCache.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    SmileDeltaParameters smile = smileForTime(time);
+    DoubleArray strikes = smile.getStrike(forward);
+    BoundCurveInterpolator bound = strikeInterpolator.bind(
+        strikes, smile.getVolatility(), strikeLeftExtrapolator, strikeRightExtrapolator);
+    smileCache.put(key, bound);
+    return bound;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The key of the smile cache, the expiry time and forward.
+   */
+  private static final class SmileKey {
+    private final double time;
+    private final double forward;
+
+    private SmileKey(double time, double forward) {
+      this.time = time;
+      this.forward = forward;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof SmileKey) {
+        SmileKey other = (SmileKey) obj;
+        return Double.doubleToLongBits(time) == Double.doubleToLongBits(other.time) &&
+            Double.doubleToLongBits(forward) == Double.doubleToLongBits(other.forward);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Double.hashCode(time) * 31 + Double.hashCode(forward);
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
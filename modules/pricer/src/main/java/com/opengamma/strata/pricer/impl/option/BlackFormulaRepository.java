@@ -339,6 +339,67 @@ public final class BlackFormulaRepository {
     return sum;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the forward price, the forward driftless delta and the forward vega of a set of options.
+   * <p>
+   * The results are the same as those of {@link #price(double, double, double, double, boolean)},
+   * {@link #delta(double, double, double, double, boolean)} and {@link #vega(double, double, double, double)}
+   * applied to each option, but the common terms are computed once for each option.
+   * The results are written in the output arrays, which must have the same length as the input arrays.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCalls  true for call, false for put
+   * @param prices  the array to receive the forward prices
+   * @param deltas  the array to receive the forward driftless deltas
+   * @param vegas  the array to receive the forward vegas
+   */
+  public static void priceDeltaVega(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] lognormalVols,
+      boolean[] isCalls,
+      double[] prices,
+      double[] deltas,
+      double[] vegas) {
+
+    int size = forwards.length;
+    ArgChecker.isTrue(strikes.length == size && timesToExpiry.length == size && lognormalVols.length == size &&
+        isCalls.length == size, "input arrays must have the same length");
+    ArgChecker.isTrue(prices.length == size && deltas.length == size && vegas.length == size,
+        "output arrays must have the same length as the input arrays");
+    for (int i = 0; i < size; i++) {
+      double forward = forwards[i];
+      double strike = strikes[i];
+      double rootT = Math.sqrt(timesToExpiry[i]);
+      double sigmaRootT = lognormalVols[i] * rootT;
+      boolean isCall = isCalls[i];
+      // the limit cases, including the invalid inputs, are handled by the scalar formulas
+      if (!(sigmaRootT >= SMALL && sigmaRootT <= LARGE && forward > 0d && forward <= LARGE && strike > 0d &&
+          strike <= LARGE && Math.abs(forward - strike) >= SMALL)) {
+        prices[i] = price(forward, strike, timesToExpiry[i], lognormalVols[i], isCall);
+        deltas[i] = delta(forward, strike, timesToExpiry[i], lognormalVols[i], isCall);
+        vegas[i] = vega(forward, strike, timesToExpiry[i], lognormalVols[i]);
+        continue;
+      }
+      int sign = isCall ? 1 : -1;
+      double d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
+      double d2 = d1 - sigmaRootT;
+      double nF = NORMAL.getCDF(sign * d1);
+      double nS = NORMAL.getCDF(sign * d2);
+      double first = nF == 0d ? 0d : forward * nF;
+      double second = nS == 0d ? 0d : strike * nS;
+      prices[i] = Math.max(0d, sign * (first - second));
+      deltas[i] = sign * nF;
+      double nVal = NORMAL.getPDF(d1);
+      vegas[i] = nVal == 0d ? 0d : forward * rootT * nVal;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the forward driftless delta.
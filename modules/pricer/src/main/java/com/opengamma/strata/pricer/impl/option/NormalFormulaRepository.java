@@ -138,6 +138,61 @@ public final class NormalFormulaRepository {
     return ValueDerivatives.of(price, DoubleArray.of(forwardDerivative, volatilityDerivative, strikeDerivative));
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the forward price, the delta and the vega of a set of options in the normally distributed assets
+   * hypothesis (Bachelier model).
+   * <p>
+   * The results are the same as those of {@link #price(double, double, double, double, PutCall)},
+   * {@link #delta(double, double, double, double, PutCall)} and {@link #vega(double, double, double, double, PutCall)}
+   * applied to each option, but the common terms are computed once for each option.
+   * The results are written in the output arrays, which must have the same length as the input arrays.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param isCalls  true for call, false for put
+   * @param prices  the array to receive the forward prices
+   * @param deltas  the array to receive the deltas
+   * @param vegas  the array to receive the vegas
+   */
+  public static void priceDeltaVega(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] normalVols,
+      boolean[] isCalls,
+      double[] prices,
+      double[] deltas,
+      double[] vegas) {
+
+    int size = forwards.length;
+    ArgChecker.isTrue(strikes.length == size && timesToExpiry.length == size && normalVols.length == size &&
+        isCalls.length == size, "input arrays must have the same length");
+    ArgChecker.isTrue(prices.length == size && deltas.length == size && vegas.length == size,
+        "output arrays must have the same length as the input arrays");
+    for (int i = 0; i < size; i++) {
+      double rootT = Math.sqrt(timesToExpiry[i]);
+      double sigmaRootT = normalVols[i] * rootT;
+      // the limit cases are handled by the scalar formulas
+      if (!(sigmaRootT >= NEAR_ZERO)) {
+        PutCall putCall = PutCall.ofPut(!isCalls[i]);
+        prices[i] = price(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+        deltas[i] = delta(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+        vegas[i] = vega(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+        continue;
+      }
+      int sign = isCalls[i] ? 1 : -1;
+      double arg = sign * (forwards[i] - strikes[i]) / sigmaRootT;
+      double cdf = DISTRIBUTION.getCDF(arg);
+      double pdf = DISTRIBUTION.getPDF(arg);
+      prices[i] = sign * (forwards[i] - strikes[i]) * cdf + sigmaRootT * pdf;
+      deltas[i] = sign * cdf;
+      vegas[i] = pdf * rootT;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the delta.
@@ -13,6 +13,7 @@ import com.opengamma.strata.basics.index.OvernightIndex;
 import com.opengamma.strata.basics.index.OvernightIndexObservation;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.tuple.ObjDoublePair;
+import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
@@ -128,6 +129,16 @@ public class ForwardOvernightCompoundedRateObservationFn
       double compositionFactor = 1.0d;
       LocalDate currentFixing = firstFixing;
       LocalDate currentPublication = observation.calculatePublicationFromFixing(currentFixing);
+      if (currentFixing.isBefore(lastFixingNonCutoff) && rates.getValuationDate().isAfter(currentPublication)) {
+        // seasoned period: use the cumulative compounded fixings shared by all periods using the time-series
+        Pair<Double, LocalDate> compounded = OvernightCompoundedFixings.of(observation, indexFixingDateSeries)
+            .compoundedFixings(currentFixing, lastFixingNonCutoff, rates.getValuationDate());
+        if (compounded != null) {
+          compositionFactor = compounded.getFirst();
+          currentFixing = compounded.getSecond();
+          currentPublication = observation.calculatePublicationFromFixing(currentFixing);
+        }
+      }
       while ((currentFixing.isBefore(lastFixingNonCutoff)) && // fixing in the non-cutoff period
           rates.getValuationDate().isAfter(currentPublication)) { // publication before valuation
         LocalDate effectiveDate = observation.calculateEffectiveFromFixing(currentFixing);
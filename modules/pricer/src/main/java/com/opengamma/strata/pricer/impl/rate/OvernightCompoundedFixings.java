@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateObservation;
+
+/**
+ * The cumulative compounded value of the fixings of an overnight index.
+ * <p>
+ * This holds, for each fixing date in the range of the time-series, the product of
+ * {@code (1 + accrualFactor * rate)} for all earlier fixing dates.
+ * The compounded value of the fixings between two dates is then the ratio of two values.
+ * <p>
+ * Instances are cached against the time-series of fixings, which is typically shared by all
+ * the rates providers and scenarios using the same fixings. The cache holds the time-series
+ * using weak references, thus instances are discarded when the time-series is no longer used.
+ */
+final class OvernightCompoundedFixings {
+
+  /**
+   * The cache, keyed by the identity of the time-series.
+   */
+  private static final Cache<LocalDateDoubleTimeSeries,
+      Map<Pair<OvernightIndex, HolidayCalendar>, OvernightCompoundedFixings>> CACHE = CacheBuilder.newBuilder()
+          .weakKeys()
+          .build();
+
+  /**
+   * The fixing dates, as epoch days, one for each business day in the time-series range.
+   */
+  private final long[] fixingDates;
+  /**
+   * The publication dates, as epoch days, one for each fixing date.
+   */
+  private final long[] publicationDates;
+  /**
+   * The cumulative compounded value, one more than the number of fixing dates.
+   * Element {@code i} is the compounded value of all fixings before fixing date {@code i}.
+   */
+  private final double[] compounded;
+  /**
+   * The cumulative number of missing fixings, one more than the number of fixing dates.
+   * Element {@code i} is the number of fixings missing before fixing date {@code i}.
+   */
+  private final int[] missing;
+  /**
+   * The first fixing date after the range of the time-series, as an epoch day.
+   */
+  private final long nextFixingDate;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the cumulative compounded fixings for the observation.
+   * <p>
+   * The result depends only on the index and fixing calendar of the observation, and the fixings.
+   * The instance is built the first time it is requested and cached thereafter.
+   *
+   * @param observation  the observation, defining the index and fixing calendar
+   * @param fixings  the fixings
+   * @return the cumulative compounded fixings
+   */
+  static OvernightCompoundedFixings of(
+      OvernightCompoundedRateObservation observation,
+      LocalDateDoubleTimeSeries fixings) {
+
+    Map<Pair<OvernightIndex, HolidayCalendar>, OvernightCompoundedFixings> map =
+        Unchecked.wrap(() -> CACHE.get(fixings, ConcurrentHashMap::new));
+    Pair<OvernightIndex, HolidayCalendar> key = Pair.of(observation.getIndex(), observation.getFixingCalendar());
+    OvernightCompoundedFixings cached = map.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    return map.computeIfAbsent(key, k -> build(observation, fixings));
+  }
+
+  // builds the cumulative values by walking every business day in the range of the time-series
+  private static OvernightCompoundedFixings build(
+      OvernightCompoundedRateObservation observation,
+      LocalDateDoubleTimeSeries fixings) {
+
+    if (fixings.isEmpty()) {
+      return new OvernightCompoundedFixings(new long[0], new long[0], new double[] {1d}, new int[] {0}, 0);
+    }
+    HolidayCalendar calendar = observation.getFixingCalendar();
+    DayCount dayCount = observation.getIndex().getDayCount();
+    LocalDate end = fixings.getLatestDate();
+    int size = calendar.daysBetween(fixings.getEarliestDate(), end) + 1;
+    long[] fixingDates = new long[size];
+    long[] publicationDates = new long[size];
+    double[] compounded = new double[size + 1];
+    int[] missing = new int[size + 1];
+    compounded[0] = 1d;
+    LocalDate fixingDate = calendar.nextOrSame(fixings.getEarliestDate());
+    int count = 0;
+    while (!fixingDate.isAfter(end)) {
+      LocalDate effectiveDate = observation.calculateEffectiveFromFixing(fixingDate);
+      LocalDate maturityDate = observation.calculateMaturityFromEffective(effectiveDate);
+      double accrualFactor = dayCount.yearFraction(effectiveDate, maturityDate);
+      OptionalDouble rate = fixings.get(fixingDate);
+      fixingDates[count] = fixingDate.toEpochDay();
+      publicationDates[count] = observation.calculatePublicationFromFixing(fixingDate).toEpochDay();
+      compounded[count + 1] = compounded[count] * (1d + accrualFactor * rate.orElse(0d));
+      missing[count + 1] = missing[count] + (rate.isPresent() ? 0 : 1);
+      count++;
+      fixingDate = calendar.next(fixingDate);
+    }
+    return new OvernightCompoundedFixings(
+        Arrays.copyOf(fixingDates, count),
+        Arrays.copyOf(publicationDates, count),
+        Arrays.copyOf(compounded, count + 1),
+        Arrays.copyOf(missing, count + 1),
+        fixingDate.toEpochDay());
+  }
+
+  // restricted constructor
+  private OvernightCompoundedFixings(
+      long[] fixingDates,
+      long[] publicationDates,
+      double[] compounded,
+      int[] missing,
+      long nextFixingDate) {
+
+    this.fixingDates = fixingDates;
+    this.publicationDates = publicationDates;
+    this.compounded = compounded;
+    this.missing = missing;
+    this.nextFixingDate = nextFixingDate;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the compounded value of the fixings from the first fixing date that are
+   * published before the valuation date and are before the end fixing date.
+   * <p>
+   * Starting from the first fixing date, this compounds each fixing until reaching a fixing date that
+   * is on or after the end fixing date, or whose publication date is on or after the valuation date.
+   * The result contains the compounded value and the fixing date that stopped the compounding.
+   * <p>
+   * If the compounding would continue beyond the end of the time-series, the result contains the
+   * compounded value of the fixings up to the last date of the time-series, and the next fixing date.
+   * This is the normal case for an index whose latest fixing is not yet in the time-series.
+   * The caller continues the compounding from that fixing date.
+   * <p>
+   * Null is returned if the result cannot be determined from the fixings, such as when a fixing is
+   * missing or the first fixing date is not in the time-series.
+   *
+   * @param firstFixing  the first fixing date
+   * @param endFixing  the end fixing date, exclusive
+   * @param valuationDate  the valuation date
+   * @return the compounded value and the next fixing date, null if not available
+   */
+  Pair<Double, LocalDate> compoundedFixings(LocalDate firstFixing, LocalDate endFixing, LocalDate valuationDate) {
+    int start = Arrays.binarySearch(fixingDates, firstFixing.toEpochDay());
+    if (start < 0) {
+      return null;
+    }
+    long endEpochDay = endFixing.toEpochDay();
+    long valuationEpochDay = valuationDate.toEpochDay();
+    // binary search for the first fixing that stops the compounding, the condition being monotonic
+    int low = start;
+    int high = fixingDates.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (fixingDates[mid] >= endEpochDay || publicationDates[mid] >= valuationEpochDay) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    if (missing[low] != missing[start]) {
+      return null;
+    }
+    long stopFixingDate = low == fixingDates.length ? nextFixingDate : fixingDates[low];
+    return Pair.of(compounded[low] / compounded[start], LocalDate.ofEpochDay(stopFixingDate));
+  }
+
+}
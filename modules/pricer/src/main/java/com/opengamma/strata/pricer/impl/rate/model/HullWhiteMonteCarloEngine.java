@@ -0,0 +1,410 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.random.NormalRandomNumberGenerator;
+import com.opengamma.strata.math.impl.random.SobolSequenceGenerator;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+
+import cern.jet.random.engine.MersenneTwister;
+
+/**
+ * Monte Carlo simulation engine for the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The paths are simulated exactly on the observation times, under the forward measure associated
+ * with the last observation time, see {@link HullWhiteMonteCarloPath}.
+ * The value of a product is provided by a {@link HullWhiteMonteCarloPayoff} evaluated on each path.
+ * <p>
+ * The paths are split into blocks of fixed size. Each block has its own random stream, determined only
+ * by the seed and the index of the block, and the results of the blocks are combined in block order.
+ * The result is thus the same whether the blocks are simulated sequentially or in parallel.
+ * <p>
+ * Three sampling methods are available:
+ * <ul>
+ * <li>pseudo-random, using a Mersenne twister for each block
+ * <li>pseudo-random with antithetic variates, each set of normal draws being used with both signs
+ * <li>quasi-random, using a Sobol sequence, limited to {@link SobolSequenceGenerator#MAX_DIMENSION} observation times
+ * </ul>
+ */
+public final class HullWhiteMonteCarloEngine {
+
+  /**
+   * The default number of paths in each block.
+   */
+  private static final int DEFAULT_BLOCK_SIZE = 1024;
+  /**
+   * The standard normal distribution, used to convert quasi-random numbers.
+   */
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  /**
+   * The Hull-White model.
+   */
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+
+  /**
+   * The number of paths.
+   */
+  private final int pathCount;
+  /**
+   * The number of paths in each block.
+   */
+  private final int blockSize;
+  /**
+   * The seed of the pseudo-random streams.
+   */
+  private final long seed;
+  /**
+   * Whether antithetic variates are used.
+   */
+  private final boolean antithetic;
+  /**
+   * Whether a Sobol sequence is used.
+   */
+  private final boolean sobol;
+  /**
+   * Whether the blocks are simulated in parallel.
+   */
+  private final boolean parallel;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an engine using pseudo-random numbers.
+   * <p>
+   * The blocks are simulated in parallel.
+   *
+   * @param pathCount  the number of paths
+   * @param seed  the seed of the random streams
+   * @return the engine
+   */
+  public static HullWhiteMonteCarloEngine of(int pathCount, long seed) {
+    return new HullWhiteMonteCarloEngine(pathCount, DEFAULT_BLOCK_SIZE, seed, false, false, true);
+  }
+
+  /**
+   * Obtains an engine using pseudo-random numbers with antithetic variates.
+   * <p>
+   * The number of paths includes the antithetic paths, and must be even.
+   * The blocks are simulated in parallel.
+   *
+   * @param pathCount  the number of paths
+   * @param seed  the seed of the random streams
+   * @return the engine
+   */
+  public static HullWhiteMonteCarloEngine ofAntithetic(int pathCount, long seed) {
+    return new HullWhiteMonteCarloEngine(pathCount, DEFAULT_BLOCK_SIZE, seed, true, false, true);
+  }
+
+  /**
+   * Obtains an engine using a Sobol quasi-random sequence.
+   * <p>
+   * A number of paths equal to a power of two minus one gives the best uniformity.
+   * The blocks are simulated in parallel.
+   *
+   * @param pathCount  the number of paths
+   * @return the engine
+   */
+  public static HullWhiteMonteCarloEngine ofSobol(int pathCount) {
+    return new HullWhiteMonteCarloEngine(pathCount, DEFAULT_BLOCK_SIZE, 0L, false, true, true);
+  }
+
+  // restricted constructor
+  private HullWhiteMonteCarloEngine(
+      int pathCount,
+      int blockSize,
+      long seed,
+      boolean antithetic,
+      boolean sobol,
+      boolean parallel) {
+
+    ArgChecker.notNegativeOrZero(pathCount, "pathCount");
+    ArgChecker.notNegativeOrZero(blockSize, "blockSize");
+    if (antithetic) {
+      ArgChecker.isTrue(pathCount % 2 == 0, "pathCount must be even when using antithetic variates");
+      ArgChecker.isTrue(blockSize % 2 == 0, "blockSize must be even when using antithetic variates");
+    }
+    this.pathCount = pathCount;
+    this.blockSize = blockSize;
+    this.seed = seed;
+    this.antithetic = antithetic;
+    this.sobol = sobol;
+    this.parallel = parallel;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this engine with the specified block size.
+   * <p>
+   * The block size determines the random streams, thus changing it changes the result of pseudo-random sampling.
+   *
+   * @param blockSize  the number of paths in each block
+   * @return the engine
+   */
+  public HullWhiteMonteCarloEngine withBlockSize(int blockSize) {
+    return new HullWhiteMonteCarloEngine(pathCount, blockSize, seed, antithetic, sobol, parallel);
+  }
+
+  /**
+   * Returns a copy of this engine simulating the blocks in parallel or sequentially.
+   * <p>
+   * This does not change the result.
+   *
+   * @param parallel  true to simulate the blocks in parallel
+   * @return the engine
+   */
+  public HullWhiteMonteCarloEngine withParallel(boolean parallel) {
+    return new HullWhiteMonteCarloEngine(pathCount, blockSize, seed, antithetic, sobol, parallel);
+  }
+
+  /**
+   * Gets the number of paths.
+   *
+   * @return the number of paths
+   */
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Simulates the paths and averages the values of the payoff.
+   * <p>
+   * The times are expressed as year fractions from the valuation date of the model parameters.
+   * The last observation time is the numeraire time.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param observationTimes  the observation times, increasing and not negative
+   * @param maturityTimes  the maturity times of the bonds used by the payoff
+   * @param valueCount  the number of values calculated by the payoff
+   * @param payoff  the payoff
+   * @return the result
+   */
+  public HullWhiteMonteCarloResult simulate(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray observationTimes,
+      DoubleArray maturityTimes,
+      int valueCount,
+      HullWhiteMonteCarloPayoff payoff) {
+
+    ArgChecker.notNegativeOrZero(valueCount, "valueCount");
+    ArgChecker.notNull(payoff, "payoff");
+    List<BlockSums> blockSums = simulateBlocks(
+        parameters,
+        observationTimes,
+        maturityTimes,
+        blockPathCount -> new BlockSums(valueCount),
+        (sums, path, antitheticPath) -> sums.add(path, antitheticPath, payoff));
+    // combine in block order, so that the result does not depend on the threads
+    double[] sum = new double[valueCount];
+    double[] sumSquare = new double[valueCount];
+    for (BlockSums blockSum : blockSums) {
+      for (int i = 0; i < valueCount; i++) {
+        sum[i] += blockSum.sum[i];
+        sumSquare[i] += blockSum.sumSquare[i];
+      }
+    }
+    int sampleCount = antithetic ? pathCount / 2 : pathCount;
+    double[] values = new double[valueCount];
+    double[] errors = new double[valueCount];
+    for (int i = 0; i < valueCount; i++) {
+      values[i] = sum[i] / sampleCount;
+      double variance = sumSquare[i] / sampleCount - values[i] * values[i];
+      errors[i] = Math.sqrt(Math.max(variance, 0d) / sampleCount);
+    }
+    return new HullWhiteMonteCarloResult(DoubleArray.ofUnsafe(values), DoubleArray.ofUnsafe(errors), pathCount);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Simulates the paths block by block, passing each path to a consumer.
+   * <p>
+   * This is the low level form of {@link #simulate}, for payoffs that need more than the average of a set of values,
+   * such as quantiles or path dependent aggregation.
+   * A result object is created for each block, with the number of paths in the block,
+   * and each path of the block is passed to the consumer with the result of its block.
+   * The blocks may be simulated in parallel, but the paths of a block are always passed sequentially,
+   * thus the result object does not have to be thread-safe.
+   * <p>
+   * When antithetic variates are used, the consumer is called for both paths of each pair, in turn.
+   * The path passed to the consumer is reused and must not be retained.
+   *
+   * @param <R>  the type of the result of a block
+   * @param parameters  the Hull-White model parameters
+   * @param observationTimes  the observation times, increasing and not negative
+   * @param maturityTimes  the maturity times of the bonds used by the consumer
+   * @param blockResultFactory  the factory of the result of a block, taking the number of paths in the block
+   * @param pathConsumer  the consumer of the paths
+   * @return the results of the blocks, in block order
+   */
+  public <R> List<R> simulateBlocks(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray observationTimes,
+      DoubleArray maturityTimes,
+      IntFunction<R> blockResultFactory,
+      BiConsumer<R, HullWhiteMonteCarloPath> pathConsumer) {
+
+    ArgChecker.notNull(pathConsumer, "pathConsumer");
+    return simulateBlocks(
+        parameters,
+        observationTimes,
+        maturityTimes,
+        blockResultFactory,
+        (result, path, antitheticPath) -> pathConsumer.accept(result, path));
+  }
+
+  // simulates the blocks, checking the inputs
+  private <R> List<R> simulateBlocks(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray observationTimes,
+      DoubleArray maturityTimes,
+      IntFunction<R> blockResultFactory,
+      PathConsumer<R> pathConsumer) {
+
+    ArgChecker.notNull(parameters, "parameters");
+    ArgChecker.notNull(observationTimes, "observationTimes");
+    ArgChecker.notNull(maturityTimes, "maturityTimes");
+    ArgChecker.notNull(blockResultFactory, "blockResultFactory");
+    ArgChecker.isFalse(observationTimes.isEmpty(), "observationTimes must not be empty");
+    ArgChecker.isTrue(observationTimes.get(0) >= 0d, "observation times must not be negative");
+    for (int i = 1; i < observationTimes.size(); i++) {
+      ArgChecker.isTrue(observationTimes.get(i - 1) < observationTimes.get(i), "observation times must be increasing");
+    }
+    int dimension = observationTimes.size();
+    if (sobol) {
+      ArgChecker.isTrue(dimension <= SobolSequenceGenerator.MAX_DIMENSION,
+          "Sobol sequence supports at most {} observation times", SobolSequenceGenerator.MAX_DIMENSION);
+    }
+    double[] obsTimes = observationTimes.toArray();
+    double[] matTimes = maturityTimes.toArray();
+    int blockCount = (pathCount + blockSize - 1) / blockSize;
+    IntStream blocks = IntStream.range(0, blockCount);
+    if (parallel) {
+      blocks = blocks.parallel();
+    }
+    return blocks
+        .mapToObj(block -> simulateBlock(block, parameters, obsTimes, matTimes, blockResultFactory, pathConsumer))
+        .collect(toImmutableList());
+  }
+
+  // simulates a block, passing each path to the consumer
+  private <R> R simulateBlock(
+      int block,
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      double[] observationTimes,
+      double[] maturityTimes,
+      IntFunction<R> blockResultFactory,
+      PathConsumer<R> pathConsumer) {
+
+    int start = block * blockSize;
+    int blockPathCount = Math.min(blockSize, pathCount - start);
+    int dimension = observationTimes.length;
+    int drawCount = antithetic ? blockPathCount / 2 : blockPathCount;
+    double[] normals = normals(start, drawCount, dimension);
+    HullWhiteMonteCarloPath path = new HullWhiteMonteCarloPath(parameters, MODEL, observationTimes, maturityTimes);
+    R result = blockResultFactory.apply(blockPathCount);
+    for (int draw = 0; draw < drawCount; draw++) {
+      path.reset(normals, draw * dimension, 1d);
+      pathConsumer.accept(result, path, false);
+      if (antithetic) {
+        path.reset(normals, draw * dimension, -1d);
+        pathConsumer.accept(result, path, true);
+      }
+    }
+    return result;
+  }
+
+  // the standard normal draws of a block, the stream depending only on the block
+  private double[] normals(int start, int drawCount, int dimension) {
+    if (sobol) {
+      SobolSequenceGenerator generator = new SobolSequenceGenerator(dimension);
+      generator.skipTo(start + 1L);
+      double[] normals = new double[drawCount * dimension];
+      double[] uniforms = new double[dimension];
+      for (int draw = 0; draw < drawCount; draw++) {
+        generator.nextVector(uniforms);
+        for (int i = 0; i < dimension; i++) {
+          normals[draw * dimension + i] = NORMAL.getInverseCDF(uniforms[i]);
+        }
+      }
+      return normals;
+    }
+    MersenneTwister engine = new MersenneTwister(blockSeed(start / blockSize));
+    return new NormalRandomNumberGenerator(0d, 1d, engine).getVector(drawCount * dimension);
+  }
+
+  // derives the seed of a block by mixing the seed and the block index
+  private int blockSeed(int block) {
+    long z = seed + (block + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    return (int) (z ^ (z >>> 32));
+  }
+
+  //-------------------------------------------------------------------------
+  // consumer of the paths of a block, told whether the path is the antithetic one of a pair
+  @FunctionalInterface
+  private interface PathConsumer<R> {
+
+    void accept(R result, HullWhiteMonteCarloPath path, boolean antitheticPath);
+  }
+
+  //-------------------------------------------------------------------------
+  // the sum and the sum of squares of each value over the paths of a block
+  private final class BlockSums {
+
+    private final double[] values;
+    private final double[] pairValues;
+    private final double[] sum;
+    private final double[] sumSquare;
+
+    private BlockSums(int valueCount) {
+      this.values = new double[valueCount];
+      this.pairValues = new double[valueCount];
+      this.sum = new double[valueCount];
+      this.sumSquare = new double[valueCount];
+    }
+
+    // evaluates the payoff on a path, averaging the values over each antithetic pair
+    private void add(HullWhiteMonteCarloPath path, boolean antitheticPath, HullWhiteMonteCarloPayoff payoff) {
+      double[] target = antitheticPath ? pairValues : values;
+      Arrays.fill(target, 0d);
+      payoff.evaluate(path, target);
+      if (antithetic) {
+        if (!antitheticPath) {
+          return;
+        }
+        for (int i = 0; i < values.length; i++) {
+          values[i] = 0.5 * (values[i] + pairValues[i]);
+        }
+      }
+      for (int i = 0; i < values.length; i++) {
+        sum[i] += values[i];
+        sumSquare[i] += values[i] * values[i];
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    String sampling = sobol ? "Sobol" : (antithetic ? "antithetic" : "pseudo-random");
+    return "HullWhiteMonteCarloEngine[pathCount=" + pathCount + ", blockSize=" + blockSize +
+        ", sampling=" + sampling + ", parallel=" + parallel + "]";
+  }
+
+}
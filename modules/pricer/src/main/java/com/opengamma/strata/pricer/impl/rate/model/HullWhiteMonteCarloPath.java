@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+/**
+ * A single path simulated in the Hull-White one factor model.
+ * <p>
+ * The path is simulated under the forward measure associated with the last observation time, the numeraire time.
+ * On each observation date, the path provides the ratio between the zero-coupon bonds of the maturity times
+ * and the numeraire bond, relative to the same ratio today.
+ * For observation time {@code t_k} and maturity time {@code u_j}, the bond factor is
+ * <pre>
+ *  [P(t_k, u_j) / P(t_k, T)] / [P(0, u_j) / P(0, T)] = exp(g(u_j) X(t_k) - g(u_j)^2 V(t_k) / 2)
+ * </pre>
+ * where {@code T} is the numeraire time, {@code g(u) = (exp(-a u) - exp(-a T)) / a} and
+ * {@code X} is a Gaussian process with variance {@code V}.
+ * <p>
+ * The present value of an amount {@code A}, known at the observation time and paid at the maturity time,
+ * is the average over the paths of {@code A P(0, u_j) bondFactor(k, j)}.
+ * The price of the zero-coupon bond at the observation time is
+ * {@code P(0, u_j) / P(0, t_k) bondFactor(k, j) / observationFactor(k)}.
+ * <p>
+ * The path is reused by the engine for each simulated path, and must not be retained by the payoff.
+ */
+public final class HullWhiteMonteCarloPath {
+
+  /**
+   * The observation times.
+   */
+  private final double[] observationTimes;
+  /**
+   * The variance of the process at each observation time.
+   */
+  private final double[] variances;
+  /**
+   * The standard deviation of the increment of the process up to each observation time.
+   */
+  private final double[] incrementDeviations;
+  /**
+   * The factor {@code g} of each maturity time.
+   */
+  private final double[] maturityG;
+  /**
+   * The factor {@code g} of each observation time.
+   */
+  private final double[] observationG;
+  /**
+   * The value of the process at each observation time on the current path.
+   */
+  private final double[] states;
+
+  /**
+   * Creates an instance.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param model  the Hull-White model
+   * @param observationTimes  the observation times, increasing and not negative
+   * @param maturityTimes  the maturity times
+   */
+  HullWhiteMonteCarloPath(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel model,
+      double[] observationTimes,
+      double[] maturityTimes) {
+
+    int nbObs = observationTimes.length;
+    double meanReversion = parameters.getMeanReversion();
+    double numeraireTime = observationTimes[nbObs - 1];
+    this.observationTimes = observationTimes;
+    this.variances = new double[nbObs];
+    this.incrementDeviations = new double[nbObs];
+    double previousTime = 0d;
+    double variance = 0d;
+    for (int k = 0; k < nbObs; k++) {
+      double deviation = model.beta(parameters, previousTime, observationTimes[k]);
+      variance += deviation * deviation;
+      incrementDeviations[k] = deviation;
+      variances[k] = variance;
+      previousTime = observationTimes[k];
+    }
+    this.maturityG = new double[maturityTimes.length];
+    for (int j = 0; j < maturityTimes.length; j++) {
+      maturityG[j] = g(meanReversion, maturityTimes[j], numeraireTime);
+    }
+    this.observationG = new double[nbObs];
+    for (int k = 0; k < nbObs; k++) {
+      observationG[k] = g(meanReversion, observationTimes[k], numeraireTime);
+    }
+    this.states = new double[nbObs];
+  }
+
+  // the bond volatility factor relative to the numeraire
+  private static double g(double meanReversion, double time, double numeraireTime) {
+    return (Math.exp(-meanReversion * time) - Math.exp(-meanReversion * numeraireTime)) / meanReversion;
+  }
+
+  // sets the path from the standard normal increments, one for each observation time
+  void reset(double[] normals, int offset, double sign) {
+    double x = 0d;
+    for (int k = 0; k < observationTimes.length; k++) {
+      x += sign * normals[offset + k] * incrementDeviations[k];
+      states[k] = x;
+    }
+  }
+
+  // the bond factor for the factor g
+  private double factor(int observationIndex, double g) {
+    return Math.exp(g * (states[observationIndex] - 0.5 * g * variances[observationIndex]));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of observation times.
+   *
+   * @return the number of observation times
+   */
+  public int getObservationCount() {
+    return observationTimes.length;
+  }
+
+  /**
+   * Gets the number of maturity times.
+   *
+   * @return the number of maturity times
+   */
+  public int getMaturityCount() {
+    return maturityG.length;
+  }
+
+  /**
+   * Gets an observation time.
+   *
+   * @param observationIndex  the index of the observation
+   * @return the observation time
+   */
+  public double getObservationTime(int observationIndex) {
+    return observationTimes[observationIndex];
+  }
+
+  /**
+   * Gets the bond factor for an observation time and a maturity time.
+   * <p>
+   * The maturity time should not be before the observation time.
+   *
+   * @param observationIndex  the index of the observation
+   * @param maturityIndex  the index of the maturity
+   * @return the bond factor
+   */
+  public double bondFactor(int observationIndex, int maturityIndex) {
+    return factor(observationIndex, maturityG[maturityIndex]);
+  }
+
+  /**
+   * Gets the bond factor for an observation time and a maturity equal to the observation time.
+   * <p>
+   * This is the inverse of the numeraire bond at the observation time, relative to its value today.
+   *
+   * @param observationIndex  the index of the observation
+   * @return the bond factor for the observation time
+   */
+  public double observationFactor(int observationIndex) {
+    return factor(observationIndex, observationG[observationIndex]);
+  }
+
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+/**
+ * The cash flows of a product on a path simulated in the Hull-White one factor model.
+ * <p>
+ * For each path, the payoff calculates one or more values, typically the present value of the cash flows
+ * of the product on the path, see {@link HullWhiteMonteCarloPath}. Additional values can be used to return
+ * pathwise sensitivities, the derivative of the value on the path with respect to an input.
+ * The engine averages each value over all the paths.
+ * <p>
+ * Implementations must be thread-safe, as paths may be evaluated in parallel.
+ */
+@FunctionalInterface
+public interface HullWhiteMonteCarloPayoff {
+
+  /**
+   * Calculates the values on the path.
+   * <p>
+   * The values array is set to zero before each call.
+   *
+   * @param path  the simulated path
+   * @param values  the array to populate with the values, of the size requested from the engine
+   */
+  public abstract void evaluate(HullWhiteMonteCarloPath path, double[] values);
+
+}
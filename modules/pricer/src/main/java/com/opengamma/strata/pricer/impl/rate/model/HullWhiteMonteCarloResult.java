@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The result of a Monte Carlo simulation in the Hull-White one factor model.
+ * <p>
+ * This contains the average of each value of the payoff over the paths and its standard error.
+ * When antithetic variates are used, the standard error is calculated from the average of each pair of paths.
+ * For quasi-random sequences, the standard error is only indicative, as the points are not independent.
+ */
+public final class HullWhiteMonteCarloResult {
+
+  /**
+   * The average of each value.
+   */
+  private final DoubleArray values;
+  /**
+   * The standard error of each value.
+   */
+  private final DoubleArray standardErrors;
+  /**
+   * The number of paths.
+   */
+  private final int pathCount;
+
+  // restricted constructor
+  HullWhiteMonteCarloResult(DoubleArray values, DoubleArray standardErrors, int pathCount) {
+    this.values = values;
+    this.standardErrors = standardErrors;
+    this.pathCount = pathCount;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the average of each value over the paths.
+   *
+   * @return the values
+   */
+  public DoubleArray getValues() {
+    return values;
+  }
+
+  /**
+   * Gets the average of a value over the paths.
+   *
+   * @param index  the index of the value
+   * @return the value
+   */
+  public double getValue(int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Gets the standard error of each value.
+   *
+   * @return the standard errors
+   */
+  public DoubleArray getStandardErrors() {
+    return standardErrors;
+  }
+
+  /**
+   * Gets the number of paths simulated.
+   *
+   * @return the number of paths
+   */
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "HullWhiteMonteCarloResult[values=" + values + ", standardErrors=" + standardErrors +
+        ", pathCount=" + pathCount + "]";
+  }
+
+}
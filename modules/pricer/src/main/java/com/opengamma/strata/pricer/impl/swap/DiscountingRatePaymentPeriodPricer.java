@@ -8,6 +8,7 @@ package com.opengamma.strata.pricer.impl.swap;
 import static java.time.temporal.ChronoUnit.DAYS;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.Currency;
@@ -16,6 +17,7 @@ import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.market.view.DiscountFactors;
 import com.opengamma.strata.market.view.FxIndexRates;
@@ -235,6 +237,83 @@ public class DiscountingRatePaymentPeriodPricer
     return forecastSensitivity.combinedWith(dscSensitivity);
   }
 
+  @Override
+  public void presentValueSensitivity(
+      RatePaymentPeriod period,
+      RatesProvider provider,
+      double factor,
+      MutablePointSensitivities accumulator) {
+
+    // same as the builder version, with each point sensitivity scaled once and added to the accumulator
+    // rather than combined into intermediate builders for the period
+    Currency ccy = period.getCurrency();
+    DiscountFactors discountFactors = provider.discountFactors(ccy);
+    LocalDate paymentDate = period.getPaymentDate();
+    double df = discountFactors.discountFactor(paymentDate);
+    double fxRate = fxRate(period, provider);
+    double accrual = accrualWithNotional(period, period.getNotional(), provider);
+    // historic payments have zero forecast sensi
+    if (!paymentDate.isBefore(provider.getValuationDate())) {
+      if (period.getFxReset().isPresent()) {
+        fxRateSensitivity(period, provider).multipliedBy(accrual * df * factor).buildInto(accumulator);
+      }
+      double notionalFactor = period.getNotional() * fxRate * df * factor;
+      switch (period.isCompoundingApplicable() ? period.getCompoundingMethod() : CompoundingMethod.NONE) {
+        case STRAIGHT:
+          compoundedSensitivity(period, provider, notionalFactor, false, accumulator);
+          break;
+        case SPREAD_EXCLUSIVE:
+          compoundedSensitivity(period, provider, notionalFactor, true, accumulator);
+          break;
+        case FLAT:
+          // each accrual period depends on the sensitivity of the previous ones, thus a builder is used
+          compoundedFlatSensitivity(period, provider).multipliedBy(notionalFactor).buildInto(accumulator);
+          break;
+        default:
+          for (RateAccrualPeriod accrualPeriod : period.getAccrualPeriods()) {
+            addRateSensitivity(accrualPeriod, provider, notionalFactor, accumulator);
+          }
+      }
+    }
+    discountFactors.zeroRatePointSensitivity(paymentDate)
+        .multipliedBy(accrual * fxRate * factor)
+        .buildInto(accumulator);
+  }
+
+  // adds the straight or spread exclusive compounded sensitivity to the accumulator
+  private void compoundedSensitivity(
+      RatePaymentPeriod period,
+      RatesProvider provider,
+      double factor,
+      boolean spreadExclusive,
+      MutablePointSensitivities accumulator) {
+
+    List<RateAccrualPeriod> accrualPeriods = period.getAccrualPeriods();
+    double[] investFactors = new double[accrualPeriods.size()];
+    double notionalAccrued = 1d;
+    for (int i = 0; i < investFactors.length; i++) {
+      RateAccrualPeriod accrualPeriod = accrualPeriods.get(i);
+      double spread = spreadExclusive ? 0d : accrualPeriod.getSpread();
+      investFactors[i] = 1d + unitNotionalAccrual(accrualPeriod, spread, provider);
+      notionalAccrued *= investFactors[i];
+    }
+    for (int i = 0; i < investFactors.length; i++) {
+      addRateSensitivity(accrualPeriods.get(i), provider, factor * notionalAccrued / investFactors[i], accumulator);
+    }
+  }
+
+  // adds the sensitivity of the accrual period to the rate observations, multiplied by the factor
+  private void addRateSensitivity(
+      RateAccrualPeriod period,
+      RatesProvider provider,
+      double factor,
+      MutablePointSensitivities accumulator) {
+
+    rateObservationFn.rateSensitivity(period.getRateObservation(), period.getStartDate(), period.getEndDate(), provider)
+        .multipliedBy(period.getGearing() * period.getYearFraction() * factor)
+        .buildInto(accumulator);
+  }
+
   @Override
   public PointSensitivityBuilder forecastValueSensitivity(RatePaymentPeriod period, RatesProvider provider) {
     // historic payments have zero sensi
@@ -8,6 +8,7 @@ package com.opengamma.strata.pricer.impl.swap;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.PaymentPeriodPricer;
@@ -78,6 +79,24 @@ public class DispatchingPaymentPeriodPricer
     }
   }
 
+  @Override
+  public void presentValueSensitivity(
+      PaymentPeriod paymentPeriod,
+      RatesProvider provider,
+      double factor,
+      MutablePointSensitivities accumulator) {
+
+    // dispatch by runtime type
+    if (paymentPeriod instanceof RatePaymentPeriod) {
+      ratePaymentPeriodPricer.presentValueSensitivity((RatePaymentPeriod) paymentPeriod, provider, factor, accumulator);
+    } else if (paymentPeriod instanceof KnownAmountPaymentPeriod) {
+      knownAmountPaymentPeriodPricer.presentValueSensitivity(
+          (KnownAmountPaymentPeriod) paymentPeriod, provider, factor, accumulator);
+    } else {
+      throw new IllegalArgumentException("Unknown PaymentPeriod type: " + paymentPeriod.getClass().getSimpleName());
+    }
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double forecastValue(PaymentPeriod paymentPeriod, RatesProvider provider) {
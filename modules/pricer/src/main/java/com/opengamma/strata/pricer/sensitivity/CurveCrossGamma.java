@@ -0,0 +1,582 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.sensitivity;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableValidator;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivities;
+import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivity;
+import com.opengamma.strata.market.curve.CurveMetadata;
+import com.opengamma.strata.market.curve.CurveName;
+
+/**
+ * The cross-gamma matrix of a value with respect to the parameters of several curves.
+ * <p>
+ * The parameters of all the curves are stacked in the order of the curves.
+ * The element {@code (i, j)} of the matrix is the derivative of the sensitivity to the parameter {@code i}
+ * with respect to the parameter {@code j}, that is the second order derivative of the value
+ * with respect to both parameters. The matrix includes the cross-curve terms.
+ * <p>
+ * The sensitivities are all expressed in a single currency.
+ */
+@BeanDefinition(builderScope = "private")
+public final class CurveCrossGamma
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The currency of the sensitivities.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Currency currency;
+  /**
+   * The metadata of the curves, in the order of the parameters.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<CurveMetadata> curves;
+  /**
+   * The number of parameters of each curve, in the order of the curves.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<Integer> parameterCounts;
+  /**
+   * The cross-gamma matrix.
+   * <p>
+   * The size of the matrix is the total number of parameters of the curves.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleMatrix matrix;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the curves and the matrix.
+   *
+   * @param currency  the currency of the sensitivities
+   * @param curves  the metadata of the curves, in the order of the parameters
+   * @param parameterCounts  the number of parameters of each curve
+   * @param matrix  the cross-gamma matrix
+   * @return the cross-gamma
+   * @throws IllegalArgumentException if the number of parameters does not match the matrix
+   */
+  public static CurveCrossGamma of(
+      Currency currency,
+      List<CurveMetadata> curves,
+      List<Integer> parameterCounts,
+      DoubleMatrix matrix) {
+
+    return new CurveCrossGamma(currency, curves, parameterCounts, matrix);
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    ArgChecker.isTrue(curves.size() == parameterCounts.size(), "Curves and parameter counts must have the same size");
+    int total = parameterCounts.stream().mapToInt(Integer::intValue).sum();
+    ArgChecker.isTrue(
+        matrix.rowCount() == total && matrix.columnCount() == total,
+        "Matrix size must match the number of parameters");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the block of the matrix for a pair of curves.
+   * <p>
+   * The rows are the parameters of the first curve and the columns the parameters of the second curve.
+   *
+   * @param rowCurve  the name of the curve of the rows
+   * @param columnCurve  the name of the curve of the columns
+   * @return the block of the matrix
+   * @throws IllegalArgumentException if a curve is not found
+   */
+  public DoubleMatrix getBlock(CurveName rowCurve, CurveName columnCurve) {
+    int row = curveIndex(rowCurve);
+    int column = curveIndex(columnCurve);
+    int rowStart = offset(row);
+    int columnStart = offset(column);
+    return DoubleMatrix.of(
+        parameterCounts.get(row),
+        parameterCounts.get(column),
+        (i, j) -> matrix.get(rowStart + i, columnStart + j));
+  }
+
+  // finds the index of a curve
+  private int curveIndex(CurveName name) {
+    for (int i = 0; i < curves.size(); i++) {
+      if (curves.get(i).getCurveName().equals(name)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unable to find curve: " + name);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the diagonal of the matrix, expressed as curve sensitivities.
+   *
+   * @return the second order derivative of the value with respect to each parameter
+   */
+  public CurveCurrencyParameterSensitivities diagonal() {
+    return toSensitivities(i -> matrix.get(i, i));
+  }
+
+  /**
+   * Returns the "sum-of-column" or "semi-parallel" gamma of each curve.
+   * <p>
+   * For each parameter, this is the derivative of the sensitivity to the parameter with respect to
+   * a parallel shift of the parameters of the same curve. The cross-curve terms are ignored.
+   *
+   * @return the semi-parallel gamma of each curve
+   */
+  public CurveCurrencyParameterSensitivities semiParallelGamma() {
+    return toSensitivities(i -> {
+      int curve = curveOfParameter(i);
+      int start = offset(curve);
+      double sum = 0d;
+      for (int j = start; j < start + parameterCounts.get(curve); j++) {
+        sum += matrix.get(i, j);
+      }
+      return sum;
+    });
+  }
+
+  // finds the curve of a parameter
+  private int curveOfParameter(int parameterIndex) {
+    int curve = 0;
+    int end = parameterCounts.get(0);
+    while (end <= parameterIndex) {
+      curve++;
+      end += parameterCounts.get(curve);
+    }
+    return curve;
+  }
+
+  // finds the index of the first parameter of a curve
+  private int offset(int curve) {
+    int offset = 0;
+    for (int c = 0; c < curve; c++) {
+      offset += parameterCounts.get(c);
+    }
+    return offset;
+  }
+
+  // converts a function of the parameter index to sensitivities
+  private CurveCurrencyParameterSensitivities toSensitivities(IntToDoubleFunction fn) {
+    List<CurveCurrencyParameterSensitivity> sensitivities = new ArrayList<>();
+    int offset = 0;
+    for (int c = 0; c < curves.size(); c++) {
+      int start = offset;
+      DoubleArray values = DoubleArray.of(parameterCounts.get(c), i -> fn.applyAsDouble(start + i));
+      sensitivities.add(CurveCurrencyParameterSensitivity.of(curves.get(c), currency, values));
+      offset += parameterCounts.get(c);
+    }
+    return CurveCurrencyParameterSensitivities.of(sensitivities);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns an instance with the matrix multiplied by a factor.
+   *
+   * @param factor  the multiplicative factor
+   * @return the scaled cross-gamma
+   */
+  public CurveCrossGamma multipliedBy(double factor) {
+    return new CurveCrossGamma(currency, curves, parameterCounts, matrix.multipliedBy(factor));
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code CurveCrossGamma}.
+   * @return the meta-bean, not null
+   */
+  public static CurveCrossGamma.Meta meta() {
+    return CurveCrossGamma.Meta.INSTANCE;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(CurveCrossGamma.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private CurveCrossGamma(
+      Currency currency,
+      List<CurveMetadata> curves,
+      List<Integer> parameterCounts,
+      DoubleMatrix matrix) {
+    JodaBeanUtils.notNull(currency, "currency");
+    JodaBeanUtils.notNull(curves, "curves");
+    JodaBeanUtils.notNull(parameterCounts, "parameterCounts");
+    JodaBeanUtils.notNull(matrix, "matrix");
+    this.currency = currency;
+    this.curves = ImmutableList.copyOf(curves);
+    this.parameterCounts = ImmutableList.copyOf(parameterCounts);
+    this.matrix = matrix;
+    validate();
+  }
+
+  @Override
+  public CurveCrossGamma.Meta metaBean() {
+    return CurveCrossGamma.Meta.INSTANCE;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the currency of the sensitivities.
+   * @return the value of the property, not null
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the metadata of the curves, in the order of the parameters.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<CurveMetadata> getCurves() {
+    return curves;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of parameters of each curve, in the order of the curves.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<Integer> getParameterCounts() {
+    return parameterCounts;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the cross-gamma matrix.
+   * <p>
+   * The size of the matrix is the total number of parameters of the curves.
+   * @return the value of the property, not null
+   */
+  public DoubleMatrix getMatrix() {
+    return matrix;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      CurveCrossGamma other = (CurveCrossGamma) obj;
+      return JodaBeanUtils.equal(currency, other.currency) &&
+          JodaBeanUtils.equal(curves, other.curves) &&
+          JodaBeanUtils.equal(parameterCounts, other.parameterCounts) &&
+          JodaBeanUtils.equal(matrix, other.matrix);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(currency);
+    hash = hash * 31 + JodaBeanUtils.hashCode(curves);
+    hash = hash * 31 + JodaBeanUtils.hashCode(parameterCounts);
+    hash = hash * 31 + JodaBeanUtils.hashCode(matrix);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(160);
+    buf.append("CurveCrossGamma{");
+    buf.append("currency").append('=').append(currency).append(',').append(' ');
+    buf.append("curves").append('=').append(curves).append(',').append(' ');
+    buf.append("parameterCounts").append('=').append(parameterCounts).append(',').append(' ');
+    buf.append("matrix").append('=').append(JodaBeanUtils.toString(matrix));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code CurveCrossGamma}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code currency} property.
+     */
+    private final MetaProperty<Currency> currency = DirectMetaProperty.ofImmutable(
+        this, "currency", CurveCrossGamma.class, Currency.class);
+    /**
+     * The meta-property for the {@code curves} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableList<CurveMetadata>> curves = DirectMetaProperty.ofImmutable(
+        this, "curves", CurveCrossGamma.class, (Class) ImmutableList.class);
+    /**
+     * The meta-property for the {@code parameterCounts} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableList<Integer>> parameterCounts = DirectMetaProperty.ofImmutable(
+        this, "parameterCounts", CurveCrossGamma.class, (Class) ImmutableList.class);
+    /**
+     * The meta-property for the {@code matrix} property.
+     */
+    private final MetaProperty<DoubleMatrix> matrix = DirectMetaProperty.ofImmutable(
+        this, "matrix", CurveCrossGamma.class, DoubleMatrix.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "currency",
+        "curves",
+        "parameterCounts",
+        "matrix");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          return currency;
+        case -1349116572:  // curves
+          return curves;
+        case -32420275:  // parameterCounts
+          return parameterCounts;
+        case -1081239615:  // matrix
+          return matrix;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends CurveCrossGamma> builder() {
+      return new CurveCrossGamma.Builder();
+    }
+
+    @Override
+    public Class<? extends CurveCrossGamma> beanType() {
+      return CurveCrossGamma.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code currency} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Currency> currency() {
+      return currency;
+    }
+
+    /**
+     * The meta-property for the {@code curves} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableList<CurveMetadata>> curves() {
+      return curves;
+    }
+
+    /**
+     * The meta-property for the {@code parameterCounts} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableList<Integer>> parameterCounts() {
+      return parameterCounts;
+    }
+
+    /**
+     * The meta-property for the {@code matrix} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleMatrix> matrix() {
+      return matrix;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          return ((CurveCrossGamma) bean).getCurrency();
+        case -1349116572:  // curves
+          return ((CurveCrossGamma) bean).getCurves();
+        case -32420275:  // parameterCounts
+          return ((CurveCrossGamma) bean).getParameterCounts();
+        case -1081239615:  // matrix
+          return ((CurveCrossGamma) bean).getMatrix();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code CurveCrossGamma}.
+   */
+  private static final class Builder extends DirectFieldsBeanBuilder<CurveCrossGamma> {
+
+    private Currency currency;
+    private List<CurveMetadata> curves = ImmutableList.of();
+    private List<Integer> parameterCounts = ImmutableList.of();
+    private DoubleMatrix matrix;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          return currency;
+        case -1349116572:  // curves
+          return curves;
+        case -32420275:  // parameterCounts
+          return parameterCounts;
+        case -1081239615:  // matrix
+          return matrix;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          this.currency = (Currency) newValue;
+          break;
+        case -1349116572:  // curves
+          this.curves = (List<CurveMetadata>) newValue;
+          break;
+        case -32420275:  // parameterCounts
+          this.parameterCounts = (List<Integer>) newValue;
+          break;
+        case -1081239615:  // matrix
+          this.matrix = (DoubleMatrix) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public Builder set(MetaProperty<?> property, Object value) {
+      super.set(property, value);
+      return this;
+    }
+
+    @Override
+    public Builder setString(String propertyName, String value) {
+      setString(meta().metaProperty(propertyName), value);
+      return this;
+    }
+
+    @Override
+    public Builder setString(MetaProperty<?> property, String value) {
+      super.setString(property, value);
+      return this;
+    }
+
+    @Override
+    public Builder setAll(Map<String, ? extends Object> propertyValueMap) {
+      super.setAll(propertyValueMap);
+      return this;
+    }
+
+    @Override
+    public CurveCrossGamma build() {
+      return new CurveCrossGamma(
+          currency,
+          curves,
+          parameterCounts,
+          matrix);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(160);
+      buf.append("CurveCrossGamma.Builder{");
+      buf.append("currency").append('=').append(JodaBeanUtils.toString(currency)).append(',').append(' ');
+      buf.append("curves").append('=').append(JodaBeanUtils.toString(curves)).append(',').append(' ');
+      buf.append("parameterCounts").append('=').append(JodaBeanUtils.toString(parameterCounts)).append(',').append(' ');
+      buf.append("matrix").append('=').append(JodaBeanUtils.toString(matrix));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -5,20 +5,38 @@
  */
 package com.opengamma.strata.pricer.sensitivity;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivities;
 import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivity;
+import com.opengamma.strata.market.curve.CurveMetadata;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
 import com.opengamma.strata.math.impl.differentiation.VectorFieldFirstOrderDifferentiator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProviderBuilder;
 
 /**
  * Computes the cross-gamma and related figures to the rate curves parameters for rates provider.
  * <p>
- * This implementation supports a single {@link NodalCurve} on the zero-coupon rates.
+ * The semi-parallel gamma supports a single {@link NodalCurve} on the zero-coupon rates.
+ * The cross-gamma supports all the nodal curves of a rates provider, including the cross-curve terms.
+ * In both cases, the gamma is computed by finite difference of the analytic first order sensitivities.
  * By default the gamma is computed using a one basis-point shift and a forward finite difference.
  * The results themselves are not scaled (they represent the second order derivative).
  * <p>
@@ -35,6 +53,14 @@ public class CurveGammaCalculator {
    * The first order finite difference calculator.
    */
   private final VectorFieldFirstOrderDifferentiator fd;
+  /**
+   * The finite difference type.
+   */
+  private final FiniteDifferenceType fdType;
+  /**
+   * The shift applied to the curves.
+   */
+  private final double shift;
 
   /**
    * Create an instance of the finite difference calculator.
@@ -44,6 +70,8 @@ public class CurveGammaCalculator {
    */
   public CurveGammaCalculator(FiniteDifferenceType fdType, double shift) {
     this.fd = new VectorFieldFirstOrderDifferentiator(fdType, shift);
+    this.fdType = fdType;
+    this.shift = shift;
   }
 
   //-------------------------------------------------------------------------
@@ -70,6 +98,139 @@ public class CurveGammaCalculator {
     return CurveCurrencyParameterSensitivity.of(curve.getMetadata(), curveCurrency, gamma);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the cross-gamma matrix for a sensitivity function, across all the curves of the rates provider.
+   * <p>
+   * Each parameter of each curve of the provider is shifted in turn, the shifted curve replacing the curve
+   * wherever it is used in the provider, and the sensitivity function is applied to the shifted provider.
+   * The shifts are independent and are calculated in parallel.
+   * The sensitivities are converted to the specified currency using the provider.
+   * <p>
+   * The curves of the provider must be nodal curves.
+   * 
+   * @param ratesProvider  the rates provider
+   * @param currency  the currency of the resulting cross-gamma
+   * @param sensitivitiesFn  the function to convert a rates provider to parameter sensitivities
+   * @return the cross-gamma matrix
+   */
+  public CurveCrossGamma calculateCrossGamma(
+      ImmutableRatesProvider ratesProvider,
+      Currency currency,
+      Function<ImmutableRatesProvider, CurveCurrencyParameterSensitivities> sensitivitiesFn) {
+
+    ArgChecker.notNull(ratesProvider, "ratesProvider");
+    ArgChecker.notNull(currency, "currency");
+    ArgChecker.notNull(sensitivitiesFn, "sensitivitiesFn");
+    // the distinct curves of the provider, the same curve may be used for discounting and forward rates
+    Map<CurveName, NodalCurve> curves = new LinkedHashMap<>();
+    ratesProvider.getDiscountCurves().values().forEach(c -> curves.putIfAbsent(c.getName(), c.toNodalCurve()));
+    ratesProvider.getIndexCurves().values().forEach(c -> curves.putIfAbsent(c.getName(), c.toNodalCurve()));
+    List<NodalCurve> curveList = ImmutableList.copyOf(curves.values());
+    int[] offsets = new int[curveList.size() + 1];
+    for (int c = 0; c < curveList.size(); c++) {
+      offsets[c + 1] = offsets[c] + curveList.get(c).getParameterCount();
+    }
+    int nbParameters = offsets[curveList.size()];
+    double[] base = fdType == FiniteDifferenceType.CENTRAL ?
+        null :
+        flatten(sensitivitiesFn.apply(ratesProvider), curveList, currency, ratesProvider);
+    double[][] columns = IntStream.range(0, nbParameters).parallel()
+        .mapToObj(p -> {
+          int c = 0;
+          while (offsets[c + 1] <= p) {
+            c++;
+          }
+          return column(ratesProvider, curveList.get(c), p - offsets[c], base, sensitivitiesFn, curveList, currency);
+        })
+        .toArray(double[][]::new);
+    DoubleMatrix matrix = DoubleMatrix.of(nbParameters, nbParameters, (i, j) -> columns[j][i]);
+    ImmutableList<CurveMetadata> metadata = curveList.stream().map(Curve::getMetadata).collect(toImmutableList());
+    ImmutableList<Integer> parameterCounts =
+        curveList.stream().map(NodalCurve::getParameterCount).collect(toImmutableList());
+    return CurveCrossGamma.of(currency, metadata, parameterCounts, matrix);
+  }
+
+  // the derivative of the sensitivities with respect to one parameter
+  private double[] column(
+      ImmutableRatesProvider ratesProvider,
+      NodalCurve curve,
+      int node,
+      double[] base,
+      Function<ImmutableRatesProvider, CurveCurrencyParameterSensitivities> sensitivitiesFn,
+      List<NodalCurve> curves,
+      Currency currency) {
+
+    switch (fdType) {
+      case FORWARD:
+        return difference(bumped(ratesProvider, curve, node, shift, sensitivitiesFn, curves, currency), base, shift);
+      case BACKWARD:
+        return difference(base, bumped(ratesProvider, curve, node, -shift, sensitivitiesFn, curves, currency), shift);
+      default:
+        double[] up = bumped(ratesProvider, curve, node, shift, sensitivitiesFn, curves, currency);
+        double[] down = bumped(ratesProvider, curve, node, -shift, sensitivitiesFn, curves, currency);
+        return difference(up, down, 2d * shift);
+    }
+  }
+
+  // the sensitivities with one parameter shifted
+  private static double[] bumped(
+      ImmutableRatesProvider ratesProvider,
+      NodalCurve curve,
+      int node,
+      double bump,
+      Function<ImmutableRatesProvider, CurveCurrencyParameterSensitivities> sensitivitiesFn,
+      List<NodalCurve> curves,
+      Currency currency) {
+
+    NodalCurve bumpedCurve = curve.withYValues(curve.getYValues().with(node, curve.getYValues().get(node) + bump));
+    ImmutableRatesProviderBuilder builder = ratesProvider.toBuilder();
+    ratesProvider.getDiscountCurves().forEach((ccy, c) -> {
+      if (c.getName().equals(curve.getName())) {
+        builder.discountCurve(ccy, bumpedCurve);
+      }
+    });
+    ratesProvider.getIndexCurves().forEach((index, c) -> {
+      if (c.getName().equals(curve.getName())) {
+        builder.indexCurve(index, bumpedCurve);
+      }
+    });
+    ImmutableRatesProvider bumpedProvider = builder.build();
+    return flatten(sensitivitiesFn.apply(bumpedProvider), curves, currency, bumpedProvider);
+  }
+
+  // the sensitivities to the parameters of all the curves, in curve order
+  private static double[] flatten(
+      CurveCurrencyParameterSensitivities sensitivities,
+      List<NodalCurve> curves,
+      Currency currency,
+      FxRateProvider fxRateProvider) {
+
+    CurveCurrencyParameterSensitivities converted = sensitivities.convertedTo(currency, fxRateProvider);
+    double[] result = new double[curves.stream().mapToInt(NodalCurve::getParameterCount).sum()];
+    int start = 0;
+    for (NodalCurve curve : curves) {
+      Optional<CurveCurrencyParameterSensitivity> sensitivity = converted.findSensitivity(curve.getName(), currency);
+      if (sensitivity.isPresent()) {
+        DoubleArray values = sensitivity.get().getSensitivity();
+        ArgChecker.isTrue(values.size() == curve.getParameterCount(),
+            "Sensitivity to curve {} does not match the number of parameters", curve.getName());
+        values.copyInto(result, start);
+      }
+      start += curve.getParameterCount();
+    }
+    return result;
+  }
+
+  // the difference divided by the distance between the shifts
+  private static double[] difference(double[] up, double[] down, double distance) {
+    double[] result = new double[up.length];
+    for (int i = 0; i < up.length; i++) {
+      result[i] = (up[i] - down[i]) / distance;
+    }
+    return result;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Inner class to compute the delta for a given parallel shift of the curve.
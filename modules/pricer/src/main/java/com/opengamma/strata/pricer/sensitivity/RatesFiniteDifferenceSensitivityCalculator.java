@@ -5,11 +5,13 @@
  */
 package com.opengamma.strata.pricer.sensitivity;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.joda.beans.MetaProperty;
 
@@ -19,6 +21,7 @@ import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.index.PriceIndex;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.ObjIntPair;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivities;
@@ -31,6 +34,7 @@ import com.opengamma.strata.market.view.ForwardPriceIndexValues;
 import com.opengamma.strata.market.view.PriceIndexValues;
 import com.opengamma.strata.market.view.SimpleDiscountFactors;
 import com.opengamma.strata.market.view.ZeroRateDiscountFactors;
+import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.LegalEntityDiscountingProvider;
 
@@ -40,6 +44,11 @@ import com.opengamma.strata.pricer.rate.LegalEntityDiscountingProvider;
  * This is based on an {@link ImmutableRatesProvider} or {@link LegalEntityDiscountingProvider}, 
  * and calculates the sensitivity by finite difference.
  * The curves underlying the rates provider must be of type {@link NodalCurve}.
+ * <p>
+ * Each node of each curve is bumped in turn, with the value function evaluated using a provider
+ * containing the bumped curve. Forward, central or backward differences may be used.
+ * The bumped valuations are independent of each other, thus they may optionally be evaluated in parallel.
+ * In that case, the value function must be thread-safe, which is the case for the standard pricers.
  */
 public class RatesFiniteDifferenceSensitivityCalculator {
 
@@ -53,14 +62,40 @@ public class RatesFiniteDifferenceSensitivityCalculator {
    * The shift used for finite difference.
    */
   private final double shift;
+  /**
+   * The type of finite difference.
+   */
+  private final FiniteDifferenceType fdType;
+  /**
+   * Whether the bumped valuations are evaluated in parallel.
+   */
+  private final boolean parallel;
 
   /**
    * Create an instance of the finite difference calculator.
+   * <p>
+   * The finite difference is computed by forward type, evaluating each bump in turn.
    * 
    * @param shift  the shift used in the finite difference computation
    */
   public RatesFiniteDifferenceSensitivityCalculator(double shift) {
+    this(FiniteDifferenceType.FORWARD, shift, false);
+  }
+
+  /**
+   * Create an instance of the finite difference calculator specifying the type of finite difference.
+   * <p>
+   * Central differences require two valuations for each node, but are more accurate.
+   * If parallel is true, the bumped valuations are evaluated in parallel using the common fork-join pool.
+   * 
+   * @param fdType  the finite difference type
+   * @param shift  the shift used in the finite difference computation
+   * @param parallel  whether the bumped valuations should be evaluated in parallel
+   */
+  public RatesFiniteDifferenceSensitivityCalculator(FiniteDifferenceType fdType, double shift, boolean parallel) {
+    this.fdType = ArgChecker.notNull(fdType, "fdType");
     this.shift = shift;
+    this.parallel = parallel;
   }
 
   //-------------------------------------------------------------------------
@@ -68,7 +103,6 @@ public class RatesFiniteDifferenceSensitivityCalculator {
    * Computes the first order sensitivities of a function of a RatesProvider to a double by finite difference.
    * <p>
    * The curves underlying the rates provider must be convertible to a {@link NodalCurve}.
-   * The finite difference is computed by forward type. 
    * The function should return a value in the same currency for any rate provider.
    * 
    * @param provider  the rates provider
@@ -79,77 +113,42 @@ public class RatesFiniteDifferenceSensitivityCalculator {
       ImmutableRatesProvider provider,
       Function<ImmutableRatesProvider, CurrencyAmount> valueFn) {
 
-    CurrencyAmount valueInit = valueFn.apply(provider);
-    CurveCurrencyParameterSensitivities discounting = sensitivity(
-        provider,
+    List<BumpTarget<ImmutableRatesProvider>> targets = new ArrayList<>();
+    addTargets(
+        targets,
         provider.getDiscountCurves(),
-        (base, bumped) -> base.toBuilder().discountCurves(bumped).build(),
-        valueFn,
-        valueInit);
-    CurveCurrencyParameterSensitivities forward = sensitivity(
-        provider,
+        bumped -> provider.toBuilder().discountCurves(bumped).build());
+    addTargets(
+        targets,
         provider.getIndexCurves(),
-        (base, bumped) -> base.toBuilder().indexCurves(bumped).build(),
-        valueFn,
-        valueInit);
-    CurveCurrencyParameterSensitivities priceIndex = sensitivityPriceIndex(
-        provider,
-        provider.getPriceIndexValues(),
-        (base, bumped) -> base.toBuilder().priceIndexValues(bumped).build(),
-        valueFn,
-        valueInit);
-    return discounting.combinedWith(forward).combinedWith(priceIndex);
+        bumped -> provider.toBuilder().indexCurves(bumped).build());
+    Map<PriceIndex, PriceIndexValues> indexValues = provider.getPriceIndexValues();
+    for (Entry<PriceIndex, PriceIndexValues> entry : indexValues.entrySet()) {
+      ForwardPriceIndexValues indexValue = ((ForwardPriceIndexValues) entry.getValue());
+      NodalCurve curveInt = indexValue.getCurve().toNodalCurve();
+      targets.add(new BumpTarget<>(curveInt, indexValue.getCurve().getMetadata(), bumpedCurve -> {
+        Map<PriceIndex, PriceIndexValues> mapBumped = new HashMap<>(indexValues);
+        mapBumped.put(entry.getKey(), indexValue.withCurve((InterpolatedNodalCurve) bumpedCurve));
+        return provider.toBuilder().priceIndexValues(mapBumped).build();
+      }));
+    }
+    return sensitivity(provider, targets, valueFn);
   }
 
-  // computes the sensitivity with respect to the curves
-  private <T> CurveCurrencyParameterSensitivities sensitivity(
-      ImmutableRatesProvider provider,
+  // adds a target for each curve, replacing the curve in the map when bumped
+  private <T> void addTargets(
+      List<BumpTarget<ImmutableRatesProvider>> targets,
       Map<T, Curve> baseCurves,
-      BiFunction<ImmutableRatesProvider, Map<T, Curve>, ImmutableRatesProvider> storeBumpedFn,
-      Function<ImmutableRatesProvider, CurrencyAmount> valueFn,
-      CurrencyAmount valueInit) {
+      Function<Map<T, Curve>, ImmutableRatesProvider> storeBumpedFn) {
 
-    CurveCurrencyParameterSensitivities result = CurveCurrencyParameterSensitivities.empty();
     for (Entry<T, Curve> entry : baseCurves.entrySet()) {
       NodalCurve curveInt = entry.getValue().toNodalCurve();
-      int nbNodePoint = curveInt.getXValues().size();
-      DoubleArray sensitivity = DoubleArray.of(nbNodePoint, i -> {
-        Curve dscBumped = bumpedCurve(curveInt, i);
+      targets.add(new BumpTarget<>(curveInt, entry.getValue().getMetadata(), bumpedCurve -> {
         Map<T, Curve> mapBumped = new HashMap<>(baseCurves);
-        mapBumped.put(entry.getKey(), dscBumped);
-        ImmutableRatesProvider providerDscBumped = storeBumpedFn.apply(provider, mapBumped);
-        return (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
-      });
-      CurveMetadata metadata = entry.getValue().getMetadata();
-      result = result.combinedWith(CurveCurrencyParameterSensitivity.of(metadata, valueInit.getCurrency(), sensitivity));
-    }
-    return result;
-  }
-
-  // computes the sensitivity with respect to the price index curves
-  private <T> CurveCurrencyParameterSensitivities sensitivityPriceIndex(
-      ImmutableRatesProvider provider,
-      Map<PriceIndex, PriceIndexValues> indexValues,
-      BiFunction<ImmutableRatesProvider, Map<PriceIndex, PriceIndexValues>, ImmutableRatesProvider> storeBumpedFn,
-      Function<ImmutableRatesProvider, CurrencyAmount> valueFn,
-      CurrencyAmount valueInit) {
-
-    CurveCurrencyParameterSensitivities result = CurveCurrencyParameterSensitivities.empty();
-    for (Entry<PriceIndex, PriceIndexValues> entry : indexValues.entrySet()) {
-      ForwardPriceIndexValues indexValue = ((ForwardPriceIndexValues) entry.getValue());
-      NodalCurve curveInt = indexValue.getCurve().toNodalCurve();
-      int nbNodePoint = curveInt.getXValues().size();
-      DoubleArray sensitivity = DoubleArray.of(nbNodePoint, i -> {
-        Curve dscBumped = bumpedCurve(curveInt, i);
-        Map<PriceIndex, PriceIndexValues> mapBumped = new HashMap<>(indexValues);
-        mapBumped.put(entry.getKey(), indexValue.withCurve((InterpolatedNodalCurve) dscBumped));
-        ImmutableRatesProvider providerDscBumped = storeBumpedFn.apply(provider, mapBumped);
-        return (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
-      });
-      CurveMetadata metadata = indexValue.getCurve().getMetadata();
-      result = result.combinedWith(CurveCurrencyParameterSensitivity.of(metadata, valueInit.getCurrency(), sensitivity));
+        mapBumped.put(entry.getKey(), bumpedCurve);
+        return storeBumpedFn.apply(mapBumped);
+      }));
     }
-    return result;
   }
 
   //-------------------------------------------------------------------------
@@ -157,7 +156,6 @@ public class RatesFiniteDifferenceSensitivityCalculator {
    * Computes the first order sensitivities of a function of a LegalEntityDiscountingProvider to a double by finite difference.
    * <p>
    * The curves underlying the rates provider must be of type {@link NodalCurve}.
-   * The finite difference is computed by forward type. 
    * The function should return a value in the same currency for any rates provider of LegalEntityDiscountingProvider.
    * 
    * @param provider  the rates provider
@@ -168,41 +166,88 @@ public class RatesFiniteDifferenceSensitivityCalculator {
       LegalEntityDiscountingProvider provider,
       Function<LegalEntityDiscountingProvider, CurrencyAmount> valueFn) {
 
-    CurrencyAmount valueInit = valueFn.apply(provider);
-    CurveCurrencyParameterSensitivities discounting = sensitivity(
-        provider, valueFn, LegalEntityDiscountingProvider.meta().repoCurves(), valueInit);
-    CurveCurrencyParameterSensitivities forward = sensitivity(
-        provider, valueFn, LegalEntityDiscountingProvider.meta().issuerCurves(), valueInit);
-    return discounting.combinedWith(forward);
+    List<BumpTarget<LegalEntityDiscountingProvider>> targets = new ArrayList<>();
+    addTargets(targets, provider, LegalEntityDiscountingProvider.meta().repoCurves());
+    addTargets(targets, provider, LegalEntityDiscountingProvider.meta().issuerCurves());
+    return sensitivity(provider, targets, valueFn);
   }
 
-  private <T> CurveCurrencyParameterSensitivities sensitivity(
+  // adds a target for each curve, replacing the discount factors in the map when bumped
+  private <T> void addTargets(
+      List<BumpTarget<LegalEntityDiscountingProvider>> targets,
       LegalEntityDiscountingProvider provider,
-      Function<LegalEntityDiscountingProvider, CurrencyAmount> valueFn,
-      MetaProperty<ImmutableMap<Pair<T, Currency>, DiscountFactors>> metaProperty,
-      CurrencyAmount valueInit) {
+      MetaProperty<ImmutableMap<Pair<T, Currency>, DiscountFactors>> metaProperty) {
+
     ImmutableMap<Pair<T, Currency>, DiscountFactors> baseCurves = metaProperty.get(provider);
-    CurveCurrencyParameterSensitivities result = CurveCurrencyParameterSensitivities.empty();
     for (Pair<T, Currency> key : baseCurves.keySet()) {
       DiscountFactors discountFactors = baseCurves.get(key);
       Curve curve = checkDiscountFactors(discountFactors);
       NodalCurve curveInt = checkNodal(curve);
-      int nbNodePoint = curveInt.getXValues().size();
-      double[] sensitivity = new double[nbNodePoint];
-      for (int i = 0; i < nbNodePoint; i++) {
-        Curve dscBumped = bumpedCurve(curveInt, i);
+      targets.add(new BumpTarget<>(curveInt, curveInt.getMetadata(), bumpedCurve -> {
         Map<Pair<T, Currency>, DiscountFactors> mapBumped = new HashMap<>(baseCurves);
-        mapBumped.put(key, createDiscountFactors(discountFactors, dscBumped));
-        LegalEntityDiscountingProvider providerDscBumped = provider.toBuilder().set(metaProperty, mapBumped).build();
-        sensitivity[i] = (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
+        mapBumped.put(key, createDiscountFactors(discountFactors, bumpedCurve));
+        return provider.toBuilder().set(metaProperty, mapBumped).build();
+      }));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // computes the sensitivity to every node of every target curve
+  // the bumps are independent, thus all nodes of all curves are evaluated as a single set of tasks
+  private <P> CurveCurrencyParameterSensitivities sensitivity(
+      P provider,
+      List<BumpTarget<P>> targets,
+      Function<P, CurrencyAmount> valueFn) {
+
+    CurrencyAmount valueInit = valueFn.apply(provider);
+    double[][] sensitivities = new double[targets.size()][];
+    List<ObjIntPair<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < targets.size(); i++) {
+      int nbNodePoint = targets.get(i).curve.getParameterCount();
+      sensitivities[i] = new double[nbNodePoint];
+      for (int j = 0; j < nbNodePoint; j++) {
+        tasks.add(ObjIntPair.of(i, j));
       }
-      CurveMetadata metadata = curveInt.getMetadata();
-      result = result.combinedWith(
-          CurveCurrencyParameterSensitivity.of(metadata, valueInit.getCurrency(), DoubleArray.copyOf(sensitivity)));
+    }
+    Stream<ObjIntPair<Integer>> stream = parallel ? tasks.parallelStream() : tasks.stream();
+    stream.forEach(task -> {
+      BumpTarget<P> target = targets.get(task.getFirst());
+      sensitivities[task.getFirst()][task.getSecond()] =
+          nodeSensitivity(target, task.getSecond(), valueFn, valueInit.getAmount());
+    });
+    CurveCurrencyParameterSensitivities result = CurveCurrencyParameterSensitivities.empty();
+    for (int i = 0; i < targets.size(); i++) {
+      result = result.combinedWith(CurveCurrencyParameterSensitivity.of(
+          targets.get(i).metadata, valueInit.getCurrency(), DoubleArray.ofUnsafe(sensitivities[i])));
     }
     return result;
   }
 
+  // computes the sensitivity to a single node
+  private <P> double nodeSensitivity(
+      BumpTarget<P> target,
+      int node,
+      Function<P, CurrencyAmount> valueFn,
+      double valueInit) {
+
+    switch (fdType) {
+      case FORWARD:
+        return (bumpedValue(target, node, shift, valueFn) - valueInit) / shift;
+      case CENTRAL:
+        return (bumpedValue(target, node, shift, valueFn) - bumpedValue(target, node, -shift, valueFn)) / (2 * shift);
+      case BACKWARD:
+        return (valueInit - bumpedValue(target, node, -shift, valueFn)) / shift;
+      default:
+        throw new IllegalArgumentException("Can only handle forward, backward and central differencing");
+    }
+  }
+
+  // computes the value with a single node bumped
+  private <P> double bumpedValue(BumpTarget<P> target, int node, double bump, Function<P, CurrencyAmount> valueFn) {
+    NodalCurve bumpedCurve = bumpedCurve(target.curve, node, bump);
+    return valueFn.apply(target.providerFn.apply(bumpedCurve)).getAmount();
+  }
+
   //-------------------------------------------------------------------------
   // check that the curve is a NodalCurve
   private NodalCurve checkNodal(Curve curve) {
@@ -211,9 +256,9 @@ public class RatesFiniteDifferenceSensitivityCalculator {
   }
 
   // create new curve by bumping the existing curve at a given parameter
-  private NodalCurve bumpedCurve(NodalCurve curveInt, int loopnode) {
+  private NodalCurve bumpedCurve(NodalCurve curveInt, int loopnode, double bump) {
     DoubleArray yValues = curveInt.getYValues();
-    return curveInt.withYValues(yValues.with(loopnode, yValues.get(loopnode) + shift));
+    return curveInt.withYValues(yValues.with(loopnode, yValues.get(loopnode) + bump));
   }
 
   // check that the discountFactors is ZeroRateDiscountFactors or SimpleDiscountFactors
@@ -236,4 +281,22 @@ public class RatesFiniteDifferenceSensitivityCalculator {
     throw new IllegalArgumentException("Not supported");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * A curve to be bumped, with the function to create the provider containing the bumped curve.
+   * 
+   * @param <P>  the type of the provider
+   */
+  private static final class BumpTarget<P> {
+    private final NodalCurve curve;
+    private final CurveMetadata metadata;
+    private final Function<NodalCurve, P> providerFn;
+
+    private BumpTarget(NodalCurve curve, CurveMetadata metadata, Function<NodalCurve, P> providerFn) {
+      this.curve = curve;
+      this.metadata = metadata;
+      this.providerFn = providerFn;
+    }
+  }
+
 }
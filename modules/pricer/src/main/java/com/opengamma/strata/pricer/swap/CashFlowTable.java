@@ -0,0 +1,421 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.product.ResolvedProduct;
+import com.opengamma.strata.product.deposit.ResolvedTermDeposit;
+import com.opengamma.strata.product.rate.FixedRateObservation;
+import com.opengamma.strata.product.rate.IborRateObservation;
+import com.opengamma.strata.product.rate.RateObservation;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.PaymentEvent;
+import com.opengamma.strata.product.swap.PaymentPeriod;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+
+/**
+ * The cash flows of a portfolio of products, held in columnar form.
+ * <p>
+ * Each product is decomposed into its payment periods and payment events, with one row
+ * per cash flow. The columns hold the product, the payment currency, the payment date
+ * and the information needed to forecast the amount:
+ * <ul>
+ * <li>a fixed amount, for fixed rate periods, notional exchanges and term deposits
+ * <li>a notional, year fraction, gearing, spread and Ibor index observation, for simple Ibor periods
+ * <li>the payment period or event itself, for all other cash flows
+ * </ul>
+ * The payment dates are held as an index into the unique dates of each currency and the
+ * Ibor observations as an index into the unique observations of the table.
+ * This allows {@link DiscountingCashFlowTablePricer} to calculate each discount factor and
+ * forward rate once for the whole portfolio.
+ * <p>
+ * The table does not depend on market data and can be reused for any number of valuations.
+ * Supported products are {@link ResolvedSwap} and {@link ResolvedTermDeposit}.
+ * This class is immutable and thread-safe.
+ */
+public final class CashFlowTable {
+
+  /** Row type for a fixed amount. */
+  static final int FIXED = 0;
+  /** Row type for an Ibor rate, linear in the forward rate. */
+  static final int IBOR = 1;
+  /** Row type for a payment period forecast by the period pricer. */
+  static final int PERIOD = 2;
+  /** Row type for a payment event forecast by the event pricer. */
+  static final int EVENT = 3;
+
+  /**
+   * The currencies of each product, in the order of the legs.
+   */
+  private final ImmutableList<ImmutableList<Currency>> productCurrencies;
+  /**
+   * The unique payment currencies.
+   */
+  private final ImmutableList<Currency> currencies;
+  /**
+   * The unique payment dates of each currency, sorted, indexed by currency.
+   */
+  private final ImmutableList<LocalDate[]> currencyDates;
+  /**
+   * The unique Ibor index observations.
+   */
+  private final ImmutableList<IborIndexObservation> observations;
+  /**
+   * The row types.
+   */
+  private final int[] type;
+  /**
+   * The product of each row.
+   */
+  private final int[] product;
+  /**
+   * The currency of each row, as an index into the currencies.
+   */
+  private final int[] currency;
+  /**
+   * The payment date of each row, as an index into the dates of the currency.
+   */
+  private final int[] date;
+  /**
+   * The fixed amount, or the notional for Ibor rows.
+   */
+  private final double[] amount;
+  /**
+   * The year fraction for Ibor rows.
+   */
+  private final double[] yearFraction;
+  /**
+   * The gearing for Ibor rows.
+   */
+  private final double[] gearing;
+  /**
+   * The spread for Ibor rows.
+   */
+  private final double[] spread;
+  /**
+   * The observation for Ibor rows, as an index into the observations.
+   */
+  private final int[] observation;
+  /**
+   * The payment period for period rows.
+   */
+  private final PaymentPeriod[] periods;
+  /**
+   * The payment event for event rows.
+   */
+  private final PaymentEvent[] events;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a table containing the cash flows of the products.
+   * <p>
+   * The products must be instances of {@link ResolvedSwap} or {@link ResolvedTermDeposit}.
+   * The results of the pricer are returned in the same order as the products.
+   *
+   * @param products  the products
+   * @return the cash flow table
+   * @throws IllegalArgumentException if a product is not supported
+   */
+  public static CashFlowTable of(List<? extends ResolvedProduct> products) {
+    ArgChecker.noNulls(products, "products");
+    Builder builder = new Builder();
+    for (ResolvedProduct product : products) {
+      if (product instanceof ResolvedSwap) {
+        builder.addSwap((ResolvedSwap) product);
+      } else if (product instanceof ResolvedTermDeposit) {
+        builder.addTermDeposit((ResolvedTermDeposit) product);
+      } else {
+        throw new IllegalArgumentException(Messages.format(
+            "Unable to create cash flow table, product type not supported: {}",
+            product.getClass().getSimpleName()));
+      }
+    }
+    return builder.build();
+  }
+
+  // restricted constructor
+  private CashFlowTable(Builder builder) {
+    int size = builder.rows.size();
+    this.productCurrencies = ImmutableList.copyOf(builder.productCurrencies);
+    this.currencies = ImmutableList.copyOf(builder.currencyIndex.keySet());
+    this.observations = ImmutableList.copyOf(builder.observationIndex.keySet());
+    // unique sorted dates for each currency
+    List<LocalDate[]> dates = new ArrayList<>();
+    List<Map<LocalDate, Integer>> dateIndices = new ArrayList<>();
+    for (Set<LocalDate> currencyDateSet : builder.dates) {
+      LocalDate[] sorted = currencyDateSet.toArray(new LocalDate[currencyDateSet.size()]);
+      Map<LocalDate, Integer> dateIndex = new HashMap<>();
+      for (int i = 0; i < sorted.length; i++) {
+        dateIndex.put(sorted[i], i);
+      }
+      dates.add(sorted);
+      dateIndices.add(dateIndex);
+    }
+    this.currencyDates = ImmutableList.copyOf(dates);
+    this.type = new int[size];
+    this.product = new int[size];
+    this.currency = new int[size];
+    this.date = new int[size];
+    this.amount = new double[size];
+    this.yearFraction = new double[size];
+    this.gearing = new double[size];
+    this.spread = new double[size];
+    this.observation = new int[size];
+    this.periods = new PaymentPeriod[size];
+    this.events = new PaymentEvent[size];
+    for (int i = 0; i < size; i++) {
+      Row row = builder.rows.get(i);
+      type[i] = row.type;
+      product[i] = row.product;
+      currency[i] = row.currency;
+      date[i] = dateIndices.get(row.currency).get(row.paymentDate);
+      amount[i] = row.amount;
+      yearFraction[i] = row.yearFraction;
+      gearing[i] = row.gearing;
+      spread[i] = row.spread;
+      observation[i] = row.observation;
+      periods[i] = row.period;
+      events[i] = row.event;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of products in the table.
+   *
+   * @return the number of products
+   */
+  public int getProductCount() {
+    return productCurrencies.size();
+  }
+
+  /**
+   * Gets the number of cash flows in the table.
+   *
+   * @return the number of cash flows
+   */
+  public int getCashFlowCount() {
+    return type.length;
+  }
+
+  /**
+   * Gets the unique payment currencies.
+   *
+   * @return the currencies
+   */
+  public ImmutableList<Currency> getCurrencies() {
+    return currencies;
+  }
+
+  /**
+   * Gets the unique payment dates of a currency, sorted.
+   *
+   * @param currency  the currency
+   * @return the payment dates, empty if the currency is not in the table
+   */
+  public ImmutableList<LocalDate> getPaymentDates(Currency currency) {
+    int index = currencies.indexOf(currency);
+    return index < 0 ? ImmutableList.of() : ImmutableList.copyOf(currencyDates.get(index));
+  }
+
+  /**
+   * Gets the unique Ibor index observations.
+   *
+   * @return the observations
+   */
+  public ImmutableList<IborIndexObservation> getObservations() {
+    return observations;
+  }
+
+  //-------------------------------------------------------------------------
+  // the currencies of the product
+  ImmutableList<Currency> productCurrencies(int productIndex) {
+    return productCurrencies.get(productIndex);
+  }
+
+  // the dates of the currency
+  LocalDate[] currencyDates(int currencyIndex) {
+    return currencyDates.get(currencyIndex);
+  }
+
+  int type(int row) {
+    return type[row];
+  }
+
+  int product(int row) {
+    return product[row];
+  }
+
+  int currency(int row) {
+    return currency[row];
+  }
+
+  int date(int row) {
+    return date[row];
+  }
+
+  double amount(int row) {
+    return amount[row];
+  }
+
+  double yearFraction(int row) {
+    return yearFraction[row];
+  }
+
+  double gearing(int row) {
+    return gearing[row];
+  }
+
+  double spread(int row) {
+    return spread[row];
+  }
+
+  int observation(int row) {
+    return observation[row];
+  }
+
+  PaymentPeriod period(int row) {
+    return periods[row];
+  }
+
+  PaymentEvent event(int row) {
+    return events[row];
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CashFlowTable[products=" + getProductCount() + ", cashFlows=" + getCashFlowCount() +
+        ", currencies=" + currencies + ", observations=" + observations.size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // a single row while building
+  private static final class Row {
+    private int type;
+    private int product;
+    private int currency;
+    private LocalDate paymentDate;
+    private double amount;
+    private double yearFraction;
+    private double gearing;
+    private double spread;
+    private int observation = -1;
+    private PaymentPeriod period;
+    private PaymentEvent event;
+  }
+
+  // the mutable state used to build the table
+  private static final class Builder {
+    private final List<ImmutableList<Currency>> productCurrencies = new ArrayList<>();
+    private final Map<Currency, Integer> currencyIndex = new LinkedHashMap<>();
+    private final List<Set<LocalDate>> dates = new ArrayList<>();
+    private final Map<IborIndexObservation, Integer> observationIndex = new LinkedHashMap<>();
+    private final List<Row> rows = new ArrayList<>();
+
+    // adds the periods and events of each leg
+    private void addSwap(ResolvedSwap swap) {
+      int productIndex = productCurrencies.size();
+      Set<Currency> legCurrencies = new LinkedHashSet<>();
+      for (ResolvedSwapLeg leg : swap.getLegs()) {
+        legCurrencies.add(leg.getCurrency());
+        for (PaymentPeriod period : leg.getPaymentPeriods()) {
+          addPeriod(productIndex, period);
+        }
+        for (PaymentEvent event : leg.getPaymentEvents()) {
+          if (event instanceof NotionalExchange) {
+            NotionalExchange exchange = (NotionalExchange) event;
+            row(productIndex, event.getCurrency(), event.getPaymentDate(), FIXED).amount =
+                exchange.getPaymentAmount().getAmount();
+          } else {
+            row(productIndex, event.getCurrency(), event.getPaymentDate(), EVENT).event = event;
+          }
+        }
+      }
+      productCurrencies.add(ImmutableList.copyOf(legCurrencies));
+    }
+
+    // adds the initial and final payments
+    private void addTermDeposit(ResolvedTermDeposit deposit) {
+      int productIndex = productCurrencies.size();
+      Currency ccy = deposit.getCurrency();
+      row(productIndex, ccy, deposit.getStartDate(), FIXED).amount = -deposit.getNotional();
+      row(productIndex, ccy, deposit.getEndDate(), FIXED).amount = deposit.getNotional() + deposit.getInterest();
+      productCurrencies.add(ImmutableList.of(ccy));
+    }
+
+    // adds a payment period, decomposing a single accrual period without FX reset where possible
+    private void addPeriod(int productIndex, PaymentPeriod period) {
+      if (period instanceof RatePaymentPeriod) {
+        RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+        if (ratePeriod.getAccrualPeriods().size() == 1 && !ratePeriod.getFxReset().isPresent()) {
+          RateAccrualPeriod accrual = ratePeriod.getAccrualPeriods().get(0);
+          RateObservation obs = accrual.getRateObservation();
+          if (obs instanceof FixedRateObservation) {
+            // same calculation as the rate payment period pricer
+            double rate = ((FixedRateObservation) obs).getRate();
+            double treatedRate = rate * accrual.getGearing() + accrual.getSpread();
+            double unitAccrual = accrual.getNegativeRateMethod().adjust(treatedRate * accrual.getYearFraction());
+            row(productIndex, period.getCurrency(), period.getPaymentDate(), FIXED).amount =
+                unitAccrual * ratePeriod.getNotional();
+            return;
+          }
+          if (obs instanceof IborRateObservation &&
+              accrual.getNegativeRateMethod() == NegativeRateMethod.ALLOW_NEGATIVE) {
+            IborIndexObservation iborObs = ((IborRateObservation) obs).getObservation();
+            Row row = row(productIndex, period.getCurrency(), period.getPaymentDate(), IBOR);
+            row.amount = ratePeriod.getNotional();
+            row.yearFraction = accrual.getYearFraction();
+            row.gearing = accrual.getGearing();
+            row.spread = accrual.getSpread();
+            row.observation = observationIndex.computeIfAbsent(iborObs, k -> observationIndex.size());
+            return;
+          }
+        }
+      }
+      row(productIndex, period.getCurrency(), period.getPaymentDate(), PERIOD).period = period;
+    }
+
+    // creates and adds a row
+    private Row row(int productIndex, Currency ccy, LocalDate paymentDate, int rowType) {
+      int currencyIdx = currencyIndex.computeIfAbsent(ccy, k -> {
+        dates.add(new TreeSet<>());
+        return currencyIndex.size();
+      });
+      dates.get(currencyIdx).add(paymentDate);
+      Row row = new Row();
+      row.type = rowType;
+      row.product = productIndex;
+      row.currency = currencyIdx;
+      row.paymentDate = paymentDate;
+      rows.add(row);
+      return row;
+    }
+
+    private CashFlowTable build() {
+      return new CashFlowTable(this);
+    }
+  }
+
+}
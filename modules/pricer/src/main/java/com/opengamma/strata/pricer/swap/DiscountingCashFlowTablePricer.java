@@ -0,0 +1,264 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.pricer.swap.CashFlowTable.EVENT;
+import static com.opengamma.strata.pricer.swap.CashFlowTable.FIXED;
+import static com.opengamma.strata.pricer.swap.CashFlowTable.IBOR;
+
+import java.time.LocalDate;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.market.view.DiscountFactors;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.swap.PaymentEvent;
+import com.opengamma.strata.product.swap.PaymentPeriod;
+
+/**
+ * Pricer for a portfolio of products decomposed into a {@link CashFlowTable}.
+ * <p>
+ * The present value of each cash flow is its forecast value multiplied by the discount factor
+ * of the payment date, as in {@link DiscountingSwapLegPricer}. Rather than pricing each product
+ * independently, the discount factors are calculated once for each unique payment date
+ * of each currency, and the forward rates once for each unique Ibor index observation.
+ * The results are then scattered back to the products.
+ * <p>
+ * The fixed and Ibor cash flows of the table are forecast directly.
+ * All other payment periods and events are forecast using the period and event pricers.
+ * The results are the same as those of {@link DiscountingSwapProductPricer} and
+ * {@code DiscountingTermDepositProductPricer} when using the standard pricers.
+ * As in those pricers, cash flows paid before the valuation date are ignored.
+ */
+public class DiscountingCashFlowTablePricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final DiscountingCashFlowTablePricer DEFAULT = new DiscountingCashFlowTablePricer(
+      PaymentPeriodPricer.instance(),
+      PaymentEventPricer.instance());
+
+  /**
+   * Pricer for {@link PaymentPeriod}.
+   */
+  private final PaymentPeriodPricer<PaymentPeriod> paymentPeriodPricer;
+  /**
+   * Pricer for {@link PaymentEvent}.
+   */
+  private final PaymentEventPricer<PaymentEvent> paymentEventPricer;
+
+  /**
+   * Creates an instance.
+   *
+   * @param paymentPeriodPricer  the pricer for {@link PaymentPeriod}
+   * @param paymentEventPricer  the pricer for {@link PaymentEvent}
+   */
+  public DiscountingCashFlowTablePricer(
+      PaymentPeriodPricer<PaymentPeriod> paymentPeriodPricer,
+      PaymentEventPricer<PaymentEvent> paymentEventPricer) {
+    this.paymentPeriodPricer = ArgChecker.notNull(paymentPeriodPricer, "paymentPeriodPricer");
+    this.paymentEventPricer = ArgChecker.notNull(paymentEventPricer, "paymentEventPricer");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of each product in the table.
+   * <p>
+   * The present value of each product is expressed in the payment currencies of the product.
+   * The result contains one element for each product, in the order the products were added to the table.
+   *
+   * @param table  the cash flow table
+   * @param provider  the rates provider
+   * @return the present value of each product
+   */
+  public ImmutableList<MultiCurrencyAmount> presentValue(CashFlowTable table, RatesProvider provider) {
+    MarketValues values = new MarketValues(table, provider);
+    int currencyCount = table.getCurrencies().size();
+    double[] pv = new double[table.getProductCount() * currencyCount];
+    for (int row = 0; row < table.getCashFlowCount(); row++) {
+      if (values.isPaid(row)) {
+        continue;
+      }
+      int index = table.product(row) * currencyCount + table.currency(row);
+      pv[index] += values.forecastValue(row) * values.discountFactor(row);
+    }
+    ImmutableList.Builder<MultiCurrencyAmount> builder = ImmutableList.builder();
+    for (int product = 0; product < table.getProductCount(); product++) {
+      MultiCurrencyAmount productPv = MultiCurrencyAmount.empty();
+      for (Currency currency : table.productCurrencies(product)) {
+        int currencyIndex = table.getCurrencies().indexOf(currency);
+        productPv = productPv.plus(CurrencyAmount.of(currency, pv[product * currencyCount + currencyIndex]));
+      }
+      builder.add(productPv);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Calculates the present value sensitivity of each product in the table.
+   * <p>
+   * The present value sensitivity of the product is the sensitivity of the present value to
+   * the underlying curves. The result contains one element for each product, in the order
+   * the products were added to the table. Each element is normalized.
+   *
+   * @param table  the cash flow table
+   * @param provider  the rates provider
+   * @return the present value curve sensitivity of each product
+   */
+  public ImmutableList<PointSensitivities> presentValueSensitivity(CashFlowTable table, RatesProvider provider) {
+    MarketValues values = new MarketValues(table, provider);
+    MutablePointSensitivities[] sensitivities = new MutablePointSensitivities[table.getProductCount()];
+    for (int product = 0; product < sensitivities.length; product++) {
+      sensitivities[product] = new MutablePointSensitivities();
+    }
+    for (int row = 0; row < table.getCashFlowCount(); row++) {
+      if (values.isPaid(row)) {
+        continue;
+      }
+      MutablePointSensitivities productSensitivity = sensitivities[table.product(row)];
+      double df = values.discountFactor(row);
+      values.discountFactorSensitivity(row).cloned()
+          .multipliedBy(values.forecastValue(row))
+          .buildInto(productSensitivity);
+      values.forecastValueSensitivity(row).multipliedBy(df).buildInto(productSensitivity);
+    }
+    ImmutableList.Builder<PointSensitivities> builder = ImmutableList.builder();
+    for (MutablePointSensitivities sensitivity : sensitivities) {
+      builder.add(sensitivity.build().normalized());
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  // the market values of a table, calculated once for each unique date and observation when first needed
+  private final class MarketValues {
+    private final CashFlowTable table;
+    private final RatesProvider provider;
+    private final LocalDate valuationDate;
+    private final DiscountFactors[] discountFactors;
+    private final double[][] dfs;
+    private final PointSensitivityBuilder[][] dfSensitivities;
+    private final boolean[] rateCalculated;
+    private final double[] rates;
+    private final PointSensitivityBuilder[] rateSensitivities;
+
+    private MarketValues(CashFlowTable table, RatesProvider provider) {
+      this.table = table;
+      this.provider = provider;
+      this.valuationDate = provider.getValuationDate();
+      int currencyCount = table.getCurrencies().size();
+      this.discountFactors = new DiscountFactors[currencyCount];
+      this.dfs = new double[currencyCount][];
+      this.dfSensitivities = new PointSensitivityBuilder[currencyCount][];
+      this.rateCalculated = new boolean[table.getObservations().size()];
+      this.rates = new double[rateCalculated.length];
+      this.rateSensitivities = new PointSensitivityBuilder[rates.length];
+    }
+
+    // checks if the cash flow was paid before the valuation date
+    private boolean isPaid(int row) {
+      return table.currencyDates(table.currency(row))[table.date(row)].isBefore(valuationDate);
+    }
+
+    // the discount factor of the payment date, the dates of a currency being discounted in one pass
+    private double discountFactor(int row) {
+      int currencyIndex = table.currency(row);
+      if (dfs[currencyIndex] == null) {
+        LocalDate[] dates = table.currencyDates(currencyIndex);
+        DiscountFactors currencyDiscountFactors = discountFactors(currencyIndex);
+        double[] currencyDfs = new double[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+          currencyDfs[i] = dates[i].isBefore(valuationDate) ? 0d : currencyDiscountFactors.discountFactor(dates[i]);
+        }
+        dfs[currencyIndex] = currencyDfs;
+      }
+      return dfs[currencyIndex][table.date(row)];
+    }
+
+    // the sensitivity of the discount factor of the payment date
+    private PointSensitivityBuilder discountFactorSensitivity(int row) {
+      int currencyIndex = table.currency(row);
+      if (dfSensitivities[currencyIndex] == null) {
+        dfSensitivities[currencyIndex] = new PointSensitivityBuilder[table.currencyDates(currencyIndex).length];
+      }
+      PointSensitivityBuilder[] currencySensitivities = dfSensitivities[currencyIndex];
+      int dateIndex = table.date(row);
+      if (currencySensitivities[dateIndex] == null) {
+        LocalDate paymentDate = table.currencyDates(currencyIndex)[dateIndex];
+        currencySensitivities[dateIndex] = discountFactors(currencyIndex).zeroRatePointSensitivity(paymentDate);
+      }
+      return currencySensitivities[dateIndex];
+    }
+
+    // the forecast value of the cash flow
+    private double forecastValue(int row) {
+      switch (table.type(row)) {
+        case FIXED:
+          return table.amount(row);
+        case IBOR:
+          // same calculation as the rate payment period pricer
+          double rate = rate(table.observation(row));
+          return (rate * table.gearing(row) + table.spread(row)) * table.yearFraction(row) * table.amount(row);
+        case EVENT:
+          return paymentEventPricer.forecastValue(table.event(row), provider);
+        default:
+          return paymentPeriodPricer.forecastValue(table.period(row), provider);
+      }
+    }
+
+    // the forecast value sensitivity of the cash flow
+    private PointSensitivityBuilder forecastValueSensitivity(int row) {
+      switch (table.type(row)) {
+        case FIXED:
+          return PointSensitivityBuilder.none();
+        case IBOR:
+          return rateSensitivity(table.observation(row)).cloned()
+              .multipliedBy(table.gearing(row) * table.yearFraction(row) * table.amount(row));
+        case EVENT:
+          return paymentEventPricer.forecastValueSensitivity(table.event(row), provider);
+        default:
+          return paymentPeriodPricer.forecastValueSensitivity(table.period(row), provider);
+      }
+    }
+
+    // the discount factors of the currency
+    private DiscountFactors discountFactors(int currencyIndex) {
+      if (discountFactors[currencyIndex] == null) {
+        discountFactors[currencyIndex] = provider.discountFactors(table.getCurrencies().get(currencyIndex));
+      }
+      return discountFactors[currencyIndex];
+    }
+
+    // the forward rate of the observation
+    private double rate(int observationIndex) {
+      if (!rateCalculated[observationIndex]) {
+        IborIndexObservation observation = table.getObservations().get(observationIndex);
+        rates[observationIndex] = provider.iborIndexRates(observation.getIndex()).rate(observation);
+        rateCalculated[observationIndex] = true;
+      }
+      return rates[observationIndex];
+    }
+
+    // the sensitivity of the forward rate of the observation
+    private PointSensitivityBuilder rateSensitivity(int observationIndex) {
+      if (rateSensitivities[observationIndex] == null) {
+        IborIndexObservation observation = table.getObservations().get(observationIndex);
+        rateSensitivities[observationIndex] =
+            provider.iborIndexRates(observation.getIndex()).ratePointSensitivity(observation);
+      }
+      return rateSensitivities[observationIndex];
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ import com.opengamma.strata.market.amount.CashFlow;
 import com.opengamma.strata.market.amount.CashFlows;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.swap.KnownAmountPaymentPeriod;
@@ -201,6 +202,35 @@ public class DiscountingSwapLegPricer {
         paymentEventPricer::presentValueSensitivity);
   }
 
+  /**
+   * Calculates the present value sensitivity of the swap leg, adding it to the accumulator.
+   * <p>
+   * The sensitivity added is the same as {@link #presentValueSensitivity(ResolvedSwapLeg, RatesProvider)}.
+   * The payment periods add their point sensitivities directly to the accumulator, avoiding the
+   * intermediate builders of the standard method. This is intended for high volume calculations
+   * where the sensitivities of many legs are combined.
+   * 
+   * @param leg  the leg
+   * @param provider  the rates provider
+   * @param accumulator  the mutable sensitivities to add the sensitivity to
+   */
+  public void presentValueSensitivity(
+      ResolvedSwapLeg leg,
+      RatesProvider provider,
+      MutablePointSensitivities accumulator) {
+
+    for (PaymentPeriod period : leg.getPaymentPeriods()) {
+      if (!period.getPaymentDate().isBefore(provider.getValuationDate())) {
+        paymentPeriodPricer.presentValueSensitivity(period, provider, 1d, accumulator);
+      }
+    }
+    for (PaymentEvent event : leg.getPaymentEvents()) {
+      if (!event.getPaymentDate().isBefore(provider.getValuationDate())) {
+        paymentEventPricer.presentValueSensitivity(event, provider).buildInto(accumulator);
+      }
+    }
+  }
+
   /**
    * Calculates the forecast value sensitivity of the swap leg.
    * <p>
@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer.swap;
 
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.impl.swap.DispatchingPaymentPeriodPricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -62,6 +63,28 @@ public interface PaymentPeriodPricer<T extends PaymentPeriod> {
    */
   public abstract PointSensitivityBuilder presentValueSensitivity(T period, RatesProvider provider);
 
+  /**
+   * Calculates the present value sensitivity of a single payment period, adding it to the accumulator.
+   * <p>
+   * The sensitivity added is the same as {@link #presentValueSensitivity(PaymentPeriod, RatesProvider)}
+   * multiplied by the factor. Implementations may override this method to add each point sensitivity
+   * directly to the accumulator, avoiding the intermediate builders of the standard method.
+   * This is intended for high volume calculations where the sensitivities of many periods are combined.
+   * 
+   * @param period  the period
+   * @param provider  the rates provider
+   * @param factor  the factor to multiply the sensitivity by
+   * @param accumulator  the mutable sensitivities to add the sensitivity to
+   */
+  public default void presentValueSensitivity(
+      T period,
+      RatesProvider provider,
+      double factor,
+      MutablePointSensitivities accumulator) {
+
+    presentValueSensitivity(period, provider).multipliedBy(factor).buildInto(accumulator);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the forecast value of a single payment period.
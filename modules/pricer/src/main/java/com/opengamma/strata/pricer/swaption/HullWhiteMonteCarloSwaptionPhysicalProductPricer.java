@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swaption;
+
+import java.time.LocalDate;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloPath;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloResult;
+import com.opengamma.strata.pricer.impl.rate.swap.CashFlowEquivalentCalculator;
+import com.opengamma.strata.pricer.index.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.PaymentEventPricer;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.PaymentEvent;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+import com.opengamma.strata.product.swaption.SettlementType;
+
+/**
+ * Pricer for swaption with physical settlement in Hull-White one factor model with piecewise constant volatility,
+ * using Monte Carlo simulation.
+ * <p>
+ * The underlying swap is replaced by its cash flow equivalent, as in {@link HullWhiteSwaptionPhysicalProductPricer}.
+ * The value of the cash flows on the expiry date is simulated with {@link HullWhiteMonteCarloEngine}
+ * and the option is exercised on the paths where the value is positive.
+ * <p>
+ * The present value sensitivity is calculated pathwise, using the derivative of the payoff
+ * with respect to the discounted cash flows on each path.
+ * <p>
+ * This pricer is mainly intended as a reference for the closed form pricer and as an example of
+ * the use of the engine. The same approach applies to products without a closed form.
+ */
+public class HullWhiteMonteCarloSwaptionPhysicalProductPricer {
+
+  /**
+   * Default implementation, using 2^16 - 1 paths of a Sobol sequence.
+   */
+  public static final HullWhiteMonteCarloSwaptionPhysicalProductPricer DEFAULT =
+      new HullWhiteMonteCarloSwaptionPhysicalProductPricer(
+          PaymentEventPricer.instance(),
+          HullWhiteMonteCarloEngine.ofSobol(65535));
+
+  /**
+   * Pricer for {@link PaymentEvent}.
+   */
+  private final PaymentEventPricer<PaymentEvent> paymentEventPricer;
+  /**
+   * The Monte Carlo engine.
+   */
+  private final HullWhiteMonteCarloEngine engine;
+
+  /**
+   * Creates an instance.
+   *
+   * @param paymentEventPricer  the pricer for {@link PaymentEvent}
+   * @param engine  the Monte Carlo engine
+   */
+  public HullWhiteMonteCarloSwaptionPhysicalProductPricer(
+      PaymentEventPricer<PaymentEvent> paymentEventPricer,
+      HullWhiteMonteCarloEngine engine) {
+
+    this.paymentEventPricer = ArgChecker.notNull(paymentEventPricer, "paymentEventPricer");
+    this.engine = ArgChecker.notNull(engine, "engine");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the swaption product.
+   * <p>
+   * The result is expressed using the currency of the swapion.
+   *
+   * @param swaption  the product
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the present value of the swaption product
+   */
+  public CurrencyAmount presentValue(
+      ResolvedSwaption swaption,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    validate(swaption, ratesProvider, hwProvider);
+    ResolvedSwap swap = swaption.getUnderlying();
+    LocalDate expiryDate = swaption.getExpiryDate();
+    if (expiryDate.isBefore(ratesProvider.getValuationDate())) { // Option has expired already
+      return CurrencyAmount.of(swap.getLegs().get(0).getCurrency(), 0d);
+    }
+    ImmutableList<PaymentEvent> payments =
+        CashFlowEquivalentCalculator.cashFlowEquivalentSwap(swap, ratesProvider).getPaymentEvents();
+    HullWhiteMonteCarloResult result = simulate(payments, expiryDate, ratesProvider, hwProvider, false);
+    double sign = swaption.getLongShort().isLong() ? 1d : -1d;
+    return CurrencyAmount.of(swap.getLegs().get(0).getCurrency(), sign * result.getValue(0));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the currency exposure of the swaption product.
+   *
+   * @param swaption  the product
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the currency exposure of the swaption product
+   */
+  public MultiCurrencyAmount currencyExposure(
+      ResolvedSwaption swaption,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    return MultiCurrencyAmount.of(presentValue(swaption, ratesProvider, hwProvider));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value sensitivity of the swaption product.
+   * <p>
+   * The present value sensitivity of the product is the sensitivity of the present value to
+   * the underlying curves.
+   *
+   * @param swaption  the product
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the present value curve sensitivity of the swaption product
+   */
+  public PointSensitivityBuilder presentValueSensitivity(
+      ResolvedSwaption swaption,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    validate(swaption, ratesProvider, hwProvider);
+    ResolvedSwap swap = swaption.getUnderlying();
+    LocalDate expiryDate = swaption.getExpiryDate();
+    if (expiryDate.isBefore(ratesProvider.getValuationDate())) { // Option has expired already
+      return PointSensitivityBuilder.none();
+    }
+    ImmutableMap<NotionalExchange, PointSensitivityBuilder> cashFlowEquivSensi =
+        CashFlowEquivalentCalculator.cashFlowEquivalentAndSensitivitySwap(swap, ratesProvider);
+    ImmutableList<NotionalExchange> list = cashFlowEquivSensi.keySet().asList();
+    ImmutableList<PointSensitivityBuilder> listSensi = cashFlowEquivSensi.values().asList();
+    HullWhiteMonteCarloResult result = simulate(list, expiryDate, ratesProvider, hwProvider, true);
+    PointSensitivityBuilder point = PointSensitivityBuilder.none();
+    for (int loopcf = 0; loopcf < list.size(); loopcf++) {
+      NotionalExchange payment = list.get(loopcf);
+      // derivative of the present value with respect to the discounted cash flow
+      double derivative = result.getValue(loopcf + 1);
+      point = point.combinedWith(
+          paymentEventPricer.presentValueSensitivity(payment, ratesProvider).multipliedBy(derivative));
+      if (!listSensi.get(loopcf).equals(PointSensitivityBuilder.none())) {
+        point = point.combinedWith(listSensi.get(loopcf)
+            .multipliedBy(derivative * ratesProvider.discountFactor(payment.getCurrency(), payment.getPaymentDate())));
+      }
+    }
+    return swaption.getLongShort().isLong() ? point : point.multipliedBy(-1d);
+  }
+
+  //-------------------------------------------------------------------------
+  // simulates the value of the cash flows at expiry, with the pathwise derivatives if requested
+  private HullWhiteMonteCarloResult simulate(
+      ImmutableList<? extends PaymentEvent> payments,
+      LocalDate expiryDate,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider,
+      boolean derivatives) {
+
+    int nPayments = payments.size();
+    double[] maturityTimes = new double[nPayments];
+    double[] discountedCashFlow = new double[nPayments];
+    for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+      PaymentEvent payment = payments.get(loopcf);
+      maturityTimes[loopcf] = hwProvider.relativeTime(payment.getPaymentDate());
+      discountedCashFlow[loopcf] = paymentEventPricer.presentValue(payment, ratesProvider);
+    }
+    int valueCount = derivatives ? nPayments + 1 : 1;
+    return engine.simulate(
+        hwProvider.getParameters(),
+        DoubleArray.of(hwProvider.relativeTime(expiryDate)),
+        DoubleArray.ofUnsafe(maturityTimes),
+        valueCount,
+        (path, values) -> exercise(path, discountedCashFlow, derivatives, values));
+  }
+
+  // the value of the swap on exercise, and the derivatives with respect to the discounted cash flows
+  private static void exercise(
+      HullWhiteMonteCarloPath path,
+      double[] discountedCashFlow,
+      boolean derivatives,
+      double[] values) {
+
+    double swapValue = 0d;
+    for (int loopcf = 0; loopcf < discountedCashFlow.length; loopcf++) {
+      swapValue += discountedCashFlow[loopcf] * path.bondFactor(0, loopcf);
+    }
+    if (swapValue > 0d) {
+      values[0] = swapValue;
+      if (derivatives) {
+        for (int loopcf = 0; loopcf < discountedCashFlow.length; loopcf++) {
+          values[loopcf + 1] = path.bondFactor(0, loopcf);
+        }
+      }
+    }
+  }
+
+  // validate that the rates and volatilities providers are coherent
+  private void validate(ResolvedSwaption swaption, RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+    ArgChecker.isTrue(hwProvider.getValuationDateTime().toLocalDate().equals(ratesProvider.getValuationDate()),
+        "Hull-White model data and rate data should be for the same date");
+    ArgChecker.isFalse(swaption.getUnderlying().isCrossCurrency(), "underlying swap should be single currency");
+    ArgChecker.isTrue(swaption.getSwaptionSettlement().getSettlementType().equals(SettlementType.PHYSICAL),
+        "swaption should be physical settlement");
+  }
+
+}
@@ -10,6 +10,7 @@ import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
 import static com.opengamma.strata.basics.date.HolidayCalendarIds.JPTO;
 import static com.opengamma.strata.basics.date.HolidayCalendarIds.SAT_SUN;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.market.value.CompoundedRateType.CONTINUOUS;
 import static com.opengamma.strata.market.value.CompoundedRateType.PERIODIC;
@@ -17,9 +18,11 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
@@ -768,4 +771,67 @@ public class DiscountingFixedCouponBondProductPricerTest {
         UnsupportedOperationException.class, "The convention JAPAN_SIMPLE is not supported.");
   }
 
+  //-------------------------------------------------------------------------
+  public void yieldKernel() {
+    assertYieldKernel(PRODUCT, VAL_DATE.plusDays(3), 0.025);
+    assertYieldKernel(PRODUCT_NO_EXCOUPON, VAL_DATE.plusDays(3), 0.025);
+    assertYieldKernel(PRODUCT_US, SETTLEMENT_US, YIELD_US);
+    assertYieldKernel(PRODUCT_US, SETTLEMENT_LAST_US, YIELD_US);
+    assertYieldKernel(PRODUCT_UK, SETTLEMENT_UK, YIELD_UK);
+    assertYieldKernel(PRODUCT_UK, SETTLEMENT_LAST_UK, YIELD_UK);
+    assertYieldKernel(PRODUCT_GER, SETTLEMENT_GER, YIELD_GER);
+    assertYieldKernel(PRODUCT_GER, SETTLEMENT_LAST_GER, YIELD_GER);
+    assertYieldKernel(PRODUCT_JP, SETTLEMENT_JP, YIELD_JP);
+    assertYieldKernel(PRODUCT_JP, SETTLEMENT_LAST_JP, YIELD_JP);
+  }
+
+  public void yieldKernelEnded() {
+    FixedCouponBondYieldKernel kernel = PRICER.yieldKernel(PRODUCT_JP, SETTLEMENT_ENDED_JP);
+    assertEquals(kernel.dirtyPriceFromYield(YIELD_JP), 0d, TOL);
+    assertEquals(kernel.modifiedDurationFromYield(YIELD_JP), 0d, EPS);
+    assertEquals(kernel.convexityFromYield(YIELD_JP), 0d, EPS);
+  }
+
+  public void yieldKernelArrays() {
+    FixedCouponBondYieldKernel kernel = PRICER.yieldKernel(PRODUCT_UK, SETTLEMENT_UK);
+    DoubleArray yields = DoubleArray.of(-0.005, 0.0, 0.01, 0.04, 0.12, 0.35);
+    DoubleArray prices = kernel.dirtyPricesFromYields(yields);
+    for (int i = 0; i < yields.size(); i++) {
+      assertEquals(prices.get(i), PRICER.dirtyPriceFromYield(PRODUCT_UK, SETTLEMENT_UK, yields.get(i)), TOL);
+    }
+    assertTrue(kernel.yieldsFromDirtyPrices(prices).equalWithTolerance(yields, TOL));
+  }
+
+  public void yieldKernelBonds() {
+    List<ResolvedFixedCouponBond> bonds = ImmutableList.of(PRODUCT_US, PRODUCT_UK, PRODUCT_GER, PRODUCT_JP);
+    DoubleArray yields = DoubleArray.of(0.03, 0.04, 0.05, 0.01);
+    DoubleArray prices = PRICER.dirtyPricesFromYields(bonds, SETTLEMENT_US, yields);
+    for (int i = 0; i < bonds.size(); i++) {
+      assertEquals(prices.get(i), PRICER.dirtyPriceFromYield(bonds.get(i), SETTLEMENT_US, yields.get(i)), TOL);
+    }
+    assertTrue(PRICER.yieldsFromDirtyPrices(bonds, SETTLEMENT_US, prices).equalWithTolerance(yields, TOL));
+    assertThrowsIllegalArg(() -> PRICER.yieldsFromDirtyPrices(bonds, SETTLEMENT_US, DoubleArray.of(1d)));
+  }
+
+  // compares the kernel with the methods of the pricer
+  private static void assertYieldKernel(ResolvedFixedCouponBond bond, LocalDate settlementDate, double yield) {
+    FixedCouponBondYieldKernel kernel = PRICER.yieldKernel(bond, settlementDate);
+    assertEquals(kernel.getYieldConvention(), bond.getYieldConvention());
+    assertEquals(kernel.getAccruedInterest(), PRICER.accruedInterest(bond, settlementDate) / bond.getNotional(), TOL);
+    double dirtyPrice = PRICER.dirtyPriceFromYield(bond, settlementDate, yield);
+    assertEquals(kernel.dirtyPriceFromYield(yield), dirtyPrice, TOL);
+    assertEquals(kernel.yieldFromDirtyPrice(dirtyPrice), yield, TOL);
+    assertEquals(kernel.yieldFromDirtyPrice(dirtyPrice, 0.5), yield, TOL);
+    assertEquals(PRICER.yieldFromDirtyPrice(bond, settlementDate, dirtyPrice), yield, TOL);
+    assertEquals(kernel.modifiedDurationFromYield(yield),
+        PRICER.modifiedDurationFromYield(bond, settlementDate, yield), TOL);
+    assertEquals(kernel.convexityFromYield(yield), PRICER.convexityFromYield(bond, settlementDate, yield), TOL);
+    double[] derivatives = kernel.dirtyPriceFromYieldWithDerivatives(yield);
+    double priceUp = kernel.dirtyPriceFromYield(yield + EPS);
+    double priceDw = kernel.dirtyPriceFromYield(yield - EPS);
+    assertEquals(derivatives[0], dirtyPrice, TOL);
+    assertEquals(derivatives[1], 0.5 * (priceUp - priceDw) / EPS, EPS);
+    assertEquals(derivatives[2], (priceUp + priceDw - 2d * dirtyPrice) / EPS / EPS, 1.0e-2);
+  }
+
 }
@@ -8,8 +8,10 @@ package com.opengamma.strata.pricer.calibration;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
 import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.Period;
@@ -22,6 +24,7 @@ import java.util.Set;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
@@ -33,15 +36,20 @@ import com.opengamma.strata.basics.market.ImmutableMarketDataBuilder;
 import com.opengamma.strata.basics.market.MarketData;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.basics.market.StandardId;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.ConstantNodalCurve;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveMetadata;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.DefaultCurveMetadata;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
+import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.market.curve.node.FixedIborSwapCurveNode;
 import com.opengamma.strata.market.curve.node.FraCurveNode;
 import com.opengamma.strata.market.curve.node.IborFixingDepositCurveNode;
@@ -213,6 +221,65 @@ public class CalibrationDiscountingSimple1Test {
     }
   }
 
+  public void calibration_initial_curves() {
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, VAL_DATE, ALL_QUOTES, REF_DATA, TS);
+    Curve curve = expected.getDiscountCurves().get(USD);
+    ImmutableRatesProvider computed = CALIBRATOR.calibrate(
+        CURVE_GROUP_DEFN, VAL_DATE, ALL_QUOTES, REF_DATA, TS, ImmutableMap.of(ALL_CURVE_NAME, curve));
+    NodalCurve computedCurve = (NodalCurve) computed.getDiscountCurves().get(USD);
+    assertTrue(computedCurve.getYValues().equalWithTolerance(((NodalCurve) curve).getYValues(), 1e-10));
+    // curve with a different number of parameters is ignored
+    Curve other = ConstantNodalCurve.of(ALL_CURVE_NAME, 0.01);
+    ImmutableRatesProvider ignored = CALIBRATOR.calibrate(
+        CURVE_GROUP_DEFN, VAL_DATE, ALL_QUOTES, REF_DATA, TS, ImmutableMap.of(ALL_CURVE_NAME, other));
+    assertEquals(ignored.getDiscountCurves().get(USD), curve);
+  }
+
+  public void calibration_linear() {
+    ImmutableRatesProvider base = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, VAL_DATE, ALL_QUOTES, REF_DATA, TS);
+    DoubleArray baseParams = ((NodalCurve) base.getDiscountCurves().get(USD)).getYValues();
+    // unchanged market data
+    LinearCalibrationResult unchanged = CALIBRATOR.calibrateLinear(CURVE_GROUP_DEFN, base, ALL_QUOTES, REF_DATA, false);
+    NodalCurve unchangedCurve = (NodalCurve) unchanged.getRatesProvider().getDiscountCurves().get(USD);
+    assertTrue(unchangedCurve.getYValues().equalWithTolerance(baseParams, 1e-9));
+    assertTrue(unchanged.getMaxResidual() < 1e-9);
+    // shifted market data, compared to the full calibration
+    ImmutableMarketDataBuilder builder = ImmutableMarketData.builder(VAL_DATE);
+    for (int i = 0; i < FWD3_NB_NODES; i++) {
+      builder.addValue(QuoteKey.of(StandardId.of(SCHEME, FWD3_ID_VALUE[i])), FWD3_MARKET_QUOTES[i] + 0.0001 * (i + 1));
+    }
+    MarketData shiftedQuotes = builder.build();
+    ImmutableRatesProvider full = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, VAL_DATE, shiftedQuotes, REF_DATA, TS);
+    DoubleArray fullParams = ((NodalCurve) full.getDiscountCurves().get(USD)).getYValues();
+    LinearCalibrationResult linear =
+        CALIBRATOR.calibrateLinear(CURVE_GROUP_DEFN, base, shiftedQuotes, REF_DATA, false);
+    LinearCalibrationResult corrected =
+        CALIBRATOR.calibrateLinear(CURVE_GROUP_DEFN, base, shiftedQuotes, REF_DATA, true);
+    DoubleArray linearParams = ((NodalCurve) linear.getRatesProvider().getDiscountCurves().get(USD)).getYValues();
+    DoubleArray correctedParams =
+        ((NodalCurve) corrected.getRatesProvider().getDiscountCurves().get(USD)).getYValues();
+    double linearError = linearParams.minus(fullParams).stream().map(Math::abs).max().getAsDouble();
+    double correctedError = correctedParams.minus(fullParams).stream().map(Math::abs).max().getAsDouble();
+    assertTrue(linearError < 1e-5);
+    assertTrue(correctedError < linearError);
+    assertTrue(linear.getMaxResidual() > 0d);
+    assertTrue(corrected.getMaxResidual() < linear.getMaxResidual());
+    assertEquals(linear.getResiduals().size(), FWD3_NB_NODES);
+    // the curves contain the Jacobian of the base calibration
+    assertEquals(
+        linear.getRatesProvider().getDiscountCurves().get(USD).getMetadata().getInfo(CurveInfoType.JACOBIAN),
+        base.getDiscountCurves().get(USD).getMetadata().getInfo(CurveInfoType.JACOBIAN));
+  }
+
+  public void calibration_linear_noJacobian() {
+    ImmutableRatesProvider base = ImmutableRatesProvider.builder(VAL_DATE)
+        .discountCurve(USD, ConstantNodalCurve.of(ALL_CURVE_NAME, 0.01))
+        .build();
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrateLinear(CURVE_GROUP_DEFN, base, ALL_QUOTES, REF_DATA, false));
+    ImmutableRatesProvider other = ImmutableRatesProvider.builder(VAL_DATE).build();
+    assertThrowsIllegalArg(() -> CALIBRATOR.calibrateLinear(CURVE_GROUP_DEFN, other, ALL_QUOTES, REF_DATA, false));
+  }
+
   //-------------------------------------------------------------------------
   @Test(enabled = false)
   void performance() {
@@ -236,4 +303,26 @@ public class CalibrationDiscountingSimple1Test {
     // Previous run: 290 ms for 100 calibrations (1 curve - 9 nodes)
   }
 
+  @Test(enabled = false)
+  void performance_linear() {
+    long startTime, endTime;
+    int nbTests = 1000;
+    int nbRep = 5;
+    int count = 0;
+    ImmutableRatesProvider base = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, VAL_DATE, ALL_QUOTES, REF_DATA, TS);
+
+    for (int i = 0; i < nbRep; i++) {
+      startTime = System.currentTimeMillis();
+      for (int looprep = 0; looprep < nbTests; looprep++) {
+        LinearCalibrationResult result =
+            CALIBRATOR.calibrateLinear(CURVE_GROUP_DEFN, base, ALL_QUOTES, REF_DATA, false);
+        count += result.getRatesProvider().getDiscountCurves().size();
+      }
+      endTime = System.currentTimeMillis();
+      System.out.println("Performance: " + nbTests + " linear calibrations for 1 curve with 9 nodes in "
+          + (endTime - startTime) + " ms.");
+    }
+    System.out.println("Avoiding hotspot: " + count);
+  }
+
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.capfloor;
+
+import static com.opengamma.strata.basics.PayReceive.PAY;
+import static com.opengamma.strata.basics.PayReceive.RECEIVE;
+import static com.opengamma.strata.basics.PutCall.CALL;
+import static com.opengamma.strata.basics.PutCall.PUT;
+import static com.opengamma.strata.basics.index.IborIndices.EUR_EURIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.collect.TestHelper.dateUtc;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.market.MarketDataBox;
+import com.opengamma.strata.basics.value.ValueSchedule;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivities;
+import com.opengamma.strata.market.view.IborCapletFloorletVolatilities;
+import com.opengamma.strata.pricer.impl.capfloor.IborCapletFloorletDataSet;
+import com.opengamma.strata.pricer.impl.capfloor.VolatilityIborCapletFloorletPeriodPricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.capfloor.IborCapletFloorletPeriod;
+import com.opengamma.strata.product.capfloor.ResolvedIborCapFloorLeg;
+
+/**
+ * Test {@link VectorizedIborCapFloorLegPricer}.
+ */
+@Test
+public class VectorizedIborCapFloorLegPricerTest {
+
+  private static final double STRIKE = 0.015;
+  private static final double NOTIONAL_VALUE = 100_000_000;
+  private static final ValueSchedule STRIKE_SCHEDULE = ValueSchedule.of(STRIKE);
+  private static final ValueSchedule NOTIONAL = ValueSchedule.of(NOTIONAL_VALUE);
+  private static final LocalDate START = LocalDate.of(2011, 3, 17);
+  private static final LocalDate END = LocalDate.of(2016, 3, 17);
+  private static final ResolvedIborCapFloorLeg CAP =
+      IborCapFloorDataSet.createCapFloorLeg(EUR_EURIBOR_3M, START, END, STRIKE_SCHEDULE, NOTIONAL, CALL, RECEIVE);
+  private static final ResolvedIborCapFloorLeg FLOOR =
+      IborCapFloorDataSet.createCapFloorLeg(EUR_EURIBOR_3M, START, END, STRIKE_SCHEDULE, NOTIONAL, PUT, PAY);
+  // valuation before start
+  private static final ZonedDateTime VALUATION = dateUtc(2011, 1, 20);
+  private static final ImmutableRatesProvider RATES =
+      IborCapletFloorletDataSet.createRatesProvider(VALUATION.toLocalDate());
+  private static final IborCapletFloorletVolatilities BLACK_VOLS =
+      IborCapletFloorletDataSet.createBlackVolatilitiesProvider(VALUATION, EUR_EURIBOR_3M);
+  private static final IborCapletFloorletVolatilities NORMAL_VOLS =
+      IborCapletFloorletDataSet.createNormalVolatilitiesProvider(VALUATION, EUR_EURIBOR_3M);
+  // valuation between fixing of 3rd period and payment of 2nd period
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 6, 15), 0.012)
+      .put(date(2011, 9, 15), 0.0125)
+      .build();
+  private static final ZonedDateTime VALUATION_AFTER = dateUtc(2011, 9, 16);
+  private static final ImmutableRatesProvider RATES_AFTER =
+      IborCapletFloorletDataSet.createRatesProvider(VALUATION_AFTER.toLocalDate(), EUR_EURIBOR_3M, TIME_SERIES);
+  private static final IborCapletFloorletVolatilities BLACK_VOLS_AFTER =
+      IborCapletFloorletDataSet.createBlackVolatilitiesProvider(VALUATION_AFTER, EUR_EURIBOR_3M);
+  private static final IborCapletFloorletVolatilities NORMAL_VOLS_AFTER =
+      IborCapletFloorletDataSet.createNormalVolatilitiesProvider(VALUATION_AFTER, EUR_EURIBOR_3M);
+
+  private static final double TOL = 1.0e-14;
+  private static final VectorizedIborCapFloorLegPricer PRICER = VectorizedIborCapFloorLegPricer.DEFAULT;
+  private static final VolatilityIborCapFloorLegPricer PRICER_LEG = VolatilityIborCapFloorLegPricer.DEFAULT;
+  private static final VolatilityIborCapletFloorletPeriodPricer PRICER_PERIOD =
+      VolatilityIborCapletFloorletPeriodPricer.DEFAULT;
+
+  //-------------------------------------------------------------------------
+  public void test_black() {
+    assertValues(CAP, RATES, BLACK_VOLS);
+    assertValues(FLOOR, RATES, BLACK_VOLS);
+    assertValues(CAP, RATES_AFTER, BLACK_VOLS_AFTER);
+    assertValues(FLOOR, RATES_AFTER, BLACK_VOLS_AFTER);
+  }
+
+  public void test_normal() {
+    assertValues(CAP, RATES, NORMAL_VOLS);
+    assertValues(FLOOR, RATES, NORMAL_VOLS);
+    assertValues(CAP, RATES_AFTER, NORMAL_VOLS_AFTER);
+    assertValues(FLOOR, RATES_AFTER, NORMAL_VOLS_AFTER);
+  }
+
+  public void test_after() {
+    IborCapFloorLegValues computed = PRICER.presentValueWithSensitivities(FLOOR, RATES_AFTER, BLACK_VOLS_AFTER);
+    // paid, fixed and live periods
+    assertEquals(computed.getPeriodPresentValues().get(0), 0d);
+    assertTrue(computed.getPeriodPresentValues().get(1) < 0d);
+    assertEquals(computed.getPeriodVegas().get(1), 0d);
+    assertTrue(computed.getPeriodVegas().get(3) < 0d);
+  }
+
+  // compares the vectorized values with the values of the leg and period pricers
+  private static void assertValues(
+      ResolvedIborCapFloorLeg leg,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities) {
+
+    IborCapFloorLegValues computed = PRICER.presentValueWithSensitivities(leg, ratesProvider, volatilities);
+    CurrencyAmount pv = PRICER_LEG.presentValue(leg, ratesProvider, volatilities);
+    assertEquals(computed.getPresentValue().getCurrency(), pv.getCurrency());
+    assertEquals(computed.getPresentValue().getAmount(), pv.getAmount(), TOL * NOTIONAL_VALUE);
+    assertEquals(PRICER.presentValue(leg, ratesProvider, volatilities), computed.getPresentValue());
+    int nbPeriods = leg.getCapletFloorletPeriods().size();
+    assertEquals(computed.getPeriodPresentValues().size(), nbPeriods);
+    assertEquals(computed.getPeriodVegas().size(), nbPeriods);
+    for (int i = 0; i < nbPeriods; i++) {
+      IborCapletFloorletPeriod period = leg.getCapletFloorletPeriods().get(i);
+      double periodPv = PRICER_PERIOD.presentValue(period, ratesProvider, volatilities).getAmount();
+      assertEquals(computed.getPeriodPresentValues().get(i), periodPv, TOL * NOTIONAL_VALUE);
+      if (volatilities.relativeTime(period.getFixingDateTime()) > 0d) {
+        double forward = ratesProvider.iborIndexRates(period.getIndex()).rate(period.getIborRate().getObservation());
+        double volatility = volatilities.volatility(period.getFixingDateTime(), period.getStrike(), forward);
+        double vega = PRICER_PERIOD.presentValueSensitivityVolatility(period, ratesProvider, volatilities)
+            .build().getSensitivities().get(0).getSensitivity();
+        assertEquals(computed.getPeriodVegas().get(i), vega, TOL * NOTIONAL_VALUE);
+        assertTrue(volatility > 0d);
+      } else {
+        assertEquals(computed.getPeriodVegas().get(i), 0d);
+      }
+    }
+    CurveCurrencyParameterSensitivities sensiComputed =
+        ratesProvider.curveParameterSensitivity(computed.getPresentValueSensitivity().build());
+    CurveCurrencyParameterSensitivities sensiExpected = ratesProvider.curveParameterSensitivity(
+        PRICER_LEG.presentValueSensitivity(leg, ratesProvider, volatilities).build());
+    assertTrue(sensiComputed.equalWithTolerance(sensiExpected, TOL * NOTIONAL_VALUE));
+    assertTrue(computed.getPresentValueSensitivityVolatility().build().normalized().equalWithTolerance(
+        PRICER_LEG.presentValueSensitivityVolatility(leg, ratesProvider, volatilities).build().normalized(),
+        TOL * NOTIONAL_VALUE));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_scenarios() {
+    MarketDataBox<CurrencyAmount> computed = PRICER.presentValue(
+        CAP,
+        MarketDataBox.ofScenarioValues(RATES, RATES_AFTER, RATES),
+        MarketDataBox.ofScenarioValues(BLACK_VOLS, BLACK_VOLS_AFTER, BLACK_VOLS));
+    assertEquals(computed.getScenarioCount(), 3);
+    assertEquals(computed.getValue(0), PRICER.presentValue(CAP, RATES, BLACK_VOLS));
+    assertEquals(computed.getValue(1), PRICER.presentValue(CAP, RATES_AFTER, BLACK_VOLS_AFTER));
+    assertEquals(computed.getValue(2), PRICER.presentValue(CAP, RATES, BLACK_VOLS));
+  }
+
+  public void test_scenarios_singleValue() {
+    MarketDataBox<CurrencyAmount> single =
+        PRICER.presentValue(FLOOR, MarketDataBox.ofSingleValue(RATES), MarketDataBox.ofSingleValue(NORMAL_VOLS));
+    assertTrue(single.isSingleValue());
+    assertEquals(single.getSingleValue(), PRICER.presentValue(FLOOR, RATES, NORMAL_VOLS));
+    MarketDataBox<CurrencyAmount> computed = PRICER.presentValue(
+        FLOOR,
+        MarketDataBox.ofSingleValue(RATES),
+        MarketDataBox.ofScenarioValues(NORMAL_VOLS, BLACK_VOLS));
+    assertEquals(computed.getScenarioCount(), 2);
+    assertEquals(computed.getValue(0).getAmount(),
+        PRICER_LEG.presentValue(FLOOR, RATES, NORMAL_VOLS).getAmount(), TOL * NOTIONAL_VALUE);
+    assertEquals(computed.getValue(1).getAmount(),
+        PRICER_LEG.presentValue(FLOOR, RATES, BLACK_VOLS).getAmount(), TOL * NOTIONAL_VALUE);
+  }
+
+  public void test_scenarios_invalid() {
+    assertThrowsIllegalArg(() -> PRICER.presentValue(
+        CAP,
+        MarketDataBox.ofScenarioValues(RATES, RATES),
+        MarketDataBox.ofScenarioValues(BLACK_VOLS, BLACK_VOLS, BLACK_VOLS)));
+    assertThrowsIllegalArg(() -> PRICER.presentValue(
+        CAP,
+        MarketDataBox.ofScenarioValues(RATES, RATES_AFTER),
+        MarketDataBox.ofSingleValue(BLACK_VOLS)));
+    assertThrowsIllegalArg(() -> PRICER.presentValue(CAP, RATES_AFTER, BLACK_VOLS));
+  }
+
+}
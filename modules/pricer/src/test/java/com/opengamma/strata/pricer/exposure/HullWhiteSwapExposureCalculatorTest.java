@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.exposure;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_3M;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_6M;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.BuySell;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloEngine;
+import com.opengamma.strata.pricer.index.HullWhiteIborFutureDataSet;
+import com.opengamma.strata.pricer.index.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.swap.ResolvedSwapTrade;
+
+/**
+ * Test {@link HullWhiteSwapExposureCalculator}.
+ */
+@Test
+public class HullWhiteSwapExposureCalculatorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2016, 7, 5);
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .putAll(Stream.iterate(date(2015, 12, 1), d -> d.plusDays(1)).limit(217).collect(toImmutableList()),
+          DoubleArray.filled(217, 0.01).toArray())
+      .build();
+  private static final ImmutableRatesProvider RATES_PROVIDER =
+      HullWhiteIborFutureDataSet.createRatesProvider(VAL_DATE).toBuilder()
+          .timeSeries(EUR_FIXED_1Y_EURIBOR_6M.getFloatingLeg().getIndex(), TIME_SERIES)
+          .build();
+  private static final HullWhiteOneFactorPiecewiseConstantParametersProvider HW_PROVIDER =
+      HullWhiteIborFutureDataSet.createHullWhiteProvider(VAL_DATE);
+  private static final DiscountingSwapProductPricer SWAP_PRICER = DiscountingSwapProductPricer.DEFAULT;
+  private static final double NOTIONAL = 1_000_000d;
+
+  // a seasoned swap, whose current fixings are in the time-series
+  private static final ResolvedSwapTrade PAYER = EUR_FIXED_1Y_EURIBOR_6M.createTrade(
+      date(2016, 1, 4), Period.ofMonths(0), Tenor.TENOR_5Y, BuySell.BUY, NOTIONAL, 0.0150, REF_DATA)
+      .resolve(REF_DATA);
+  private static final ResolvedSwapTrade RECEIVER = EUR_FIXED_1Y_EURIBOR_3M.createTrade(
+      VAL_DATE, Period.ofMonths(2), Tenor.TENOR_3Y, BuySell.SELL, NOTIONAL, 0.0160, REF_DATA)
+      .resolve(REF_DATA);
+  private static final List<LocalDate> GRID = ImmutableList.of(
+      VAL_DATE.plusDays(1), date(2016, 10, 5), date(2017, 1, 5), date(2017, 7, 5), date(2018, 7, 5),
+      date(2019, 7, 5), date(2020, 7, 5), date(2022, 7, 5));
+  private static final HullWhiteSwapExposureCalculator CALCULATOR = new HullWhiteSwapExposureCalculator(
+      SWAP_PRICER, HullWhiteMonteCarloEngine.ofAntithetic(512, 1L).withBlockSize(32), 0.95);
+
+  //-------------------------------------------------------------------------
+  public void test_exposureProfiles() {
+    ImmutableMap<String, ExposureProfile> profiles = CALCULATOR.exposureProfiles(
+        ImmutableMap.of(
+            "payer", ImmutableList.of(PAYER),
+            "receiver", ImmutableList.of(RECEIVER),
+            "netted", ImmutableList.of(PAYER, RECEIVER)),
+        GRID,
+        RATES_PROVIDER,
+        HW_PROVIDER);
+    assertEquals(profiles.keySet().asList(), ImmutableList.of("payer", "receiver", "netted"));
+    ExposureProfile payer = profiles.get("payer");
+    ExposureProfile receiver = profiles.get("receiver");
+    ExposureProfile netted = profiles.get("netted");
+    assertEquals(payer.getCurrency(), EUR);
+    assertEquals(payer.getDates(), GRID);
+    assertEquals(payer.getPathCount(), 512);
+    assertEquals(payer.getConfidenceLevel(), 0.95);
+    // on the first date, the value is close to the current value
+    double pv = SWAP_PRICER.presentValue(PAYER.getProduct(), EUR, RATES_PROVIDER).getAmount();
+    double ee = payer.getExpectedPositiveExposure().get(0) + payer.getExpectedNegativeExposure().get(0);
+    assertEquals(ee, pv, NOTIONAL * 1.0E-4);
+    for (int k = 0; k < GRID.size(); k++) {
+      assertTrue(payer.getExpectedPositiveExposure().get(k) >= 0d);
+      assertTrue(payer.getExpectedNegativeExposure().get(k) <= 0d);
+      assertTrue(payer.getPotentialFutureExposure().get(k) >= payer.getExpectedPositiveExposure().get(k));
+      // netting reduces the exposure on each path
+      double sum = payer.getExpectedPositiveExposure().get(k) + receiver.getExpectedPositiveExposure().get(k);
+      assertTrue(netted.getExpectedPositiveExposure().get(k) <= sum + 1.0E-6);
+    }
+    assertTrue(netted.getExpectedPositiveExposure().get(1) < payer.getExpectedPositiveExposure().get(1));
+    // the exposure spreads out with time then vanishes after maturity
+    assertTrue(payer.getPotentialFutureExposure().get(3) > payer.getPotentialFutureExposure().get(1));
+    assertEquals(payer.getExpectedPositiveExposure().get(GRID.size() - 1), 0d);
+    assertEquals(payer.getExpectedNegativeExposure().get(GRID.size() - 1), 0d);
+  }
+
+  public void test_exposureProfiles_parallel() {
+    ImmutableMap<String, ImmutableList<ResolvedSwapTrade>> sets =
+        ImmutableMap.of("netted", ImmutableList.of(PAYER, RECEIVER));
+    List<LocalDate> grid = GRID.subList(0, 4);
+    HullWhiteMonteCarloEngine engine = HullWhiteMonteCarloEngine.of(128, 2L).withBlockSize(16);
+    ExposureProfile parallel = new HullWhiteSwapExposureCalculator(SWAP_PRICER, engine, 0.9)
+        .exposureProfiles(sets, grid, RATES_PROVIDER, HW_PROVIDER).get("netted");
+    ExposureProfile sequential = new HullWhiteSwapExposureCalculator(SWAP_PRICER, engine.withParallel(false), 0.9)
+        .exposureProfiles(sets, grid, RATES_PROVIDER, HW_PROVIDER).get("netted");
+    assertEquals(parallel.getExpectedPositiveExposure(), sequential.getExpectedPositiveExposure());
+    assertEquals(parallel.getPotentialFutureExposure(), sequential.getPotentialFutureExposure());
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_invalid() {
+    ImmutableMap<String, ImmutableList<ResolvedSwapTrade>> sets = ImmutableMap.of("payer", ImmutableList.of(PAYER));
+    assertThrowsIllegalArg(() -> new HullWhiteSwapExposureCalculator(
+        SWAP_PRICER, HullWhiteMonteCarloEngine.of(10, 1L), 1d));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfiles(
+        ImmutableMap.of(), GRID, RATES_PROVIDER, HW_PROVIDER));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfiles(
+        sets, ImmutableList.of(VAL_DATE), RATES_PROVIDER, HW_PROVIDER));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfiles(
+        sets, ImmutableList.of(date(2017, 1, 5), date(2016, 10, 5)), RATES_PROVIDER, HW_PROVIDER));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfiles(
+        sets, GRID, RATES_PROVIDER, HullWhiteIborFutureDataSet.createHullWhiteProvider(VAL_DATE.plusDays(1))));
+    ResolvedSwapTrade usd = USD_FIXED_6M_LIBOR_3M.createTrade(
+        VAL_DATE, Period.ofMonths(2), Tenor.TENOR_3Y, BuySell.SELL, NOTIONAL, 0.0160, REF_DATA)
+        .resolve(REF_DATA);
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfiles(
+        ImmutableMap.of("mixed", ImmutableList.of(PAYER, usd)), GRID, RATES_PROVIDER, HW_PROVIDER));
+    assertEquals(USD, usd.getProduct().getLegs().get(0).getCurrency());
+  }
+
+}
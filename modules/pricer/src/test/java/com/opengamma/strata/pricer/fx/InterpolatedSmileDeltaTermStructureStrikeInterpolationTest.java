@@ -13,6 +13,7 @@ import static org.testng.AssertJUnit.assertEquals;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.testng.annotations.Test;
 
@@ -272,6 +273,44 @@ public class InterpolatedSmileDeltaTermStructureStrikeInterpolationTest {
     }
   }
 
+  /**
+   * Tests the volatilities for a number of strikes match the volatility for each strike.
+   */
+  public void volatilities() {
+    double forward = 1.40;
+    DoubleArray strikes = DoubleArray.of(1.20, 1.35, 1.40, 1.50, 1.70);
+    for (double timeToExpiry : new double[] {0.05, 0.75, 3.5}) {
+      DoubleArray volComputed = SMILE_TERM.volatilities(timeToExpiry, strikes, forward);
+      assertEquals(strikes.size(), volComputed.size());
+      for (int i = 0; i < strikes.size(); i++) {
+        double volExpected = SMILE_TERM.volatility(timeToExpiry, strikes.get(i), forward);
+        assertEquals(volExpected, volComputed.get(i), 0d);
+      }
+    }
+    assertThrowsIllegalArg(() -> SMILE_TERM.volatilities(-0.1, strikes, forward));
+  }
+
+  /**
+   * Tests the cached smiles are consistent with smiles built from scratch, including when used concurrently.
+   */
+  public void volatilityCached() {
+    DoubleArray times = DoubleArray.of(0.05, 0.25, 0.75, 1.5, 3.5);
+    DoubleArray forwards = DoubleArray.of(1.30, 1.40, 1.50);
+    double strike = 1.45;
+    InterpolatedSmileDeltaTermStructureStrikeInterpolation smileTerm =
+        InterpolatedSmileDeltaTermStructureStrikeInterpolation.of(NAME, VOLATILITY_TERM);
+    IntStream.range(0, 1000).parallel().forEach(i -> {
+      double time = times.get(i % times.size());
+      double forward = forwards.get(i % forwards.size());
+      SmileDeltaParameters smile = smileTerm.smileForTime(time);
+      double volExpected = INTERPOLATOR_STRIKE
+          .bind(smile.getStrike(forward), smile.getVolatility(), FLAT, FLAT)
+          .interpolate(strike);
+      assertEquals(volExpected, smileTerm.volatility(time, strike, forward), 0d);
+      assertEquals(volExpected, smileTerm.volatilityAndSensitivities(time, strike, forward).getVolatility(), 0d);
+    });
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverImmutableBean(SMILE_TERM);
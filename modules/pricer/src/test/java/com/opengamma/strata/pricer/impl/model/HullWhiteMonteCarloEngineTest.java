@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.model;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloPayoff;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloResult;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteMonteCarloEngine}.
+ */
+@Test
+public class HullWhiteMonteCarloEngineTest {
+
+  private static final double MEAN_REVERSION = 0.01;
+  private static final DoubleArray VOLATILITY = DoubleArray.of(0.01, 0.011, 0.012, 0.013, 0.014);
+  private static final DoubleArray VOLATILITY_TIME = DoubleArray.of(0.5, 1.0, 2.0, 5.0);
+  private static final HullWhiteOneFactorPiecewiseConstantParameters MODEL_PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(MEAN_REVERSION, VOLATILITY, VOLATILITY_TIME);
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+
+  private static final DoubleArray OBSERVATION_TIMES = DoubleArray.of(0.75, 2.5, 4.0);
+  private static final DoubleArray MATURITY_TIMES = DoubleArray.of(3.0, 5.0, 10.0);
+  private static final int PATH_COUNT = 20000;
+  // all the bond factors, which are martingales
+  private static final HullWhiteMonteCarloPayoff BOND_FACTORS = (path, values) -> {
+    for (int k = 0; k < path.getObservationCount(); k++) {
+      values[k] = path.observationFactor(k);
+      for (int j = 0; j < path.getMaturityCount(); j++) {
+        values[path.getObservationCount() * (j + 1) + k] = path.bondFactor(k, j);
+      }
+    }
+  };
+  private static final int BOND_FACTOR_COUNT = OBSERVATION_TIMES.size() * (MATURITY_TIMES.size() + 1);
+
+  //-------------------------------------------------------------------------
+  public void test_martingale() {
+    HullWhiteMonteCarloEngine[] engines = {
+        HullWhiteMonteCarloEngine.of(PATH_COUNT, 1L),
+        HullWhiteMonteCarloEngine.ofAntithetic(PATH_COUNT, 1L),
+        HullWhiteMonteCarloEngine.ofSobol(16383)};
+    for (HullWhiteMonteCarloEngine engine : engines) {
+      HullWhiteMonteCarloResult result =
+          engine.simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+      assertEquals(result.getPathCount(), engine.getPathCount());
+      for (int i = 0; i < BOND_FACTOR_COUNT; i++) {
+        assertEquals(result.getValue(i), 1d, Math.max(4d * result.getStandardErrors().get(i), 1.0E-4));
+      }
+    }
+  }
+
+  public void test_bondOption() {
+    // call option on a zero-coupon bond, paid at expiry, with a later numeraire time
+    double expiry = 2.5;
+    double maturity = 5.0;
+    double dfExpiry = 0.96;
+    double dfMaturity = 0.90;
+    double strike = 0.94;
+    HullWhiteMonteCarloPayoff payoff = (path, values) -> {
+      double bond = dfMaturity / dfExpiry * path.bondFactor(0, 0) / path.observationFactor(0);
+      values[0] = dfExpiry * Math.max(bond - strike, 0d) * path.observationFactor(0);
+    };
+    HullWhiteMonteCarloResult result = HullWhiteMonteCarloEngine.ofSobol(16383)
+        .simulate(MODEL_PARAMETERS, DoubleArray.of(expiry, 4.0), DoubleArray.of(maturity), 1, payoff);
+    double alpha = MODEL.alpha(MODEL_PARAMETERS, 0d, expiry, expiry, maturity);
+    double d1 = (Math.log(dfMaturity / (strike * dfExpiry)) + 0.5 * alpha * alpha) / alpha;
+    double expected = dfMaturity * NORMAL.getCDF(d1) - strike * dfExpiry * NORMAL.getCDF(d1 - alpha);
+    assertEquals(result.getValue(0), expected, 1.0E-5);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_reproducible() {
+    HullWhiteMonteCarloEngine[] engines = {
+        HullWhiteMonteCarloEngine.of(5000, 3L).withBlockSize(256),
+        HullWhiteMonteCarloEngine.ofAntithetic(5000, 3L).withBlockSize(256),
+        HullWhiteMonteCarloEngine.ofSobol(5000).withBlockSize(256)};
+    for (HullWhiteMonteCarloEngine engine : engines) {
+      HullWhiteMonteCarloResult parallel =
+          engine.simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+      HullWhiteMonteCarloResult sequential = engine.withParallel(false)
+          .simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+      assertEquals(parallel.getValues(), sequential.getValues());
+      assertEquals(parallel.getStandardErrors(), sequential.getStandardErrors());
+    }
+    // Sobol points do not depend on the block size
+    HullWhiteMonteCarloResult sobol = HullWhiteMonteCarloEngine.ofSobol(5000).withBlockSize(1000)
+        .simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+    HullWhiteMonteCarloResult sobolOtherBlocks = HullWhiteMonteCarloEngine.ofSobol(5000).withBlockSize(333)
+        .simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+    assertTrue(sobol.getValues().equalWithTolerance(sobolOtherBlocks.getValues(), 1.0E-12));
+    // different seeds give different streams
+    HullWhiteMonteCarloResult seed1 = HullWhiteMonteCarloEngine.of(5000, 1L)
+        .simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+    HullWhiteMonteCarloResult seed2 = HullWhiteMonteCarloEngine.of(5000, 2L)
+        .simulate(MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, BOND_FACTOR_COUNT, BOND_FACTORS);
+    assertTrue(seed1.getValue(0) != seed2.getValue(0));
+  }
+
+  public void test_convergence() {
+    HullWhiteMonteCarloPayoff payoff = (path, values) -> values[0] = Math.max(path.bondFactor(0, 1) - 1d, 0d);
+    DoubleArray observation = DoubleArray.of(2.0);
+    DoubleArray maturity = DoubleArray.of(3.0, 10.0);
+    double error1 = HullWhiteMonteCarloEngine.of(4000, 5L)
+        .simulate(MODEL_PARAMETERS, observation, maturity, 1, payoff).getStandardErrors().get(0);
+    double error4 = HullWhiteMonteCarloEngine.of(16000, 5L)
+        .simulate(MODEL_PARAMETERS, observation, maturity, 1, payoff).getStandardErrors().get(0);
+    assertEquals(error4 / error1, 0.5, 0.05);
+    // antithetic variates reduce the error of a monotonic payoff
+    double errorAntithetic = HullWhiteMonteCarloEngine.ofAntithetic(16000, 5L)
+        .simulate(MODEL_PARAMETERS, observation, maturity, 1, payoff).getStandardErrors().get(0);
+    assertTrue(errorAntithetic < error4);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloEngine.of(0, 1L));
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloEngine.ofAntithetic(1001, 1L));
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloEngine.ofAntithetic(1000, 1L).withBlockSize(101));
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloEngine.ofSobol(1000).withBlockSize(0));
+    HullWhiteMonteCarloEngine engine = HullWhiteMonteCarloEngine.of(1000, 1L);
+    assertThrowsIllegalArg(() -> engine.simulate(
+        MODEL_PARAMETERS, DoubleArray.EMPTY, MATURITY_TIMES, 1, BOND_FACTORS));
+    assertThrowsIllegalArg(() -> engine.simulate(
+        MODEL_PARAMETERS, DoubleArray.of(2d, 1d), MATURITY_TIMES, 1, BOND_FACTORS));
+    assertThrowsIllegalArg(() -> engine.simulate(
+        MODEL_PARAMETERS, DoubleArray.of(-1d, 1d), MATURITY_TIMES, 1, BOND_FACTORS));
+    assertThrowsIllegalArg(() -> engine.simulate(
+        MODEL_PARAMETERS, OBSERVATION_TIMES, MATURITY_TIMES, 0, BOND_FACTORS));
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloEngine.ofSobol(1000).simulate(
+        MODEL_PARAMETERS, DoubleArray.of(30, i -> i + 1d), MATURITY_TIMES, 1, BOND_FACTORS));
+  }
+
+  public void test_toString() {
+    assertEquals(HullWhiteMonteCarloEngine.ofSobol(1000).withParallel(false).toString(),
+        "HullWhiteMonteCarloEngine[pathCount=1000, blockSize=1024, sampling=Sobol, parallel=false]");
+  }
+
+}
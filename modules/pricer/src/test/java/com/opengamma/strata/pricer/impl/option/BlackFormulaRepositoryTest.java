@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer.impl.option;
 
 import static com.opengamma.strata.basics.PutCall.CALL;
 import static com.opengamma.strata.basics.PutCall.PUT;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.Assert.assertTrue;
 import static org.testng.AssertJUnit.assertEquals;
 
@@ -8899,4 +8900,28 @@ public class BlackFormulaRepositoryTest {
     assertEquals("AD Second order: 2nd - str-vol", bsD2[1][2], bsD2[2][1], TOLERANCE_1);
   }
 
+  //-------------------------------------------------------------------------
+  public void priceDeltaVegaArrays() {
+    double[] forwards = {104d, 104d, 104d, 104d, 0d, 104d};
+    double[] strikes = {85d, 104d, 130d, 0d, 100d, 90d};
+    double[] times = {4.5d, 4.5d, 0d, 4.5d, 4.5d, 1.0E+30};
+    double[] vols = {0.2d, 0.3d, 0.2d, 0.2d, 0.2d, 1.0E+10};
+    boolean[] isCalls = {true, false, true, false, true, true};
+    int n = forwards.length;
+    double[] prices = new double[n];
+    double[] deltas = new double[n];
+    double[] vegas = new double[n];
+    BlackFormulaRepository.priceDeltaVega(forwards, strikes, times, vols, isCalls, prices, deltas, vegas);
+    for (int i = 0; i < n; i++) {
+      assertEquals(prices[i], BlackFormulaRepository.price(forwards[i], strikes[i], times[i], vols[i], isCalls[i]));
+      assertEquals(deltas[i], BlackFormulaRepository.delta(forwards[i], strikes[i], times[i], vols[i], isCalls[i]));
+      assertEquals(vegas[i], BlackFormulaRepository.vega(forwards[i], strikes[i], times[i], vols[i]));
+    }
+    assertThrowsIllegalArg(() -> BlackFormulaRepository.priceDeltaVega(
+        forwards, strikes, times, vols, isCalls, prices, deltas, new double[1]));
+    assertThrowsIllegalArg(() -> BlackFormulaRepository.priceDeltaVega(
+        new double[] {-1d}, new double[] {1d}, new double[] {1d}, new double[] {0.2d}, new boolean[] {true},
+        new double[1], new double[1], new double[1]));
+  }
+
 }
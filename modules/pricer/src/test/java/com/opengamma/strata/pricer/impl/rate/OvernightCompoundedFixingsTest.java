@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import static com.opengamma.strata.basics.index.OvernightIndices.GBP_SONIA;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateObservation;
+
+/**
+ * Test {@link OvernightCompoundedFixings}.
+ */
+@Test
+public class OvernightCompoundedFixingsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate START = date(2013, 1, 2);
+  private static final LocalDate END = date(2015, 12, 31);
+  private static final OvernightCompoundedRateObservation USD_OBS =
+      OvernightCompoundedRateObservation.of(USD_FED_FUND, date(2015, 1, 8), date(2015, 4, 8), 0, REF_DATA);
+  private static final OvernightCompoundedRateObservation GBP_OBS =
+      OvernightCompoundedRateObservation.of(GBP_SONIA, date(2015, 1, 8), date(2015, 4, 8), 0, REF_DATA);
+
+  private static final double TOLERANCE = 1.0E-12;
+
+  //-------------------------------------------------------------------------
+  public void test_compoundedFixings() {
+    LocalDateDoubleTimeSeries fixings = fixings(USD_OBS.getFixingCalendar(), null);
+    OvernightCompoundedFixings test = OvernightCompoundedFixings.of(USD_OBS, fixings);
+    LocalDate[] firstFixings = {date(2013, 1, 2), date(2014, 3, 3), date(2015, 6, 1)};
+    LocalDate[] endFixings = {date(2013, 1, 3), date(2014, 6, 2), date(2015, 12, 1)};
+    LocalDate[] valuationDates = {date(2014, 5, 1), date(2015, 7, 1), date(2015, 12, 31)};
+    for (LocalDate firstFixing : firstFixings) {
+      for (LocalDate endFixing : endFixings) {
+        for (LocalDate valuationDate : valuationDates) {
+          if (!endFixing.isAfter(firstFixing) || !valuationDate.isAfter(firstFixing)) {
+            continue;
+          }
+          assertCompounded(
+              test.compoundedFixings(firstFixing, endFixing, valuationDate),
+              compoundedLoop(USD_OBS, fixings, firstFixing, endFixing, valuationDate));
+        }
+      }
+    }
+  }
+
+  public void test_compoundedFixings_notAvailable() {
+    LocalDate missingDate = date(2014, 7, 15);
+    LocalDateDoubleTimeSeries fixings = fixings(USD_OBS.getFixingCalendar(), missingDate);
+    OvernightCompoundedFixings test = OvernightCompoundedFixings.of(USD_OBS, fixings);
+    // missing fixing in the range
+    assertNull(test.compoundedFixings(date(2014, 7, 1), date(2014, 8, 1), date(2015, 1, 1)));
+    // missing fixing after the range
+    assertCompounded(
+        test.compoundedFixings(date(2014, 6, 2), date(2014, 7, 1), date(2015, 1, 1)),
+        compoundedLoop(USD_OBS, fixings, date(2014, 6, 2), date(2014, 7, 1), date(2015, 1, 1)));
+    // first fixing before the time-series or not a business day
+    assertNull(test.compoundedFixings(date(2012, 12, 3), date(2013, 2, 1), date(2015, 1, 1)));
+    assertNull(test.compoundedFixings(date(2014, 3, 1), date(2014, 6, 2), date(2015, 1, 1)));
+  }
+
+  public void test_compoundedFixings_afterEndOfTimeSeries() {
+    // the latest fixing is published on the valuation date and is not yet in the time-series
+    LocalDateDoubleTimeSeries gbpFixings = fixings(GBP_OBS.getFixingCalendar(), null);
+    OvernightCompoundedFixings gbp = OvernightCompoundedFixings.of(GBP_OBS, gbpFixings);
+    Pair<Double, LocalDate> gbpComputed = gbp.compoundedFixings(date(2015, 12, 1), date(2016, 3, 1), date(2016, 1, 4));
+    assertCompounded(
+        gbpComputed,
+        compoundedLoop(GBP_OBS, gbpFixings, date(2015, 12, 1), date(2016, 3, 1), date(2016, 1, 4)));
+    assertEquals(gbpComputed.getSecond(), date(2016, 1, 4));
+    // the compounding continues after the end of the time-series, stopping at the next fixing date
+    LocalDateDoubleTimeSeries fixings = fixings(USD_OBS.getFixingCalendar(), null);
+    OvernightCompoundedFixings test = OvernightCompoundedFixings.of(USD_OBS, fixings);
+    LocalDate nextFixing = USD_OBS.getFixingCalendar().next(END);
+    assertCompounded(
+        test.compoundedFixings(date(2015, 12, 1), date(2016, 3, 1), date(2016, 2, 1)),
+        compoundedLoop(USD_OBS, fixings, date(2015, 12, 1), nextFixing, date(2016, 2, 1)));
+  }
+
+  public void test_cached() {
+    LocalDateDoubleTimeSeries fixings = fixings(USD_OBS.getFixingCalendar(), null);
+    OvernightCompoundedFixings test = OvernightCompoundedFixings.of(USD_OBS, fixings);
+    assertSame(OvernightCompoundedFixings.of(USD_OBS, fixings), test);
+    OvernightCompoundedRateObservation otherPeriod =
+        OvernightCompoundedRateObservation.of(USD_FED_FUND, date(2014, 1, 8), date(2014, 4, 8), 2, REF_DATA);
+    assertSame(OvernightCompoundedFixings.of(otherPeriod, fixings), test);
+    // same time-series, different index
+    assertNotSame(OvernightCompoundedFixings.of(GBP_OBS, fixings), test);
+    LocalDateDoubleTimeSeries gbpFixings = fixings(GBP_OBS.getFixingCalendar(), null);
+    assertCompounded(
+        OvernightCompoundedFixings.of(GBP_OBS, gbpFixings)
+            .compoundedFixings(date(2014, 3, 3), date(2014, 6, 2), date(2015, 1, 1)),
+        compoundedLoop(GBP_OBS, gbpFixings, date(2014, 3, 3), date(2014, 6, 2), date(2015, 1, 1)));
+  }
+
+  public void test_empty() {
+    OvernightCompoundedFixings test = OvernightCompoundedFixings.of(USD_OBS, LocalDateDoubleTimeSeries.empty());
+    assertNull(test.compoundedFixings(date(2014, 3, 3), date(2014, 6, 2), date(2015, 1, 1)));
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertCompounded(Pair<Double, LocalDate> computed, Pair<Double, LocalDate> expected) {
+    assertEquals(computed.getSecond(), expected.getSecond());
+    assertEquals(computed.getFirst(), expected.getFirst(), TOLERANCE);
+  }
+
+  // creates fixings on every business day, omitting the missing date
+  private static LocalDateDoubleTimeSeries fixings(HolidayCalendar calendar, LocalDate missingDate) {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    int i = 0;
+    for (LocalDate date = START; !date.isAfter(END); date = calendar.next(date)) {
+      if (!date.equals(missingDate)) {
+        builder.put(date, 0.001 + 0.0001 * (i % 37));
+      }
+      i++;
+    }
+    return builder.build();
+  }
+
+  // compounds the fixings one by one, as done in the rate observation function
+  private static Pair<Double, LocalDate> compoundedLoop(
+      OvernightCompoundedRateObservation observation,
+      LocalDateDoubleTimeSeries fixings,
+      LocalDate firstFixing,
+      LocalDate endFixing,
+      LocalDate valuationDate) {
+
+    double factor = 1d;
+    LocalDate fixing = firstFixing;
+    while (fixing.isBefore(endFixing) && valuationDate.isAfter(observation.calculatePublicationFromFixing(fixing))) {
+      LocalDate effectiveDate = observation.calculateEffectiveFromFixing(fixing);
+      LocalDate maturityDate = observation.calculateMaturityFromEffective(effectiveDate);
+      double accrualFactor = observation.getIndex().getDayCount().yearFraction(effectiveDate, maturityDate);
+      factor *= 1d + accrualFactor * fixings.get(fixing).getAsDouble();
+      fixing = observation.getFixingCalendar().next(fixing);
+    }
+    return Pair.of(factor, fixing);
+  }
+
+}
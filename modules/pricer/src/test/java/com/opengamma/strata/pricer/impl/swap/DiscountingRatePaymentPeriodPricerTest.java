@@ -47,6 +47,7 @@ import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMap;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.sensitivity.IborRateSensitivity;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.market.sensitivity.ZeroRateSensitivity;
@@ -575,6 +576,42 @@ public class DiscountingRatePaymentPeriodPricerTest {
         sensiExpectedGBP, EPS_FD * PAYMENT_PERIOD_FULL_GS_FX_GBP.getNotional()));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_presentValueSensitivity_accumulator() {
+    DiscountingRatePaymentPeriodPricer pricer = DiscountingRatePaymentPeriodPricer.DEFAULT;
+    List<RatePaymentPeriod> periods = ImmutableList.of(
+        PAYMENT_PERIOD_1,
+        PAYMENT_PERIOD_FULL_GS,
+        PAYMENT_PERIOD_FULL_GS_FX_USD,
+        PAYMENT_PERIOD_FULL_GS_FX_GBP,
+        PAYMENT_PERIOD_FLOATING,
+        PAYMENT_PERIOD_COMPOUNDING_STRAIGHT,
+        PAYMENT_PERIOD_COMPOUNDING_FLAT,
+        PAYMENT_PERIOD_COMPOUNDING_EXCLUSIVE);
+    double factor = -2.5d;
+    MutablePointSensitivities total = new MutablePointSensitivities();
+    PointSensitivityBuilder totalExpected = PointSensitivityBuilder.none();
+    for (RatePaymentPeriod period : periods) {
+      MutablePointSensitivities accumulator = new MutablePointSensitivities();
+      pricer.presentValueSensitivity(period, MULTI_GBP_USD, factor, accumulator);
+      PointSensitivityBuilder expected = pricer.presentValueSensitivity(period, MULTI_GBP_USD).multipliedBy(factor);
+      assertTrue(accumulator.build().normalized().equalWithTolerance(
+          expected.build().normalized(), TOLERANCE_PV));
+      pricer.presentValueSensitivity(period, MULTI_GBP_USD, factor, total);
+      totalExpected = totalExpected.combinedWith(expected);
+    }
+    assertTrue(total.build().normalized().equalWithTolerance(totalExpected.build().normalized(), TOLERANCE_PV));
+  }
+
+  public void test_presentValueSensitivity_accumulator_past() {
+    DiscountingRatePaymentPeriodPricer pricer = DiscountingRatePaymentPeriodPricer.DEFAULT;
+    ImmutableRatesProvider provider = MULTI_GBP_USD.toBuilder(PAYMENT_DATE_1.plusDays(7)).build();
+    MutablePointSensitivities accumulator = new MutablePointSensitivities();
+    pricer.presentValueSensitivity(PAYMENT_PERIOD_1, provider, 1d, accumulator);
+    assertTrue(accumulator.build().normalized().equalWithTolerance(
+        pricer.presentValueSensitivity(PAYMENT_PERIOD_1, provider).build().normalized(), TOLERANCE_PV));
+  }
+
   //-------------------------------------------------------------------------
   @SuppressWarnings("null")
   private List<IborRateSensitivity> futureFwdSensitivityFD(RatesProvider provider, RatePaymentPeriod payment,
@@ -10,6 +10,7 @@ import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.collect.TestHelper.ignoreThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 
@@ -20,6 +21,7 @@ import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.currency.Payment;
 import com.opengamma.strata.market.explain.ExplainMap;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.pricer.impl.MockRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.PaymentPeriodPricer;
@@ -76,6 +78,35 @@ public class DispatchingPaymentPeriodPricerTest {
     assertThrowsIllegalArg(() -> test.presentValueSensitivity(mockPaymentPeriod, MOCK_PROV));
   }
 
+  public void test_presentValueSensitivity_accumulator_RatePaymentPeriod() {
+    PaymentPeriodPricer<RatePaymentPeriod> mockRateFn = mock(PaymentPeriodPricer.class);
+    DispatchingPaymentPeriodPricer test = new DispatchingPaymentPeriodPricer(mockRateFn, MOCK_KNOWN);
+    RatePaymentPeriod period = SwapDummyData.FIXED_RATE_PAYMENT_PERIOD_REC_GBP;
+    MutablePointSensitivities accumulator = new MutablePointSensitivities();
+    test.presentValueSensitivity(period, MOCK_PROV, 2d, accumulator);
+    verify(mockRateFn).presentValueSensitivity(period, MOCK_PROV, 2d, accumulator);
+  }
+
+  public void test_presentValueSensitivity_accumulator_KnownAmountPaymentPeriod() {
+    PaymentPeriodPricer<KnownAmountPaymentPeriod> mockKnownFn = mock(PaymentPeriodPricer.class);
+    DispatchingPaymentPeriodPricer test = new DispatchingPaymentPeriodPricer(MOCK_RATE, mockKnownFn);
+    KnownAmountPaymentPeriod kapp = KnownAmountPaymentPeriod.builder()
+        .payment(Payment.of(CurrencyAmount.of(GBP, 1000), date(2015, 8, 21)))
+        .startDate(date(2015, 5, 19))
+        .endDate(date(2015, 8, 19))
+        .build();
+    MutablePointSensitivities accumulator = new MutablePointSensitivities();
+    test.presentValueSensitivity(kapp, MOCK_PROV, 2d, accumulator);
+    verify(mockKnownFn).presentValueSensitivity(kapp, MOCK_PROV, 2d, accumulator);
+  }
+
+  public void test_presentValueSensitivity_accumulator_unknownType() {
+    PaymentPeriod mockPaymentPeriod = mock(PaymentPeriod.class);
+    DispatchingPaymentPeriodPricer test = DispatchingPaymentPeriodPricer.DEFAULT;
+    MutablePointSensitivities accumulator = new MutablePointSensitivities();
+    assertThrowsIllegalArg(() -> test.presentValueSensitivity(mockPaymentPeriod, MOCK_PROV, 1d, accumulator));
+  }
+
   //-------------------------------------------------------------------------
   public void test_forecastValueSensitivity_unknownType() {
     PaymentPeriod mockPaymentPeriod = mock(PaymentPeriod.class);
@@ -17,6 +17,9 @@ import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
 import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_6M;
 import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
@@ -25,6 +28,8 @@ import java.util.function.Function;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.opengamma.strata.basics.PayReceive;
 import com.opengamma.strata.basics.currency.Currency;
@@ -37,9 +42,11 @@ import com.opengamma.strata.basics.schedule.PeriodicSchedule;
 import com.opengamma.strata.basics.schedule.StubConvention;
 import com.opengamma.strata.basics.value.ValueSchedule;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivities;
 import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivity;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.Curves;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
 import com.opengamma.strata.market.curve.NodalCurve;
@@ -159,6 +166,110 @@ public class CurveGammaCalculatorTest {
   }
 
   //-------------------------------------------------------------------------
+  public void crossGammaSingleCurve() {
+    CurveCrossGamma crossGamma =
+        GAMMA_CAL.calculateCrossGamma(SINGLE, USD, CurveGammaCalculatorTest::swapSensitivities);
+    NodalCurve curve = USD_SINGLE_CURVE.toNodalCurve();
+    assertEquals(crossGamma.getCurrency(), USD);
+    assertEquals(crossGamma.getCurves(), ImmutableList.of(curve.getMetadata()));
+    int nbNode = curve.getParameterCount();
+    assertEquals(crossGamma.getMatrix().rowCount(), nbNode);
+    // the semi-parallel gamma is the sum of the columns
+    DoubleArray semiParallel = GAMMA_CAL.calculateSemiParallelGamma(
+        curve, USD, c -> buildSensitivities(c, SINGLE)).getSensitivity();
+    DoubleArray computed = crossGamma.semiParallelGamma().getSensitivity(curve.getName(), USD).getSensitivity();
+    assertTrue(computed.equalWithTolerance(semiParallel, TOLERANCE_GAMMA));
+    // the second order derivatives are symmetric
+    for (int i = 0; i < nbNode; i++) {
+      for (int j = 0; j < i; j++) {
+        assertEquals(crossGamma.getMatrix().get(i, j), crossGamma.getMatrix().get(j, i), TOLERANCE_GAMMA);
+      }
+    }
+    assertEquals(crossGamma.diagonal().getSensitivity(curve.getName(), USD).getSensitivity().get(3),
+        crossGamma.getMatrix().get(3, 3));
+    assertEquals(crossGamma.multipliedBy(2d).getMatrix(), crossGamma.getMatrix().multipliedBy(2d));
+    assertEquals(crossGamma.getParameterCounts(), ImmutableList.of(nbNode));
+    coverImmutableBean(crossGamma);
+    assertSerialization(crossGamma);
+  }
+
+  public void crossGammaInvalid() {
+    NodalCurve curve = USD_SINGLE_CURVE.toNodalCurve();
+    int nbNode = curve.getParameterCount();
+    assertThrowsIllegalArg(() -> CurveCrossGamma.of(
+        USD, ImmutableList.of(curve.getMetadata()), ImmutableList.of(nbNode, 1), DoubleMatrix.filled(nbNode, nbNode)));
+    assertThrowsIllegalArg(() -> CurveCrossGamma.of(
+        USD, ImmutableList.of(curve.getMetadata()), ImmutableList.of(nbNode), DoubleMatrix.filled(nbNode, 1)));
+  }
+
+  public void crossGammaMultiCurve() {
+    ImmutableRatesProvider provider = RatesProviderDataSets.MULTI_USD;
+    CurveCrossGamma crossGamma =
+        GAMMA_CAL.calculateCrossGamma(provider, USD, CurveGammaCalculatorTest::swapSensitivities);
+    NodalCurve dsc = provider.getDiscountCurves().get(USD).toNodalCurve();
+    NodalCurve fwd = provider.getIndexCurves().get(USD_LIBOR_3M).toNodalCurve();
+    NodalCurve unused = provider.getIndexCurves().get(USD_LIBOR_6M).toNodalCurve();
+    assertEquals(crossGamma.getCurves().get(0), dsc.getMetadata());
+    assertEquals(
+        ImmutableSet.copyOf(crossGamma.getCurves()),
+        ImmutableSet.of(dsc.getMetadata(), fwd.getMetadata(), unused.getMetadata()));
+    int nbParameters = dsc.getParameterCount() + fwd.getParameterCount() + unused.getParameterCount();
+    assertEquals(crossGamma.getMatrix().rowCount(), nbParameters);
+    assertEquals(crossGamma.getMatrix().columnCount(), nbParameters);
+    // cross-curve term by finite difference of the present value
+    int i = 6;
+    int j = 5;
+    double[][] pv = new double[2][2];
+    for (int pmi = 0; pmi < 2; pmi++) {
+      for (int pmj = 0; pmj < 2; pmj++) {
+        double shiftI = (pmi == 0 ? 1d : -1d) * FD_SHIFT;
+        double shiftJ = (pmj == 0 ? 1d : -1d) * FD_SHIFT;
+        Curve dscBumped = dsc.withYValues(dsc.getYValues().with(i, dsc.getYValues().get(i) + shiftI));
+        Curve fwdBumped = fwd.withYValues(fwd.getYValues().with(j, fwd.getYValues().get(j) + shiftJ));
+        ImmutableRatesProvider providerBumped = provider.toBuilder()
+            .discountCurve(USD, dscBumped)
+            .overnightIndexCurve(USD_FED_FUND, dscBumped)
+            .iborIndexCurve(USD_LIBOR_3M, fwdBumped)
+            .build();
+        pv[pmi][pmj] = PRICER_SWAP.presentValue(SWAP, providerBumped).getAmount(USD).getAmount();
+      }
+    }
+    double expected = (pv[0][0] - pv[0][1] - pv[1][0] + pv[1][1]) / (4 * FD_SHIFT * FD_SHIFT);
+    DoubleMatrix block = crossGamma.getBlock(dsc.getName(), fwd.getName());
+    assertEquals(block.get(i, j), expected, TOLERANCE_GAMMA);
+    assertTrue(Math.abs(expected) > 1.0E+3);
+    // no sensitivity to the unused curve
+    assertMatrix(crossGamma.getBlock(unused.getName(), unused.getName()),
+        DoubleMatrix.filled(unused.getParameterCount(), unused.getParameterCount()), 0d);
+    assertThrowsIllegalArg(() -> crossGamma.getBlock(CurveName.of("Unknown"), dsc.getName()));
+  }
+
+  // Checks that the cross-gamma by forward and backward differences is close to the central one.
+  public void crossGammaCoherency() {
+    CurveGammaCalculator calculatorForward = new CurveGammaCalculator(FiniteDifferenceType.FORWARD, FD_SHIFT);
+    CurveGammaCalculator calculatorBackward = new CurveGammaCalculator(FiniteDifferenceType.BACKWARD, FD_SHIFT);
+    DoubleMatrix central =
+        GAMMA_CAL.calculateCrossGamma(SINGLE, USD, CurveGammaCalculatorTest::swapSensitivities).getMatrix();
+    DoubleMatrix forward =
+        calculatorForward.calculateCrossGamma(SINGLE, USD, CurveGammaCalculatorTest::swapSensitivities).getMatrix();
+    DoubleMatrix backward =
+        calculatorBackward.calculateCrossGamma(SINGLE, USD, CurveGammaCalculatorTest::swapSensitivities).getMatrix();
+    assertMatrix(forward, central, 1.0E+5);
+    assertMatrix(backward, central, 1.0E+5);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertMatrix(DoubleMatrix computed, DoubleMatrix expected, double tolerance) {
+    assertEquals(computed.rowCount(), expected.rowCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertTrue(computed.row(i).equalWithTolerance(expected.row(i), tolerance));
+    }
+  }
+
+  private static CurveCurrencyParameterSensitivities swapSensitivities(ImmutableRatesProvider provider) {
+    return provider.curveParameterSensitivity(PRICER_SWAP.presentValueSensitivity(SWAP, provider).build());
+  }
+
   private static CurveCurrencyParameterSensitivity buildSensitivities(NodalCurve bumpedCurve, ImmutableRatesProvider ratesProvider) {
     RatesProvider bumpedRatesProvider = ratesProvider.toBuilder()
         .discountCurves(ratesProvider.getDiscountCurves().keySet().stream()
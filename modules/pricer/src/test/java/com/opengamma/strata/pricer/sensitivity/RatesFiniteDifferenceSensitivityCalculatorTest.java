@@ -7,8 +7,10 @@ package com.opengamma.strata.pricer.sensitivity;
 
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.util.Map.Entry;
+import java.util.function.Function;
 
 import org.testng.annotations.Test;
 
@@ -30,6 +32,7 @@ import com.opengamma.strata.market.view.ForwardPriceIndexValues;
 import com.opengamma.strata.market.view.PriceIndexValues;
 import com.opengamma.strata.market.view.SimpleDiscountFactors;
 import com.opengamma.strata.market.view.ZeroRateDiscountFactors;
+import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
 import com.opengamma.strata.pricer.datasets.LegalEntityDiscountingProviderDataSets;
 import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
@@ -87,6 +90,39 @@ public class RatesFiniteDifferenceSensitivityCalculatorTest {
     }
   }
 
+  @Test
+  public void sensitivity_multi_curve_types() {
+    CurveCurrencyParameterSensitivities expected =
+        FD_CALCULATOR.sensitivity(RatesProviderDataSets.MULTI_CPI_USD, this::fn);
+    for (FiniteDifferenceType fdType : FiniteDifferenceType.values()) {
+      for (boolean parallel : new boolean[] {false, true}) {
+        RatesFiniteDifferenceSensitivityCalculator test =
+            new RatesFiniteDifferenceSensitivityCalculator(fdType, 1.0E-4, parallel);
+        CurveCurrencyParameterSensitivities computed = test.sensitivity(RatesProviderDataSets.MULTI_CPI_USD, this::fn);
+        assertEquals(computed.size(), 4);
+        assertTrue(computed.equalWithTolerance(expected, TOLERANCE_DELTA));
+      }
+    }
+  }
+
+  @Test
+  public void sensitivity_central_accuracy() {
+    // quadratic function, exact for central differences but not for forward differences
+    Function<ImmutableRatesProvider, CurrencyAmount> quadraticFn = provider -> {
+      double value = fn(provider).getAmount();
+      return CurrencyAmount.of(USD, value * value);
+    };
+    double base = fn(RatesProviderDataSets.SINGLE_USD).getAmount();
+    RatesFiniteDifferenceSensitivityCalculator central =
+        new RatesFiniteDifferenceSensitivityCalculator(FiniteDifferenceType.CENTRAL, 1.0E-4, true);
+    DoubleArray s = central.sensitivity(RatesProviderDataSets.SINGLE_USD, quadraticFn)
+        .getSensitivities().get(0).getSensitivity();
+    DoubleArray times = RatesProviderDataSets.TIMES_1;
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(s.get(i), 2d * base * times.get(i) * 4.0d, TOLERANCE_DELTA);
+    }
+  }
+
   // private function for testing. Returns the sum of rates multiplied by time
   private CurrencyAmount fn(ImmutableRatesProvider provider) {
     double result = 0.0;
@@ -172,6 +208,18 @@ public class RatesFiniteDifferenceSensitivityCalculatorTest {
     }
   }
 
+  @Test
+  public void sensitivity_legalEntity_centralParallel() {
+    RatesFiniteDifferenceSensitivityCalculator test =
+        new RatesFiniteDifferenceSensitivityCalculator(FiniteDifferenceType.CENTRAL, 1.0E-4, true);
+    CurveCurrencyParameterSensitivities expected =
+        FD_CALCULATOR.sensitivity(LegalEntityDiscountingProviderDataSets.ISSUER_REPO_ZERO, this::fn);
+    CurveCurrencyParameterSensitivities computed =
+        test.sensitivity(LegalEntityDiscountingProviderDataSets.ISSUER_REPO_ZERO, this::fn);
+    assertEquals(computed.size(), 2);
+    assertTrue(computed.equalWithTolerance(expected, TOLERANCE_DELTA));
+  }
+
   // private function for testing. Returns the sum of rates multiplied by time
   private CurrencyAmount fn(LegalEntityDiscountingProvider provider) {
     double result = 0.0;
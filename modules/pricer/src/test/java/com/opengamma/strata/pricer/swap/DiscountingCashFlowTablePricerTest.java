@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.BusinessDayConventions.MODIFIED_FOLLOWING;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.GBLO;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.BuySell;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.deposit.DiscountingTermDepositProductPricer;
+import com.opengamma.strata.pricer.fra.FraDummyData;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.ResolvedProduct;
+import com.opengamma.strata.product.deposit.ResolvedTermDeposit;
+import com.opengamma.strata.product.deposit.TermDeposit;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions;
+
+/**
+ * Test {@link DiscountingCashFlowTablePricer} and {@link CashFlowTable}.
+ */
+@Test
+public class DiscountingCashFlowTablePricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = RatesProviderDataSets.VAL_DATE_2014_01_22;
+  private static final double NOTIONAL = 1_000_000d;
+  private static final ImmutableRatesProvider PROVIDER = RatesProviderDataSets.MULTI_GBP_USD.toBuilder()
+      .timeSeries(GBP_LIBOR_3M, fixings(0.0051))
+      .timeSeries(USD_FED_FUND, fixings(0.0009))
+      .build();
+
+  private static final ResolvedSwap SWAP_GBP = FixedIborSwapConventions.GBP_FIXED_1Y_LIBOR_3M
+      .createTrade(VAL_DATE, Tenor.TENOR_5Y, BuySell.BUY, NOTIONAL, 0.0125, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_GBP_SEASONED = FixedIborSwapConventions.GBP_FIXED_1Y_LIBOR_3M
+      .createTrade(date(2013, 6, 20), Tenor.TENOR_5Y, BuySell.SELL, 2 * NOTIONAL, 0.011, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_USD = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+      .createTrade(VAL_DATE, Tenor.TENOR_10Y, BuySell.SELL, NOTIONAL, 0.025, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap OIS_USD_SEASONED = FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS
+      .createTrade(date(2013, 9, 16), Tenor.TENOR_2Y, BuySell.BUY, NOTIONAL, 0.004, REF_DATA)
+      .getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_KNOWN_AMOUNT =
+      ResolvedSwap.of(SwapDummyData.KNOWN_AMOUNT_SWAP_LEG, SwapDummyData.IBOR_SWAP_LEG_REC_GBP_MULTI);
+  private static final ResolvedTermDeposit DEPOSIT = TermDeposit.builder()
+      .buySell(BuySell.BUY)
+      .startDate(date(2014, 1, 24))
+      .endDate(date(2014, 7, 24))
+      .businessDayAdjustment(BusinessDayAdjustment.of(MODIFIED_FOLLOWING, GBLO))
+      .dayCount(ACT_365F)
+      .notional(NOTIONAL)
+      .currency(GBP)
+      .rate(0.0075)
+      .build()
+      .resolve(REF_DATA);
+  private static final List<ResolvedProduct> PRODUCTS = ImmutableList.of(
+      SWAP_GBP,
+      SWAP_GBP_SEASONED,
+      SWAP_USD,
+      OIS_USD_SEASONED,
+      SwapDummyData.SWAP,
+      SwapDummyData.SWAP_CROSS_CURRENCY,
+      SWAP_KNOWN_AMOUNT,
+      DEPOSIT,
+      SWAP_GBP);
+
+  private static final DiscountingCashFlowTablePricer PRICER = DiscountingCashFlowTablePricer.DEFAULT;
+  private static final DiscountingSwapProductPricer SWAP_PRICER = DiscountingSwapProductPricer.DEFAULT;
+  private static final DiscountingTermDepositProductPricer DEPOSIT_PRICER = DiscountingTermDepositProductPricer.DEFAULT;
+  private static final double TOLERANCE_PV = 1.0E-8;
+  private static final double TOLERANCE_PV_DELTA = 1.0E-6;
+
+  //-------------------------------------------------------------------------
+  public void test_table() {
+    CashFlowTable test = CashFlowTable.of(PRODUCTS);
+    assertEquals(test.getProductCount(), PRODUCTS.size());
+    assertEquals(test.getCurrencies(), ImmutableList.of(GBP, USD));
+    List<LocalDate> gbpDates = test.getPaymentDates(GBP);
+    for (int i = 1; i < gbpDates.size(); i++) {
+      assertTrue(gbpDates.get(i - 1).isBefore(gbpDates.get(i)));
+    }
+    assertTrue(gbpDates.containsAll(ImmutableList.of(DEPOSIT.getStartDate(), DEPOSIT.getEndDate())));
+    assertEquals(test.getPaymentDates(Currency.EUR), ImmutableList.of());
+    // the same swap twice does not add observations
+    CashFlowTable single = CashFlowTable.of(ImmutableList.of(SWAP_GBP));
+    CashFlowTable twice = CashFlowTable.of(ImmutableList.of(SWAP_GBP, SWAP_GBP));
+    assertEquals(twice.getObservations(), single.getObservations());
+    assertEquals(twice.getCashFlowCount(), 2 * single.getCashFlowCount());
+    assertEquals(single.getPaymentDates(GBP).size(), 20);
+    assertEquals(single.toString(), "CashFlowTable[products=1, cashFlows=25, currencies=[GBP], observations=20]");
+  }
+
+  public void test_table_unsupported() {
+    assertThrowsIllegalArg(() -> CashFlowTable.of(ImmutableList.of(SWAP_GBP, FraDummyData.FRA.resolve(REF_DATA))));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_presentValue() {
+    CashFlowTable table = CashFlowTable.of(PRODUCTS);
+    List<MultiCurrencyAmount> computed = PRICER.presentValue(table, PROVIDER);
+    assertEquals(computed.size(), PRODUCTS.size());
+    for (int i = 0; i < PRODUCTS.size(); i++) {
+      MultiCurrencyAmount expected = expectedPresentValue(PRODUCTS.get(i));
+      assertEquals(computed.get(i).getCurrencies(), expected.getCurrencies());
+      for (Currency currency : expected.getCurrencies()) {
+        assertEquals(
+            computed.get(i).getAmount(currency).getAmount(), expected.getAmount(currency).getAmount(), TOLERANCE_PV);
+      }
+    }
+  }
+
+  public void test_presentValue_afterPayments() {
+    // valuation after the first payments of the seasoned swap and after the deposit start
+    ImmutableRatesProvider provider = PROVIDER.toBuilder(date(2014, 3, 25)).build();
+    CashFlowTable table = CashFlowTable.of(ImmutableList.of(SWAP_GBP_SEASONED, DEPOSIT));
+    List<MultiCurrencyAmount> computed = PRICER.presentValue(table, provider);
+    assertEquals(computed.get(0).getAmount(GBP).getAmount(),
+        SWAP_PRICER.presentValue(SWAP_GBP_SEASONED, provider).getAmount(GBP).getAmount(), TOLERANCE_PV);
+    assertEquals(computed.get(1).getAmount(GBP).getAmount(),
+        DEPOSIT_PRICER.presentValue(DEPOSIT, provider).getAmount(), TOLERANCE_PV);
+  }
+
+  public void test_presentValueSensitivity() {
+    CashFlowTable table = CashFlowTable.of(PRODUCTS);
+    List<PointSensitivities> computed = PRICER.presentValueSensitivity(table, PROVIDER);
+    assertEquals(computed.size(), PRODUCTS.size());
+    for (int i = 0; i < PRODUCTS.size(); i++) {
+      PointSensitivities expected = expectedPresentValueSensitivity(PRODUCTS.get(i)).normalized();
+      assertTrue(computed.get(i).equalWithTolerance(expected, TOLERANCE_PV_DELTA));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static MultiCurrencyAmount expectedPresentValue(ResolvedProduct product) {
+    if (product instanceof ResolvedSwap) {
+      return SWAP_PRICER.presentValue((ResolvedSwap) product, PROVIDER);
+    }
+    return MultiCurrencyAmount.of(DEPOSIT_PRICER.presentValue((ResolvedTermDeposit) product, PROVIDER));
+  }
+
+  private static PointSensitivities expectedPresentValueSensitivity(ResolvedProduct product) {
+    if (product instanceof ResolvedSwap) {
+      return SWAP_PRICER.presentValueSensitivity((ResolvedSwap) product, PROVIDER).build();
+    }
+    return DEPOSIT_PRICER.presentValueSensitivity((ResolvedTermDeposit) product, PROVIDER);
+  }
+
+  // fixings on every weekday, including after the valuation date for the later valuation
+  private static LocalDateDoubleTimeSeries fixings(double rate) {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = date(2013, 1, 2); date.isBefore(date(2014, 6, 30)); date = date.plusDays(1)) {
+      if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+        builder.put(date, rate);
+      }
+    }
+    return builder.build();
+  }
+
+}
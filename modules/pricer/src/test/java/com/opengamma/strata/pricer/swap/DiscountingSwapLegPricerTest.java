@@ -74,6 +74,7 @@ import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
 import com.opengamma.strata.market.interpolator.CurveInterpolator;
 import com.opengamma.strata.market.interpolator.CurveInterpolators;
 import com.opengamma.strata.market.sensitivity.IborRateSensitivity;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.market.sensitivity.ZeroRateSensitivity;
@@ -368,6 +369,16 @@ public class DiscountingSwapLegPricerTest {
     assertTrue(res.equalWithTolerance(expected, TOLERANCE));
   }
 
+  public void test_presentValueSensitivity_accumulator() {
+    ResolvedSwapLeg expSwapLeg = IBOR_SWAP_LEG_REC_GBP;
+    PointSensitivities expected = PRICER_LEG.presentValueSensitivity(expSwapLeg, RATES_GBP).build();
+    ZeroRateSensitivity existing = ZeroRateSensitivity.of(GBP, RATES_GBP.getValuationDate(), 1d);
+    MutablePointSensitivities accumulator = new MutablePointSensitivities(existing);
+    PRICER_LEG.presentValueSensitivity(expSwapLeg, RATES_GBP, accumulator);
+    PointSensitivities res = accumulator.build().normalized();
+    assertTrue(res.equalWithTolerance(expected.combinedWith(existing.build()).normalized(), TOLERANCE));
+  }
+
   public void test_presentValueSensitivity_finiteDifference() {
     ResolvedSwapLeg expSwapLeg = IBOR_SWAP_LEG_REC_GBP;
     PointSensitivities point = PRICER_LEG.presentValueSensitivity(expSwapLeg, RATES_GBP).build();
@@ -0,0 +1,277 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swaption;
+
+import static com.opengamma.strata.basics.LongShort.LONG;
+import static com.opengamma.strata.basics.LongShort.SHORT;
+import static com.opengamma.strata.basics.PayReceive.PAY;
+import static com.opengamma.strata.basics.PayReceive.RECEIVE;
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.date.BusinessDayConventions.MODIFIED_FOLLOWING;
+import static com.opengamma.strata.basics.date.DayCounts.THIRTY_U_360;
+import static com.opengamma.strata.basics.index.IborIndices.EUR_EURIBOR_6M;
+import static com.opengamma.strata.basics.schedule.Frequency.P12M;
+import static com.opengamma.strata.basics.schedule.Frequency.P6M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.dateUtc;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.LongShort;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.DaysAdjustment;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
+import com.opengamma.strata.basics.date.HolidayCalendarIds;
+import com.opengamma.strata.basics.market.ReferenceData;
+import com.opengamma.strata.basics.schedule.PeriodicSchedule;
+import com.opengamma.strata.basics.schedule.RollConventions;
+import com.opengamma.strata.basics.schedule.StubConvention;
+import com.opengamma.strata.basics.value.ValueSchedule;
+import com.opengamma.strata.market.curve.CurveCurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloEngine;
+import com.opengamma.strata.pricer.index.HullWhiteIborFutureDataSet;
+import com.opengamma.strata.pricer.index.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.pricer.swap.PaymentEventPricer;
+import com.opengamma.strata.product.swap.FixedRateCalculation;
+import com.opengamma.strata.product.swap.IborRateCalculation;
+import com.opengamma.strata.product.swap.NotionalSchedule;
+import com.opengamma.strata.product.swap.PaymentSchedule;
+import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swap.SwapLeg;
+import com.opengamma.strata.product.swaption.CashSettlement;
+import com.opengamma.strata.product.swaption.CashSettlementMethod;
+import com.opengamma.strata.product.swaption.PhysicalSettlement;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+import com.opengamma.strata.product.swaption.Swaption;
+
+/**
+ * Test {@link HullWhiteMonteCarloSwaptionPhysicalProductPricer}.
+ */
+@Test
+public class HullWhiteMonteCarloSwaptionPhysicalProductPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final ZonedDateTime MATURITY = dateUtc(2016, 7, 7);
+  private static final HolidayCalendarId CALENDAR = HolidayCalendarIds.SAT_SUN;
+  private static final BusinessDayAdjustment BDA_MF = BusinessDayAdjustment.of(MODIFIED_FOLLOWING, CALENDAR);
+  private static final LocalDate SETTLE =
+      BDA_MF.adjust(CALENDAR.resolve(REF_DATA).shift(MATURITY.toLocalDate(), 2), REF_DATA);
+  private static final double NOTIONAL = 100000000; //100m
+  private static final int TENOR_YEAR = 5;
+  private static final LocalDate END = SETTLE.plusYears(TENOR_YEAR);
+  private static final double RATE = 0.0175;
+  private static final PeriodicSchedule PERIOD_FIXED = PeriodicSchedule.builder()
+      .startDate(SETTLE)
+      .endDate(END)
+      .frequency(P12M)
+      .businessDayAdjustment(BDA_MF)
+      .stubConvention(StubConvention.SHORT_FINAL)
+      .rollConvention(RollConventions.EOM)
+      .build();
+  private static final PaymentSchedule PAYMENT_FIXED = PaymentSchedule.builder()
+      .paymentFrequency(P12M)
+      .paymentDateOffset(DaysAdjustment.NONE)
+      .build();
+  private static final FixedRateCalculation RATE_FIXED = FixedRateCalculation.builder()
+      .dayCount(THIRTY_U_360)
+      .rate(ValueSchedule.of(RATE))
+      .build();
+  private static final PeriodicSchedule PERIOD_IBOR = PeriodicSchedule.builder()
+      .startDate(SETTLE)
+      .endDate(END)
+      .frequency(P6M)
+      .businessDayAdjustment(BDA_MF)
+      .stubConvention(StubConvention.SHORT_FINAL)
+      .rollConvention(RollConventions.EOM)
+      .build();
+  private static final PaymentSchedule PAYMENT_IBOR = PaymentSchedule.builder()
+      .paymentFrequency(P6M)
+      .paymentDateOffset(DaysAdjustment.NONE)
+      .build();
+  private static final IborRateCalculation RATE_IBOR = IborRateCalculation.builder()
+      .index(EUR_EURIBOR_6M)
+      .fixingDateOffset(DaysAdjustment.ofBusinessDays(-2, CALENDAR, BDA_MF))
+      .build();
+  private static final SwapLeg FIXED_LEG_REC = RateCalculationSwapLeg.builder()
+      .payReceive(RECEIVE)
+      .accrualSchedule(PERIOD_FIXED)
+      .paymentSchedule(PAYMENT_FIXED)
+      .notionalSchedule(NotionalSchedule.of(EUR, NOTIONAL))
+      .calculation(RATE_FIXED)
+      .build();
+  private static final SwapLeg FIXED_LEG_PAY = RateCalculationSwapLeg.builder()
+      .payReceive(PAY)
+      .accrualSchedule(PERIOD_FIXED)
+      .paymentSchedule(PAYMENT_FIXED)
+      .notionalSchedule(NotionalSchedule.of(EUR, NOTIONAL))
+      .calculation(RATE_FIXED)
+      .build();
+  private static final SwapLeg IBOR_LEG_REC = RateCalculationSwapLeg.builder()
+      .payReceive(RECEIVE)
+      .accrualSchedule(PERIOD_IBOR)
+      .paymentSchedule(PAYMENT_IBOR)
+      .notionalSchedule(NotionalSchedule.of(EUR, NOTIONAL))
+      .calculation(RATE_IBOR)
+      .build();
+  private static final SwapLeg IBOR_LEG_PAY = RateCalculationSwapLeg.builder()
+      .payReceive(PAY)
+      .accrualSchedule(PERIOD_IBOR)
+      .paymentSchedule(PAYMENT_IBOR)
+      .notionalSchedule(NotionalSchedule.of(EUR, NOTIONAL))
+      .calculation(RATE_IBOR)
+      .build();
+  private static final Swap SWAP_REC = Swap.of(FIXED_LEG_REC, IBOR_LEG_PAY);
+  private static final ResolvedSwap RSWAP_REC = SWAP_REC.resolve(REF_DATA);
+  private static final Swap SWAP_PAY = Swap.of(FIXED_LEG_PAY, IBOR_LEG_REC);
+  private static final ResolvedSwap RSWAP_PAY = SWAP_PAY.resolve(REF_DATA);
+  private static final CashSettlement PAR_YIELD = CashSettlement.builder()
+      .cashSettlementMethod(CashSettlementMethod.PAR_YIELD)
+      .settlementDate(SETTLE)
+      .build();
+  private static final ResolvedSwaption SWAPTION_REC_LONG = Swaption
+      .builder()
+      .expiryDate(AdjustableDate.of(MATURITY.toLocalDate(), BDA_MF))
+      .expiryTime(MATURITY.toLocalTime())
+      .expiryZone(MATURITY.getZone())
+      .swaptionSettlement(PhysicalSettlement.DEFAULT)
+      .longShort(LONG)
+      .underlying(SWAP_REC)
+      .build().
+      resolve(REF_DATA);
+  private static final ResolvedSwaption SWAPTION_REC_SHORT = Swaption
+      .builder()
+      .expiryDate(AdjustableDate.of(MATURITY.toLocalDate(), BDA_MF))
+      .expiryTime(MATURITY.toLocalTime())
+      .expiryZone(MATURITY.getZone())
+      .swaptionSettlement(PhysicalSettlement.DEFAULT)
+      .longShort(SHORT)
+      .underlying(SWAP_REC)
+      .build().
+      resolve(REF_DATA);
+  private static final ResolvedSwaption SWAPTION_PAY_LONG = Swaption
+      .builder()
+      .expiryDate(AdjustableDate.of(MATURITY.toLocalDate(), BDA_MF))
+      .expiryTime(MATURITY.toLocalTime())
+      .expiryZone(MATURITY.getZone())
+      .swaptionSettlement(PhysicalSettlement.DEFAULT)
+      .longShort(LONG)
+      .underlying(SWAP_PAY)
+      .build().
+      resolve(REF_DATA);
+  private static final ResolvedSwaption SWAPTION_PAY_SHORT = Swaption
+      .builder()
+      .expiryDate(AdjustableDate.of(MATURITY.toLocalDate(), BDA_MF))
+      .expiryTime(MATURITY.toLocalTime())
+      .expiryZone(MATURITY.getZone())
+      .swaptionSettlement(PhysicalSettlement.DEFAULT)
+      .longShort(SHORT)
+      .underlying(SWAP_PAY)
+      .build().
+      resolve(REF_DATA);
+  private static final ResolvedSwaption SWAPTION_CASH = Swaption.builder()
+      .expiryDate(AdjustableDate.of(MATURITY.toLocalDate()))
+      .expiryTime(MATURITY.toLocalTime())
+      .expiryZone(MATURITY.getZone())
+      .longShort(LongShort.LONG)
+      .swaptionSettlement(PAR_YIELD)
+      .underlying(SWAP_REC)
+      .build().
+      resolve(REF_DATA);
+
+  private static final LocalDate VALUATION = LocalDate.of(2011, 7, 7);
+  private static final HullWhiteOneFactorPiecewiseConstantParametersProvider HW_PROVIDER =
+      HullWhiteIborFutureDataSet.createHullWhiteProvider(VALUATION);
+  private static final HullWhiteOneFactorPiecewiseConstantParametersProvider HW_PROVIDER_AT_MATURITY =
+      HullWhiteIborFutureDataSet.createHullWhiteProvider(MATURITY.toLocalDate());
+  private static final HullWhiteOneFactorPiecewiseConstantParametersProvider HW_PROVIDER_AFTER_MATURITY =
+      HullWhiteIborFutureDataSet.createHullWhiteProvider(MATURITY.toLocalDate().plusDays(1));
+  private static final ImmutableRatesProvider RATE_PROVIDER = HullWhiteIborFutureDataSet.createRatesProvider(VALUATION);
+  private static final ImmutableRatesProvider RATES_PROVIDER_AT_MATURITY = HullWhiteIborFutureDataSet
+      .createRatesProvider(MATURITY.toLocalDate());
+  private static final ImmutableRatesProvider RATES_PROVIDER_AFTER_MATURITY = HullWhiteIborFutureDataSet
+      .createRatesProvider(MATURITY.toLocalDate().plusDays(1));
+
+  private static final double TOL = 1.0e-12;
+  private static final double TOL_MC = 2.0e-5;
+  private static final HullWhiteMonteCarloSwaptionPhysicalProductPricer PRICER =
+      HullWhiteMonteCarloSwaptionPhysicalProductPricer.DEFAULT;
+  private static final HullWhiteSwaptionPhysicalProductPricer PRICER_CLOSED_FORM =
+      HullWhiteSwaptionPhysicalProductPricer.DEFAULT;
+  private static final DiscountingSwapProductPricer SWAP_PRICER = DiscountingSwapProductPricer.DEFAULT;
+
+  //-------------------------------------------------------------------------
+  public void validate_physical_settlement() {
+    assertThrowsIllegalArg(() -> PRICER.presentValue(SWAPTION_CASH, RATE_PROVIDER, HW_PROVIDER));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_presentValue() {
+    ResolvedSwaption[] swaptions = {SWAPTION_REC_LONG, SWAPTION_REC_SHORT, SWAPTION_PAY_LONG, SWAPTION_PAY_SHORT};
+    for (ResolvedSwaption swaption : swaptions) {
+      CurrencyAmount computed = PRICER.presentValue(swaption, RATE_PROVIDER, HW_PROVIDER);
+      CurrencyAmount expected = PRICER_CLOSED_FORM.presentValue(swaption, RATE_PROVIDER, HW_PROVIDER);
+      assertEquals(computed.getCurrency(), EUR);
+      assertEquals(computed.getAmount(), expected.getAmount(), NOTIONAL * TOL_MC);
+      assertEquals(PRICER.currencyExposure(swaption, RATE_PROVIDER, HW_PROVIDER), MultiCurrencyAmount.of(computed));
+    }
+  }
+
+  public void test_presentValue_antithetic() {
+    HullWhiteMonteCarloSwaptionPhysicalProductPricer pricer = new HullWhiteMonteCarloSwaptionPhysicalProductPricer(
+        PaymentEventPricer.instance(), HullWhiteMonteCarloEngine.ofAntithetic(100000, 1L));
+    CurrencyAmount computed = pricer.presentValue(SWAPTION_PAY_LONG, RATE_PROVIDER, HW_PROVIDER);
+    CurrencyAmount expected = PRICER_CLOSED_FORM.presentValue(SWAPTION_PAY_LONG, RATE_PROVIDER, HW_PROVIDER);
+    assertEquals(computed.getAmount(), expected.getAmount(), NOTIONAL * 10d * TOL_MC);
+  }
+
+  public void test_presentValue_atMaturity() {
+    CurrencyAmount computedRec =
+        PRICER.presentValue(SWAPTION_REC_LONG, RATES_PROVIDER_AT_MATURITY, HW_PROVIDER_AT_MATURITY);
+    CurrencyAmount computedPay =
+        PRICER.presentValue(SWAPTION_PAY_SHORT, RATES_PROVIDER_AT_MATURITY, HW_PROVIDER_AT_MATURITY);
+    double swapPv = SWAP_PRICER.presentValue(RSWAP_REC, RATES_PROVIDER_AT_MATURITY).getAmount(EUR).getAmount();
+    assertEquals(computedRec.getAmount(), swapPv, NOTIONAL * TOL);
+    assertEquals(computedPay.getAmount(), 0d, NOTIONAL * TOL);
+  }
+
+  public void test_presentValue_afterExpiry() {
+    CurrencyAmount computed =
+        PRICER.presentValue(SWAPTION_REC_LONG, RATES_PROVIDER_AFTER_MATURITY, HW_PROVIDER_AFTER_MATURITY);
+    assertEquals(computed.getAmount(), 0d, NOTIONAL * TOL);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_presentValueSensitivity() {
+    ResolvedSwaption[] swaptions = {SWAPTION_REC_LONG, SWAPTION_PAY_SHORT};
+    for (ResolvedSwaption swaption : swaptions) {
+      PointSensitivityBuilder point = PRICER.presentValueSensitivity(swaption, RATE_PROVIDER, HW_PROVIDER);
+      CurveCurrencyParameterSensitivities computed = RATE_PROVIDER.curveParameterSensitivity(point.build());
+      CurveCurrencyParameterSensitivities expected = RATE_PROVIDER.curveParameterSensitivity(
+          PRICER_CLOSED_FORM.presentValueSensitivity(swaption, RATE_PROVIDER, HW_PROVIDER).build());
+      assertTrue(computed.equalWithTolerance(expected, NOTIONAL * TOL_MC * 10d));
+    }
+  }
+
+  public void test_presentValueSensitivity_afterExpiry() {
+    PointSensitivityBuilder point =
+        PRICER.presentValueSensitivity(SWAPTION_REC_LONG, RATES_PROVIDER_AFTER_MATURITY, HW_PROVIDER_AFTER_MATURITY);
+    assertEquals(point, PointSensitivityBuilder.none());
+  }
+
+}
@@ -28,6 +28,7 @@ import com.opengamma.strata.basics.Trade;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.runner.Results;
+import com.opengamma.strata.calc.runner.ResultsFile;
 import org.joda.beans.BeanBuilder;
 
 /**
@@ -104,6 +105,30 @@ public final class ReportCalculationResults implements ImmutableBean {
     return new ReportCalculationResults(valuationDate, trades, columns, calculationResults, refData);
   }
 
+  /**
+   * Obtains an instance from the valuation date, trades, columns, a file of results and reference data.
+   * <p>
+   * The results are read from the file as they are used, one column at a time, see {@link ResultsFile#toResults()}.
+   * The report runners access the results column by column, so the results are streamed from the file
+   * rather than held in memory.
+   *
+   * @param valuationDate  the valuation date used in the calculations
+   * @param trades  the trades for which the results were calculated
+   * @param columns  the columns in the results
+   * @param resultsFile  the file containing the results of the calculations
+   * @param refData  the reference data used in the calculation
+   * @return the results
+   */
+  public static ReportCalculationResults of(
+      LocalDate valuationDate,
+      List<Trade> trades,
+      List<Column> columns,
+      ResultsFile resultsFile,
+      ReferenceData refData) {
+
+    return new ReportCalculationResults(valuationDate, trades, columns, resultsFile.toResults(), refData);
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
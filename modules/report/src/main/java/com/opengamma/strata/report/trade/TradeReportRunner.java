@@ -27,6 +27,9 @@ import com.opengamma.strata.report.framework.expression.ValuePathEvaluator;
  * Trade reports are driven by a {@linkplain TradeReportTemplate trade report template}.
  * The resulting report is a table containing one row per trade, and the requested columns each
  * showing a value for that trade.
+ * <p>
+ * The report is evaluated column by column, so results read from a
+ * {@linkplain com.opengamma.strata.calc.runner.ResultsFile results file} are streamed from the file.
  */
 public class TradeReportRunner
     implements ReportRunner<TradeReportTemplate> {
@@ -14,6 +14,9 @@ import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.testng.Assert.assertEquals;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 import org.testng.annotations.Test;
@@ -24,11 +27,18 @@ import com.opengamma.strata.basics.date.AdjustableDate;
 import com.opengamma.strata.basics.market.ReferenceData;
 import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.config.Measures;
+import com.opengamma.strata.calc.runner.CalculationResult;
 import com.opengamma.strata.calc.runner.Results;
+import com.opengamma.strata.calc.runner.ResultsFileListener;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.product.TradeInfo;
 import com.opengamma.strata.product.fra.Fra;
 import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.report.trade.TradeReport;
+import com.opengamma.strata.report.trade.TradeReportColumn;
+import com.opengamma.strata.report.trade.TradeReportRunner;
+import com.opengamma.strata.report.trade.TradeReportTemplate;
 
 /**
  * Test {@link ReportCalculationResults}.
@@ -59,6 +69,7 @@ public class ReportCalculationResultsTest {
   private static final Column COLUMN = Column.of(Measures.PRESENT_VALUE);
   private static final Column COLUMN2 = Column.of(Measures.PAR_RATE);
   private static final CurrencyAmount PV = CurrencyAmount.of(GBP, 12);
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
 
   //-------------------------------------------------------------------------
   public void test_of() {
@@ -70,6 +81,41 @@ public class ReportCalculationResultsTest {
     assertEquals(test.getReferenceData(), ReferenceData.standard());
   }
 
+  public void test_of_resultsFile() throws IOException {
+    Path file = Files.createTempFile("results", ".bin");
+    try {
+      ResultsFileListener listener = ResultsFileListener.of(file, 2);
+      listener.resultReceived(TRADE, CalculationResult.of(0, 0, Result.success(PV)));
+      listener.resultReceived(TRADE2, CalculationResult.of(1, 1, Result.success(0.02d)));
+      listener.resultReceived(TRADE2, CalculationResult.of(1, 0, Result.success(PV.negated())));
+      listener.resultReceived(TRADE, CalculationResult.of(0, 1, Result.failure(FailureReason.MISSING_DATA, "Missing")));
+      listener.calculationsComplete();
+
+      ReportCalculationResults test = ReportCalculationResults.of(
+          VAL_DATE, ImmutableList.of(TRADE, TRADE2), ImmutableList.of(COLUMN, COLUMN2), listener.result(), REF_DATA);
+      Results expected = Results.of(2, 2, ImmutableList.of(
+          Result.success(PV),
+          Result.failure(FailureReason.MISSING_DATA, "Missing"),
+          Result.success(PV.negated()),
+          Result.success(0.02d)));
+      assertEquals(test.getCalculationResults().get(1, 0), expected.get(1, 0));
+      assertEquals(test.getCalculationResults().get(1, 1), expected.get(1, 1));
+
+      TradeReportTemplate template = TradeReportTemplate.builder()
+          .columns(
+              TradeReportColumn.builder().header("PV").value("Measures.PresentValue").build(),
+              TradeReportColumn.builder().header("Par Rate").value("Measures.ParRate").build())
+          .build();
+      TradeReport report = TradeReportRunner.INSTANCE.runReport(test, template);
+      assertEquals(report.getData().get(0, 0), Result.success(PV));
+      assertEquals(report.getData().get(1, 0), Result.success(PV.negated()));
+      assertEquals(report.getData().get(0, 1).getFailure().getReason(), FailureReason.MISSING_DATA);
+      assertEquals(report.getData().get(1, 1), Result.success(0.02d));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverImmutableBean(sut());